@@ -0,0 +1,471 @@
+package org.jfree.data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An ordered list of (key, value) items that maintains its running totals
+ * incrementally, for charts (such as Pareto charts) that need cumulative
+ * percentages of data that changes often.
+ * <P>
+ * The running totals are held in a Fenwick (binary indexed) tree, so
+ * changing a value, adding an item at the end of the list, and reading a
+ * cumulative total or percentage all take O(log n) time, where
+ * {@link DataUtilities#getCumulativePercentages(KeyedValues)} takes O(n)
+ * time and creates a new {@link DefaultKeyedValues} on every call.  Keys
+ * are found through a hash map in O(1) time.  Removing an item takes O(n)
+ * time, because the items after it move down one place, and so does a
+ * change to or from an infinite or <code>NaN</code> value (the difference
+ * between the values is not finite, so it cannot be added to the tree).
+ * <P>
+ * The cumulative percentages (see {@link #getCumulativePercentages()})
+ * follow the same contract as
+ * {@link DataUtilities#getCumulativePercentages(KeyedValues)}:  item
+ * <code>i</code> maps to the total of the values for items
+ * <code>0</code> to <code>i</code> divided by the total of all values,
+ * and <code>null</code> values count as zero (but their keys are kept).
+ * Because the tree adds values in a different order to a plain loop, the
+ * results can differ from that method in the last few bits.
+ * <P>
+ * Instances of this class are not thread-safe.
+ */
+public class CumulativeKeyedValues implements KeyedValues, Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 8061617361532931706L;
+
+    /** The initial capacity. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** The keys, in order. */
+    private List keys;
+
+    /** A map from key to item index. */
+    private Map indexMap;
+
+    /** The values (zero where the value is <code>null</code>). */
+    private double[] values;
+
+    /** Flags for the items that have a <code>null</code> value. */
+    private boolean[] nulls;
+
+    /** The Fenwick tree (one-based, element 0 unused). */
+    private double[] tree;
+
+    /** The number of value changes since the tree was last rebuilt. */
+    private int updatesSinceRebuild;
+
+    /**
+     * Creates a new empty instance.
+     */
+    public CumulativeKeyedValues() {
+        this.keys = new ArrayList();
+        this.indexMap = new HashMap();
+        this.values = new double[INITIAL_CAPACITY];
+        this.nulls = new boolean[INITIAL_CAPACITY];
+        this.tree = new double[INITIAL_CAPACITY + 1];
+    }
+
+    /**
+     * Creates a new instance containing the items from a
+     * {@link KeyedValues} instance, in O(n) time.
+     *
+     * @param source  the source data (<code>null</code> not permitted).
+     */
+    public CumulativeKeyedValues(KeyedValues source) {
+        if (source == null) {
+            throw new IllegalArgumentException("Null 'source' argument.");
+        }
+        int count = source.getItemCount();
+        int capacity = Math.max(INITIAL_CAPACITY, count);
+        this.keys = new ArrayList(capacity);
+        this.indexMap = new HashMap(capacity * 2);
+        this.values = new double[capacity];
+        this.nulls = new boolean[capacity];
+        this.tree = new double[capacity + 1];
+        for (int i = 0; i < count; i++) {
+            Comparable key = source.getKey(i);
+            if (this.indexMap.put(key, Integer.valueOf(i)) != null) {
+                throw new IllegalArgumentException("Duplicate key " + key
+                        + " in 'source'.");
+            }
+            this.keys.add(key);
+            store(i, source.getValue(i));
+        }
+        rebuild();
+    }
+
+    /**
+     * Returns the number of items.
+     *
+     * @return The item count.
+     */
+    public int getItemCount() {
+        return this.keys.size();
+    }
+
+    /**
+     * Returns the value for an item.
+     *
+     * @param item  the item index (zero-based).
+     *
+     * @return The value (possibly <code>null</code>).
+     */
+    public Number getValue(int item) {
+        checkIndex(item);
+        return this.nulls[item] ? null : Double.valueOf(this.values[item]);
+    }
+
+    /**
+     * Returns the key for an item.
+     *
+     * @param index  the item index (zero-based).
+     *
+     * @return The key.
+     */
+    public Comparable getKey(int index) {
+        return (Comparable) this.keys.get(index);
+    }
+
+    /**
+     * Returns the index for a key, in O(1) time.
+     *
+     * @param key  the key.
+     *
+     * @return The index, or <code>-1</code> if the key is not recognised.
+     */
+    public int getIndex(Comparable key) {
+        Integer index = (Integer) this.indexMap.get(key);
+        return index != null ? index.intValue() : -1;
+    }
+
+    /**
+     * Returns the keys, in order.
+     *
+     * @return An unmodifiable list of keys.
+     */
+    public List getKeys() {
+        return Collections.unmodifiableList(this.keys);
+    }
+
+    /**
+     * Returns the value for a key.
+     *
+     * @param key  the key.
+     *
+     * @return The value (possibly <code>null</code>).
+     *
+     * @throws UnknownKeyException if the key is not recognised.
+     */
+    public Number getValue(Comparable key) {
+        return getValue(indexOfKnownKey(key));
+    }
+
+    /**
+     * Sets the value for a key, in O(log n) time.  If the key is not
+     * already present, a new item is added at the end of the list.
+     *
+     * @param key  the key (<code>null</code> not permitted).
+     * @param value  the value (<code>null</code> permitted).
+     */
+    public void setValue(Comparable key, Number value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null 'key' argument.");
+        }
+        int index = getIndex(key);
+        if (index >= 0) {
+            double old = this.values[index];
+            store(index, value);
+            double delta = this.values[index] - old;
+            if (Double.isNaN(delta) || Double.isInfinite(delta)) {
+                rebuild();
+            }
+            else if (delta != 0.0) {
+                for (int i = index + 1; i <= this.keys.size();
+                        i += i & (-i)) {
+                    this.tree[i] += delta;
+                }
+                // each update adds a little rounding error to the tree, so
+                // rebuild it now and then (amortised O(1) per update)
+                if (++this.updatesSinceRebuild > this.keys.size()) {
+                    rebuild();
+                }
+            }
+            return;
+        }
+        index = this.keys.size();
+        ensureCapacity(index + 1);
+        this.keys.add(key);
+        this.indexMap.put(key, Integer.valueOf(index));
+        store(index, value);
+        // node i covers the items (i - lowbit(i), i], which are the new
+        // value and the nodes below it (added up rather than found as the
+        // difference of two prefix sums, which is NaN after an infinite
+        // value)
+        int i = index + 1;
+        double sum = this.values[index];
+        for (int j = i - 1; j > i - (i & (-i)); j -= j & (-j)) {
+            sum += this.tree[j];
+        }
+        this.tree[i] = sum;
+    }
+
+    /**
+     * Sets the value for a key.
+     *
+     * @param key  the key (<code>null</code> not permitted).
+     * @param value  the value.
+     */
+    public void setValue(Comparable key, double value) {
+        setValue(key, Double.valueOf(value));
+    }
+
+    /**
+     * Removes the item for a key, in O(n) time.
+     *
+     * @param key  the key.
+     *
+     * @throws UnknownKeyException if the key is not recognised.
+     */
+    public void removeValue(Comparable key) {
+        int index = indexOfKnownKey(key);
+        int count = this.keys.size();
+        this.keys.remove(index);
+        this.indexMap.remove(key);
+        System.arraycopy(this.values, index + 1, this.values, index,
+                count - index - 1);
+        System.arraycopy(this.nulls, index + 1, this.nulls, index,
+                count - index - 1);
+        for (int i = index; i < count - 1; i++) {
+            this.indexMap.put(this.keys.get(i), Integer.valueOf(i));
+        }
+        rebuild();
+    }
+
+    /**
+     * Returns the total of all the values, in O(log n) time.
+     *
+     * @return The total.
+     */
+    public double getTotal() {
+        return prefixSum(this.keys.size());
+    }
+
+    /**
+     * Returns the total of the values for items <code>0</code> to
+     * <code>item</code>, in O(log n) time.
+     *
+     * @param item  the item index (zero-based).
+     *
+     * @return The cumulative total.
+     */
+    public double getCumulativeTotal(int item) {
+        checkIndex(item);
+        return prefixSum(item + 1);
+    }
+
+    /**
+     * Returns the cumulative percentage for an item, in O(log n) time.
+     *
+     * @param item  the item index (zero-based).
+     *
+     * @return The cumulative percentage (as a fraction, 1.0 for the last
+     *         item).
+     */
+    public double getCumulativePercentage(int item) {
+        return getCumulativeTotal(item) / getTotal();
+    }
+
+    /**
+     * Returns the cumulative percentage for a key, in O(log n) time.
+     *
+     * @param key  the key.
+     *
+     * @return The cumulative percentage (as a fraction).
+     *
+     * @throws UnknownKeyException if the key is not recognised.
+     */
+    public double getCumulativePercentage(Comparable key) {
+        return getCumulativePercentage(indexOfKnownKey(key));
+    }
+
+    /**
+     * Returns a live view of the cumulative percentages.  The view has the
+     * same keys as this instance, and computes each value when it is
+     * requested, so it always reflects the current data.
+     *
+     * @return The view.
+     */
+    public KeyedValues getCumulativePercentages() {
+        return new PercentageView();
+    }
+
+    /**
+     * Stores a value.
+     *
+     * @param index  the item index.
+     * @param value  the value (<code>null</code> permitted).
+     */
+    private void store(int index, Number value) {
+        this.nulls[index] = value == null;
+        this.values[index] = value != null ? value.doubleValue() : 0.0;
+    }
+
+    /**
+     * Returns the sum of the first <code>count</code> values.
+     *
+     * @param count  the number of values.
+     *
+     * @return The sum.
+     */
+    private double prefixSum(int count) {
+        double sum = 0.0;
+        for (int i = count; i > 0; i -= i & (-i)) {
+            sum += this.tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Rebuilds the tree from the values in O(n) time.
+     */
+    private void rebuild() {
+        int n = this.keys.size();
+        double[] t = this.tree;
+        for (int i = 1; i <= n; i++) {
+            t[i] = this.values[i - 1];
+        }
+        for (int i = 1; i <= n; i++) {
+            int parent = i + (i & (-i));
+            if (parent <= n) {
+                t[parent] += t[i];
+            }
+        }
+        this.updatesSinceRebuild = 0;
+    }
+
+    /**
+     * Makes sure that the arrays can hold the given number of items.
+     *
+     * @param count  the number of items.
+     */
+    private void ensureCapacity(int count) {
+        if (count <= this.values.length) {
+            return;
+        }
+        int capacity = Math.max(count, this.values.length * 2);
+        double[] v = new double[capacity];
+        System.arraycopy(this.values, 0, v, 0, this.keys.size());
+        this.values = v;
+        boolean[] b = new boolean[capacity];
+        System.arraycopy(this.nulls, 0, b, 0, this.keys.size());
+        this.nulls = b;
+        double[] t = new double[capacity + 1];
+        System.arraycopy(this.tree, 0, t, 0, this.keys.size() + 1);
+        this.tree = t;
+    }
+
+    /**
+     * Checks an item index.
+     *
+     * @param item  the item index.
+     */
+    private void checkIndex(int item) {
+        if (item < 0 || item >= this.keys.size()) {
+            throw new IndexOutOfBoundsException("Index " + item
+                    + " out of range.");
+        }
+    }
+
+    /**
+     * Returns the index for a key that must be present.
+     *
+     * @param key  the key.
+     *
+     * @return The index.
+     */
+    private int indexOfKnownKey(Comparable key) {
+        int index = getIndex(key);
+        if (index < 0) {
+            throw new UnknownKeyException("Key not found: " + key);
+        }
+        return index;
+    }
+
+    /**
+     * A read-only view of the cumulative percentages.
+     */
+    private class PercentageView implements KeyedValues, Serializable {
+
+        /** For serialization. */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Returns the number of items.
+         *
+         * @return The item count.
+         */
+        public int getItemCount() {
+            return CumulativeKeyedValues.this.getItemCount();
+        }
+
+        /**
+         * Returns the cumulative percentage for an item.
+         *
+         * @param item  the item index (zero-based).
+         *
+         * @return The cumulative percentage.
+         */
+        public Number getValue(int item) {
+            return Double.valueOf(getCumulativePercentage(item));
+        }
+
+        /**
+         * Returns the key for an item.
+         *
+         * @param index  the item index (zero-based).
+         *
+         * @return The key.
+         */
+        public Comparable getKey(int index) {
+            return CumulativeKeyedValues.this.getKey(index);
+        }
+
+        /**
+         * Returns the index for a key.
+         *
+         * @param key  the key.
+         *
+         * @return The index, or <code>-1</code>.
+         */
+        public int getIndex(Comparable key) {
+            return CumulativeKeyedValues.this.getIndex(key);
+        }
+
+        /**
+         * Returns the keys.
+         *
+         * @return The keys.
+         */
+        public List getKeys() {
+            return CumulativeKeyedValues.this.getKeys();
+        }
+
+        /**
+         * Returns the cumulative percentage for a key.
+         *
+         * @param key  the key.
+         *
+         * @return The cumulative percentage.
+         */
+        public Number getValue(Comparable key) {
+            return Double.valueOf(getCumulativePercentage(key));
+        }
+
+    }
+
+}
@@ -0,0 +1,153 @@
+package org.jfree.data;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * A view of a primitive <code>double[]</code> as a list of {@link Number}
+ * objects, and as a {@link Values} instance.  This is an alternative to
+ * {@link DataUtilities#createNumberArray(double[])} that does not copy the
+ * array:  each element is boxed only when it is read, and whole numbers
+ * between -128 and 127 are returned from a shared cache.
+ * <P>
+ * The view writes through to the array, so changes made with
+ * {@link #set(int, Number)} are visible in the array and changes to the
+ * array are visible in the view.  The view cannot change size.
+ */
+public class DoubleArrayValues extends AbstractList<Number>
+        implements Values, RandomAccess, Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -4563251862103524751L;
+
+    /** The smallest cached value. */
+    private static final int CACHE_LOW = -128;
+
+    /** The largest cached value. */
+    private static final int CACHE_HIGH = 127;
+
+    /** The bit pattern for negative zero (which is never cached). */
+    private static final long NEGATIVE_ZERO_BITS
+            = Double.doubleToRawLongBits(-0.0);
+
+    /** Shared instances for small whole numbers. */
+    private static final Double[] CACHE
+            = new Double[CACHE_HIGH - CACHE_LOW + 1];
+
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = Double.valueOf(i + CACHE_LOW);
+        }
+    }
+
+    /** The array. */
+    private double[] data;
+
+    /**
+     * Creates a new view of an array.
+     *
+     * @param data  the array (<code>null</code> not permitted).
+     */
+    public DoubleArrayValues(double[] data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Null 'data' argument.");
+        }
+        this.data = data;
+    }
+
+    /**
+     * Returns a {@link Double} for a value, using a shared instance for
+     * small whole numbers.
+     *
+     * @param value  the value.
+     *
+     * @return The boxed value (never <code>null</code>).
+     */
+    public static Double valueOf(double value) {
+        int i = (int) value;
+        if (i == value && i >= CACHE_LOW && i <= CACHE_HIGH
+                && Double.doubleToRawLongBits(value) != NEGATIVE_ZERO_BITS) {
+            return CACHE[i - CACHE_LOW];
+        }
+        return Double.valueOf(value);
+    }
+
+    /**
+     * Returns the underlying array (not a copy).
+     *
+     * @return The array.
+     */
+    public double[] getData() {
+        return this.data;
+    }
+
+    /**
+     * Returns the number of items in the view.
+     *
+     * @return The item count.
+     */
+    public int getItemCount() {
+        return this.data.length;
+    }
+
+    /**
+     * Returns a value as a {@link Number}.
+     *
+     * @param item  the item index (zero-based).
+     *
+     * @return The value (never <code>null</code>).
+     */
+    public Number getValue(int item) {
+        return valueOf(this.data[item]);
+    }
+
+    /**
+     * Returns a value as a primitive.
+     *
+     * @param item  the item index (zero-based).
+     *
+     * @return The value.
+     */
+    public double getDoubleValue(int item) {
+        return this.data[item];
+    }
+
+    /**
+     * Returns the number of items in the view.
+     *
+     * @return The item count.
+     */
+    public int size() {
+        return this.data.length;
+    }
+
+    /**
+     * Returns a value as a {@link Number}.
+     *
+     * @param index  the item index (zero-based).
+     *
+     * @return The value (never <code>null</code>).
+     */
+    public Number get(int index) {
+        return valueOf(this.data[index]);
+    }
+
+    /**
+     * Sets a value in the underlying array.
+     *
+     * @param index  the item index (zero-based).
+     * @param value  the value (<code>null</code> not permitted).
+     *
+     * @return The previous value.
+     */
+    public Number set(int index, Number value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null 'value' argument.");
+        }
+        double old = this.data[index];
+        this.data[index] = value.doubleValue();
+        return valueOf(old);
+    }
+
+}
@@ -0,0 +1,355 @@
+package org.jfree.data;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A {@link Values2D} implementation that stores its values in a single
+ * primitive array in row-major order.  Missing values are stored as
+ * <code>NaN</code> and reported as <code>null</code> by
+ * {@link #getValue(int, int)}.
+ * <P>
+ * The {@link #getRowTotal(int)} and {@link #getColumnTotal(int)} methods
+ * read the primitive array directly, so they do not create a
+ * {@link Number} for each cell.  They return the same totals as
+ * {@link DataUtilities#calculateRowTotal(Values2D, int)} and
+ * {@link DataUtilities#calculateColumnTotal(Values2D, int)}, adding the
+ * non-<code>null</code> values in the same order.
+ */
+public class DoubleMatrixValues2D implements Values2D, Cloneable,
+        Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -3710298874105247512L;
+
+    /** The number of rows. */
+    private int rowCount;
+
+    /** The number of columns. */
+    private int columnCount;
+
+    /** The values, in row-major order (<code>NaN</code> for missing). */
+    private double[] data;
+
+    /**
+     * Creates a new matrix with every value missing.
+     *
+     * @param rowCount  the number of rows (zero or more).
+     * @param columnCount  the number of columns (zero or more).
+     */
+    public DoubleMatrixValues2D(int rowCount, int columnCount) {
+        this(rowCount, columnCount, newMissingData(rowCount, columnCount));
+    }
+
+    /**
+     * Creates a new matrix that wraps an existing array.  The array is not
+     * copied, so changes to it are visible through the matrix.
+     *
+     * @param rowCount  the number of rows (zero or more).
+     * @param columnCount  the number of columns (zero or more).
+     * @param data  the values in row-major order, with <code>NaN</code>
+     *              for missing values (<code>null</code> not permitted,
+     *              length must be <code>rowCount * columnCount</code>).
+     */
+    public DoubleMatrixValues2D(int rowCount, int columnCount,
+            double[] data) {
+        if (rowCount < 0 || columnCount < 0) {
+            throw new IllegalArgumentException(
+                    "Negative 'rowCount' or 'columnCount' argument.");
+        }
+        if (data == null) {
+            throw new IllegalArgumentException("Null 'data' argument.");
+        }
+        if ((long) rowCount * columnCount != data.length) {
+            throw new IllegalArgumentException("Array 'data' has length "
+                    + data.length + " but the matrix has " + rowCount + " x "
+                    + columnCount + " cells.");
+        }
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        this.data = data;
+    }
+
+    /**
+     * Creates a new matrix holding a copy of the values in a
+     * two-dimensional array.
+     *
+     * @param values  the values, indexed as <code>values[row][column]</code>
+     *                (<code>null</code> not permitted, all rows must have
+     *                the same length).
+     *
+     * @return The matrix.
+     */
+    public static DoubleMatrixValues2D fromArray(double[][] values) {
+        if (values == null) {
+            throw new IllegalArgumentException("Null 'values' argument.");
+        }
+        int rows = values.length;
+        int columns = rows > 0 ? values[0].length : 0;
+        checkCellCount(rows, columns);
+        double[] data = new double[rows * columns];
+        for (int r = 0; r < rows; r++) {
+            if (values[r].length != columns) {
+                throw new IllegalArgumentException("Row " + r
+                        + " has a different length to row 0.");
+            }
+            System.arraycopy(values[r], 0, data, r * columns, columns);
+        }
+        return new DoubleMatrixValues2D(rows, columns, data);
+    }
+
+    /**
+     * Creates a new matrix with the values from any {@link Values2D}
+     * instance (<code>null</code> values are stored as missing).
+     *
+     * @param source  the source (<code>null</code> not permitted).
+     *
+     * @return The matrix.
+     */
+    public static DoubleMatrixValues2D copyOf(Values2D source) {
+        if (source == null) {
+            throw new IllegalArgumentException("Null 'source' argument.");
+        }
+        int rows = source.getRowCount();
+        int columns = source.getColumnCount();
+        checkCellCount(rows, columns);
+        double[] data = new double[rows * columns];
+        int i = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                Number n = source.getValue(r, c);
+                data[i++] = n != null ? n.doubleValue() : Double.NaN;
+            }
+        }
+        return new DoubleMatrixValues2D(rows, columns, data);
+    }
+
+    /**
+     * Returns a new array with every value set to <code>NaN</code>.
+     *
+     * @param rowCount  the number of rows.
+     * @param columnCount  the number of columns.
+     *
+     * @return The array.
+     */
+    private static double[] newMissingData(int rowCount, int columnCount) {
+        if (rowCount < 0 || columnCount < 0) {
+            throw new IllegalArgumentException(
+                    "Negative 'rowCount' or 'columnCount' argument.");
+        }
+        checkCellCount(rowCount, columnCount);
+        double[] result = new double[rowCount * columnCount];
+        Arrays.fill(result, Double.NaN);
+        return result;
+    }
+
+    /**
+     * Checks that a matrix with the given dimensions fits in a single array.
+     *
+     * @param rowCount  the number of rows.
+     * @param columnCount  the number of columns.
+     */
+    private static void checkCellCount(int rowCount, int columnCount) {
+        if ((long) rowCount * columnCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A matrix of " + rowCount
+                    + " x " + columnCount + " cells is too large.");
+        }
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return The row count.
+     */
+    public int getRowCount() {
+        return this.rowCount;
+    }
+
+    /**
+     * Returns the number of columns.
+     *
+     * @return The column count.
+     */
+    public int getColumnCount() {
+        return this.columnCount;
+    }
+
+    /**
+     * Returns a value.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The value (possibly <code>null</code>).
+     */
+    public Number getValue(int row, int column) {
+        double v = this.data[indexOf(row, column)];
+        return Double.isNaN(v) ? null : Double.valueOf(v);
+    }
+
+    /**
+     * Returns a value as a primitive.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The value (<code>NaN</code> for a missing value).
+     */
+    public double getDoubleValue(int row, int column) {
+        return this.data[indexOf(row, column)];
+    }
+
+    /**
+     * Sets a value.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     * @param value  the value (<code>NaN</code> for a missing value).
+     */
+    public void setValue(int row, int column, double value) {
+        this.data[indexOf(row, column)] = value;
+    }
+
+    /**
+     * Sets a value.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     * @param value  the value (<code>null</code> for a missing value).
+     */
+    public void setValue(int row, int column, Number value) {
+        this.data[indexOf(row, column)] = value != null ? value.doubleValue()
+                : Double.NaN;
+    }
+
+    /**
+     * Returns the total of the values in one row, skipping missing values.
+     *
+     * @param row  the row index (zero-based).
+     *
+     * @return The total.
+     */
+    public double getRowTotal(int row) {
+        if (row < 0 || row >= this.rowCount) {
+            throw new IndexOutOfBoundsException("Row index " + row
+                    + " out of range.");
+        }
+        double[] d = this.data;
+        int start = row * this.columnCount;
+        int end = start + this.columnCount;
+        double total = 0.0;
+        for (int i = start; i < end; i++) {
+            double v = d[i];
+            if (v == v) {  // skip NaN (missing)
+                total += v;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Returns the total of the values in one column, skipping missing
+     * values.
+     *
+     * @param column  the column index (zero-based).
+     *
+     * @return The total.
+     */
+    public double getColumnTotal(int column) {
+        if (column < 0 || column >= this.columnCount) {
+            throw new IndexOutOfBoundsException("Column index " + column
+                    + " out of range.");
+        }
+        double[] d = this.data;
+        int stride = this.columnCount;
+        double total = 0.0;
+        for (int i = column; i < d.length; i += stride) {
+            double v = d[i];
+            if (v == v) {  // skip NaN (missing)
+                total += v;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Returns the array that holds the values, in row-major order.  This
+     * is the array itself, not a copy.
+     *
+     * @return The array.
+     */
+    public double[] getData() {
+        return this.data;
+    }
+
+    /**
+     * Returns the index of a cell in the data array.
+     *
+     * @param row  the row index.
+     * @param column  the column index.
+     *
+     * @return The array index.
+     */
+    private int indexOf(int row, int column) {
+        if (row < 0 || row >= this.rowCount) {
+            throw new IndexOutOfBoundsException("Row index " + row
+                    + " out of range.");
+        }
+        if (column < 0 || column >= this.columnCount) {
+            throw new IndexOutOfBoundsException("Column index " + column
+                    + " out of range.");
+        }
+        return row * this.columnCount + column;
+    }
+
+    /**
+     * Tests this matrix for equality with an arbitrary object.
+     *
+     * @param obj  the object (<code>null</code> permitted).
+     *
+     * @return A boolean.
+     */
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof DoubleMatrixValues2D)) {
+            return false;
+        }
+        DoubleMatrixValues2D that = (DoubleMatrixValues2D) obj;
+        if (this.rowCount != that.rowCount) {
+            return false;
+        }
+        if (this.columnCount != that.columnCount) {
+            return false;
+        }
+        return Arrays.equals(this.data, that.data);
+    }
+
+    /**
+     * Returns a hash code for this matrix.
+     *
+     * @return A hash code.
+     */
+    public int hashCode() {
+        int result = this.rowCount;
+        result = 29 * result + this.columnCount;
+        result = 29 * result + Arrays.hashCode(this.data);
+        return result;
+    }
+
+    /**
+     * Returns a clone of this matrix, with its own copy of the data.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException not thrown by this class, but
+     *         subclasses may differ.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        DoubleMatrixValues2D clone = (DoubleMatrixValues2D) super.clone();
+        clone.data = this.data.clone();
+        return clone;
+    }
+
+}
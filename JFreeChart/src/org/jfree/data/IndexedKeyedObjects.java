@@ -0,0 +1,103 @@
+package org.jfree.data;
+
+/**
+ * A {@link KeyedObjects} that finds keys through a hash map, so that
+ * {@link #getIndex(Comparable)}, {@link #getObject(Comparable)},
+ * {@link #setObject(Comparable, Object)} and
+ * {@link #addObject(Comparable, Object)} take O(1) time instead of a linear
+ * search of the list.  Items keep their insertion order, and
+ * <code>equals()</code> and <code>clone()</code> behave as in the
+ * superclass.
+ * <P>
+ * Removing the last item updates the map directly.  Removing any other
+ * item moves items within the list, so the map is rebuilt (in O(n) time)
+ * the next time a key is looked up.
+ */
+public class IndexedKeyedObjects extends KeyedObjects {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -6628514432085913706L;
+
+    /** The key index (rebuilt after deserialization). */
+    private transient KeyIndex index;
+
+    /**
+     * Creates a new empty instance.
+     */
+    public IndexedKeyedObjects() {
+        super();
+    }
+
+    /**
+     * Returns the index for a key, in O(1) time (unless the map must first
+     * be rebuilt).
+     *
+     * @param key  the key.
+     *
+     * @return The index, or <code>-1</code> if the key is not recognised.
+     */
+    public int getIndex(Comparable key) {
+        return getKeyIndex().get(key);
+    }
+
+    /**
+     * Replaces an existing object, or adds a new object to the end of the
+     * list.
+     *
+     * @param key  the key.
+     * @param object  the object (<code>null</code> permitted).
+     */
+    public void setObject(Comparable key, Object object) {
+        boolean isNew = getIndex(key) < 0;
+        super.setObject(key, object);
+        if (isNew) {
+            getKeyIndex().added(key, getItemCount() - 1);
+        }
+    }
+
+    /**
+     * Removes an item.
+     *
+     * @param index  the item index (zero-based).
+     */
+    public void removeValue(int index) {
+        Comparable key = getKey(index);
+        super.removeValue(index);
+        if (this.index != null) {
+            this.index.removed(key, index, getItemCount());
+        }
+    }
+
+    /**
+     * Returns a clone of this instance, with its own key index.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException if the items cannot be cloned.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        IndexedKeyedObjects clone = (IndexedKeyedObjects) super.clone();
+        clone.index = null;
+        return clone;
+    }
+
+    /**
+     * Returns the key index, rebuilding it first if it is stale.
+     *
+     * @return The key index.
+     */
+    private KeyIndex getKeyIndex() {
+        if (this.index == null) {
+            this.index = new KeyIndex();
+        }
+        if (!this.index.isValid()) {
+            int count = getItemCount();
+            this.index.startRebuild(count);
+            for (int i = 0; i < count; i++) {
+                this.index.added(getKey(i), i);
+            }
+        }
+        return this.index;
+    }
+
+}
@@ -0,0 +1,542 @@
+package org.jfree.data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jfree.util.PublicCloneable;
+
+/**
+ * A table of objects indexed by row and column keys, with the same
+ * behaviour as {@link KeyedObjects2D} but designed for large tables whose
+ * columns are added and removed often (for example, a sliding window of
+ * time periods).
+ * <P>
+ * Row and column keys are found through hash maps, so reading or writing a
+ * cell by key takes O(1) time.  {@link #getColumnIndex(Comparable)} takes
+ * O(log n) time, because column positions are found by a binary search of
+ * the live columns.
+ * <P>
+ * Each row holds its cells in an array indexed by a column <i>slot</i>.
+ * Removing a column does not move any cells:  its slot is marked as a
+ * tombstone and its cells are cleared, which takes O(rows) time (plus
+ * O(columns) to update the list of live columns).  New columns take new
+ * slots at the end.  When the slots are all in use, the rows are either
+ * compacted in place (if at least half of the slots are tombstones) or
+ * grown, so the cost of rewriting the table is spread over many column
+ * changes.
+ * <P>
+ * Unlike {@link DefaultKeyedValues2D}, rows are always kept in the order
+ * they were added.
+ */
+public class IndexedKeyedObjects2D implements Cloneable, PublicCloneable,
+        Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -7413024891663150218L;
+
+    /** The initial number of column slots. */
+    private static final int INITIAL_SLOTS = 8;
+
+    /** The row keys. */
+    private List rowKeys;
+
+    /** The key index for the rows (rebuilt when needed). */
+    private transient KeyIndex rowIndex;
+
+    /** The rows (each an <code>Object[]</code> indexed by slot). */
+    private List rows;
+
+    /** The column key for each slot (<code>null</code> for a tombstone). */
+    private Comparable[] slotKeys;
+
+    /** The number of slots in use (live columns plus tombstones). */
+    private int slotCount;
+
+    /** The slot for each live column, in increasing order. */
+    private int[] columnSlots;
+
+    /** The number of live columns. */
+    private int columnCount;
+
+    /** A map from column key to slot (an <code>Integer</code>). */
+    private Map columnSlotMap;
+
+    /**
+     * Creates a new empty instance.
+     */
+    public IndexedKeyedObjects2D() {
+        this.rowKeys = new ArrayList();
+        this.rows = new ArrayList();
+        this.slotKeys = new Comparable[INITIAL_SLOTS];
+        this.columnSlots = new int[INITIAL_SLOTS];
+        this.columnSlotMap = new HashMap();
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return The row count.
+     */
+    public int getRowCount() {
+        return this.rowKeys.size();
+    }
+
+    /**
+     * Returns the number of columns.
+     *
+     * @return The column count.
+     */
+    public int getColumnCount() {
+        return this.columnCount;
+    }
+
+    /**
+     * Returns the object for a cell.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The object (possibly <code>null</code>).
+     */
+    public Object getObject(int row, int column) {
+        return getRow(row)[getSlot(column)];
+    }
+
+    /**
+     * Returns the key for a row.
+     *
+     * @param row  the row index (zero-based).
+     *
+     * @return The row key.
+     */
+    public Comparable getRowKey(int row) {
+        return (Comparable) this.rowKeys.get(row);
+    }
+
+    /**
+     * Returns the index for a row key, in O(1) time (unless the index must
+     * first be rebuilt after a row was removed).
+     *
+     * @param key  the row key.
+     *
+     * @return The row index, or <code>-1</code> if the key is not
+     *         recognised.
+     */
+    public int getRowIndex(Comparable key) {
+        return getRowKeyIndex().get(key);
+    }
+
+    /**
+     * Returns the row keys.
+     *
+     * @return An unmodifiable list of row keys.
+     */
+    public List getRowKeys() {
+        return Collections.unmodifiableList(this.rowKeys);
+    }
+
+    /**
+     * Returns the key for a column.
+     *
+     * @param column  the column index (zero-based).
+     *
+     * @return The column key.
+     */
+    public Comparable getColumnKey(int column) {
+        return this.slotKeys[getSlot(column)];
+    }
+
+    /**
+     * Returns the index for a column key, in O(log n) time.
+     *
+     * @param key  the column key.
+     *
+     * @return The column index, or <code>-1</code> if the key is not
+     *         recognised.
+     */
+    public int getColumnIndex(Comparable key) {
+        Integer slot = (Integer) this.columnSlotMap.get(key);
+        if (slot == null) {
+            return -1;
+        }
+        return Arrays.binarySearch(this.columnSlots, 0, this.columnCount,
+                slot.intValue());
+    }
+
+    /**
+     * Returns the column keys.
+     *
+     * @return An unmodifiable list of column keys.
+     */
+    public List getColumnKeys() {
+        List result = new ArrayList(this.columnCount);
+        for (int c = 0; c < this.columnCount; c++) {
+            result.add(this.slotKeys[this.columnSlots[c]]);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Returns the object for a pair of keys, in O(1) time.
+     *
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     *
+     * @return The object (possibly <code>null</code>).
+     *
+     * @throws UnknownKeyException if either key is not recognised.
+     */
+    public Object getObject(Comparable rowKey, Comparable columnKey) {
+        checkKeys(rowKey, columnKey);
+        int row = getRowIndex(rowKey);
+        if (row < 0) {
+            throw new UnknownKeyException("Unrecognised rowKey: " + rowKey);
+        }
+        Integer slot = (Integer) this.columnSlotMap.get(columnKey);
+        if (slot == null) {
+            throw new UnknownKeyException("Unrecognised columnKey: "
+                    + columnKey);
+        }
+        return getRow(row)[slot.intValue()];
+    }
+
+    /**
+     * Adds an object to the table.  This is the same as
+     * {@link #setObject(Object, Comparable, Comparable)}.
+     *
+     * @param object  the object (<code>null</code> permitted).
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     */
+    public void addObject(Object object, Comparable rowKey,
+            Comparable columnKey) {
+        setObject(object, rowKey, columnKey);
+    }
+
+    /**
+     * Sets the object for a cell, adding a new row and/or column at the end
+     * of the table if the keys are not already present.
+     *
+     * @param object  the object (<code>null</code> permitted).
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     */
+    public void setObject(Object object, Comparable rowKey,
+            Comparable columnKey) {
+        checkKeys(rowKey, columnKey);
+        int row = getRowIndex(rowKey);
+        if (row < 0) {
+            row = this.rowKeys.size();
+            this.rowKeys.add(rowKey);
+            this.rows.add(new Object[this.slotKeys.length]);
+            getRowKeyIndex().added(rowKey, row);
+        }
+        Integer slot = (Integer) this.columnSlotMap.get(columnKey);
+        int s = slot != null ? slot.intValue() : addColumnSlot(columnKey);
+        getRow(row)[s] = object;
+    }
+
+    /**
+     * Clears a cell, then removes its row if every cell in the row is
+     * <code>null</code>, and its column if every cell in the column is
+     * <code>null</code>.
+     *
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     */
+    public void removeObject(Comparable rowKey, Comparable columnKey) {
+        setObject(null, rowKey, columnKey);
+        int row = getRowIndex(rowKey);
+        int slot = ((Integer) this.columnSlotMap.get(columnKey)).intValue();
+        Object[] cells = getRow(row);
+        boolean allNull = true;
+        for (int c = 0; c < this.columnCount && allNull; c++) {
+            allNull = cells[this.columnSlots[c]] == null;
+        }
+        if (allNull) {
+            removeRow(row);
+        }
+        allNull = true;
+        for (int r = 0; r < this.rows.size() && allNull; r++) {
+            allNull = getRow(r)[slot] == null;
+        }
+        if (allNull) {
+            removeColumn(columnKey);
+        }
+    }
+
+    /**
+     * Removes a row.
+     *
+     * @param row  the row index (zero-based).
+     */
+    public void removeRow(int row) {
+        Comparable key = getRowKey(row);
+        this.rowKeys.remove(row);
+        this.rows.remove(row);
+        if (this.rowIndex != null) {
+            this.rowIndex.removed(key, row, this.rowKeys.size());
+        }
+    }
+
+    /**
+     * Removes a row.
+     *
+     * @param rowKey  the row key.
+     *
+     * @throws UnknownKeyException if the key is not recognised.
+     */
+    public void removeRow(Comparable rowKey) {
+        int row = getRowIndex(rowKey);
+        if (row < 0) {
+            throw new UnknownKeyException("Unrecognised rowKey: " + rowKey);
+        }
+        removeRow(row);
+    }
+
+    /**
+     * Removes a column.  The column's slot becomes a tombstone, so no other
+     * cells are moved.
+     *
+     * @param column  the column index (zero-based).
+     */
+    public void removeColumn(int column) {
+        int slot = getSlot(column);
+        this.columnSlotMap.remove(this.slotKeys[slot]);
+        this.slotKeys[slot] = null;
+        System.arraycopy(this.columnSlots, column + 1, this.columnSlots,
+                column, this.columnCount - column - 1);
+        this.columnCount--;
+        for (int r = 0; r < this.rows.size(); r++) {
+            getRow(r)[slot] = null;
+        }
+    }
+
+    /**
+     * Removes a column.
+     *
+     * @param columnKey  the column key.
+     *
+     * @throws UnknownKeyException if the key is not recognised.
+     */
+    public void removeColumn(Comparable columnKey) {
+        int column = getColumnIndex(columnKey);
+        if (column < 0) {
+            throw new UnknownKeyException("Unrecognised columnKey: "
+                    + columnKey);
+        }
+        removeColumn(column);
+    }
+
+    /**
+     * Removes all rows and columns.
+     */
+    public void clear() {
+        this.rowKeys.clear();
+        this.rows.clear();
+        this.rowIndex = null;
+        this.slotKeys = new Comparable[INITIAL_SLOTS];
+        this.slotCount = 0;
+        this.columnSlots = new int[INITIAL_SLOTS];
+        this.columnCount = 0;
+        this.columnSlotMap.clear();
+    }
+
+    /**
+     * Tests this object for equality with an arbitrary object.  Two tables
+     * are equal if they have the same row keys and column keys (in the same
+     * order) and equal objects in every cell, whatever the layout of their
+     * slots.
+     *
+     * @param obj  the object (<code>null</code> permitted).
+     *
+     * @return A boolean.
+     */
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof IndexedKeyedObjects2D)) {
+            return false;
+        }
+        IndexedKeyedObjects2D that = (IndexedKeyedObjects2D) obj;
+        if (!this.rowKeys.equals(that.rowKeys)) {
+            return false;
+        }
+        if (!getColumnKeys().equals(that.getColumnKeys())) {
+            return false;
+        }
+        for (int r = 0; r < getRowCount(); r++) {
+            for (int c = 0; c < this.columnCount; c++) {
+                Object v1 = getObject(r, c);
+                Object v2 = that.getObject(r, c);
+                if (v1 == null ? v2 != null : !v1.equals(v2)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a hash code for this object.
+     *
+     * @return A hash code.
+     */
+    public int hashCode() {
+        int result = this.rowKeys.hashCode();
+        result = 29 * result + getColumnKeys().hashCode();
+        return result;
+    }
+
+    /**
+     * Returns a clone of this table.  The rows are copied, but the objects
+     * in the cells are not cloned.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException if there is a problem cloning.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        IndexedKeyedObjects2D clone = (IndexedKeyedObjects2D) super.clone();
+        clone.rowKeys = new ArrayList(this.rowKeys);
+        clone.rowIndex = null;
+        clone.rows = new ArrayList(this.rows.size());
+        for (int r = 0; r < this.rows.size(); r++) {
+            clone.rows.add(getRow(r).clone());
+        }
+        clone.slotKeys = this.slotKeys.clone();
+        clone.columnSlots = this.columnSlots.clone();
+        clone.columnSlotMap = new HashMap(this.columnSlotMap);
+        return clone;
+    }
+
+    /**
+     * Returns the cells for a row.
+     *
+     * @param row  the row index.
+     *
+     * @return The cells, indexed by slot.
+     */
+    private Object[] getRow(int row) {
+        return (Object[]) this.rows.get(row);
+    }
+
+    /**
+     * Returns the slot for a column.
+     *
+     * @param column  the column index.
+     *
+     * @return The slot.
+     */
+    private int getSlot(int column) {
+        if (column < 0 || column >= this.columnCount) {
+            throw new IndexOutOfBoundsException("Column index " + column
+                    + " out of range.");
+        }
+        return this.columnSlots[column];
+    }
+
+    /**
+     * Returns the row key index, rebuilding it first if it is stale.
+     *
+     * @return The index.
+     */
+    private KeyIndex getRowKeyIndex() {
+        if (this.rowIndex == null) {
+            this.rowIndex = new KeyIndex();
+        }
+        if (!this.rowIndex.isValid()) {
+            int count = this.rowKeys.size();
+            this.rowIndex.startRebuild(count);
+            for (int i = 0; i < count; i++) {
+                this.rowIndex.added((Comparable) this.rowKeys.get(i), i);
+            }
+        }
+        return this.rowIndex;
+    }
+
+    /**
+     * Adds a new column at the end of the table.
+     *
+     * @param key  the column key.
+     *
+     * @return The slot for the new column.
+     */
+    private int addColumnSlot(Comparable key) {
+        if (this.slotCount == this.slotKeys.length) {
+            if ((this.slotCount - this.columnCount) * 2 >= this.slotCount) {
+                compact();
+            }
+            else {
+                grow(this.slotKeys.length * 2);
+            }
+        }
+        int slot = this.slotCount++;
+        this.slotKeys[slot] = key;
+        this.columnSlotMap.put(key, Integer.valueOf(slot));
+        this.columnSlots[this.columnCount++] = slot;
+        return slot;
+    }
+
+    /**
+     * Moves the live columns down over the tombstones, in place.
+     */
+    private void compact() {
+        for (int r = 0; r < this.rows.size(); r++) {
+            Object[] cells = getRow(r);
+            for (int c = 0; c < this.columnCount; c++) {
+                cells[c] = cells[this.columnSlots[c]];
+            }
+            Arrays.fill(cells, this.columnCount, this.slotCount, null);
+        }
+        for (int c = 0; c < this.columnCount; c++) {
+            Comparable key = this.slotKeys[this.columnSlots[c]];
+            this.slotKeys[c] = key;
+            this.columnSlotMap.put(key, Integer.valueOf(c));
+            this.columnSlots[c] = c;
+        }
+        Arrays.fill(this.slotKeys, this.columnCount, this.slotCount, null);
+        this.slotCount = this.columnCount;
+    }
+
+    /**
+     * Increases the number of slots.
+     *
+     * @param capacity  the new number of slots.
+     */
+    private void grow(int capacity) {
+        for (int r = 0; r < this.rows.size(); r++) {
+            Object[] cells = new Object[capacity];
+            System.arraycopy(getRow(r), 0, cells, 0, this.slotCount);
+            this.rows.set(r, cells);
+        }
+        Comparable[] keys = new Comparable[capacity];
+        System.arraycopy(this.slotKeys, 0, keys, 0, this.slotCount);
+        this.slotKeys = keys;
+        int[] slots = new int[capacity];
+        System.arraycopy(this.columnSlots, 0, slots, 0, this.columnCount);
+        this.columnSlots = slots;
+    }
+
+    /**
+     * Checks that neither key is <code>null</code>.
+     *
+     * @param rowKey  the row key.
+     * @param columnKey  the column key.
+     */
+    private static void checkKeys(Comparable rowKey, Comparable columnKey) {
+        if (rowKey == null) {
+            throw new IllegalArgumentException("Null 'rowKey' argument.");
+        }
+        if (columnKey == null) {
+            throw new IllegalArgumentException("Null 'columnKey' argument.");
+        }
+    }
+
+}
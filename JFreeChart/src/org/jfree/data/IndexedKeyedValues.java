@@ -0,0 +1,146 @@
+package org.jfree.data;
+
+import org.jfree.util.SortOrder;
+
+/**
+ * A {@link DefaultKeyedValues} that finds keys through a hash map, so that
+ * {@link #getIndex(Comparable)}, {@link #getValue(Comparable)},
+ * {@link #setValue(Comparable, Number)} and
+ * {@link #addValue(Comparable, Number)} take O(1) time instead of a linear
+ * search of the list.  Items keep their insertion order, and
+ * <code>equals()</code>, <code>hashCode()</code> and <code>clone()</code>
+ * behave as in the superclass (an instance is equal to a
+ * {@link DefaultKeyedValues} with the same items).
+ * <P>
+ * Removing the last item updates the map directly.  Removing any other item,
+ * or sorting, moves items within the list, so the map is rebuilt (in O(n)
+ * time) the next time a key is looked up.
+ */
+public class IndexedKeyedValues extends DefaultKeyedValues {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 2390481175210245831L;
+
+    /** The key index (rebuilt after deserialization). */
+    private transient KeyIndex index;
+
+    /**
+     * Creates a new empty instance.
+     */
+    public IndexedKeyedValues() {
+        super();
+    }
+
+    /**
+     * Creates a new instance containing the items from a
+     * {@link KeyedValues} instance, in the same order.
+     *
+     * @param source  the source data (<code>null</code> not permitted).
+     */
+    public IndexedKeyedValues(KeyedValues source) {
+        super();
+        if (source == null) {
+            throw new IllegalArgumentException("Null 'source' argument.");
+        }
+        for (int i = 0; i < source.getItemCount(); i++) {
+            setValue(source.getKey(i), source.getValue(i));
+        }
+    }
+
+    /**
+     * Returns the index for a key, in O(1) time (unless the map must first
+     * be rebuilt).
+     *
+     * @param key  the key.
+     *
+     * @return The index, or <code>-1</code> if the key is not recognised.
+     */
+    public int getIndex(Comparable key) {
+        return getKeyIndex().get(key);
+    }
+
+    /**
+     * Updates an existing value, or adds a new value to the end of the
+     * list.
+     *
+     * @param key  the key (<code>null</code> not permitted).
+     * @param value  the value (<code>null</code> permitted).
+     */
+    public void setValue(Comparable key, Number value) {
+        boolean isNew = key != null && getIndex(key) < 0;
+        super.setValue(key, value);
+        if (isNew) {
+            getKeyIndex().added(key, getItemCount() - 1);
+        }
+    }
+
+    /**
+     * Removes an item.
+     *
+     * @param index  the item index (zero-based).
+     */
+    public void removeValue(int index) {
+        Comparable key = getKey(index);
+        super.removeValue(index);
+        if (this.index != null) {
+            this.index.removed(key, index, getItemCount());
+        }
+    }
+
+    /**
+     * Sorts the items by key.
+     *
+     * @param order  the sort order (<code>null</code> not permitted).
+     */
+    public void sortByKeys(SortOrder order) {
+        super.sortByKeys(order);
+        if (this.index != null) {
+            this.index.invalidate();
+        }
+    }
+
+    /**
+     * Sorts the items by value.
+     *
+     * @param order  the sort order (<code>null</code> not permitted).
+     */
+    public void sortByValues(SortOrder order) {
+        super.sortByValues(order);
+        if (this.index != null) {
+            this.index.invalidate();
+        }
+    }
+
+    /**
+     * Returns a clone of this instance, with its own key index.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException if the items cannot be cloned.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        IndexedKeyedValues clone = (IndexedKeyedValues) super.clone();
+        clone.index = null;
+        return clone;
+    }
+
+    /**
+     * Returns the key index, rebuilding it first if it is stale.
+     *
+     * @return The key index.
+     */
+    private KeyIndex getKeyIndex() {
+        if (this.index == null) {
+            this.index = new KeyIndex();
+        }
+        if (!this.index.isValid()) {
+            int count = getItemCount();
+            this.index.startRebuild(count);
+            for (int i = 0; i < count; i++) {
+                this.index.added(getKey(i), i);
+            }
+        }
+        return this.index;
+    }
+
+}
@@ -0,0 +1,85 @@
+package org.jfree.data;
+
+/**
+ * A table of values indexed by row and column keys, with the same
+ * behaviour as {@link DefaultKeyedValues2D} (without sorted row keys) but
+ * with hashed row and column lookup and cheap column removal.  See
+ * {@link IndexedKeyedObjects2D} for the details of the storage.
+ */
+public class IndexedKeyedValues2D extends IndexedKeyedObjects2D
+        implements KeyedValues2D {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 5273019741365289106L;
+
+    /**
+     * Creates a new empty instance.
+     */
+    public IndexedKeyedValues2D() {
+        super();
+    }
+
+    /**
+     * Returns the value for a cell.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The value (possibly <code>null</code>).
+     */
+    public Number getValue(int row, int column) {
+        return (Number) getObject(row, column);
+    }
+
+    /**
+     * Returns the value for a pair of keys, in O(1) time.
+     *
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     *
+     * @return The value (possibly <code>null</code>).
+     *
+     * @throws UnknownKeyException if either key is not recognised.
+     */
+    public Number getValue(Comparable rowKey, Comparable columnKey) {
+        return (Number) getObject(rowKey, columnKey);
+    }
+
+    /**
+     * Adds a value to the table.  This is the same as
+     * {@link #setValue(Number, Comparable, Comparable)}.
+     *
+     * @param value  the value (<code>null</code> permitted).
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     */
+    public void addValue(Number value, Comparable rowKey,
+            Comparable columnKey) {
+        setObject(value, rowKey, columnKey);
+    }
+
+    /**
+     * Sets the value for a cell, adding a new row and/or column at the end
+     * of the table if the keys are not already present.
+     *
+     * @param value  the value (<code>null</code> permitted).
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     */
+    public void setValue(Number value, Comparable rowKey,
+            Comparable columnKey) {
+        setObject(value, rowKey, columnKey);
+    }
+
+    /**
+     * Clears a cell, then removes its row and/or column if they no longer
+     * hold any values.
+     *
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     */
+    public void removeValue(Comparable rowKey, Comparable columnKey) {
+        removeObject(rowKey, columnKey);
+    }
+
+}
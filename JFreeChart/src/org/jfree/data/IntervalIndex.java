@@ -0,0 +1,574 @@
+package org.jfree.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * An index of items that each cover an interval of values, supporting fast
+ * stabbing queries ("which intervals contain x?") and overlap queries
+ * ("which intervals intersect [b0, b1]?").
+ * <P>
+ * The index is a balanced (AVL) binary search tree ordered by lower bound,
+ * where every node also records the largest upper bound in its subtree.
+ * Adding or removing an item takes O(log n) time, and a query takes
+ * O(log n + k) time to report k items, compared with O(n) for a linear
+ * scan over {@link Range#contains(double)} or
+ * {@link Range#intersects(double, double)}.
+ * <P>
+ * The intervals are closed, with the same boundary behaviour as
+ * {@link RangeBatch}:  an interval contains both of its bounds, and it
+ * intersects <code>[b0, b1]</code> if the two intervals share at least one
+ * point.  Query results are returned in order of lower bound, then upper
+ * bound, then insertion order.
+ * <P>
+ * Instances of this class are not thread-safe.
+ *
+ * @param <T>  the item type.
+ */
+public class IntervalIndex<T> {
+
+    /** The root of the tree (<code>null</code> when the index is empty). */
+    private Node<T> root;
+
+    /** The number of items in the index. */
+    private int size;
+
+    /** The sequence number for the next item added. */
+    private long nextSequence;
+
+    /**
+     * Creates a new empty index.
+     */
+    public IntervalIndex() {
+        this.root = null;
+        this.size = 0;
+        this.nextSequence = 0L;
+    }
+
+    /**
+     * Creates a new index containing the given ranges, each of which is
+     * indexed by its own bounds.  The tree is built in O(n log n) time
+     * (the cost of one sort), without any rebalancing.
+     *
+     * @param ranges  the ranges (<code>null</code> not permitted, and no
+     *                <code>null</code> items).
+     *
+     * @return The index.
+     */
+    public static IntervalIndex<Range> build(
+            Collection<? extends Range> ranges) {
+        if (ranges == null) {
+            throw new IllegalArgumentException("Null 'ranges' argument.");
+        }
+        int n = ranges.size();
+        double[] lower = new double[n];
+        double[] upper = new double[n];
+        List<Range> items = new ArrayList<Range>(n);
+        int i = 0;
+        for (Iterator<? extends Range> it = ranges.iterator(); it.hasNext();) {
+            Range range = it.next();
+            if (range == null) {
+                throw new IllegalArgumentException("Null range at index "
+                        + i + ".");
+            }
+            lower[i] = range.getLowerBound();
+            upper[i] = RangeBatch.upperBound(range);
+            items.add(range);
+            i++;
+        }
+        return build(lower, upper, items);
+    }
+
+    /**
+     * Creates a new index containing the given items, where item
+     * <code>i</code> covers the interval <code>[lower[i], upper[i]]</code>.
+     * The tree is built in O(n log n) time (the cost of one sort), without
+     * any rebalancing.
+     *
+     * @param lower  the lower bounds (<code>null</code> not permitted).
+     * @param upper  the upper bounds (<code>null</code> not permitted).
+     * @param items  the items (<code>null</code> not permitted).
+     *
+     * @param <T>  the item type.
+     *
+     * @return The index.
+     */
+    public static <T> IntervalIndex<T> build(double[] lower, double[] upper,
+            List<? extends T> items) {
+        if (lower == null) {
+            throw new IllegalArgumentException("Null 'lower' argument.");
+        }
+        if (upper == null) {
+            throw new IllegalArgumentException("Null 'upper' argument.");
+        }
+        if (items == null) {
+            throw new IllegalArgumentException("Null 'items' argument.");
+        }
+        if (lower.length != upper.length || lower.length != items.size()) {
+            throw new IllegalArgumentException(
+                    "Arrays 'lower', 'upper' and list 'items' differ in size.");
+        }
+        IntervalIndex<T> index = new IntervalIndex<T>();
+        int n = lower.length;
+        @SuppressWarnings("unchecked")
+        Node<T>[] nodes = new Node[n];
+        for (int i = 0; i < n; i++) {
+            checkInterval(lower[i], upper[i]);
+            nodes[i] = new Node<T>(lower[i], upper[i], items.get(i),
+                    index.nextSequence++);
+        }
+        Arrays.sort(nodes, new Comparator<Node<T>>() {
+            public int compare(Node<T> n1, Node<T> n2) {
+                return compareKeys(n1, n2.lower, n2.upper, n2.sequence);
+            }
+        });
+        index.root = buildBalanced(nodes, 0, n - 1);
+        index.size = n;
+        return index;
+    }
+
+    /**
+     * Returns the number of items in the index.
+     *
+     * @return The item count.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns <code>true</code> if the index contains no items.
+     *
+     * @return A boolean.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Removes all items from the index.
+     */
+    public void clear() {
+        this.root = null;
+        this.size = 0;
+    }
+
+    /**
+     * Adds an item covering the interval <code>[lower, upper]</code>.  The
+     * same item may be added more than once.
+     *
+     * @param lower  the lower bound (not <code>NaN</code>).
+     * @param upper  the upper bound (not <code>NaN</code>, and not less
+     *               than <code>lower</code>).
+     * @param item  the item (<code>null</code> permitted).
+     */
+    public void add(double lower, double upper, T item) {
+        checkInterval(lower, upper);
+        Node<T> node = new Node<T>(lower, upper, item, this.nextSequence++);
+        this.root = insert(this.root, node);
+        this.size++;
+    }
+
+    /**
+     * Removes one occurrence of an item covering the interval
+     * <code>[lower, upper]</code>.  Items are matched with
+     * <code>equals()</code>.
+     *
+     * @param lower  the lower bound.
+     * @param upper  the upper bound.
+     * @param item  the item (<code>null</code> permitted).
+     *
+     * @return A boolean that indicates whether or not an item was removed.
+     */
+    public boolean remove(double lower, double upper, T item) {
+        Node<T> match = find(this.root, lower, upper, item);
+        if (match == null) {
+            return false;
+        }
+        this.root = delete(this.root, match);
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Returns the items whose interval contains <code>x</code>.
+     *
+     * @param x  the value.
+     *
+     * @return A new list of items (possibly empty, never <code>null</code>).
+     */
+    public List<T> findContaining(double x) {
+        List<T> result = new ArrayList<T>();
+        findContaining(x, result);
+        return result;
+    }
+
+    /**
+     * Adds the items whose interval contains <code>x</code> to a
+     * collection.
+     *
+     * @param x  the value.
+     * @param result  the collection that receives the items
+     *                (<code>null</code> not permitted).
+     *
+     * @return The number of items found.
+     */
+    public int findContaining(double x, Collection<? super T> result) {
+        return findIntersecting(x, x, result);
+    }
+
+    /**
+     * Returns the items whose interval intersects <code>[b0, b1]</code>.
+     *
+     * @param b0  the lower bound of the query interval.
+     * @param b1  the upper bound of the query interval.
+     *
+     * @return A new list of items (possibly empty, never <code>null</code>).
+     */
+    public List<T> findIntersecting(double b0, double b1) {
+        List<T> result = new ArrayList<T>();
+        findIntersecting(b0, b1, result);
+        return result;
+    }
+
+    /**
+     * Adds the items whose interval intersects <code>[b0, b1]</code> to a
+     * collection.
+     *
+     * @param b0  the lower bound of the query interval.
+     * @param b1  the upper bound of the query interval.
+     * @param result  the collection that receives the items
+     *                (<code>null</code> not permitted).
+     *
+     * @return The number of items found.
+     */
+    public int findIntersecting(double b0, double b1,
+            Collection<? super T> result) {
+        if (result == null) {
+            throw new IllegalArgumentException("Null 'result' argument.");
+        }
+        if (!(b1 >= b0)) {
+            return 0;
+        }
+        return collect(this.root, b0, b1, result);
+    }
+
+    /**
+     * Adds the items in a subtree that intersect <code>[b0, b1]</code> to a
+     * collection, in order.
+     *
+     * @param node  the subtree root (<code>null</code> permitted).
+     * @param b0  the lower bound of the query interval.
+     * @param b1  the upper bound of the query interval.
+     * @param result  the collection that receives the items.
+     *
+     * @return The number of items found.
+     */
+    private static <T> int collect(Node<T> node, double b0, double b1,
+            Collection<? super T> result) {
+        // no interval in this subtree reaches up to b0
+        if (node == null || node.maxUpper < b0) {
+            return 0;
+        }
+        int count = collect(node.left, b0, b1, result);
+        // every node from here on (this one and the right subtree) starts
+        // at or after node.lower, so they all start beyond b1
+        if (node.lower > b1) {
+            return count;
+        }
+        if (RangeBatch.intersects(node.lower, node.upper, b0, b1)) {
+            result.add(node.item);
+            count++;
+        }
+        return count + collect(node.right, b0, b1, result);
+    }
+
+    /**
+     * Checks that an interval can be indexed.
+     *
+     * @param lower  the lower bound.
+     * @param upper  the upper bound.
+     */
+    private static void checkInterval(double lower, double upper) {
+        if (Double.isNaN(lower) || Double.isNaN(upper)) {
+            throw new IllegalArgumentException(
+                    "Intervals with NaN bounds cannot be indexed.");
+        }
+        RangeBatch.checkBounds(lower, upper);
+    }
+
+    /**
+     * Compares the key of a node with another key.
+     *
+     * @param node  the node.
+     * @param lower  the lower bound of the other key.
+     * @param upper  the upper bound of the other key.
+     * @param sequence  the sequence number of the other key.
+     *
+     * @return A negative, zero or positive value.
+     */
+    private static int compareKeys(Node<?> node, double lower, double upper,
+            long sequence) {
+        int c = Double.compare(node.lower, lower);
+        if (c != 0) {
+            return c;
+        }
+        c = Double.compare(node.upper, upper);
+        if (c != 0) {
+            return c;
+        }
+        return node.sequence < sequence ? -1
+                : (node.sequence == sequence ? 0 : 1);
+    }
+
+    /**
+     * Finds a node with the given bounds and item.
+     *
+     * @param node  the subtree root (<code>null</code> permitted).
+     * @param lower  the lower bound.
+     * @param upper  the upper bound.
+     * @param item  the item.
+     *
+     * @return The node, or <code>null</code>.
+     */
+    private static <T> Node<T> find(Node<T> node, double lower, double upper,
+            T item) {
+        while (node != null) {
+            int c = Double.compare(node.lower, lower);
+            if (c == 0) {
+                c = Double.compare(node.upper, upper);
+            }
+            if (c < 0) {
+                node = node.right;
+            }
+            else if (c > 0) {
+                node = node.left;
+            }
+            else {
+                // nodes with equal bounds differ only by sequence number,
+                // so they can sit on either side of this one
+                if (item == null ? node.item == null : item.equals(node.item)) {
+                    return node;
+                }
+                Node<T> match = find(node.left, lower, upper, item);
+                return match != null ? match
+                        : find(node.right, lower, upper, item);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Builds a balanced subtree from sorted nodes.
+     *
+     * @param nodes  the sorted nodes.
+     * @param from  the index of the first node.
+     * @param to  the index of the last node.
+     *
+     * @return The subtree root.
+     */
+    private static <T> Node<T> buildBalanced(Node<T>[] nodes, int from,
+            int to) {
+        if (from > to) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        Node<T> node = nodes[mid];
+        node.left = buildBalanced(nodes, from, mid - 1);
+        node.right = buildBalanced(nodes, mid + 1, to);
+        node.update();
+        return node;
+    }
+
+    /**
+     * Inserts a node into a subtree.
+     *
+     * @param node  the subtree root (<code>null</code> permitted).
+     * @param added  the new node.
+     *
+     * @return The new subtree root.
+     */
+    private static <T> Node<T> insert(Node<T> node, Node<T> added) {
+        if (node == null) {
+            return added;
+        }
+        if (compareKeys(added, node.lower, node.upper, node.sequence) < 0) {
+            node.left = insert(node.left, added);
+        }
+        else {
+            node.right = insert(node.right, added);
+        }
+        return rebalance(node);
+    }
+
+    /**
+     * Deletes a node from a subtree.
+     *
+     * @param node  the subtree root.
+     * @param target  the node to delete (must be in the subtree).
+     *
+     * @return The new subtree root.
+     */
+    private static <T> Node<T> delete(Node<T> node, Node<T> target) {
+        int c = compareKeys(target, node.lower, node.upper, node.sequence);
+        if (c < 0) {
+            node.left = delete(node.left, target);
+        }
+        else if (c > 0) {
+            node.right = delete(node.right, target);
+        }
+        else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node<T> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = delete(node.right, successor);
+            successor.left = node.left;
+            node = successor;
+        }
+        return rebalance(node);
+    }
+
+    /**
+     * Restores the AVL balance of a node whose subtrees are balanced.
+     *
+     * @param node  the node.
+     *
+     * @return The new subtree root.
+     */
+    private static <T> Node<T> rebalance(Node<T> node) {
+        node.update();
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    /**
+     * Rotates a subtree to the left.
+     *
+     * @param node  the subtree root.
+     *
+     * @return The new subtree root.
+     */
+    private static <T> Node<T> rotateLeft(Node<T> node) {
+        Node<T> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    /**
+     * Rotates a subtree to the right.
+     *
+     * @param node  the subtree root.
+     *
+     * @return The new subtree root.
+     */
+    private static <T> Node<T> rotateRight(Node<T> node) {
+        Node<T> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    /**
+     * Returns the height of a subtree.
+     *
+     * @param node  the subtree root (<code>null</code> permitted).
+     *
+     * @return The height (zero for an empty subtree).
+     */
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    /**
+     * A tree node.
+     */
+    private static final class Node<T> {
+
+        /** The lower bound of the interval. */
+        final double lower;
+
+        /** The upper bound of the interval. */
+        final double upper;
+
+        /** The item. */
+        final T item;
+
+        /** The insertion sequence number (breaks ties between keys). */
+        final long sequence;
+
+        /** The left subtree. */
+        Node<T> left;
+
+        /** The right subtree. */
+        Node<T> right;
+
+        /** The height of the subtree rooted at this node. */
+        int height;
+
+        /** The largest upper bound in the subtree rooted at this node. */
+        double maxUpper;
+
+        /**
+         * Creates a new leaf node.
+         *
+         * @param lower  the lower bound.
+         * @param upper  the upper bound.
+         * @param item  the item.
+         * @param sequence  the sequence number.
+         */
+        Node(double lower, double upper, T item, long sequence) {
+            this.lower = lower;
+            this.upper = upper;
+            this.item = item;
+            this.sequence = sequence;
+            this.height = 1;
+            this.maxUpper = upper;
+        }
+
+        /**
+         * Recalculates the height and maximum upper bound from the
+         * children.
+         */
+        void update() {
+            this.height = 1 + Math.max(height(this.left), height(this.right));
+            double max = this.upper;
+            if (this.left != null && this.left.maxUpper > max) {
+                max = this.left.maxUpper;
+            }
+            if (this.right != null && this.right.maxUpper > max) {
+                max = this.right.maxUpper;
+            }
+            this.maxUpper = max;
+        }
+
+    }
+
+}
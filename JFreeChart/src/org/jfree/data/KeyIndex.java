@@ -0,0 +1,98 @@
+package org.jfree.data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A map from key to item index, used by {@link IndexedKeyedValues} and
+ * {@link IndexedKeyedObjects} to find keys in O(1) time.  Changes that
+ * only add or remove the last item update the map directly.  Changes that
+ * move items (removing an item from the middle of the list, or sorting)
+ * mark the map as stale, and the owner rebuilds it in O(n) time the next
+ * time a key is looked up.
+ */
+class KeyIndex {
+
+    /** The map from key to index (an <code>Integer</code>). */
+    private Map map;
+
+    /** A flag that indicates whether the map is up to date. */
+    private boolean valid;
+
+    /**
+     * Creates a new stale index.
+     */
+    KeyIndex() {
+        this.map = new HashMap();
+        this.valid = false;
+    }
+
+    /**
+     * Returns <code>true</code> if the index is up to date.
+     *
+     * @return A boolean.
+     */
+    boolean isValid() {
+        return this.valid;
+    }
+
+    /**
+     * Clears the index and marks it as up to date, ready for the owner to
+     * add every key with {@link #added(Comparable, int)}.
+     *
+     * @param expectedSize  the number of keys that will be added.
+     */
+    void startRebuild(int expectedSize) {
+        this.map = new HashMap(Math.max(16, expectedSize * 2));
+        this.valid = true;
+    }
+
+    /**
+     * Marks the index as stale.
+     */
+    void invalidate() {
+        this.valid = false;
+    }
+
+    /**
+     * Returns the index for a key.
+     *
+     * @param key  the key (<code>null</code> permitted).
+     *
+     * @return The index, or <code>-1</code> if the key is not present.
+     */
+    int get(Comparable key) {
+        Integer index = (Integer) this.map.get(key);
+        return index != null ? index.intValue() : -1;
+    }
+
+    /**
+     * Records that a key has been added.  If the key is already present,
+     * the first index is kept (as for a linear search).
+     *
+     * @param key  the key.
+     * @param index  the index.
+     */
+    void added(Comparable key, int index) {
+        if (this.valid && !this.map.containsKey(key)) {
+            this.map.put(key, Integer.valueOf(index));
+        }
+    }
+
+    /**
+     * Records that an item has been removed.
+     *
+     * @param key  the key of the removed item.
+     * @param index  the index of the removed item.
+     * @param newCount  the number of items after the removal.
+     */
+    void removed(Comparable key, int index, int newCount) {
+        if (index == newCount && get(key) == index) {
+            this.map.remove(key);
+        }
+        else {
+            this.valid = false;
+        }
+    }
+
+}
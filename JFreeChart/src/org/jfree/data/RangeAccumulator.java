@@ -0,0 +1,256 @@
+package org.jfree.data;
+
+/**
+ * A mutable accumulator that tracks the bounds of a sequence of values
+ * and ranges without creating a new {@link Range} for every item.  A
+ * {@link Range} is only created when {@link #toRange()} is called, so a
+ * single instance can be reused (see {@link #reset()}) across many bound
+ * calculations.
+ * <P>
+ * Folding values in with {@link #include(double)} gives the same bounds as
+ * a loop of calls to {@link Range#expandToInclude(Range, double)} that
+ * starts from <code>null</code>, including the handling of special
+ * values:  infinite values extend the bounds as usual, a <code>NaN</code>
+ * value is ignored once the accumulator holds a value, and a
+ * <code>NaN</code> first value is kept (and is not replaced by later
+ * values).  Folding ranges in with {@link #include(Range)} gives the same
+ * bounds as {@link Range#combine(Range, Range)}.
+ * <P>
+ * The dataset and axis APIs in the library (for example
+ * {@link DomainInfo}, {@link RangeInfo} and
+ * {@link org.jfree.data.general.DatasetUtilities}) use
+ * <code>original.Range</code> rather than {@link Range}.  Bounds for those
+ * APIs can be read and written with {@link #include(original.Range)} and
+ * {@link #toOriginalRange()}, so no conversion through {@link Range} is
+ * needed.
+ * <P>
+ * Instances of this class are not thread-safe.
+ */
+public class RangeAccumulator {
+
+    /** A flag that indicates whether or not any item has been included. */
+    private boolean empty;
+
+    /** The current lower bound (undefined while the accumulator is empty). */
+    private double lower;
+
+    /** The current upper bound (undefined while the accumulator is empty). */
+    private double upper;
+
+    /**
+     * Creates a new empty accumulator.
+     */
+    public RangeAccumulator() {
+        this.empty = true;
+    }
+
+    /**
+     * Returns <code>true</code> if nothing has been included since the
+     * accumulator was created or last reset.
+     *
+     * @return A boolean.
+     */
+    public boolean isEmpty() {
+        return this.empty;
+    }
+
+    /**
+     * Returns the current lower bound.
+     *
+     * @return The lower bound, or <code>NaN</code> if the accumulator is
+     *         empty.
+     */
+    public double getLowerBound() {
+        return this.empty ? Double.NaN : this.lower;
+    }
+
+    /**
+     * Returns the current upper bound.
+     *
+     * @return The upper bound, or <code>NaN</code> if the accumulator is
+     *         empty.
+     */
+    public double getUpperBound() {
+        return this.empty ? Double.NaN : this.upper;
+    }
+
+    /**
+     * Clears the accumulator so that it can be reused.
+     */
+    public void reset() {
+        this.empty = true;
+        this.lower = 0.0;
+        this.upper = 0.0;
+    }
+
+    /**
+     * Extends the bounds to include a value, following the same rules as
+     * {@link Range#expandToInclude(Range, double)}.
+     *
+     * @param value  the value.
+     */
+    public void include(double value) {
+        if (this.empty) {
+            this.lower = value;
+            this.upper = value;
+            this.empty = false;
+        }
+        else if (value < this.lower) {
+            this.lower = value;
+        }
+        else if (value > this.upper) {
+            this.upper = value;
+        }
+    }
+
+    /**
+     * Extends the bounds to include every value in an array.
+     *
+     * @param values  the values (<code>null</code> not permitted).
+     */
+    public void include(double[] values) {
+        if (values == null) {
+            throw new IllegalArgumentException("Null 'values' argument.");
+        }
+        include(values, 0, values.length);
+    }
+
+    /**
+     * Extends the bounds to include the values in part of an array.
+     *
+     * @param values  the values (<code>null</code> not permitted).
+     * @param start  the index of the first value to include.
+     * @param end  the index after the last value to include.
+     */
+    public void include(double[] values, int start, int end) {
+        if (values == null) {
+            throw new IllegalArgumentException("Null 'values' argument.");
+        }
+        if (start < 0 || end > values.length || start > end) {
+            throw new IllegalArgumentException("Invalid index range ["
+                    + start + ", " + end + ") for an array of length "
+                    + values.length + ".");
+        }
+        if (start == end) {
+            return;
+        }
+        int i = start;
+        if (this.empty) {
+            include(values[i++]);
+        }
+        double lo = this.lower;
+        double hi = this.upper;
+        for (; i < end; i++) {
+            double v = values[i];
+            if (v < lo) {
+                lo = v;
+            }
+            else if (v > hi) {
+                hi = v;
+            }
+        }
+        this.lower = lo;
+        this.upper = hi;
+    }
+
+    /**
+     * Extends the bounds to include a range, following the same rules as
+     * {@link Range#combine(Range, Range)}.
+     *
+     * @param range  the range (<code>null</code> permitted, in which case
+     *               the accumulator is not changed).
+     */
+    public void include(Range range) {
+        if (range != null) {
+            include(range.getLowerBound(), RangeBatch.upperBound(range));
+        }
+    }
+
+    /**
+     * Extends the bounds to include a range returned by the dataset or axis
+     * APIs, following the same rules as {@link #include(Range)}.
+     *
+     * @param range  the range (<code>null</code> permitted, in which case
+     *               the accumulator is not changed).
+     */
+    public void include(original.Range range) {
+        if (range != null) {
+            include(range.getLowerBound(), range.getUpperBound());
+        }
+    }
+
+    /**
+     * Extends the bounds to include the interval
+     * <code>[lower, upper]</code>, following the same rules as
+     * {@link Range#combine(Range, Range)}.
+     *
+     * @param lower  the lower bound of the interval.
+     * @param upper  the upper bound of the interval.
+     */
+    public void include(double lower, double upper) {
+        RangeBatch.checkBounds(lower, upper);
+        if (this.empty) {
+            this.lower = lower;
+            this.upper = upper;
+            this.empty = false;
+        }
+        else {
+            this.lower = Math.min(this.lower, lower);
+            this.upper = Math.max(this.upper, upper);
+        }
+    }
+
+    /**
+     * Extends the bounds to include every range in a batch.
+     *
+     * @param batch  the batch (<code>null</code> not permitted).
+     */
+    public void include(RangeBatch batch) {
+        if (batch == null) {
+            throw new IllegalArgumentException("Null 'batch' argument.");
+        }
+        int count = batch.getItemCount();
+        for (int i = 0; i < count; i++) {
+            include(batch.getLowerBound(i), batch.getUpperBound(i));
+        }
+    }
+
+    /**
+     * Returns a new range with the current bounds.
+     *
+     * @return The range, or <code>null</code> if the accumulator is empty.
+     */
+    public Range toRange() {
+        if (this.empty) {
+            return null;
+        }
+        return new Range(this.lower, this.upper);
+    }
+
+    /**
+     * Returns a new range with the current bounds, as the range type used
+     * by the dataset and axis APIs (for example
+     * {@link DomainInfo#getDomainBounds(boolean)}).
+     *
+     * @return The range, or <code>null</code> if the accumulator is empty.
+     */
+    public original.Range toOriginalRange() {
+        if (this.empty) {
+            return null;
+        }
+        return new original.Range(this.lower, this.upper);
+    }
+
+    /**
+     * Returns a string representing the accumulator (for debugging).
+     *
+     * @return A string.
+     */
+    public String toString() {
+        if (this.empty) {
+            return "RangeAccumulator[empty]";
+        }
+        return "RangeAccumulator[" + this.lower + "," + this.upper + "]";
+    }
+
+}
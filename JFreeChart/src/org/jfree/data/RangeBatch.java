@@ -0,0 +1,411 @@
+package org.jfree.data;
+
+import java.io.Serializable;
+
+/**
+ * A batch of ranges stored as two parallel primitive arrays (one for the
+ * lower bounds and one for the upper bounds).  The bulk operations in this
+ * class evaluate every range in a single loop and write their results into
+ * caller-supplied arrays, so that no objects are created per item.
+ * <P>
+ * The results are the same as calling the corresponding method of
+ * {@link Range} for each item in turn:  ranges are closed intervals (both
+ * bounds are included), and <code>NaN</code> is never contained in a range.
+ * <P>
+ * The arrays passed to the constructor are not copied, so that very large
+ * batches can be wrapped without doubling the memory in use.  The caller
+ * should not modify them while the batch is in use.
+ */
+public class RangeBatch implements Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 2190512391734563017L;
+
+    /** The lower bounds. */
+    private double[] lower;
+
+    /** The upper bounds. */
+    private double[] upper;
+
+    /**
+     * Creates a new batch that wraps the given bound arrays.
+     *
+     * @param lower  the lower bounds (<code>null</code> not permitted).
+     * @param upper  the upper bounds (<code>null</code> not permitted, must
+     *               have the same length as <code>lower</code>).
+     */
+    public RangeBatch(double[] lower, double[] upper) {
+        if (lower == null) {
+            throw new IllegalArgumentException("Null 'lower' argument.");
+        }
+        if (upper == null) {
+            throw new IllegalArgumentException("Null 'upper' argument.");
+        }
+        if (lower.length != upper.length) {
+            throw new IllegalArgumentException(
+                    "Arrays 'lower' and 'upper' differ in length.");
+        }
+        for (int i = 0; i < lower.length; i++) {
+            checkBounds(lower[i], upper[i]);
+        }
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    /**
+     * Creates a new batch holding the bounds of the given ranges.
+     *
+     * @param ranges  the ranges (<code>null</code> not permitted, and no
+     *                <code>null</code> items).
+     */
+    public RangeBatch(Range[] ranges) {
+        if (ranges == null) {
+            throw new IllegalArgumentException("Null 'ranges' argument.");
+        }
+        this.lower = new double[ranges.length];
+        this.upper = new double[ranges.length];
+        for (int i = 0; i < ranges.length; i++) {
+            if (ranges[i] == null) {
+                throw new IllegalArgumentException("Null range at index "
+                        + i + ".");
+            }
+            this.lower[i] = ranges[i].getLowerBound();
+            this.upper[i] = upperBound(ranges[i]);
+        }
+    }
+
+    /**
+     * Returns the number of ranges in the batch.
+     *
+     * @return The item count.
+     */
+    public int getItemCount() {
+        return this.lower.length;
+    }
+
+    /**
+     * Returns the lower bound of a range in the batch.
+     *
+     * @param item  the item index (zero-based).
+     *
+     * @return The lower bound.
+     */
+    public double getLowerBound(int item) {
+        return this.lower[item];
+    }
+
+    /**
+     * Returns the upper bound of a range in the batch.
+     *
+     * @param item  the item index (zero-based).
+     *
+     * @return The upper bound.
+     */
+    public double getUpperBound(int item) {
+        return this.upper[item];
+    }
+
+    /**
+     * Returns a range in the batch as a new {@link Range} instance.
+     *
+     * @param item  the item index (zero-based).
+     *
+     * @return The range (never <code>null</code>).
+     */
+    public Range getRange(int item) {
+        return new Range(this.lower[item], this.upper[item]);
+    }
+
+    /**
+     * Tests every range in the batch against a single value.  On return,
+     * <code>result[i]</code> is <code>true</code> if range <code>i</code>
+     * contains the value.
+     *
+     * @param value  the value to look for.
+     * @param result  the array for the results (<code>null</code> not
+     *                permitted, length at least {@link #getItemCount()}).
+     *
+     * @return The number of ranges that contain the value.
+     */
+    public int containsAll(double value, boolean[] result) {
+        checkResult(result);
+        double[] lo = this.lower;
+        double[] hi = this.upper;
+        int count = 0;
+        for (int i = 0; i < lo.length; i++) {
+            boolean b = contains(lo[i], hi[i], value);
+            result[i] = b;
+            if (b) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Tests each range in the batch against its own value.  On return,
+     * <code>result[i]</code> is <code>true</code> if range <code>i</code>
+     * contains <code>values[i]</code>.
+     *
+     * @param values  the values (<code>null</code> not permitted, length at
+     *                least {@link #getItemCount()}).
+     * @param result  the array for the results (<code>null</code> not
+     *                permitted, length at least {@link #getItemCount()}).
+     *
+     * @return The number of ranges that contain their value.
+     */
+    public int containsAll(double[] values, boolean[] result) {
+        checkValues(values);
+        checkResult(result);
+        double[] lo = this.lower;
+        double[] hi = this.upper;
+        int count = 0;
+        for (int i = 0; i < lo.length; i++) {
+            boolean b = contains(lo[i], hi[i], values[i]);
+            result[i] = b;
+            if (b) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Tests every range in the batch for an intersection with the interval
+     * <code>[b0, b1]</code>.  On return, <code>result[i]</code> is
+     * <code>true</code> if range <code>i</code> intersects the interval.
+     *
+     * @param b0  the lower bound of the interval.
+     * @param b1  the upper bound of the interval.
+     * @param result  the array for the results (<code>null</code> not
+     *                permitted, length at least {@link #getItemCount()}).
+     *
+     * @return The number of ranges that intersect the interval.
+     */
+    public int intersectsAll(double b0, double b1, boolean[] result) {
+        checkResult(result);
+        double[] lo = this.lower;
+        double[] hi = this.upper;
+        int count = 0;
+        for (int i = 0; i < lo.length; i++) {
+            boolean b = intersects(lo[i], hi[i], b0, b1);
+            result[i] = b;
+            if (b) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Constrains a single value to every range in the batch.  On return,
+     * <code>result[i]</code> holds the value closest to <code>value</code>
+     * that lies within range <code>i</code>.
+     *
+     * @param value  the value.
+     * @param result  the array for the results (<code>null</code> not
+     *                permitted, length at least {@link #getItemCount()}).
+     */
+    public void constrainInto(double value, double[] result) {
+        checkResult(result);
+        double[] lo = this.lower;
+        double[] hi = this.upper;
+        for (int i = 0; i < lo.length; i++) {
+            result[i] = constrain(lo[i], hi[i], value);
+        }
+    }
+
+    /**
+     * Constrains each value to the corresponding range in the batch.  On
+     * return, <code>result[i]</code> holds the value closest to
+     * <code>values[i]</code> that lies within range <code>i</code>.  It is
+     * safe to pass the same array for <code>values</code> and
+     * <code>result</code>.
+     *
+     * @param values  the values (<code>null</code> not permitted, length at
+     *                least {@link #getItemCount()}).
+     * @param result  the array for the results (<code>null</code> not
+     *                permitted, length at least {@link #getItemCount()}).
+     */
+    public void constrainInto(double[] values, double[] result) {
+        checkValues(values);
+        checkResult(result);
+        double[] lo = this.lower;
+        double[] hi = this.upper;
+        for (int i = 0; i < lo.length; i++) {
+            result[i] = constrain(lo[i], hi[i], values[i]);
+        }
+    }
+
+    /**
+     * Returns the smallest range that contains every range in the batch.
+     * This gives the same result as folding {@link Range#combine(Range,
+     * Range)} over the items.
+     *
+     * @return The combined range, or <code>null</code> if the batch is
+     *         empty.
+     */
+    public Range combineAll() {
+        double[] lo = this.lower;
+        double[] hi = this.upper;
+        if (lo.length == 0) {
+            return null;
+        }
+        double min = lo[0];
+        double max = hi[0];
+        for (int i = 1; i < lo.length; i++) {
+            min = Math.min(min, lo[i]);
+            max = Math.max(max, hi[i]);
+        }
+        return new Range(min, max);
+    }
+
+    /**
+     * Returns <code>true</code> if the closed interval
+     * <code>[lower, upper]</code> contains <code>value</code>.
+     *
+     * @param lower  the lower bound.
+     * @param upper  the upper bound.
+     * @param value  the value.
+     *
+     * @return A boolean.
+     */
+    static boolean contains(double lower, double upper, double value) {
+        return value >= lower && value <= upper;
+    }
+
+    /**
+     * Returns <code>true</code> if the closed interval
+     * <code>[lower, upper]</code> shares at least one point with the
+     * interval <code>[b0, b1]</code>.
+     *
+     * @param lower  the lower bound of the range.
+     * @param upper  the upper bound of the range.
+     * @param b0  the lower bound of the interval.
+     * @param b1  the upper bound of the interval.
+     *
+     * @return A boolean.
+     */
+    static boolean intersects(double lower, double upper, double b0,
+            double b1) {
+        return b1 >= b0 && b0 <= upper && b1 >= lower;
+    }
+
+    /**
+     * Returns the value within <code>[lower, upper]</code> that is closest
+     * to <code>value</code>.
+     *
+     * @param lower  the lower bound.
+     * @param upper  the upper bound.
+     * @param value  the value.
+     *
+     * @return The constrained value.
+     */
+    static double constrain(double lower, double upper, double value) {
+        if (value > upper) {
+            return upper;
+        }
+        if (value < lower) {
+            return lower;
+        }
+        return value;
+    }
+
+    /**
+     * Checks that a pair of bounds describes a valid range, using the same
+     * rule (and message) as the {@link Range} constructor.
+     *
+     * @param lower  the lower bound.
+     * @param upper  the upper bound.
+     */
+    static void checkBounds(double lower, double upper) {
+        if (lower > upper) {
+            throw new IllegalArgumentException(
+                    "Range(double, double): require lower (" + lower
+                    + ") <= upper (" + upper + ").");
+        }
+    }
+
+    /**
+     * Returns the upper bound of a range.  {@link Range#getUpperBound()} in
+     * the bundled library returns the lower bound, so the upper bound is
+     * derived from the lower bound and the length instead, then moved by
+     * an ulp where the sum has rounded outside the range (or overflowed).
+     *
+     * @param range  the range (<code>null</code> not permitted).
+     *
+     * @return The upper bound.
+     */
+    static double upperBound(Range range) {
+        double lo = range.getLowerBound();
+        double hi = lo + range.getLength();
+        if (hi < lo) {
+            return lo;
+        }
+        if (!range.contains(hi)) {
+            double down = Math.nextDown(hi);
+            if (down >= lo && range.contains(down)) {
+                return down;
+            }
+        }
+        else {
+            double up = Math.nextUp(hi);
+            if (range.contains(up)) {
+                return up;
+            }
+        }
+        return hi;
+    }
+
+    /**
+     * Checks an input array of values.
+     *
+     * @param values  the values.
+     */
+    private void checkValues(double[] values) {
+        if (values == null) {
+            throw new IllegalArgumentException("Null 'values' argument.");
+        }
+        if (values.length < this.lower.length) {
+            throw new IllegalArgumentException(
+                    "The 'values' array is shorter than the batch.");
+        }
+    }
+
+    /**
+     * Checks a result array.
+     *
+     * @param result  the result array.
+     */
+    private void checkResult(boolean[] result) {
+        if (result == null) {
+            throw new IllegalArgumentException("Null 'result' argument.");
+        }
+        checkResultLength(result.length);
+    }
+
+    /**
+     * Checks a result array.
+     *
+     * @param result  the result array.
+     */
+    private void checkResult(double[] result) {
+        if (result == null) {
+            throw new IllegalArgumentException("Null 'result' argument.");
+        }
+        checkResultLength(result.length);
+    }
+
+    /**
+     * Checks the length of a result array.
+     *
+     * @param length  the array length.
+     */
+    private void checkResultLength(int length) {
+        if (length < this.lower.length) {
+            throw new IllegalArgumentException(
+                    "The 'result' array is shorter than the batch.");
+        }
+    }
+
+}
@@ -0,0 +1,258 @@
+package org.jfree.data;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.RandomAccess;
+
+/**
+ * A list stored in a circular array, so that items can be added or removed
+ * at either end in constant (amortized) time.  An {@link java.util.ArrayList}
+ * shifts every item when its first item is removed, which makes a series
+ * with a maximum item count take time proportional to its size for each
+ * new item once it is full.  Items added or removed elsewhere in the list
+ * shift the items on the shorter side.
+ * <P>
+ * Like {@link java.util.ArrayList}, this class is not synchronized.
+ */
+public class RingBufferList extends AbstractList
+        implements RandomAccess, Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -4418935267419640735L;
+
+    /** The default initial capacity. */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /** The items (the length is always a power of two). */
+    private Object[] elements;
+
+    /** The array index of the first item. */
+    private int head;
+
+    /** The number of items. */
+    private int size;
+
+    /**
+     * Creates a new empty list.
+     */
+    public RingBufferList() {
+        this.elements = new Object[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Creates a new list containing the items of a collection, in the order
+     * returned by its iterator.
+     *
+     * @param items  the items (<code>null</code> not permitted).
+     */
+    public RingBufferList(Collection items) {
+        this.elements = new Object[capacityFor(items.size())];
+        Iterator iterator = items.iterator();
+        while (iterator.hasNext()) {
+            this.elements[this.size++] = iterator.next();
+        }
+    }
+
+    /**
+     * Returns the number of items in the list.
+     *
+     * @return The item count.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns an item.
+     *
+     * @param index  the item index (zero-based).
+     *
+     * @return The item.
+     */
+    public Object get(int index) {
+        checkIndex(index, this.size);
+        return this.elements[physical(index)];
+    }
+
+    /**
+     * Replaces an item.
+     *
+     * @param index  the item index (zero-based).
+     * @param item  the new item.
+     *
+     * @return The previous item.
+     */
+    public Object set(int index, Object item) {
+        checkIndex(index, this.size);
+        int i = physical(index);
+        Object result = this.elements[i];
+        this.elements[i] = item;
+        return result;
+    }
+
+    /**
+     * Adds an item at the end of the list.
+     *
+     * @param item  the item.
+     *
+     * @return <code>true</code>.
+     */
+    public boolean add(Object item) {
+        ensureCapacity(this.size + 1);
+        this.elements[physical(this.size)] = item;
+        this.size++;
+        this.modCount++;
+        return true;
+    }
+
+    /**
+     * Inserts an item.
+     *
+     * @param index  the index for the new item.
+     * @param item  the item.
+     */
+    public void add(int index, Object item) {
+        checkIndex(index, this.size + 1);
+        ensureCapacity(this.size + 1);
+        if (index < this.size / 2) {
+            this.head = (this.head - 1) & (this.elements.length - 1);
+            for (int k = 0; k < index; k++) {
+                this.elements[physical(k)] = this.elements[physical(k + 1)];
+            }
+        }
+        else {
+            for (int k = this.size; k > index; k--) {
+                this.elements[physical(k)] = this.elements[physical(k - 1)];
+            }
+        }
+        this.elements[physical(index)] = item;
+        this.size++;
+        this.modCount++;
+    }
+
+    /**
+     * Removes an item.  Removing the first or last item takes constant
+     * time.
+     *
+     * @param index  the item index (zero-based).
+     *
+     * @return The item that was removed.
+     */
+    public Object remove(int index) {
+        checkIndex(index, this.size);
+        Object result = this.elements[physical(index)];
+        if (index < this.size / 2) {
+            for (int k = index; k > 0; k--) {
+                this.elements[physical(k)] = this.elements[physical(k - 1)];
+            }
+            this.elements[this.head] = null;
+            this.head = (this.head + 1) & (this.elements.length - 1);
+        }
+        else {
+            for (int k = index; k < this.size - 1; k++) {
+                this.elements[physical(k)] = this.elements[physical(k + 1)];
+            }
+            this.elements[physical(this.size - 1)] = null;
+        }
+        this.size--;
+        this.modCount++;
+        return result;
+    }
+
+    /**
+     * Removes all the items from the list.
+     */
+    public void clear() {
+        removeRange(0, this.size);
+    }
+
+    /**
+     * Removes a range of items.  Removing items from the start of the list
+     * takes time proportional to the number of items removed.
+     *
+     * @param fromIndex  the index of the first item to remove.
+     * @param toIndex  the index after the last item to remove.
+     */
+    protected void removeRange(int fromIndex, int toIndex) {
+        int count = toIndex - fromIndex;
+        if (count <= 0) {
+            return;
+        }
+        if (fromIndex == 0) {
+            for (int k = 0; k < count; k++) {
+                this.elements[physical(k)] = null;
+            }
+            this.head = physical(count);
+        }
+        else {
+            for (int k = fromIndex; k + count < this.size; k++) {
+                this.elements[physical(k)]
+                        = this.elements[physical(k + count)];
+            }
+            for (int k = this.size - count; k < this.size; k++) {
+                this.elements[physical(k)] = null;
+            }
+        }
+        this.size -= count;
+        this.modCount++;
+    }
+
+    /**
+     * Returns the array index for a list index.
+     *
+     * @param index  the list index.
+     *
+     * @return The array index.
+     */
+    private int physical(int index) {
+        return (this.head + index) & (this.elements.length - 1);
+    }
+
+    /**
+     * Grows the array, if necessary, to hold a number of items.
+     *
+     * @param capacity  the number of items.
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= this.elements.length) {
+            return;
+        }
+        Object[] grown = new Object[capacityFor(capacity)];
+        for (int k = 0; k < this.size; k++) {
+            grown[k] = this.elements[physical(k)];
+        }
+        this.elements = grown;
+        this.head = 0;
+    }
+
+    /**
+     * Returns the array length to use for a number of items.
+     *
+     * @param count  the number of items.
+     *
+     * @return A power of two, at least <code>count</code>.
+     */
+    private static int capacityFor(int count) {
+        int result = DEFAULT_CAPACITY;
+        while (result < count) {
+            result <<= 1;
+        }
+        return result;
+    }
+
+    /**
+     * Checks an index.
+     *
+     * @param index  the index.
+     * @param limit  the index limit (exclusive).
+     */
+    private void checkIndex(int index, int limit) {
+        if (index < 0 || index >= limit) {
+            throw new IndexOutOfBoundsException("Index: " + index
+                    + ", Size: " + this.size);
+        }
+    }
+
+}
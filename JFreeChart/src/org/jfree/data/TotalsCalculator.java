@@ -0,0 +1,607 @@
+package org.jfree.data;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Calculates every row total or every column total of a {@link Values2D}
+ * instance in a single pass, using a fork-join pool for large tables.
+ * <P>
+ * The totals use Neumaier's compensated summation, so they are much less
+ * sensitive to rounding error than a plain loop when millions of values of
+ * mixed magnitude are added.  As with
+ * {@link DataUtilities#calculateColumnTotal(Values2D, int)} and
+ * {@link DataUtilities#calculateRowTotal(Values2D, int)},
+ * <code>null</code> values are skipped.  Missing values in a
+ * {@link DoubleMatrixValues2D} are skipped too, and that class is read
+ * through its primitive array without creating any {@link Number}
+ * instances.
+ * <P>
+ * The work is split by rows until each task covers no more than the split
+ * threshold (a number of cells).  In deterministic mode (the default) the
+ * split points depend only on the table size and the threshold, and
+ * partial column totals are merged in a fixed order, so the results are
+ * identical from run to run and for any parallelism setting.  With
+ * deterministic mode switched off, partial column totals are merged in the
+ * order that tasks complete, which keeps fewer partial results in memory
+ * but means the last bits of a total may vary from run to run.  Row totals
+ * never need merging, so they are always reproducible.
+ * <P>
+ * The table must not be modified while a calculation is running.
+ */
+public class TotalsCalculator {
+
+    /** The default split threshold (in cells). */
+    public static final int DEFAULT_SPLIT_THRESHOLD = 1 << 16;
+
+    /** The number of worker threads. */
+    private int parallelism;
+
+    /** The largest number of cells handled by a single task. */
+    private int splitThreshold;
+
+    /** A flag that controls reproducible merging of partial totals. */
+    private boolean deterministic;
+
+    /** The pool (created when first needed). */
+    private ForkJoinPool pool;
+
+    /**
+     * Creates a new calculator that uses one thread per available
+     * processor, the default split threshold, and deterministic mode.
+     */
+    public TotalsCalculator() {
+        this(Runtime.getRuntime().availableProcessors(),
+                DEFAULT_SPLIT_THRESHOLD, true);
+    }
+
+    /**
+     * Creates a new calculator.
+     *
+     * @param parallelism  the number of threads (1 means that all work is
+     *                     done on the calling thread).
+     * @param splitThreshold  the largest number of cells handled by a
+     *                        single task (must be positive).
+     * @param deterministic  a flag that controls whether or not the results
+     *                       are reproducible from run to run.
+     */
+    public TotalsCalculator(int parallelism, int splitThreshold,
+            boolean deterministic) {
+        setParallelism(parallelism);
+        setSplitThreshold(splitThreshold);
+        this.deterministic = deterministic;
+    }
+
+    /**
+     * Returns the number of threads used for a calculation.
+     *
+     * @return The parallelism.
+     */
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Sets the number of threads used for a calculation.
+     *
+     * @param parallelism  the number of threads (1 means that all work is
+     *                     done on the calling thread).
+     */
+    public synchronized void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(
+                    "Requires 'parallelism' >= 1.");
+        }
+        if (this.pool != null && parallelism != this.parallelism) {
+            this.pool.shutdown();
+            this.pool = null;
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns the largest number of cells handled by a single task.
+     *
+     * @return The split threshold.
+     */
+    public int getSplitThreshold() {
+        return this.splitThreshold;
+    }
+
+    /**
+     * Sets the largest number of cells handled by a single task.  Smaller
+     * values give better load balancing, larger values less overhead.
+     *
+     * @param threshold  the threshold (must be positive).
+     */
+    public void setSplitThreshold(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException(
+                    "Requires 'threshold' >= 1.");
+        }
+        this.splitThreshold = threshold;
+    }
+
+    /**
+     * Returns the flag that controls whether or not results are
+     * reproducible from run to run.
+     *
+     * @return A boolean.
+     */
+    public boolean isDeterministic() {
+        return this.deterministic;
+    }
+
+    /**
+     * Sets the flag that controls whether or not results are reproducible
+     * from run to run.
+     *
+     * @param deterministic  the flag.
+     */
+    public void setDeterministic(boolean deterministic) {
+        this.deterministic = deterministic;
+    }
+
+    /**
+     * Returns the total of every column in a table.
+     *
+     * @param data  the table (<code>null</code> not permitted).
+     *
+     * @return An array containing one total per column.
+     */
+    public double[] calculateColumnTotals(Values2D data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Null 'data' argument.");
+        }
+        int rowCount = data.getRowCount();
+        int columnCount = data.getColumnCount();
+        double[] result = new double[columnCount];
+        if (rowCount == 0 || columnCount == 0) {
+            return result;
+        }
+        int rowsPerTask = rowsPerTask(columnCount);
+        Partial totals;
+        if (this.parallelism == 1 || rowCount <= rowsPerTask) {
+            totals = columnTotals(data, 0, rowCount, rowsPerTask);
+        }
+        else if (this.deterministic) {
+            totals = getPool().invoke(new ColumnTask(data, 0, rowCount,
+                    rowsPerTask));
+        }
+        else {
+            totals = new Partial(columnCount);
+            getPool().invoke(new UnorderedColumnTask(data, 0, rowCount,
+                    rowsPerTask, totals));
+        }
+        totals.finish(result);
+        return result;
+    }
+
+    /**
+     * Returns the total of every row in a table.
+     *
+     * @param data  the table (<code>null</code> not permitted).
+     *
+     * @return An array containing one total per row.
+     */
+    public double[] calculateRowTotals(Values2D data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Null 'data' argument.");
+        }
+        int rowCount = data.getRowCount();
+        int columnCount = data.getColumnCount();
+        double[] result = new double[rowCount];
+        if (rowCount == 0 || columnCount == 0) {
+            return result;
+        }
+        int rowsPerTask = rowsPerTask(columnCount);
+        if (this.parallelism == 1 || rowCount <= rowsPerTask) {
+            rowTotals(data, 0, rowCount, result);
+        }
+        else {
+            getPool().invoke(new RowTask(data, 0, rowCount, rowsPerTask,
+                    result));
+        }
+        return result;
+    }
+
+    /**
+     * Releases the worker threads.  The calculator can still be used
+     * afterwards (a new pool is created when needed).
+     */
+    public synchronized void shutdown() {
+        if (this.pool != null) {
+            this.pool.shutdown();
+            this.pool = null;
+        }
+    }
+
+    /**
+     * Returns the number of rows that a single task handles.
+     *
+     * @param columnCount  the number of columns (positive).
+     *
+     * @return The number of rows (at least 1).
+     */
+    private int rowsPerTask(int columnCount) {
+        return Math.max(1, this.splitThreshold / columnCount);
+    }
+
+    /**
+     * Returns the pool, creating it if necessary.
+     *
+     * @return The pool.
+     */
+    private synchronized ForkJoinPool getPool() {
+        if (this.pool == null) {
+            this.pool = new ForkJoinPool(this.parallelism);
+        }
+        return this.pool;
+    }
+
+    /**
+     * Returns the partial column totals of a block of rows, calculated on
+     * the calling thread.  The block is split, and the halves merged, in
+     * exactly the same way as by a {@link ColumnTask}, so the results match
+     * a parallel calculation bit for bit.
+     *
+     * @param data  the table.
+     * @param from  the first row.
+     * @param to  the row after the last row.
+     * @param rowsPerTask  the largest number of rows for one task.
+     *
+     * @return The partial totals.
+     */
+    static Partial columnTotals(Values2D data, int from, int to,
+            int rowsPerTask) {
+        if (to - from <= rowsPerTask) {
+            Partial result = new Partial(data.getColumnCount());
+            result.addRows(data, from, to);
+            return result;
+        }
+        int mid = (from + to) >>> 1;
+        Partial result = columnTotals(data, from, mid, rowsPerTask);
+        result.merge(columnTotals(data, mid, to, rowsPerTask));
+        return result;
+    }
+
+    /**
+     * Calculates the compensated totals of a block of rows.
+     *
+     * @param data  the table.
+     * @param from  the first row.
+     * @param to  the row after the last row.
+     * @param result  the array for the totals.
+     */
+    static void rowTotals(Values2D data, int from, int to, double[] result) {
+        int columnCount = data.getColumnCount();
+        if (data instanceof DoubleMatrixValues2D) {
+            double[] d = ((DoubleMatrixValues2D) data).getData();
+            for (int r = from; r < to; r++) {
+                double sum = 0.0;
+                double c = 0.0;
+                int end = (r + 1) * columnCount;
+                for (int i = r * columnCount; i < end; i++) {
+                    double v = d[i];
+                    if (v == v) {  // skip NaN (missing)
+                        double t = sum + v;
+                        c += Math.abs(sum) >= Math.abs(v) ? (sum - t) + v
+                                : (v - t) + sum;
+                        sum = t;
+                    }
+                }
+                result[r] = compensated(sum, c);
+            }
+            return;
+        }
+        for (int r = from; r < to; r++) {
+            double sum = 0.0;
+            double c = 0.0;
+            for (int col = 0; col < columnCount; col++) {
+                Number n = data.getValue(r, col);
+                if (n != null) {
+                    double v = n.doubleValue();
+                    double t = sum + v;
+                    c += Math.abs(sum) >= Math.abs(v) ? (sum - t) + v
+                            : (v - t) + sum;
+                    sum = t;
+                }
+            }
+            result[r] = compensated(sum, c);
+        }
+    }
+
+    /**
+     * Returns a compensated total.  When the running sum has overflowed
+     * (or is <code>NaN</code>), the compensation term is meaningless and
+     * the plain sum is returned, as a plain loop would.
+     *
+     * @param sum  the running sum.
+     * @param compensation  the accumulated compensation.
+     *
+     * @return The total.
+     */
+    static double compensated(double sum, double compensation) {
+        if (Double.isInfinite(sum) || Double.isNaN(sum)) {
+            return sum;
+        }
+        return sum + compensation;
+    }
+
+    /**
+     * Partial column totals, as a running sum and a compensation term for
+     * each column.
+     */
+    static final class Partial {
+
+        /** The running sums. */
+        final double[] sum;
+
+        /** The compensation terms. */
+        final double[] compensation;
+
+        /**
+         * Creates new zero totals.
+         *
+         * @param columnCount  the number of columns.
+         */
+        Partial(int columnCount) {
+            this.sum = new double[columnCount];
+            this.compensation = new double[columnCount];
+        }
+
+        /**
+         * Adds a value to the total for one column.
+         *
+         * @param column  the column.
+         * @param v  the value.
+         */
+        void add(int column, double v) {
+            double s = this.sum[column];
+            double t = s + v;
+            this.compensation[column] += Math.abs(s) >= Math.abs(v)
+                    ? (s - t) + v : (v - t) + s;
+            this.sum[column] = t;
+        }
+
+        /**
+         * Adds the values in a block of rows.
+         *
+         * @param data  the table.
+         * @param from  the first row.
+         * @param to  the row after the last row.
+         */
+        void addRows(Values2D data, int from, int to) {
+            int columnCount = this.sum.length;
+            if (data instanceof DoubleMatrixValues2D) {
+                double[] d = ((DoubleMatrixValues2D) data).getData();
+                for (int r = from; r < to; r++) {
+                    int base = r * columnCount;
+                    for (int col = 0; col < columnCount; col++) {
+                        double v = d[base + col];
+                        if (v == v) {  // skip NaN (missing)
+                            add(col, v);
+                        }
+                    }
+                }
+                return;
+            }
+            for (int r = from; r < to; r++) {
+                for (int col = 0; col < columnCount; col++) {
+                    Number n = data.getValue(r, col);
+                    if (n != null) {
+                        add(col, n.doubleValue());
+                    }
+                }
+            }
+        }
+
+        /**
+         * Merges other partial totals into these ones.
+         *
+         * @param other  the other totals.
+         */
+        void merge(Partial other) {
+            for (int col = 0; col < this.sum.length; col++) {
+                add(col, other.sum[col]);
+                this.compensation[col] += other.compensation[col];
+            }
+        }
+
+        /**
+         * Writes the final totals into an array.
+         *
+         * @param result  the array.
+         */
+        void finish(double[] result) {
+            for (int col = 0; col < this.sum.length; col++) {
+                result[col] = compensated(this.sum[col],
+                        this.compensation[col]);
+            }
+        }
+
+    }
+
+    /**
+     * A task that returns the partial column totals of a block of rows,
+     * merging the halves of a split in a fixed order.
+     */
+    static final class ColumnTask extends RecursiveTask<Partial> {
+
+        /** For serialization. */
+        private static final long serialVersionUID = 1L;
+
+        /** The table. */
+        private final Values2D data;
+
+        /** The first row. */
+        private final int from;
+
+        /** The row after the last row. */
+        private final int to;
+
+        /** The largest number of rows for one task. */
+        private final int rowsPerTask;
+
+        /**
+         * Creates a new task.
+         *
+         * @param data  the table.
+         * @param from  the first row.
+         * @param to  the row after the last row.
+         * @param rowsPerTask  the largest number of rows for one task.
+         */
+        ColumnTask(Values2D data, int from, int to, int rowsPerTask) {
+            this.data = data;
+            this.from = from;
+            this.to = to;
+            this.rowsPerTask = rowsPerTask;
+        }
+
+        /**
+         * Computes the totals.
+         *
+         * @return The partial totals.
+         */
+        protected Partial compute() {
+            if (this.to - this.from <= this.rowsPerTask) {
+                Partial result = new Partial(this.data.getColumnCount());
+                result.addRows(this.data, this.from, this.to);
+                return result;
+            }
+            int mid = (this.from + this.to) >>> 1;
+            ColumnTask left = new ColumnTask(this.data, this.from, mid,
+                    this.rowsPerTask);
+            ColumnTask right = new ColumnTask(this.data, mid, this.to,
+                    this.rowsPerTask);
+            right.fork();
+            Partial result = left.compute();
+            result.merge(right.join());
+            return result;
+        }
+
+    }
+
+    /**
+     * A task that adds the partial column totals of a block of rows to a
+     * shared accumulator as soon as they are ready.
+     */
+    static final class UnorderedColumnTask extends RecursiveAction {
+
+        /** For serialization. */
+        private static final long serialVersionUID = 1L;
+
+        /** The table. */
+        private final Values2D data;
+
+        /** The first row. */
+        private final int from;
+
+        /** The row after the last row. */
+        private final int to;
+
+        /** The largest number of rows for one task. */
+        private final int rowsPerTask;
+
+        /** The shared totals. */
+        private final Partial totals;
+
+        /**
+         * Creates a new task.
+         *
+         * @param data  the table.
+         * @param from  the first row.
+         * @param to  the row after the last row.
+         * @param rowsPerTask  the largest number of rows for one task.
+         * @param totals  the shared totals.
+         */
+        UnorderedColumnTask(Values2D data, int from, int to,
+                int rowsPerTask, Partial totals) {
+            this.data = data;
+            this.from = from;
+            this.to = to;
+            this.rowsPerTask = rowsPerTask;
+            this.totals = totals;
+        }
+
+        /**
+         * Computes the totals.
+         */
+        protected void compute() {
+            if (this.to - this.from <= this.rowsPerTask) {
+                Partial partial = new Partial(this.data.getColumnCount());
+                partial.addRows(this.data, this.from, this.to);
+                synchronized (this.totals) {
+                    this.totals.merge(partial);
+                }
+                return;
+            }
+            int mid = (this.from + this.to) >>> 1;
+            invokeAll(new UnorderedColumnTask(this.data, this.from, mid,
+                    this.rowsPerTask, this.totals),
+                    new UnorderedColumnTask(this.data, mid, this.to,
+                    this.rowsPerTask, this.totals));
+        }
+
+    }
+
+    /**
+     * A task that calculates the totals of a block of rows.
+     */
+    static final class RowTask extends RecursiveAction {
+
+        /** For serialization. */
+        private static final long serialVersionUID = 1L;
+
+        /** The table. */
+        private final Values2D data;
+
+        /** The first row. */
+        private final int from;
+
+        /** The row after the last row. */
+        private final int to;
+
+        /** The largest number of rows for one task. */
+        private final int rowsPerTask;
+
+        /** The array for the totals. */
+        private final double[] result;
+
+        /**
+         * Creates a new task.
+         *
+         * @param data  the table.
+         * @param from  the first row.
+         * @param to  the row after the last row.
+         * @param rowsPerTask  the largest number of rows for one task.
+         * @param result  the array for the totals.
+         */
+        RowTask(Values2D data, int from, int to, int rowsPerTask,
+                double[] result) {
+            this.data = data;
+            this.from = from;
+            this.to = to;
+            this.rowsPerTask = rowsPerTask;
+            this.result = result;
+        }
+
+        /**
+         * Computes the totals.
+         */
+        protected void compute() {
+            if (this.to - this.from <= this.rowsPerTask) {
+                rowTotals(this.data, this.from, this.to, this.result);
+                return;
+            }
+            int mid = (this.from + this.to) >>> 1;
+            invokeAll(new RowTask(this.data, this.from, mid,
+                    this.rowsPerTask, this.result),
+                    new RowTask(this.data, mid, this.to, this.rowsPerTask,
+                    this.result));
+        }
+
+    }
+
+}
@@ -0,0 +1,480 @@
+package org.jfree.data.benchmark;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A small benchmark harness that times an operation over a number of warmup
+ * and measurement iterations, and records the time, the heap allocation and
+ * the garbage collector activity for each operation.  Results can be
+ * written to a CSV file so that runs can be compared by other tools.
+ * <P>
+ * Allocation is measured with the per-thread allocation counter of the
+ * HotSpot <code>com.sun.management.ThreadMXBean</code>.  On a JVM without
+ * that counter, the bytes per operation are reported as <code>-1</code>.
+ * If an operation throws a runtime exception, the benchmark is recorded
+ * with <code>NaN</code> timings and the exception in the error column, and
+ * the remaining benchmarks still run.
+ */
+public class BenchmarkHarness {
+
+    /** The default number of warmup iterations. */
+    public static final int DEFAULT_WARMUP_ITERATIONS = 5;
+
+    /** The default number of measurement iterations. */
+    public static final int DEFAULT_MEASUREMENT_ITERATIONS = 10;
+
+    /** The CSV header line. */
+    public static final String CSV_HEADER = "benchmark,implementation,size,"
+            + "iterations,ns_per_op,ns_per_op_stddev,bytes_per_op,gc_count,"
+            + "gc_time_ms,error";
+
+    /** The number of warmup iterations. */
+    private int warmupIterations;
+
+    /** The number of measurement iterations. */
+    private int measurementIterations;
+
+    /** The results, in the order they were measured. */
+    private List results;
+
+    /** Keeps the values returned by the operations alive. */
+    private double sink;
+
+    /**
+     * An operation to benchmark.
+     */
+    public interface Operation {
+
+        /**
+         * Runs the operation once.
+         *
+         * @return A value that depends on the work done, so that the work
+         *         cannot be optimised away.
+         */
+        double run();
+
+    }
+
+    /**
+     * The result of one benchmark.
+     */
+    public static class Result {
+
+        /** The benchmark name. */
+        private String benchmark;
+
+        /** The implementation name. */
+        private String implementation;
+
+        /** The dataset size. */
+        private int size;
+
+        /** The number of measured operations. */
+        private int iterations;
+
+        /** The mean time per operation, in nanoseconds. */
+        private double nanosPerOp;
+
+        /** The standard deviation of the time per operation. */
+        private double nanosPerOpStdDev;
+
+        /** The bytes allocated per operation (-1 if unknown). */
+        private double bytesPerOp;
+
+        /** The number of collections during measurement. */
+        private long gcCount;
+
+        /** The collection time during measurement, in milliseconds. */
+        private long gcTimeMillis;
+
+        /** The error message (<code>null</code> if the benchmark ran). */
+        private String error;
+
+        /**
+         * Creates a new result.
+         *
+         * @param benchmark  the benchmark name.
+         * @param implementation  the implementation name.
+         * @param size  the dataset size.
+         * @param iterations  the number of measured operations.
+         * @param nanosPerOp  the mean time per operation.
+         * @param nanosPerOpStdDev  the standard deviation.
+         * @param bytesPerOp  the bytes allocated per operation.
+         * @param gcCount  the number of collections.
+         * @param gcTimeMillis  the collection time.
+         * @param error  the error message (<code>null</code> permitted).
+         */
+        public Result(String benchmark, String implementation, int size,
+                int iterations, double nanosPerOp, double nanosPerOpStdDev,
+                double bytesPerOp, long gcCount, long gcTimeMillis,
+                String error) {
+            this.benchmark = benchmark;
+            this.implementation = implementation;
+            this.size = size;
+            this.iterations = iterations;
+            this.nanosPerOp = nanosPerOp;
+            this.nanosPerOpStdDev = nanosPerOpStdDev;
+            this.bytesPerOp = bytesPerOp;
+            this.gcCount = gcCount;
+            this.gcTimeMillis = gcTimeMillis;
+            this.error = error;
+        }
+
+        /**
+         * Returns the benchmark name.
+         *
+         * @return The benchmark name.
+         */
+        public String getBenchmark() {
+            return this.benchmark;
+        }
+
+        /**
+         * Returns the implementation name.
+         *
+         * @return The implementation name.
+         */
+        public String getImplementation() {
+            return this.implementation;
+        }
+
+        /**
+         * Returns the dataset size.
+         *
+         * @return The size.
+         */
+        public int getSize() {
+            return this.size;
+        }
+
+        /**
+         * Returns the number of measured operations.
+         *
+         * @return The iteration count.
+         */
+        public int getIterations() {
+            return this.iterations;
+        }
+
+        /**
+         * Returns the mean time per operation, in nanoseconds.
+         *
+         * @return The time.
+         */
+        public double getNanosPerOp() {
+            return this.nanosPerOp;
+        }
+
+        /**
+         * Returns the standard deviation of the time per operation.
+         *
+         * @return The standard deviation.
+         */
+        public double getNanosPerOpStdDev() {
+            return this.nanosPerOpStdDev;
+        }
+
+        /**
+         * Returns the bytes allocated per operation.
+         *
+         * @return The bytes, or <code>-1</code> if allocation could not be
+         *         measured.
+         */
+        public double getBytesPerOp() {
+            return this.bytesPerOp;
+        }
+
+        /**
+         * Returns the number of collections during measurement.
+         *
+         * @return The count.
+         */
+        public long getGcCount() {
+            return this.gcCount;
+        }
+
+        /**
+         * Returns the collection time during measurement.
+         *
+         * @return The time in milliseconds.
+         */
+        public long getGcTimeMillis() {
+            return this.gcTimeMillis;
+        }
+
+        /**
+         * Returns the error message.
+         *
+         * @return The message, or <code>null</code> if the benchmark ran
+         *         without error.
+         */
+        public String getError() {
+            return this.error;
+        }
+
+        /**
+         * Returns this result as a CSV line (without a line terminator).
+         *
+         * @return The CSV line.
+         */
+        public String toCsv() {
+            String message = "";
+            if (this.error != null) {
+                message = this.error.replace(',', ';').replace('\n', ' ');
+            }
+            return String.format(Locale.ROOT,
+                    "%s,%s,%d,%d,%.3f,%.3f,%.1f,%d,%d,%s",
+                    new Object[] {this.benchmark, this.implementation,
+                    Integer.valueOf(this.size),
+                    Integer.valueOf(this.iterations),
+                    Double.valueOf(this.nanosPerOp),
+                    Double.valueOf(this.nanosPerOpStdDev),
+                    Double.valueOf(this.bytesPerOp), Long.valueOf(this.gcCount),
+                    Long.valueOf(this.gcTimeMillis), message});
+        }
+
+        /**
+         * Returns a string for this result.
+         *
+         * @return A string.
+         */
+        public String toString() {
+            return toCsv();
+        }
+
+    }
+
+    /**
+     * Creates a new harness with the default iteration counts.
+     */
+    public BenchmarkHarness() {
+        this(DEFAULT_WARMUP_ITERATIONS, DEFAULT_MEASUREMENT_ITERATIONS);
+    }
+
+    /**
+     * Creates a new harness.
+     *
+     * @param warmupIterations  the number of warmup iterations (zero or
+     *                          more).
+     * @param measurementIterations  the number of measurement iterations
+     *                               (one or more).
+     */
+    public BenchmarkHarness(int warmupIterations,
+            int measurementIterations) {
+        if (warmupIterations < 0) {
+            throw new IllegalArgumentException(
+                    "Negative 'warmupIterations' argument.");
+        }
+        if (measurementIterations < 1) {
+            throw new IllegalArgumentException(
+                    "Require 'measurementIterations' >= 1.");
+        }
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.results = new ArrayList();
+    }
+
+    /**
+     * Runs a benchmark and records the result.
+     *
+     * @param benchmark  the benchmark name (<code>null</code> not
+     *                   permitted).
+     * @param implementation  the implementation name (<code>null</code> not
+     *                        permitted).
+     * @param size  the dataset size (recorded with the result).
+     * @param operation  the operation (<code>null</code> not permitted).
+     *
+     * @return The result.
+     */
+    public Result run(String benchmark, String implementation, int size,
+            Operation operation) {
+        if (benchmark == null) {
+            throw new IllegalArgumentException("Null 'benchmark' argument.");
+        }
+        if (implementation == null) {
+            throw new IllegalArgumentException(
+                    "Null 'implementation' argument.");
+        }
+        if (operation == null) {
+            throw new IllegalArgumentException("Null 'operation' argument.");
+        }
+        int n = this.measurementIterations;
+        long[] times = new long[n];
+        long gcCountBefore;
+        long gcTimeBefore;
+        long bytesBefore;
+        long bytesAfter;
+        try {
+            for (int i = 0; i < this.warmupIterations; i++) {
+                this.sink += operation.run();
+            }
+            gcCountBefore = getGcCount();
+            gcTimeBefore = getGcTime();
+            bytesBefore = getAllocatedBytes();
+            for (int i = 0; i < n; i++) {
+                long start = System.nanoTime();
+                this.sink += operation.run();
+                times[i] = System.nanoTime() - start;
+            }
+            bytesAfter = getAllocatedBytes();
+        }
+        catch (RuntimeException e) {
+            Result failed = new Result(benchmark, implementation, size, 0,
+                    Double.NaN, Double.NaN, Double.NaN, 0L, 0L,
+                    e.toString());
+            this.results.add(failed);
+            return failed;
+        }
+        long gcCount = getGcCount() - gcCountBefore;
+        long gcTime = getGcTime() - gcTimeBefore;
+
+        double mean = 0.0;
+        for (int i = 0; i < n; i++) {
+            mean += times[i];
+        }
+        mean = mean / n;
+        double variance = 0.0;
+        for (int i = 0; i < n; i++) {
+            double d = times[i] - mean;
+            variance += d * d;
+        }
+        double stdDev = n > 1 ? Math.sqrt(variance / (n - 1)) : 0.0;
+        double bytesPerOp = -1.0;
+        if (bytesBefore >= 0 && bytesAfter >= 0) {
+            bytesPerOp = (double) (bytesAfter - bytesBefore) / n;
+        }
+        Result result = new Result(benchmark, implementation, size, n, mean,
+                stdDev, bytesPerOp, gcCount, gcTime, null);
+        this.results.add(result);
+        return result;
+    }
+
+    /**
+     * Returns the results recorded so far.
+     *
+     * @return An unmodifiable list of {@link Result} objects.
+     */
+    public List getResults() {
+        return Collections.unmodifiableList(this.results);
+    }
+
+    /**
+     * Writes the results, with a header line, as CSV.
+     *
+     * @param writer  the writer (<code>null</code> not permitted).
+     */
+    public void writeCsv(Writer writer) {
+        if (writer == null) {
+            throw new IllegalArgumentException("Null 'writer' argument.");
+        }
+        PrintWriter out = new PrintWriter(writer);
+        out.println(CSV_HEADER);
+        Iterator iterator = this.results.iterator();
+        while (iterator.hasNext()) {
+            out.println(((Result) iterator.next()).toCsv());
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes the results, with a header line, to a CSV file.
+     *
+     * @param fileName  the file name (<code>null</code> not permitted).
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    public void writeCsv(String fileName) throws IOException {
+        if (fileName == null) {
+            throw new IllegalArgumentException("Null 'fileName' argument.");
+        }
+        Writer writer = new FileWriter(fileName);
+        try {
+            writeCsv(writer);
+        }
+        finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Returns the sum of the values returned by the operations (this is
+     * only useful to stop the work being optimised away).
+     *
+     * @return The sum.
+     */
+    public double getSink() {
+        return this.sink;
+    }
+
+    /**
+     * Returns the number of bytes allocated by the current thread so far.
+     *
+     * @return The number of bytes, or <code>-1</code> if it cannot be
+     *         measured.
+     */
+    private static long getAllocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return -1L;
+        }
+        com.sun.management.ThreadMXBean hotspot
+                = (com.sun.management.ThreadMXBean) bean;
+        try {
+            return hotspot.getThreadAllocatedBytes(
+                    Thread.currentThread().getId());
+        }
+        catch (UnsupportedOperationException e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * Returns the total number of collections so far.
+     *
+     * @return The count.
+     */
+    private static long getGcCount() {
+        long total = 0L;
+        Iterator iterator
+                = ManagementFactory.getGarbageCollectorMXBeans().iterator();
+        while (iterator.hasNext()) {
+            long count = ((GarbageCollectorMXBean) iterator.next())
+                    .getCollectionCount();
+            if (count > 0) {
+                total += count;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Returns the total collection time so far.
+     *
+     * @return The time in milliseconds.
+     */
+    private static long getGcTime() {
+        long total = 0L;
+        Iterator iterator
+                = ManagementFactory.getGarbageCollectorMXBeans().iterator();
+        while (iterator.hasNext()) {
+            long time = ((GarbageCollectorMXBean) iterator.next())
+                    .getCollectionTime();
+            if (time > 0) {
+                total += time;
+            }
+        }
+        return total;
+    }
+
+}
@@ -0,0 +1,304 @@
+package org.jfree.data.benchmark;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Random;
+
+import org.jfree.data.DataUtilities;
+import org.jfree.data.DoubleMatrixValues2D;
+import org.jfree.data.Range;
+
+/**
+ * Benchmarks for the {@link Range} class in the library jar, the
+ * <code>original.Range</code> class that
+ * {@link org.jfree.data.general.DatasetUtilities} returns, and the totals in
+ * {@link DataUtilities}.  Each {@link Range} benchmark is run against both
+ * implementations over the same data, so that differences between them
+ * show up side by side in the results.
+ * <P>
+ * Usage:
+ * <pre>
+ * java org.jfree.data.benchmark.DataBenchmarks [-sizes 1000,100000]
+ *     [-warmup 5] [-iterations 10] [-out data-benchmarks.csv]
+ * </pre>
+ * Each operation processes every item in a dataset of the given size, so
+ * the time per item is the time per operation divided by the size.
+ */
+public class DataBenchmarks {
+
+    /** The default dataset sizes. */
+    public static final int[] DEFAULT_SIZES = {1000, 100000};
+
+    /** The default results file name. */
+    public static final String DEFAULT_OUTPUT = "data-benchmarks.csv";
+
+    /** The implementation name for the {@link Range} in the jar. */
+    public static final String JAR_RANGE = "org.jfree.data.Range";
+
+    /** The implementation name for <code>original.Range</code>. */
+    public static final String ORIGINAL_RANGE = "original.Range";
+
+    /** The number of columns in the table used for the totals. */
+    private static final int TABLE_COLUMNS = 8;
+
+    /** The seed for the random data (fixed, so runs are comparable). */
+    private static final long SEED = 637L;
+
+    /**
+     * Runs all the benchmarks for each size.
+     *
+     * @param harness  the harness (<code>null</code> not permitted).
+     * @param sizes  the dataset sizes (<code>null</code> not permitted).
+     */
+    public static void runAll(BenchmarkHarness harness, int[] sizes) {
+        if (harness == null) {
+            throw new IllegalArgumentException("Null 'harness' argument.");
+        }
+        if (sizes == null) {
+            throw new IllegalArgumentException("Null 'sizes' argument.");
+        }
+        for (int i = 0; i < sizes.length; i++) {
+            Random random = new Random(SEED);
+            double[] lower = new double[sizes[i]];
+            double[] upper = new double[sizes[i]];
+            double[] values = new double[sizes[i]];
+            for (int j = 0; j < sizes[i]; j++) {
+                lower[j] = random.nextGaussian() * 100.0;
+                upper[j] = lower[j] + random.nextDouble() * 50.0;
+                values[j] = random.nextGaussian() * 150.0;
+            }
+            runJarRange(harness, lower, upper, values);
+            runOriginalRange(harness, lower, upper, values);
+            runTotals(harness, values);
+        }
+    }
+
+    /**
+     * Runs the benchmarks for the {@link Range} class in the jar.
+     *
+     * @param harness  the harness.
+     * @param lower  the lower bounds.
+     * @param upper  the upper bounds.
+     * @param values  the values.
+     */
+    private static void runJarRange(BenchmarkHarness harness,
+            double[] lower, double[] upper, final double[] values) {
+        final int n = values.length;
+        final Range[] ranges = new Range[n];
+        for (int i = 0; i < n; i++) {
+            ranges[i] = new Range(lower[i], upper[i]);
+        }
+        harness.run("combine", JAR_RANGE, n, new BenchmarkHarness.Operation() {
+            public double run() {
+                Range result = ranges[0];
+                for (int i = 1; i < n; i++) {
+                    result = Range.combine(result, ranges[i]);
+                }
+                return result.getLowerBound();
+            }
+        });
+        harness.run("expand", JAR_RANGE, n, new BenchmarkHarness.Operation() {
+            public double run() {
+                double sum = 0.0;
+                for (int i = 0; i < n; i++) {
+                    sum += Range.expand(ranges[i], 0.25, 0.5).getLowerBound();
+                }
+                return sum;
+            }
+        });
+        harness.run("expandToInclude", JAR_RANGE, n,
+                new BenchmarkHarness.Operation() {
+            public double run() {
+                Range result = null;
+                for (int i = 0; i < n; i++) {
+                    result = Range.expandToInclude(result, values[i]);
+                }
+                return result.getLowerBound();
+            }
+        });
+        harness.run("shift", JAR_RANGE, n, new BenchmarkHarness.Operation() {
+            public double run() {
+                double sum = 0.0;
+                for (int i = 0; i < n; i++) {
+                    sum += Range.shift(ranges[i], values[i], (i & 1) == 0)
+                            .getLowerBound();
+                }
+                return sum;
+            }
+        });
+        harness.run("constrain", JAR_RANGE, n,
+                new BenchmarkHarness.Operation() {
+            public double run() {
+                double sum = 0.0;
+                for (int i = 0; i < n; i++) {
+                    sum += ranges[i].constrain(values[i]);
+                }
+                return sum;
+            }
+        });
+    }
+
+    /**
+     * Runs the benchmarks for the <code>original.Range</code> class.
+     *
+     * @param harness  the harness.
+     * @param lower  the lower bounds.
+     * @param upper  the upper bounds.
+     * @param values  the values.
+     */
+    private static void runOriginalRange(BenchmarkHarness harness,
+            double[] lower, double[] upper, final double[] values) {
+        final int n = values.length;
+        final original.Range[] ranges = new original.Range[n];
+        for (int i = 0; i < n; i++) {
+            ranges[i] = new original.Range(lower[i], upper[i]);
+        }
+        harness.run("combine", ORIGINAL_RANGE, n,
+                new BenchmarkHarness.Operation() {
+            public double run() {
+                original.Range result = ranges[0];
+                for (int i = 1; i < n; i++) {
+                    result = original.Range.combine(result, ranges[i]);
+                }
+                return result.getLowerBound();
+            }
+        });
+        harness.run("expand", ORIGINAL_RANGE, n,
+                new BenchmarkHarness.Operation() {
+            public double run() {
+                double sum = 0.0;
+                for (int i = 0; i < n; i++) {
+                    sum += original.Range.expand(ranges[i], 0.25, 0.5)
+                            .getLowerBound();
+                }
+                return sum;
+            }
+        });
+        harness.run("expandToInclude", ORIGINAL_RANGE, n,
+                new BenchmarkHarness.Operation() {
+            public double run() {
+                original.Range result = null;
+                for (int i = 0; i < n; i++) {
+                    result = original.Range.expandToInclude(result,
+                            values[i]);
+                }
+                return result.getLowerBound();
+            }
+        });
+        harness.run("shift", ORIGINAL_RANGE, n,
+                new BenchmarkHarness.Operation() {
+            public double run() {
+                double sum = 0.0;
+                for (int i = 0; i < n; i++) {
+                    sum += original.Range.shift(ranges[i], values[i],
+                            (i & 1) == 0).getLowerBound();
+                }
+                return sum;
+            }
+        });
+        harness.run("constrain", ORIGINAL_RANGE, n,
+                new BenchmarkHarness.Operation() {
+            public double run() {
+                double sum = 0.0;
+                for (int i = 0; i < n; i++) {
+                    sum += ranges[i].constrain(values[i]);
+                }
+                return sum;
+            }
+        });
+    }
+
+    /**
+     * Runs the benchmarks for the totals in {@link DataUtilities}, over a
+     * table with <code>values.length / 8</code> rows and 8 columns.
+     *
+     * @param harness  the harness.
+     * @param values  the values.
+     */
+    private static void runTotals(BenchmarkHarness harness,
+            double[] values) {
+        final int n = values.length;
+        final int rows = Math.max(1, n / TABLE_COLUMNS);
+        double[] cells = new double[rows * TABLE_COLUMNS];
+        System.arraycopy(values, 0, cells, 0, Math.min(n, cells.length));
+        final DoubleMatrixValues2D table = new DoubleMatrixValues2D(rows,
+                TABLE_COLUMNS, cells);
+        harness.run("calculateColumnTotal", "DataUtilities", n,
+                new BenchmarkHarness.Operation() {
+            public double run() {
+                double sum = 0.0;
+                for (int c = 0; c < TABLE_COLUMNS; c++) {
+                    sum += DataUtilities.calculateColumnTotal(table, c);
+                }
+                return sum;
+            }
+        });
+        harness.run("calculateRowTotal", "DataUtilities", n,
+                new BenchmarkHarness.Operation() {
+            public double run() {
+                double sum = 0.0;
+                for (int r = 0; r < rows; r++) {
+                    sum += DataUtilities.calculateRowTotal(table, r);
+                }
+                return sum;
+            }
+        });
+    }
+
+    /**
+     * Parses a comma-separated list of sizes.
+     *
+     * @param text  the text.
+     *
+     * @return The sizes.
+     */
+    private static int[] parseSizes(String text) {
+        String[] parts = text.split(",");
+        int[] result = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = Integer.parseInt(parts[i].trim());
+            if (result[i] < 1) {
+                throw new IllegalArgumentException("Require size >= 1.");
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Runs the benchmarks and writes the results to a CSV file.
+     *
+     * @param args  the command line arguments (see the class description).
+     *
+     * @throws IOException if the results file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        int[] sizes = DEFAULT_SIZES;
+        int warmup = BenchmarkHarness.DEFAULT_WARMUP_ITERATIONS;
+        int iterations = BenchmarkHarness.DEFAULT_MEASUREMENT_ITERATIONS;
+        String output = DEFAULT_OUTPUT;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if ("-sizes".equals(args[i])) {
+                sizes = parseSizes(args[i + 1]);
+            }
+            else if ("-warmup".equals(args[i])) {
+                warmup = Integer.parseInt(args[i + 1]);
+            }
+            else if ("-iterations".equals(args[i])) {
+                iterations = Integer.parseInt(args[i + 1]);
+            }
+            else if ("-out".equals(args[i])) {
+                output = args[i + 1];
+            }
+            else {
+                throw new IllegalArgumentException("Unknown option: "
+                        + args[i]);
+            }
+        }
+        BenchmarkHarness harness = new BenchmarkHarness(warmup, iterations);
+        runAll(harness, sizes);
+        harness.writeCsv(new PrintWriter(System.out));
+        harness.writeCsv(output);
+        System.out.println("Results written to " + output);
+    }
+
+}
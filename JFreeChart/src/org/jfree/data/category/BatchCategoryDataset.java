@@ -0,0 +1,164 @@
+package org.jfree.data.category;
+
+import org.jfree.data.general.BatchedDataset;
+import org.jfree.data.general.DatasetAppendEvent;
+import org.jfree.data.general.DatasetBatchChangeEvent;
+import org.jfree.data.general.DatasetChangeCoalescer;
+import org.jfree.data.general.DatasetChangeEvent;
+
+/**
+ * A {@link DefaultCategoryDataset} that can group changes into a single
+ * {@link DatasetBatchChangeEvent} (see {@link BatchedDataset}), so that a
+ * loop of {@link #addValue(double, Comparable, Comparable)} calls causes one
+ * redraw rather than one per value.
+ * <P>
+ * A value added to an existing row in a new column (the usual case for a
+ * chart that grows to the right) is sent to the listeners as a
+ * {@link DatasetAppendEvent} for that row, so that listeners such as
+ * {@link org.jfree.data.general.DatasetBoundsCache} only read the new
+ * column.  The other rows gain a <code>null</code> value in the new
+ * column.  Any other change does not say which row changed, so it is sent
+ * as a plain change event (and, inside a batch, is recorded as a change to
+ * the whole dataset).
+ */
+public class BatchCategoryDataset extends DefaultCategoryDataset
+        implements BatchedDataset {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 4470129385061972253L;
+
+    /** The change record (created when first needed). */
+    private transient DatasetChangeCoalescer coalescer;
+
+    /** The event for the change in progress, if it is an append. */
+    private transient DatasetAppendEvent pendingAppend;
+
+    /**
+     * Creates a new empty dataset.
+     */
+    public BatchCategoryDataset() {
+        super();
+    }
+
+    /**
+     * Adds a value to the table and sends a change event to all registered
+     * listeners.
+     *
+     * @param value  the value (<code>null</code> permitted).
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     */
+    public void addValue(Number value, Comparable rowKey,
+            Comparable columnKey) {
+        this.pendingAppend = createAppendEvent(rowKey, columnKey);
+        try {
+            super.addValue(value, rowKey, columnKey);
+        }
+        finally {
+            this.pendingAppend = null;
+        }
+    }
+
+    /**
+     * Adds or updates a value in the table and sends a change event to all
+     * registered listeners.
+     *
+     * @param value  the value (<code>null</code> permitted).
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     */
+    public void setValue(Number value, Comparable rowKey,
+            Comparable columnKey) {
+        this.pendingAppend = createAppendEvent(rowKey, columnKey);
+        try {
+            super.setValue(value, rowKey, columnKey);
+        }
+        finally {
+            this.pendingAppend = null;
+        }
+    }
+
+    /**
+     * Returns an event for a value that is about to be set, if it adds a
+     * new column to an existing row.
+     *
+     * @param rowKey  the row key.
+     * @param columnKey  the column key.
+     *
+     * @return The event, or <code>null</code>.
+     */
+    private DatasetAppendEvent createAppendEvent(Comparable rowKey,
+            Comparable columnKey) {
+        if (rowKey == null || columnKey == null) {
+            return null;
+        }
+        int row = getRowIndex(rowKey);
+        if (row < 0 || getColumnIndex(columnKey) >= 0) {
+            return null;
+        }
+        int column = getColumnCount();
+        return new DatasetAppendEvent(this, this, row, column, column);
+    }
+
+    /**
+     * Starts a batch of changes.
+     */
+    public void beginUpdate() {
+        getCoalescer().begin();
+    }
+
+    /**
+     * Ends a batch of changes, and notifies the listeners if this ends the
+     * outermost batch and anything changed.
+     */
+    public void endUpdate() {
+        if (getCoalescer().end()) {
+            DatasetBatchChangeEvent event = this.coalescer.createEvent(this,
+                    this);
+            if (event != null) {
+                super.notifyListeners(event);
+            }
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if a batch is open.
+     *
+     * @return A boolean.
+     */
+    public boolean isUpdating() {
+        return this.coalescer != null && this.coalescer.isActive();
+    }
+
+    /**
+     * Notifies the listeners of a change, or records the change if a batch
+     * is open.
+     *
+     * @param event  the event.
+     */
+    protected void notifyListeners(DatasetChangeEvent event) {
+        if (this.pendingAppend != null) {
+            event = this.pendingAppend;
+            this.pendingAppend = null;
+        }
+        if (isUpdating()) {
+            this.coalescer.datasetChanged(event);
+        }
+        else {
+            super.notifyListeners(event);
+        }
+    }
+
+    /**
+     * Returns the change record, creating it if necessary.
+     *
+     * @return The change record.
+     */
+    private DatasetChangeCoalescer getCoalescer() {
+        if (this.coalescer == null) {
+            this.coalescer = new DatasetChangeCoalescer();
+        }
+        return this.coalescer;
+    }
+
+}
@@ -0,0 +1,395 @@
+package org.jfree.data.category;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jfree.data.DoubleArrayValues;
+import org.jfree.data.UnknownKeyException;
+import org.jfree.data.general.AbstractDataset;
+
+/**
+ * A {@link CategoryDataset} that reads its values directly from a
+ * <code>double[][]</code> array, indexed as <code>data[row][column]</code>.
+ * Unlike the datasets returned by
+ * {@link org.jfree.data.general.DatasetUtilities#createCategoryDataset(
+ * String, String, double[][])}, the array is not copied and no
+ * {@link Number} objects are created until a value is read with
+ * {@link #getValue(int, int)}.  Row and column keys are found through hash
+ * maps.
+ * <P>
+ * Changes made with {@link #setValue(int, int, double)} notify the
+ * registered listeners.  If the array is changed directly, call
+ * {@link #dataChanged()} afterwards.
+ */
+public class DoubleArrayCategoryDataset extends AbstractDataset
+        implements CategoryDataset {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 7311942637462219015L;
+
+    /** The row keys. */
+    private Comparable[] rowKeys;
+
+    /** The column keys. */
+    private Comparable[] columnKeys;
+
+    /** The data, indexed as <code>data[row][column]</code>. */
+    private double[][] data;
+
+    /** A map from row key to row index. */
+    private transient Map rowIndex;
+
+    /** A map from column key to column index. */
+    private transient Map columnIndex;
+
+    /**
+     * Creates a new dataset with keys made up of a prefix and a number
+     * (starting at 1), as for
+     * {@link org.jfree.data.general.DatasetUtilities#createCategoryDataset(
+     * String, String, double[][])}.
+     *
+     * @param rowKeyPrefix  the row key prefix.
+     * @param columnKeyPrefix  the column key prefix.
+     * @param data  the data (<code>null</code> not permitted).
+     */
+    public DoubleArrayCategoryDataset(String rowKeyPrefix,
+            String columnKeyPrefix, double[][] data) {
+        this(createKeys(rowKeyPrefix, rowCount(data)),
+                createKeys(columnKeyPrefix, columnCount(data)), data);
+    }
+
+    /**
+     * Creates a new dataset.
+     *
+     * @param rowKeys  the row keys (<code>null</code> not permitted, one
+     *                 per row of <code>data</code>).
+     * @param columnKeys  the column keys (<code>null</code> not permitted,
+     *                    one per column of <code>data</code>).
+     * @param data  the data (<code>null</code> not permitted, all rows must
+     *              have the same length).
+     */
+    public DoubleArrayCategoryDataset(Comparable[] rowKeys,
+            Comparable[] columnKeys, double[][] data) {
+        if (rowKeys == null) {
+            throw new IllegalArgumentException("Null 'rowKeys' argument.");
+        }
+        if (columnKeys == null) {
+            throw new IllegalArgumentException(
+                    "Null 'columnKeys' argument.");
+        }
+        if (rowKeys.length != rowCount(data)) {
+            throw new IllegalArgumentException(
+                    "The number of row keys does not match the data.");
+        }
+        int columns = columnCount(data);
+        for (int r = 0; r < data.length; r++) {
+            if (data[r] == null || data[r].length != columns) {
+                throw new IllegalArgumentException("Row " + r
+                        + " has a different length to row 0.");
+            }
+        }
+        if (columnKeys.length != columns) {
+            throw new IllegalArgumentException(
+                    "The number of column keys does not match the data.");
+        }
+        this.rowKeys = rowKeys.clone();
+        this.columnKeys = columnKeys.clone();
+        this.data = data;
+        buildIndexes();
+    }
+
+    /**
+     * Returns the number of rows in an array.
+     *
+     * @param data  the array.
+     *
+     * @return The number of rows.
+     */
+    private static int rowCount(double[][] data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Null 'data' argument.");
+        }
+        return data.length;
+    }
+
+    /**
+     * Returns the number of columns in an array (the length of row 0).
+     *
+     * @param data  the array.
+     *
+     * @return The number of columns.
+     */
+    private static int columnCount(double[][] data) {
+        if (rowCount(data) == 0) {
+            return 0;
+        }
+        if (data[0] == null) {
+            throw new IllegalArgumentException("Null row in 'data'.");
+        }
+        return data[0].length;
+    }
+
+    /**
+     * Creates keys from a prefix and a number.
+     *
+     * @param prefix  the prefix.
+     * @param count  the number of keys.
+     *
+     * @return The keys.
+     */
+    private static Comparable[] createKeys(String prefix, int count) {
+        Comparable[] result = new Comparable[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = prefix + (i + 1);
+        }
+        return result;
+    }
+
+    /**
+     * Builds the key maps, checking for duplicate keys.
+     */
+    private void buildIndexes() {
+        this.rowIndex = new HashMap(this.rowKeys.length * 2);
+        for (int r = 0; r < this.rowKeys.length; r++) {
+            if (this.rowIndex.put(this.rowKeys[r], Integer.valueOf(r))
+                    != null) {
+                throw new IllegalArgumentException("Duplicate row key "
+                        + this.rowKeys[r] + ".");
+            }
+        }
+        this.columnIndex = new HashMap(this.columnKeys.length * 2);
+        for (int c = 0; c < this.columnKeys.length; c++) {
+            if (this.columnIndex.put(this.columnKeys[c], Integer.valueOf(c))
+                    != null) {
+                throw new IllegalArgumentException("Duplicate column key "
+                        + this.columnKeys[c] + ".");
+            }
+        }
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return The row count.
+     */
+    public int getRowCount() {
+        return this.rowKeys.length;
+    }
+
+    /**
+     * Returns the number of columns.
+     *
+     * @return The column count.
+     */
+    public int getColumnCount() {
+        return this.columnKeys.length;
+    }
+
+    /**
+     * Returns a value.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The value (never <code>null</code>).
+     */
+    public Number getValue(int row, int column) {
+        return DoubleArrayValues.valueOf(this.data[row][column]);
+    }
+
+    /**
+     * Returns a value as a primitive.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The value.
+     */
+    public double getDoubleValue(int row, int column) {
+        return this.data[row][column];
+    }
+
+    /**
+     * Sets a value in the underlying array and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     * @param value  the value.
+     */
+    public void setValue(int row, int column, double value) {
+        this.data[row][column] = value;
+        fireDatasetChanged();
+    }
+
+    /**
+     * Sends a {@link org.jfree.data.general.DatasetChangeEvent} to all
+     * registered listeners.  Call this after changing the underlying array
+     * directly.
+     */
+    public void dataChanged() {
+        fireDatasetChanged();
+    }
+
+    /**
+     * Returns a row key.
+     *
+     * @param row  the row index (zero-based).
+     *
+     * @return The row key.
+     */
+    public Comparable getRowKey(int row) {
+        return this.rowKeys[row];
+    }
+
+    /**
+     * Returns the index for a row key.
+     *
+     * @param key  the row key.
+     *
+     * @return The row index, or <code>-1</code> if the key is not
+     *         recognised.
+     */
+    public int getRowIndex(Comparable key) {
+        Integer index = (Integer) this.rowIndex.get(key);
+        return index != null ? index.intValue() : -1;
+    }
+
+    /**
+     * Returns the row keys.
+     *
+     * @return An unmodifiable list of row keys.
+     */
+    public List getRowKeys() {
+        return Collections.unmodifiableList(Arrays.asList(this.rowKeys));
+    }
+
+    /**
+     * Returns a column key.
+     *
+     * @param column  the column index (zero-based).
+     *
+     * @return The column key.
+     */
+    public Comparable getColumnKey(int column) {
+        return this.columnKeys[column];
+    }
+
+    /**
+     * Returns the index for a column key.
+     *
+     * @param key  the column key.
+     *
+     * @return The column index, or <code>-1</code> if the key is not
+     *         recognised.
+     */
+    public int getColumnIndex(Comparable key) {
+        Integer index = (Integer) this.columnIndex.get(key);
+        return index != null ? index.intValue() : -1;
+    }
+
+    /**
+     * Returns the column keys.
+     *
+     * @return An unmodifiable list of column keys.
+     */
+    public List getColumnKeys() {
+        return Collections.unmodifiableList(Arrays.asList(this.columnKeys));
+    }
+
+    /**
+     * Returns the value for a pair of keys.
+     *
+     * @param rowKey  the row key.
+     * @param columnKey  the column key.
+     *
+     * @return The value (never <code>null</code>).
+     *
+     * @throws UnknownKeyException if either key is not recognised.
+     */
+    public Number getValue(Comparable rowKey, Comparable columnKey) {
+        int row = getRowIndex(rowKey);
+        if (row < 0) {
+            throw new UnknownKeyException("Unrecognised row key: " + rowKey);
+        }
+        int column = getColumnIndex(columnKey);
+        if (column < 0) {
+            throw new UnknownKeyException("Unrecognised column key: "
+                    + columnKey);
+        }
+        return getValue(row, column);
+    }
+
+    /**
+     * Tests this dataset for equality with an arbitrary object.
+     *
+     * @param obj  the object (<code>null</code> permitted).
+     *
+     * @return A boolean.
+     */
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof DoubleArrayCategoryDataset)) {
+            return false;
+        }
+        DoubleArrayCategoryDataset that = (DoubleArrayCategoryDataset) obj;
+        if (!Arrays.equals(this.rowKeys, that.rowKeys)) {
+            return false;
+        }
+        if (!Arrays.equals(this.columnKeys, that.columnKeys)) {
+            return false;
+        }
+        return Arrays.deepEquals(this.data, that.data);
+    }
+
+    /**
+     * Returns a hash code for this dataset.
+     *
+     * @return A hash code.
+     */
+    public int hashCode() {
+        int result = Arrays.hashCode(this.rowKeys);
+        result = 29 * result + Arrays.hashCode(this.columnKeys);
+        return result;
+    }
+
+    /**
+     * Returns a clone of this dataset, with its own copy of the data.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException if the dataset cannot be cloned.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        DoubleArrayCategoryDataset clone
+                = (DoubleArrayCategoryDataset) super.clone();
+        clone.data = new double[this.data.length][];
+        for (int r = 0; r < this.data.length; r++) {
+            clone.data[r] = this.data[r].clone();
+        }
+        return clone;
+    }
+
+    /**
+     * Restores the key maps after deserialization.
+     *
+     * @param stream  the input stream.
+     *
+     * @throws IOException  if there is an I/O error.
+     * @throws ClassNotFoundException  if there is a classpath problem.
+     */
+    private void readObject(ObjectInputStream stream)
+            throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        buildIndexes();
+    }
+
+}
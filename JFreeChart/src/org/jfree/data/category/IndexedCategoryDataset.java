@@ -0,0 +1,323 @@
+package org.jfree.data.category;
+
+import java.util.List;
+
+import org.jfree.data.IndexedKeyedValues2D;
+import org.jfree.data.UnknownKeyException;
+import org.jfree.data.general.AbstractDataset;
+
+/**
+ * A {@link CategoryDataset} with the same methods as
+ * {@link DefaultCategoryDataset}, backed by an {@link IndexedKeyedValues2D}
+ * so that values are found by key in O(1) time and columns can be removed
+ * without rewriting the table.  This suits large datasets that slide a
+ * window of columns:  add the newest column with
+ * {@link #addValue(Number, Comparable, Comparable)} and drop the oldest
+ * with {@link #removeColumn(int)}.
+ */
+public class IndexedCategoryDataset extends AbstractDataset
+        implements CategoryDataset {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -3926475029112884517L;
+
+    /** The data. */
+    private IndexedKeyedValues2D data;
+
+    /**
+     * Creates a new empty dataset.
+     */
+    public IndexedCategoryDataset() {
+        this.data = new IndexedKeyedValues2D();
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return The row count.
+     */
+    public int getRowCount() {
+        return this.data.getRowCount();
+    }
+
+    /**
+     * Returns the number of columns.
+     *
+     * @return The column count.
+     */
+    public int getColumnCount() {
+        return this.data.getColumnCount();
+    }
+
+    /**
+     * Returns a value.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The value (possibly <code>null</code>).
+     */
+    public Number getValue(int row, int column) {
+        return this.data.getValue(row, column);
+    }
+
+    /**
+     * Returns a row key.
+     *
+     * @param row  the row index (zero-based).
+     *
+     * @return The row key.
+     */
+    public Comparable getRowKey(int row) {
+        return this.data.getRowKey(row);
+    }
+
+    /**
+     * Returns the index for a row key.
+     *
+     * @param key  the row key.
+     *
+     * @return The row index, or <code>-1</code>.
+     */
+    public int getRowIndex(Comparable key) {
+        return this.data.getRowIndex(key);
+    }
+
+    /**
+     * Returns the row keys.
+     *
+     * @return The row keys.
+     */
+    public List getRowKeys() {
+        return this.data.getRowKeys();
+    }
+
+    /**
+     * Returns a column key.
+     *
+     * @param column  the column index (zero-based).
+     *
+     * @return The column key.
+     */
+    public Comparable getColumnKey(int column) {
+        return this.data.getColumnKey(column);
+    }
+
+    /**
+     * Returns the index for a column key.
+     *
+     * @param key  the column key.
+     *
+     * @return The column index, or <code>-1</code>.
+     */
+    public int getColumnIndex(Comparable key) {
+        return this.data.getColumnIndex(key);
+    }
+
+    /**
+     * Returns the column keys.
+     *
+     * @return The column keys.
+     */
+    public List getColumnKeys() {
+        return this.data.getColumnKeys();
+    }
+
+    /**
+     * Returns the value for a pair of keys.
+     *
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     *
+     * @return The value (possibly <code>null</code>).
+     *
+     * @throws UnknownKeyException if either key is not recognised.
+     */
+    public Number getValue(Comparable rowKey, Comparable columnKey) {
+        return this.data.getValue(rowKey, columnKey);
+    }
+
+    /**
+     * Adds a value to the dataset and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param value  the value (<code>null</code> permitted).
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     */
+    public void addValue(Number value, Comparable rowKey,
+            Comparable columnKey) {
+        this.data.addValue(value, rowKey, columnKey);
+        fireDatasetChanged();
+    }
+
+    /**
+     * Adds a value to the dataset.
+     *
+     * @param value  the value.
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     */
+    public void addValue(double value, Comparable rowKey,
+            Comparable columnKey) {
+        addValue(Double.valueOf(value), rowKey, columnKey);
+    }
+
+    /**
+     * Sets a value in the dataset and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param value  the value (<code>null</code> permitted).
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     */
+    public void setValue(Number value, Comparable rowKey,
+            Comparable columnKey) {
+        this.data.setValue(value, rowKey, columnKey);
+        fireDatasetChanged();
+    }
+
+    /**
+     * Sets a value in the dataset.
+     *
+     * @param value  the value.
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     */
+    public void setValue(double value, Comparable rowKey,
+            Comparable columnKey) {
+        setValue(Double.valueOf(value), rowKey, columnKey);
+    }
+
+    /**
+     * Adds a number to an existing value.
+     *
+     * @param value  the number to add.
+     * @param rowKey  the row key.
+     * @param columnKey  the column key.
+     *
+     * @throws UnknownKeyException if either key is not recognised.
+     */
+    public void incrementValue(double value, Comparable rowKey,
+            Comparable columnKey) {
+        double existing = 0.0;
+        Number n = getValue(rowKey, columnKey);
+        if (n != null) {
+            existing = n.doubleValue();
+        }
+        setValue(existing + value, rowKey, columnKey);
+    }
+
+    /**
+     * Removes a value and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param rowKey  the row key.
+     * @param columnKey  the column key.
+     */
+    public void removeValue(Comparable rowKey, Comparable columnKey) {
+        this.data.removeValue(rowKey, columnKey);
+        fireDatasetChanged();
+    }
+
+    /**
+     * Removes a row and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param rowIndex  the row index (zero-based).
+     */
+    public void removeRow(int rowIndex) {
+        this.data.removeRow(rowIndex);
+        fireDatasetChanged();
+    }
+
+    /**
+     * Removes a row and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param rowKey  the row key.
+     */
+    public void removeRow(Comparable rowKey) {
+        this.data.removeRow(rowKey);
+        fireDatasetChanged();
+    }
+
+    /**
+     * Removes a column and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param columnIndex  the column index (zero-based).
+     */
+    public void removeColumn(int columnIndex) {
+        this.data.removeColumn(columnIndex);
+        fireDatasetChanged();
+    }
+
+    /**
+     * Removes a column and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param columnKey  the column key.
+     */
+    public void removeColumn(Comparable columnKey) {
+        this.data.removeColumn(columnKey);
+        fireDatasetChanged();
+    }
+
+    /**
+     * Clears all data and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     */
+    public void clear() {
+        this.data.clear();
+        fireDatasetChanged();
+    }
+
+    /**
+     * Tests this dataset for equality with an arbitrary object.
+     *
+     * @param obj  the object (<code>null</code> permitted).
+     *
+     * @return A boolean.
+     */
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof IndexedCategoryDataset)) {
+            return false;
+        }
+        return this.data.equals(((IndexedCategoryDataset) obj).data);
+    }
+
+    /**
+     * Returns a hash code for the dataset.
+     *
+     * @return A hash code.
+     */
+    public int hashCode() {
+        return this.data.hashCode();
+    }
+
+    /**
+     * Returns a clone of the dataset.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException if there is a problem cloning.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        IndexedCategoryDataset clone = (IndexedCategoryDataset) super.clone();
+        clone.data = (IndexedKeyedValues2D) this.data.clone();
+        return clone;
+    }
+
+}
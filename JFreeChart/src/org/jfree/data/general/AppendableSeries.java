@@ -0,0 +1,42 @@
+package org.jfree.data.general;
+
+/**
+ * A series that counts the changes made to it, other than adding items
+ * after its last item.  A listener that remembers the item count and this
+ * count (see {@link SeriesAppendTracker}) can tell that a change only
+ * added items to the end of the series, and which items they were, even
+ * if several changes were made while notification was off.
+ * <P>
+ * Changing a value in place, inserting an item before the last item and
+ * removing items all count as rewrites, except for the oldest items
+ * removed to make room for new items after the last item (for a maximum
+ * item count or age).  Those are counted separately, so that a listener
+ * can tell which of the items it has already seen are gone.
+ */
+public interface AppendableSeries {
+
+    /**
+     * Returns the number of items in the series.
+     *
+     * @return The item count.
+     */
+    public int getItemCount();
+
+    /**
+     * Returns the number of changes made to the series, other than adding
+     * items after the last item.  The count only ever increases.
+     *
+     * @return The rewrite count.
+     */
+    public long getRewriteCount();
+
+    /**
+     * Returns the number of items removed from the start of the series to
+     * make room for items added after the last item.  The count only ever
+     * increases.
+     *
+     * @return The removed item count.
+     */
+    public long getRemovedOldestCount();
+
+}
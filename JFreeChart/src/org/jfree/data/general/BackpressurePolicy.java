@@ -0,0 +1,103 @@
+package org.jfree.data.general;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+
+/**
+ * Defines what a {@link DatasetChangeDispatcher} does with a new event when
+ * its queue is full.
+ */
+public final class BackpressurePolicy implements Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -3914718420518635214L;
+
+    /** Merge the queued events and the new event into a single event. */
+    public static final BackpressurePolicy MERGE
+            = new BackpressurePolicy("BackpressurePolicy.MERGE");
+
+    /** Discard the new event. */
+    public static final BackpressurePolicy DROP_NEWEST
+            = new BackpressurePolicy("BackpressurePolicy.DROP_NEWEST");
+
+    /** Discard the oldest queued event to make room for the new event. */
+    public static final BackpressurePolicy DROP_OLDEST
+            = new BackpressurePolicy("BackpressurePolicy.DROP_OLDEST");
+
+    /** Block the thread that changed the dataset until there is room. */
+    public static final BackpressurePolicy BLOCK
+            = new BackpressurePolicy("BackpressurePolicy.BLOCK");
+
+    /** The name. */
+    private String name;
+
+    /**
+     * Private constructor.
+     *
+     * @param name  the name.
+     */
+    private BackpressurePolicy(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns a string representing the object.
+     *
+     * @return The string.
+     */
+    public String toString() {
+        return this.name;
+    }
+
+    /**
+     * Returns <code>true</code> if this object is equal to the specified
+     * object, and <code>false</code> otherwise.
+     *
+     * @param obj  the other object.
+     *
+     * @return A boolean.
+     */
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof BackpressurePolicy)) {
+            return false;
+        }
+        BackpressurePolicy that = (BackpressurePolicy) obj;
+        return this.name.equals(that.name);
+    }
+
+    /**
+     * Returns a hash code for this instance.
+     *
+     * @return A hash code.
+     */
+    public int hashCode() {
+        return this.name.hashCode();
+    }
+
+    /**
+     * Ensures that serialization returns the unique instances.
+     *
+     * @return The object.
+     *
+     * @throws ObjectStreamException if there is a problem.
+     */
+    private Object readResolve() throws ObjectStreamException {
+        if (this.equals(BackpressurePolicy.MERGE)) {
+            return BackpressurePolicy.MERGE;
+        }
+        else if (this.equals(BackpressurePolicy.DROP_NEWEST)) {
+            return BackpressurePolicy.DROP_NEWEST;
+        }
+        else if (this.equals(BackpressurePolicy.DROP_OLDEST)) {
+            return BackpressurePolicy.DROP_OLDEST;
+        }
+        else if (this.equals(BackpressurePolicy.BLOCK)) {
+            return BackpressurePolicy.BLOCK;
+        }
+        return null;
+    }
+
+}
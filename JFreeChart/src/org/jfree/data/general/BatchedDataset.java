@@ -0,0 +1,42 @@
+package org.jfree.data.general;
+
+/**
+ * A dataset that can group a number of changes into a single
+ * {@link DatasetChangeEvent}.  Changes made between {@link #beginUpdate()}
+ * and the matching {@link #endUpdate()} do not notify the listeners; when
+ * the outermost batch ends, the listeners receive one
+ * {@link DatasetBatchChangeEvent} describing all of the changes (if there
+ * were any).  Batches can be nested.
+ * <P>
+ * {@link UpdateBatch} allows a batch to be written as a try-with-resources
+ * statement, so that it is always ended:
+ * <pre>
+ * try (UpdateBatch batch = UpdateBatch.begin(dataset)) {
+ *     series.add(1.0, 2.0);
+ *     series.add(2.0, 3.0);
+ * }
+ * </pre>
+ */
+public interface BatchedDataset extends Dataset {
+
+    /**
+     * Starts a batch of changes.
+     */
+    public void beginUpdate();
+
+    /**
+     * Ends a batch of changes.  If this ends the outermost batch and
+     * anything changed, the listeners are notified.
+     *
+     * @throws IllegalStateException if no batch is open.
+     */
+    public void endUpdate();
+
+    /**
+     * Returns <code>true</code> if a batch is open.
+     *
+     * @return A boolean.
+     */
+    public boolean isUpdating();
+
+}
@@ -0,0 +1,122 @@
+package org.jfree.data.general;
+
+/**
+ * A {@link DatasetChangeEvent} which records that items were added to the
+ * end of one series, and that no other items changed.  Datasets that can
+ * describe an append in this way should send this event instead of a plain
+ * {@link DatasetChangeEvent}, so that listeners such as
+ * {@link DatasetBoundsCache} can update their state from the new items
+ * alone.  Listeners that do not know about this class treat it as a
+ * normal change event.
+ * <P>
+ * If the series has a maximum item count or age, the oldest items may have
+ * been removed to make room for the new ones.  The event records how many,
+ * and the item indices it reports are the indices after the removal.
+ * <P>
+ * For a {@link org.jfree.data.category.CategoryDataset}, the series is a
+ * row and the items are columns.
+ */
+public class DatasetAppendEvent extends DatasetChangeEvent {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -2405163281766518364L;
+
+    /** The series index. */
+    private int series;
+
+    /** The index of the first added item. */
+    private int firstItem;
+
+    /** The index of the last added item. */
+    private int lastItem;
+
+    /** The number of items removed from the start of the series. */
+    private int removedItemCount;
+
+    /**
+     * Creates a new event.
+     *
+     * @param source  the source of the event.
+     * @param dataset  the dataset that changed.
+     * @param series  the series index (zero-based).
+     * @param firstItem  the index of the first added item (zero-based).
+     * @param lastItem  the index of the last added item (zero-based, not
+     *                  less than <code>firstItem</code>).
+     */
+    public DatasetAppendEvent(Object source, Dataset dataset, int series,
+            int firstItem, int lastItem) {
+        this(source, dataset, series, firstItem, lastItem, 0);
+    }
+
+    /**
+     * Creates a new event for items added after the oldest items in the
+     * series were removed.
+     *
+     * @param source  the source of the event.
+     * @param dataset  the dataset that changed.
+     * @param series  the series index (zero-based).
+     * @param firstItem  the index of the first added item (zero-based,
+     *                   after the removal).
+     * @param lastItem  the index of the last added item (zero-based, not
+     *                  less than <code>firstItem</code>).
+     * @param removedItemCount  the number of items removed from the start
+     *                          of the series (zero or more).
+     */
+    public DatasetAppendEvent(Object source, Dataset dataset, int series,
+            int firstItem, int lastItem, int removedItemCount) {
+        super(source, dataset);
+        if (series < 0) {
+            throw new IllegalArgumentException("Negative 'series' argument.");
+        }
+        if (firstItem < 0 || lastItem < firstItem) {
+            throw new IllegalArgumentException(
+                    "Require 0 <= firstItem <= lastItem.");
+        }
+        if (removedItemCount < 0) {
+            throw new IllegalArgumentException(
+                    "Negative 'removedItemCount' argument.");
+        }
+        this.series = series;
+        this.firstItem = firstItem;
+        this.lastItem = lastItem;
+        this.removedItemCount = removedItemCount;
+    }
+
+    /**
+     * Returns the index of the series that the items were added to.
+     *
+     * @return The series index.
+     */
+    public int getSeries() {
+        return this.series;
+    }
+
+    /**
+     * Returns the index of the first added item.
+     *
+     * @return The item index.
+     */
+    public int getFirstItem() {
+        return this.firstItem;
+    }
+
+    /**
+     * Returns the index of the last added item.
+     *
+     * @return The item index.
+     */
+    public int getLastItem() {
+        return this.lastItem;
+    }
+
+    /**
+     * Returns the number of items that were removed from the start of the
+     * series before the new items were added.
+     *
+     * @return The removed item count.
+     */
+    public int getRemovedItemCount() {
+        return this.removedItemCount;
+    }
+
+}
@@ -0,0 +1,132 @@
+package org.jfree.data.general;
+
+/**
+ * A {@link DatasetChangeEvent} that stands for a batch of changes made
+ * between {@link BatchedDataset#beginUpdate()} and
+ * {@link BatchedDataset#endUpdate()}.  It records which series changed and,
+ * for series whose only changes were appends (see
+ * {@link DatasetAppendEvent}), the range of items that were added, so that
+ * listeners can update themselves incrementally.  If the batch included a
+ * change that could not be attributed to a series (for example, adding or
+ * removing a series), {@link #isFullChange()} returns <code>true</code> and
+ * listeners should treat the whole dataset as changed.
+ */
+public class DatasetBatchChangeEvent extends DatasetChangeEvent {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 6149703366802447810L;
+
+    /** A flag that indicates a change to the whole dataset. */
+    private boolean fullChange;
+
+    /** The indices of the affected series, in ascending order. */
+    private int[] series;
+
+    /** The first appended item for each series (-1 if not append-only). */
+    private int[] firstItems;
+
+    /** The last appended item for each series (-1 if not append-only). */
+    private int[] lastItems;
+
+    /** The number of events that were coalesced into this one. */
+    private int eventCount;
+
+    /**
+     * Creates a new event.  The arrays are not copied.
+     *
+     * @param source  the source of the event.
+     * @param dataset  the dataset that changed.
+     * @param fullChange  a flag that indicates a change to the whole
+     *                    dataset.
+     * @param series  the indices of the affected series, in ascending order
+     *                (<code>null</code> not permitted).
+     * @param firstItems  the first appended item for each affected series,
+     *                    or -1 (<code>null</code> not permitted).
+     * @param lastItems  the last appended item for each affected series, or
+     *                   -1 (<code>null</code> not permitted).
+     * @param eventCount  the number of events coalesced into this one.
+     */
+    public DatasetBatchChangeEvent(Object source, Dataset dataset,
+            boolean fullChange, int[] series, int[] firstItems,
+            int[] lastItems, int eventCount) {
+        super(source, dataset);
+        if (series == null || firstItems == null || lastItems == null) {
+            throw new IllegalArgumentException("Null array argument.");
+        }
+        if (firstItems.length != series.length
+                || lastItems.length != series.length) {
+            throw new IllegalArgumentException(
+                    "Arrays must have the same length.");
+        }
+        this.fullChange = fullChange;
+        this.series = series;
+        this.firstItems = firstItems;
+        this.lastItems = lastItems;
+        this.eventCount = eventCount;
+    }
+
+    /**
+     * Returns <code>true</code> if the batch included a change that was not
+     * attributed to a single series.
+     *
+     * @return A boolean.
+     */
+    public boolean isFullChange() {
+        return this.fullChange;
+    }
+
+    /**
+     * Returns the number of series that changed.
+     *
+     * @return The series count.
+     */
+    public int getAffectedSeriesCount() {
+        return this.series.length;
+    }
+
+    /**
+     * Returns the index of an affected series.
+     *
+     * @param i  the index into the affected series (zero-based).
+     *
+     * @return The series index.
+     */
+    public int getAffectedSeries(int i) {
+        return this.series[i];
+    }
+
+    /**
+     * Returns the first item appended to an affected series.
+     *
+     * @param i  the index into the affected series (zero-based).
+     *
+     * @return The item index, or <code>-1</code> if the series changed in
+     *         some other way than appends.
+     */
+    public int getFirstAppendedItem(int i) {
+        return this.firstItems[i];
+    }
+
+    /**
+     * Returns the last item appended to an affected series.
+     *
+     * @param i  the index into the affected series (zero-based).
+     *
+     * @return The item index, or <code>-1</code> if the series changed in
+     *         some other way than appends.
+     */
+    public int getLastAppendedItem(int i) {
+        return this.lastItems[i];
+    }
+
+    /**
+     * Returns the number of change events that were coalesced into this
+     * event.
+     *
+     * @return The event count.
+     */
+    public int getEventCount() {
+        return this.eventCount;
+    }
+
+}
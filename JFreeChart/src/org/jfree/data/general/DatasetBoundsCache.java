@@ -0,0 +1,445 @@
+package org.jfree.data.general;
+
+import org.jfree.data.DomainOrder;
+import org.jfree.data.category.CategoryDataset;
+import org.jfree.data.xy.XYDataset;
+
+/**
+ * A cache for the bounds of a dataset, for charts that are redrawn more
+ * often than their data changes.  The cache registers itself as a listener
+ * with the dataset and keeps the bounds of each series.  While the dataset
+ * does not change, {@link #getDomainBounds()} and {@link #getRangeBounds()}
+ * take time proportional to the number of series, instead of the number of
+ * items that {@link DatasetUtilities#iterateXYRangeBounds(XYDataset)} has
+ * to visit.
+ * <P>
+ * When the dataset sends a {@link DatasetAppendEvent}, only the new items
+ * are read and the bounds of that series are extended.  If the oldest
+ * items were removed to make room for them, the cache (which remembers
+ * the last item holding each bound) only scans the series again if one of
+ * the removed items held a bound.  If the dataset reports
+ * {@link DomainOrder#ASCENDING}, a removed smallest x-value is replaced by
+ * the x-value of the new first item instead.  A
+ * {@link DatasetBatchChangeEvent} is handled series by series:  appended
+ * items are read, and other changed series are marked as stale.  Any other
+ * {@link DatasetChangeEvent} (which does not say what changed, and might
+ * have removed the current minimum or maximum) marks every series as stale,
+ * and the stale series are scanned again the next time the bounds are
+ * requested.  The datasets in the library jar (for example
+ * {@link org.jfree.data.xy.XYSeriesCollection},
+ * {@link org.jfree.data.time.TimeSeriesCollection} and
+ * {@link org.jfree.data.category.DefaultCategoryDataset}) only send plain
+ * change events, so for them the cache saves the scan on every redraw
+ * between changes.  Their batch subclasses send append events:
+ * {@link org.jfree.data.xy.BatchXYSeriesCollection} and
+ * {@link org.jfree.data.time.BatchTimeSeriesCollection} for items added to
+ * the end of an {@link AppendableSeries}, and
+ * {@link org.jfree.data.category.BatchCategoryDataset} for a value added to
+ * an existing row in a new column.  Inside a batch, they report which
+ * series changed and which items were appended, so that only the changed
+ * series are scanned again.
+ * <P>
+ * The bounds match {@link DatasetUtilities#iterateDomainBounds(XYDataset,
+ * boolean)} (without the interval),
+ * {@link DatasetUtilities#iterateXYRangeBounds(XYDataset)} and
+ * {@link DatasetUtilities#iterateCategoryRangeBounds(CategoryDataset,
+ * boolean)} (without the interval), except that <code>NaN</code> values are
+ * always ignored.  Call {@link #dispose()} when the cache is no longer
+ * needed, so that the dataset does not keep a reference to it.
+ * <P>
+ * Instances of this class are not thread-safe, in the same way as the
+ * datasets they listen to.
+ */
+public class DatasetBoundsCache implements DatasetChangeListener {
+
+    /** The XY dataset (<code>null</code> for a category dataset). */
+    private XYDataset xyDataset;
+
+    /** The category dataset (<code>null</code> for an XY dataset). */
+    private CategoryDataset categoryDataset;
+
+    /** The number of items read from each series. */
+    private int[] itemCounts;
+
+    /** Flags for the series whose bounds are up to date. */
+    private boolean[] valid;
+
+    /** The smallest x-value in each series. */
+    private double[] xMin;
+
+    /** The largest x-value in each series. */
+    private double[] xMax;
+
+    /** The smallest y-value in each series. */
+    private double[] yMin;
+
+    /** The largest y-value in each series. */
+    private double[] yMax;
+
+    /** The last item holding the smallest x-value in each series. */
+    private int[] xMinItem;
+
+    /** The last item holding the largest x-value in each series. */
+    private int[] xMaxItem;
+
+    /** The last item holding the smallest y-value in each series. */
+    private int[] yMinItem;
+
+    /** The last item holding the largest y-value in each series. */
+    private int[] yMaxItem;
+
+    /** A flag that indicates whether the combined bounds are up to date. */
+    private boolean combinedValid;
+
+    /** The combined domain bounds (<code>null</code> if none). */
+    private original.Range domainBounds;
+
+    /** The combined range bounds (<code>null</code> if none). */
+    private original.Range rangeBounds;
+
+    /**
+     * Creates a new cache for an XY dataset, and registers it as a listener
+     * with the dataset.
+     *
+     * @param dataset  the dataset (<code>null</code> not permitted).
+     */
+    public DatasetBoundsCache(XYDataset dataset) {
+        if (dataset == null) {
+            throw new IllegalArgumentException("Null 'dataset' argument.");
+        }
+        this.xyDataset = dataset;
+        reset(dataset.getSeriesCount());
+        dataset.addChangeListener(this);
+    }
+
+    /**
+     * Creates a new cache for a category dataset, and registers it as a
+     * listener with the dataset.  Each row is treated as a series.
+     *
+     * @param dataset  the dataset (<code>null</code> not permitted).
+     */
+    public DatasetBoundsCache(CategoryDataset dataset) {
+        if (dataset == null) {
+            throw new IllegalArgumentException("Null 'dataset' argument.");
+        }
+        this.categoryDataset = dataset;
+        reset(dataset.getRowCount());
+        dataset.addChangeListener(this);
+    }
+
+    /**
+     * Returns the dataset.
+     *
+     * @return The dataset.
+     */
+    public Dataset getDataset() {
+        if (this.xyDataset != null) {
+            return this.xyDataset;
+        }
+        return this.categoryDataset;
+    }
+
+    /**
+     * Returns the range of the x-values in the dataset.
+     *
+     * @return The range, or <code>null</code> for a category dataset or if
+     *         the dataset has no x-values other than <code>NaN</code>.
+     */
+    public original.Range getDomainBounds() {
+        update();
+        return this.domainBounds;
+    }
+
+    /**
+     * Returns the range of the y-values (or, for a category dataset, the
+     * values) in the dataset.
+     *
+     * @return The range, or <code>null</code> if the dataset has no values
+     *         other than <code>null</code> or <code>NaN</code>.
+     */
+    public original.Range getRangeBounds() {
+        update();
+        return this.rangeBounds;
+    }
+
+    /**
+     * Marks every series as stale, so that the bounds are found again from
+     * all the items the next time they are requested.
+     */
+    public void invalidate() {
+        reset(getSeriesCount());
+    }
+
+    /**
+     * Removes this cache from the listeners of the dataset.
+     */
+    public void dispose() {
+        getDataset().removeChangeListener(this);
+    }
+
+    /**
+     * Receives notification of a change to the dataset.
+     *
+     * @param event  the event.
+     */
+    public void datasetChanged(DatasetChangeEvent event) {
+        boolean sameSeries = this.valid.length == getSeriesCount();
+        if (event instanceof DatasetAppendEvent && sameSeries) {
+            DatasetAppendEvent append = (DatasetAppendEvent) event;
+            if (removed(append.getSeries(), append.getRemovedItemCount())
+                    && appended(append.getSeries(), append.getFirstItem(),
+                    append.getLastItem())) {
+                return;
+            }
+        }
+        else if (event instanceof DatasetBatchChangeEvent && sameSeries
+                && !((DatasetBatchChangeEvent) event).isFullChange()) {
+            DatasetBatchChangeEvent batch = (DatasetBatchChangeEvent) event;
+            for (int i = 0; i < batch.getAffectedSeriesCount(); i++) {
+                int series = batch.getAffectedSeries(i);
+                if (series >= this.valid.length) {
+                    invalidate();
+                    return;
+                }
+                int first = batch.getFirstAppendedItem(i);
+                if (first < 0 || !appended(series, first,
+                        batch.getLastAppendedItem(i))) {
+                    this.valid[series] = false;
+                }
+            }
+            this.combinedValid = false;
+            return;
+        }
+        invalidate();
+    }
+
+    /**
+     * Updates the bounds of a series after items were appended to it.  In
+     * a category dataset, adding a column to one row also adds a
+     * <code>null</code> item to every other row, so the items are read from
+     * the first item that has not been read yet.
+     *
+     * @param series  the series index.
+     * @param firstItem  the index of the first new item.
+     * @param lastItem  the index of the last new item.
+     *
+     * @return <code>true</code> if the cache is up to date (or the series
+     *         is already stale), and <code>false</code> if the new items do
+     *         not follow on from the items already read.
+     */
+    private boolean appended(int series, int firstItem, int lastItem) {
+        if (series >= this.valid.length) {
+            return false;
+        }
+        if (this.valid[series]) {
+            int start = this.itemCounts[series];
+            if (start > firstItem
+                    || (start < firstItem && this.xyDataset != null)) {
+                return false;
+            }
+            scan(series, start, lastItem + 1);
+            this.combinedValid = false;
+        }
+        return true;
+    }
+
+    /**
+     * Updates the item indices of a series after its oldest items were
+     * removed.  If one of the removed items held a bound, the series is
+     * marked as stale, except that in a dataset sorted by x-value the
+     * smallest x-value is read from the new first item.
+     *
+     * @param series  the series index.
+     * @param count  the number of items removed from the start.
+     *
+     * @return <code>true</code> if the cache is up to date (or the series
+     *         is stale), and <code>false</code> if more items were removed
+     *         than were read.
+     */
+    private boolean removed(int series, int count) {
+        if (count == 0 || series >= this.valid.length
+                || !this.valid[series]) {
+            return true;
+        }
+        if (count > this.itemCounts[series]) {
+            return false;
+        }
+        if (this.xyDataset != null && this.xMinItem[series] < count
+                && count < this.itemCounts[series]
+                && this.xyDataset.getDomainOrder() == DomainOrder.ASCENDING) {
+            double x = this.xyDataset.getXValue(series, 0);
+            if (!Double.isNaN(x)) {
+                this.xMin[series] = x;
+                this.xMinItem[series] = count;
+                this.combinedValid = false;
+            }
+        }
+        if (this.xMinItem[series] < count || this.xMaxItem[series] < count
+                || this.yMinItem[series] < count
+                || this.yMaxItem[series] < count) {
+            // a removed item held a bound (or the series has no bound)
+            this.valid[series] = false;
+            this.combinedValid = false;
+            return true;
+        }
+        this.xMinItem[series] -= count;
+        this.xMaxItem[series] -= count;
+        this.yMinItem[series] -= count;
+        this.yMaxItem[series] -= count;
+        this.itemCounts[series] -= count;
+        return true;
+    }
+
+    /**
+     * Resets the cache for a number of series.
+     *
+     * @param seriesCount  the number of series.
+     */
+    private void reset(int seriesCount) {
+        this.itemCounts = new int[seriesCount];
+        this.valid = new boolean[seriesCount];
+        this.xMin = new double[seriesCount];
+        this.xMax = new double[seriesCount];
+        this.yMin = new double[seriesCount];
+        this.yMax = new double[seriesCount];
+        this.xMinItem = new int[seriesCount];
+        this.xMaxItem = new int[seriesCount];
+        this.yMinItem = new int[seriesCount];
+        this.yMaxItem = new int[seriesCount];
+        this.combinedValid = false;
+    }
+
+    /**
+     * Returns the number of series in the dataset.
+     *
+     * @return The series count.
+     */
+    private int getSeriesCount() {
+        if (this.xyDataset != null) {
+            return this.xyDataset.getSeriesCount();
+        }
+        return this.categoryDataset.getRowCount();
+    }
+
+    /**
+     * Returns the number of items in a series of the dataset.
+     *
+     * @param series  the series index.
+     *
+     * @return The item count.
+     */
+    private int getItemCount(int series) {
+        if (this.xyDataset != null) {
+            return this.xyDataset.getItemCount(series);
+        }
+        return this.categoryDataset.getColumnCount();
+    }
+
+    /**
+     * Scans the stale series and updates the combined bounds.
+     */
+    private void update() {
+        if (this.combinedValid) {
+            return;
+        }
+        if (this.valid.length != getSeriesCount()) {
+            reset(getSeriesCount());
+        }
+        double minX = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int s = 0; s < this.valid.length; s++) {
+            if (!this.valid[s]) {
+                this.xMin[s] = Double.POSITIVE_INFINITY;
+                this.xMax[s] = Double.NEGATIVE_INFINITY;
+                this.yMin[s] = Double.POSITIVE_INFINITY;
+                this.yMax[s] = Double.NEGATIVE_INFINITY;
+                this.xMinItem[s] = -1;
+                this.xMaxItem[s] = -1;
+                this.yMinItem[s] = -1;
+                this.yMaxItem[s] = -1;
+                scan(s, 0, getItemCount(s));
+                this.valid[s] = true;
+            }
+            minX = Math.min(minX, this.xMin[s]);
+            maxX = Math.max(maxX, this.xMax[s]);
+            minY = Math.min(minY, this.yMin[s]);
+            maxY = Math.max(maxY, this.yMax[s]);
+        }
+        this.domainBounds = minX <= maxX ? new original.Range(minX, maxX)
+                : null;
+        this.rangeBounds = minY <= maxY ? new original.Range(minY, maxY)
+                : null;
+        this.combinedValid = true;
+    }
+
+    /**
+     * Extends the bounds of a series with some of its items.  For each
+     * bound, the last item holding it is remembered, so that removing
+     * older items that hold the same value does not change the bound.
+     * <code>NaN</code> fails every comparison, so it is ignored.
+     *
+     * @param series  the series index.
+     * @param start  the index of the first item to read.
+     * @param end  the index after the last item to read.
+     */
+    private void scan(int series, int start, int end) {
+        double minX = this.xMin[series];
+        double maxX = this.xMax[series];
+        double minY = this.yMin[series];
+        double maxY = this.yMax[series];
+        int minXItem = this.xMinItem[series];
+        int maxXItem = this.xMaxItem[series];
+        int minYItem = this.yMinItem[series];
+        int maxYItem = this.yMaxItem[series];
+        if (this.xyDataset != null) {
+            for (int item = start; item < end; item++) {
+                double x = this.xyDataset.getXValue(series, item);
+                if (x <= minX) {
+                    minX = x;
+                    minXItem = item;
+                }
+                if (x >= maxX) {
+                    maxX = x;
+                    maxXItem = item;
+                }
+                double y = this.xyDataset.getYValue(series, item);
+                if (y <= minY) {
+                    minY = y;
+                    minYItem = item;
+                }
+                if (y >= maxY) {
+                    maxY = y;
+                    maxYItem = item;
+                }
+            }
+        }
+        else {
+            for (int item = start; item < end; item++) {
+                Number value = this.categoryDataset.getValue(series, item);
+                if (value != null) {
+                    double y = value.doubleValue();
+                    if (y <= minY) {
+                        minY = y;
+                        minYItem = item;
+                    }
+                    if (y >= maxY) {
+                        maxY = y;
+                        maxYItem = item;
+                    }
+                }
+            }
+        }
+        this.xMin[series] = minX;
+        this.xMax[series] = maxX;
+        this.yMin[series] = minY;
+        this.yMax[series] = maxY;
+        this.xMinItem[series] = minXItem;
+        this.xMaxItem[series] = maxXItem;
+        this.yMinItem[series] = minYItem;
+        this.yMaxItem[series] = maxYItem;
+        this.itemCounts[series] = end;
+    }
+
+}
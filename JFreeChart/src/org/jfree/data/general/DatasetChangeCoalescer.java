@@ -0,0 +1,191 @@
+package org.jfree.data.general;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Records the changes made to a dataset during a batch, and creates the
+ * single {@link DatasetBatchChangeEvent} that describes them.  This class
+ * holds the state for {@link BatchedDataset} implementations:  the dataset
+ * passes its change events to {@link #datasetChanged(DatasetChangeEvent)}
+ * (and, if it knows which series changed, calls
+ * {@link #seriesChanged(int)}) instead of notifying its listeners while
+ * {@link #isActive()} returns <code>true</code>.
+ * <P>
+ * Consecutive appends to a series are merged into one item range.  Any
+ * other change to a series marks the whole series as changed.
+ */
+public class DatasetChangeCoalescer {
+
+    /** The batch nesting depth. */
+    private int depth;
+
+    /** A flag that indicates a change to the whole dataset. */
+    private boolean fullChange;
+
+    /** Maps series index to an int[2] of appended items (or -1, -1). */
+    private Map series;
+
+    /** The number of events recorded. */
+    private int eventCount;
+
+    /**
+     * Creates a new coalescer with no open batch.
+     */
+    public DatasetChangeCoalescer() {
+        this.series = new TreeMap();
+    }
+
+    /**
+     * Starts a batch (or a nested batch).
+     */
+    public void begin() {
+        this.depth++;
+    }
+
+    /**
+     * Ends a batch.
+     *
+     * @return <code>true</code> if this ends the outermost batch.
+     *
+     * @throws IllegalStateException if no batch is open.
+     */
+    public boolean end() {
+        if (this.depth == 0) {
+            throw new IllegalStateException("No batch is open.");
+        }
+        this.depth--;
+        return this.depth == 0;
+    }
+
+    /**
+     * Returns <code>true</code> if a batch is open.
+     *
+     * @return A boolean.
+     */
+    public boolean isActive() {
+        return this.depth > 0;
+    }
+
+    /**
+     * Records a change to the dataset.  A {@link DatasetAppendEvent} is
+     * recorded as an append to its series (or, if it removed the oldest
+     * items, as a change to its series), and a
+     * {@link DatasetBatchChangeEvent} as the changes it describes;  any
+     * other event is recorded as a change to the whole dataset.
+     *
+     * @param event  the event (<code>null</code> not permitted).
+     */
+    public void datasetChanged(DatasetChangeEvent event) {
+        if (event instanceof DatasetAppendEvent) {
+            DatasetAppendEvent append = (DatasetAppendEvent) event;
+            if (append.getRemovedItemCount() > 0) {
+                seriesChanged(append.getSeries());
+            }
+            else {
+                this.eventCount++;
+                appended(append.getSeries(), append.getFirstItem(),
+                        append.getLastItem());
+            }
+        }
+        else if (event instanceof DatasetBatchChangeEvent) {
+            DatasetBatchChangeEvent batch = (DatasetBatchChangeEvent) event;
+            this.eventCount += Math.max(1, batch.getEventCount());
+            if (batch.isFullChange()) {
+                this.fullChange = true;
+            }
+            for (int i = 0; i < batch.getAffectedSeriesCount(); i++) {
+                int first = batch.getFirstAppendedItem(i);
+                if (first < 0) {
+                    this.series.put(
+                            Integer.valueOf(batch.getAffectedSeries(i)),
+                            new int[] {-1, -1});
+                }
+                else {
+                    appended(batch.getAffectedSeries(i), first,
+                            batch.getLastAppendedItem(i));
+                }
+            }
+        }
+        else {
+            this.eventCount++;
+            this.fullChange = true;
+        }
+    }
+
+    /**
+     * Records an append to a series.
+     *
+     * @param seriesIndex  the series index.
+     * @param firstItem  the index of the first new item.
+     * @param lastItem  the index of the last new item.
+     */
+    private void appended(int seriesIndex, int firstItem, int lastItem) {
+        Integer key = Integer.valueOf(seriesIndex);
+        int[] items = (int[]) this.series.get(key);
+        if (items == null) {
+            this.series.put(key, new int[] {firstItem, lastItem});
+        }
+        else if (items[0] >= 0 && firstItem == items[1] + 1) {
+            items[1] = lastItem;
+        }
+        else {
+            items[0] = -1;
+            items[1] = -1;
+        }
+    }
+
+    /**
+     * Records a change (other than an append) to one series.
+     *
+     * @param seriesIndex  the series index, or <code>-1</code> if the
+     *                     series is not known (recorded as a change to the
+     *                     whole dataset).
+     */
+    public void seriesChanged(int seriesIndex) {
+        this.eventCount++;
+        if (seriesIndex < 0) {
+            this.fullChange = true;
+        }
+        else {
+            this.series.put(Integer.valueOf(seriesIndex), new int[] {-1, -1});
+        }
+    }
+
+    /**
+     * Creates an event for the changes recorded since the last call, and
+     * clears the record.
+     *
+     * @param source  the source of the event.
+     * @param dataset  the dataset.
+     *
+     * @return The event, or <code>null</code> if nothing changed.
+     */
+    public DatasetBatchChangeEvent createEvent(Object source,
+            Dataset dataset) {
+        if (this.eventCount == 0) {
+            return null;
+        }
+        int count = this.series.size();
+        int[] indices = new int[count];
+        int[] first = new int[count];
+        int[] last = new int[count];
+        Iterator iterator = this.series.entrySet().iterator();
+        for (int i = 0; i < count; i++) {
+            Map.Entry entry = (Map.Entry) iterator.next();
+            int[] items = (int[]) entry.getValue();
+            indices[i] = ((Integer) entry.getKey()).intValue();
+            first[i] = items[0];
+            last[i] = items[1];
+        }
+        DatasetBatchChangeEvent event = new DatasetBatchChangeEvent(source,
+                dataset, this.fullChange, indices, first, last,
+                this.eventCount);
+        this.fullChange = false;
+        this.series.clear();
+        this.eventCount = 0;
+        return event;
+    }
+
+}
@@ -0,0 +1,395 @@
+package org.jfree.data.general;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EventListener;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.event.EventListenerList;
+
+/**
+ * Delivers the change events of a dataset to its listeners on a separate
+ * thread, at no more than a fixed rate.  The dispatcher registers itself as
+ * a listener with the dataset, so the thread that changes the dataset only
+ * adds the event to a queue;  the listeners that draw a chart are
+ * registered with the dispatcher instead of the dataset.  Changes to the
+ * series in a collection reach the dispatcher through the collection.
+ * <P>
+ * All the events queued since the last delivery are merged with a
+ * {@link DatasetChangeCoalescer} and delivered as one event (a single
+ * queued event is delivered unchanged).  An event that arrives after a
+ * quiet period is delivered at once, and later events wait until
+ * <code>1 / maxRate</code> seconds have passed since the previous delivery.
+ * When the queue is full, the {@link BackpressurePolicy} decides what
+ * happens to a new event, and the events that are dropped or merged are
+ * counted.
+ * <P>
+ * The listeners run on the dispatcher thread while other threads may still
+ * change the dataset, so they must not rely on the dataset being unchanged
+ * unless the dataset is safe to read from several threads.  With
+ * {@link BackpressurePolicy#BLOCK}, a listener must not change the dataset
+ * itself, because it would wait for its own delivery to finish.
+ */
+public class DatasetChangeDispatcher implements DatasetChangeListener {
+
+    /** The default maximum number of deliveries per second. */
+    public static final double DEFAULT_MAX_RATE = 30.0;
+
+    /** The default queue capacity. */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /** The dataset. */
+    private Dataset dataset;
+
+    /** The executor that delivers the events. */
+    private ScheduledExecutorService executor;
+
+    /** A flag that indicates whether the executor is owned. */
+    private boolean ownsExecutor;
+
+    /** The minimum time between deliveries, in nanoseconds. */
+    private long periodNanos;
+
+    /** The queue capacity. */
+    private int capacity;
+
+    /** The backpressure policy. */
+    private BackpressurePolicy policy;
+
+    /** The queued events (guarded by <code>this</code>). */
+    private Deque queue;
+
+    /** A flag that indicates whether a delivery is scheduled. */
+    private boolean scheduled;
+
+    /** The earliest time for the next delivery (from System.nanoTime()). */
+    private long nextDelivery;
+
+    /** A flag that indicates whether the dispatcher has been disposed. */
+    private boolean disposed;
+
+    /** The number of events received from the dataset. */
+    private long receivedCount;
+
+    /** The number of events delivered to the listeners. */
+    private long deliveredCount;
+
+    /** The number of events dropped. */
+    private long droppedCount;
+
+    /** The number of events merged into other events. */
+    private long mergedCount;
+
+    /** The registered listeners. */
+    private EventListenerList listeners;
+
+    /** The lock held while events are delivered (keeps them in order). */
+    private final Object deliveryLock = new Object();
+
+    /** The task that delivers the queued events. */
+    private final Runnable deliverTask = new Runnable() {
+        public void run() {
+            flush();
+        }
+    };
+
+    /**
+     * Creates a new dispatcher with the default rate, capacity and policy
+     * ({@link BackpressurePolicy#MERGE}), using its own delivery thread.
+     *
+     * @param dataset  the dataset (<code>null</code> not permitted).
+     */
+    public DatasetChangeDispatcher(Dataset dataset) {
+        this(dataset, DEFAULT_MAX_RATE, DEFAULT_CAPACITY,
+                BackpressurePolicy.MERGE);
+    }
+
+    /**
+     * Creates a new dispatcher that uses its own delivery thread.  The
+     * thread is a daemon thread, and is stopped by {@link #dispose()}.
+     *
+     * @param dataset  the dataset (<code>null</code> not permitted).
+     * @param maxRate  the maximum number of deliveries per second (must be
+     *                 positive).
+     * @param capacity  the queue capacity (must be at least 1).
+     * @param policy  the policy for a full queue (<code>null</code> not
+     *                permitted).
+     */
+    public DatasetChangeDispatcher(Dataset dataset, double maxRate,
+            int capacity, BackpressurePolicy policy) {
+        this(dataset, maxRate, capacity, policy, createExecutor(), true);
+    }
+
+    /**
+     * Creates a new dispatcher that delivers events with the given
+     * executor.  The executor is not shut down by {@link #dispose()}.
+     *
+     * @param dataset  the dataset (<code>null</code> not permitted).
+     * @param maxRate  the maximum number of deliveries per second (must be
+     *                 positive).
+     * @param capacity  the queue capacity (must be at least 1).
+     * @param policy  the policy for a full queue (<code>null</code> not
+     *                permitted).
+     * @param executor  the executor (<code>null</code> not permitted).
+     */
+    public DatasetChangeDispatcher(Dataset dataset, double maxRate,
+            int capacity, BackpressurePolicy policy,
+            ScheduledExecutorService executor) {
+        this(dataset, maxRate, capacity, policy, executor, false);
+    }
+
+    /**
+     * Creates a new dispatcher.
+     *
+     * @param dataset  the dataset.
+     * @param maxRate  the maximum number of deliveries per second.
+     * @param capacity  the queue capacity.
+     * @param policy  the policy for a full queue.
+     * @param executor  the executor.
+     * @param ownsExecutor  shut down the executor on dispose?
+     */
+    private DatasetChangeDispatcher(Dataset dataset, double maxRate,
+            int capacity, BackpressurePolicy policy,
+            ScheduledExecutorService executor, boolean ownsExecutor) {
+        if (dataset == null) {
+            throw new IllegalArgumentException("Null 'dataset' argument.");
+        }
+        if (!(maxRate > 0.0)) {
+            throw new IllegalArgumentException("Requires 'maxRate' > 0.");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Requires 'capacity' >= 1.");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("Null 'policy' argument.");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Null 'executor' argument.");
+        }
+        this.dataset = dataset;
+        this.periodNanos = (long) Math.ceil(1.0e9 / maxRate);
+        this.capacity = capacity;
+        this.policy = policy;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.queue = new ArrayDeque();
+        this.listeners = new EventListenerList();
+        this.nextDelivery = System.nanoTime();
+        dataset.addChangeListener(this);
+    }
+
+    /**
+     * Creates the executor for a dispatcher with its own thread.
+     *
+     * @return The executor.
+     */
+    private static ScheduledExecutorService createExecutor() {
+        ScheduledThreadPoolExecutor result = new ScheduledThreadPoolExecutor(
+                1, new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "DatasetChangeDispatcher");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        result.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        return result;
+    }
+
+    /**
+     * Returns the dataset.
+     *
+     * @return The dataset.
+     */
+    public Dataset getDataset() {
+        return this.dataset;
+    }
+
+    /**
+     * Returns the backpressure policy.
+     *
+     * @return The policy.
+     */
+    public BackpressurePolicy getPolicy() {
+        return this.policy;
+    }
+
+    /**
+     * Registers a listener to receive the events of the dataset.
+     *
+     * @param listener  the listener.
+     */
+    public void addChangeListener(DatasetChangeListener listener) {
+        this.listeners.add(DatasetChangeListener.class, listener);
+    }
+
+    /**
+     * Deregisters a listener.
+     *
+     * @param listener  the listener.
+     */
+    public void removeChangeListener(DatasetChangeListener listener) {
+        this.listeners.remove(DatasetChangeListener.class, listener);
+    }
+
+    /**
+     * Receives a change event from the dataset and queues it for delivery.
+     *
+     * @param event  the event.
+     */
+    public void datasetChanged(DatasetChangeEvent event) {
+        boolean interrupted = false;
+        synchronized (this) {
+            if (this.disposed) {
+                return;
+            }
+            this.receivedCount++;
+            while (this.queue.size() >= this.capacity
+                    && this.policy == BackpressurePolicy.BLOCK
+                    && !this.disposed) {
+                try {
+                    wait();
+                }
+                catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (this.queue.size() < this.capacity) {
+                this.queue.addLast(event);
+            }
+            else if (this.policy == BackpressurePolicy.DROP_NEWEST) {
+                this.droppedCount++;
+            }
+            else if (this.policy == BackpressurePolicy.DROP_OLDEST) {
+                this.queue.removeFirst();
+                this.queue.addLast(event);
+                this.droppedCount++;
+            }
+            else if (!this.disposed) {
+                this.queue.addLast(event);
+                this.queue.addLast(merge(this.queue));
+            }
+            if (!this.scheduled && !this.disposed) {
+                this.scheduled = true;
+                long delay = Math.max(0L,
+                        this.nextDelivery - System.nanoTime());
+                this.executor.schedule(this.deliverTask, delay,
+                        TimeUnit.NANOSECONDS);
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Delivers the queued events now, on the calling thread.  This is
+     * called by the dispatcher thread, and can also be called (for
+     * example, before a chart is saved) to bring the listeners up to date.
+     */
+    public void flush() {
+        synchronized (this.deliveryLock) {
+            DatasetChangeEvent event;
+            synchronized (this) {
+                this.scheduled = false;
+                this.nextDelivery = System.nanoTime() + this.periodNanos;
+                if (this.queue.isEmpty()) {
+                    return;
+                }
+                event = this.queue.size() == 1
+                        ? (DatasetChangeEvent) this.queue.removeFirst()
+                        : merge(this.queue);
+                this.deliveredCount++;
+                notifyAll();
+            }
+            EventListener[] targets = this.listeners.getListeners(
+                    DatasetChangeListener.class);
+            for (int i = targets.length - 1; i >= 0; i--) {
+                ((DatasetChangeListener) targets[i]).datasetChanged(event);
+            }
+        }
+    }
+
+    /**
+     * Removes all the events from a queue and merges them into one event.
+     *
+     * @param events  the queued events (at least two).
+     *
+     * @return The merged event.
+     */
+    private DatasetChangeEvent merge(Deque events) {
+        DatasetChangeCoalescer coalescer = new DatasetChangeCoalescer();
+        this.mergedCount += events.size() - 1;
+        while (!events.isEmpty()) {
+            coalescer.datasetChanged((DatasetChangeEvent) events.removeFirst());
+        }
+        return coalescer.createEvent(this.dataset, this.dataset);
+    }
+
+    /**
+     * Returns the number of events received from the dataset.
+     *
+     * @return The count.
+     */
+    public synchronized long getReceivedCount() {
+        return this.receivedCount;
+    }
+
+    /**
+     * Returns the number of (possibly merged) events delivered to the
+     * listeners.
+     *
+     * @return The count.
+     */
+    public synchronized long getDeliveredCount() {
+        return this.deliveredCount;
+    }
+
+    /**
+     * Returns the number of events dropped because the queue was full.
+     *
+     * @return The count.
+     */
+    public synchronized long getDroppedCount() {
+        return this.droppedCount;
+    }
+
+    /**
+     * Returns the number of events that were merged into another event.
+     *
+     * @return The count.
+     */
+    public synchronized long getMergedCount() {
+        return this.mergedCount;
+    }
+
+    /**
+     * Returns the number of events waiting for delivery.
+     *
+     * @return The count.
+     */
+    public synchronized int getQueueSize() {
+        return this.queue.size();
+    }
+
+    /**
+     * Removes the dispatcher from the listeners of the dataset, discards
+     * the queued events, releases any blocked threads and, if the
+     * dispatcher created its own thread, stops it.
+     */
+    public void dispose() {
+        this.dataset.removeChangeListener(this);
+        synchronized (this) {
+            this.disposed = true;
+            this.queue.clear();
+            notifyAll();
+        }
+        if (this.ownsExecutor) {
+            this.executor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+package org.jfree.data.general;
+
+/**
+ * Remembers the state of an {@link AppendableSeries}, so that a later
+ * change can be recognised as an append.  Collections use one tracker per
+ * series to send a {@link DatasetAppendEvent} (or to record the appended
+ * items in a {@link DatasetBatchChangeEvent}) instead of a plain change
+ * event.
+ */
+public class SeriesAppendTracker {
+
+    /** The item count when the series was last marked. */
+    private int itemCount;
+
+    /** The rewrite count when the series was last marked. */
+    private long rewriteCount;
+
+    /** The removed item count when the series was last marked. */
+    private long removedCount;
+
+    /**
+     * Creates a new tracker that has marked the current state of a series.
+     *
+     * @param series  the series (<code>null</code> not permitted).
+     */
+    public SeriesAppendTracker(AppendableSeries series) {
+        mark(series);
+    }
+
+    /**
+     * Remembers the current state of a series.
+     *
+     * @param series  the series (<code>null</code> not permitted).
+     */
+    public void mark(AppendableSeries series) {
+        if (series == null) {
+            throw new IllegalArgumentException("Null 'series' argument.");
+        }
+        this.itemCount = series.getItemCount();
+        this.rewriteCount = series.getRewriteCount();
+        this.removedCount = series.getRemovedOldestCount();
+    }
+
+    /**
+     * Returns the item count when the series was last marked.  Less the
+     * number of removed items, this is the index of the first appended
+     * item.
+     *
+     * @return The item count.
+     */
+    public int getItemCount() {
+        return this.itemCount;
+    }
+
+    /**
+     * Returns the number of items removed from the start of a series, to
+     * make room for appended items, since it was last marked.
+     *
+     * @param series  the series (<code>null</code> not permitted).
+     *
+     * @return The number of removed items.
+     */
+    public int getRemovedItemCount(AppendableSeries series) {
+        return (int) Math.min(series.getRemovedOldestCount()
+                - this.removedCount, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the number of items appended to a series since it was last
+     * marked (and still in the series).
+     *
+     * @param series  the series (<code>null</code> not permitted).
+     *
+     * @return The number of appended items, or <code>-1</code> if the
+     *         series has been changed in some other way, if every item
+     *         that was there when it was marked has been removed along
+     *         with some of the appended items (or if it has not changed at
+     *         all).
+     */
+    public int getAppendedItemCount(AppendableSeries series) {
+        int removed = getRemovedItemCount(series);
+        if (removed > this.itemCount
+                || series.getRewriteCount() != this.rewriteCount) {
+            return -1;
+        }
+        int appended = series.getItemCount() - (this.itemCount - removed);
+        return appended > 0 ? appended : -1;
+    }
+
+}
@@ -0,0 +1,48 @@
+package org.jfree.data.general;
+
+/**
+ * A batch of changes to a {@link BatchedDataset}, for use in a
+ * try-with-resources statement.  Closing the batch ends it;  closing it
+ * again has no effect.
+ */
+public final class UpdateBatch implements AutoCloseable {
+
+    /** The dataset. */
+    private BatchedDataset dataset;
+
+    /**
+     * Creates a new batch.
+     *
+     * @param dataset  the dataset.
+     */
+    private UpdateBatch(BatchedDataset dataset) {
+        this.dataset = dataset;
+    }
+
+    /**
+     * Starts a batch of changes to a dataset.
+     *
+     * @param dataset  the dataset (<code>null</code> not permitted).
+     *
+     * @return The batch.
+     */
+    public static UpdateBatch begin(BatchedDataset dataset) {
+        if (dataset == null) {
+            throw new IllegalArgumentException("Null 'dataset' argument.");
+        }
+        dataset.beginUpdate();
+        return new UpdateBatch(dataset);
+    }
+
+    /**
+     * Ends the batch (the first time this method is called).
+     */
+    public void close() {
+        if (this.dataset != null) {
+            BatchedDataset d = this.dataset;
+            this.dataset = null;
+            d.endUpdate();
+        }
+    }
+
+}
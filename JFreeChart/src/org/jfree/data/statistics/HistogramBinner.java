@@ -0,0 +1,255 @@
+package org.jfree.data.statistics;
+
+import java.io.Serializable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Bins large arrays of samples into {@link HistogramCounts}, using a
+ * fork-join pool.
+ * <P>
+ * The array is split until each task covers no more than the split
+ * threshold (a number of samples).  Each task counts its samples into its
+ * own <code>long[]</code> array, and the arrays are added together as the
+ * tasks are joined.  The counts are integers, so the result is exactly
+ * the same as binning the array on one thread, for any parallelism or
+ * split threshold.
+ * <P>
+ * The array must not be modified while it is being binned.
+ */
+public class HistogramBinner implements Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 6183340945377112839L;
+
+    /** The default split threshold (in samples). */
+    public static final int DEFAULT_SPLIT_THRESHOLD = 1 << 16;
+
+    /** The number of worker threads. */
+    private int parallelism;
+
+    /** The largest number of samples handled by a single task. */
+    private int splitThreshold;
+
+    /** The pool (created when first needed). */
+    private transient ForkJoinPool pool;
+
+    /**
+     * Creates a new binner that uses one thread per available processor
+     * and the default split threshold.
+     */
+    public HistogramBinner() {
+        this(Runtime.getRuntime().availableProcessors(),
+                DEFAULT_SPLIT_THRESHOLD);
+    }
+
+    /**
+     * Creates a new binner.
+     *
+     * @param parallelism  the number of threads (1 means that all work is
+     *                     done on the calling thread).
+     * @param splitThreshold  the largest number of samples handled by a
+     *                        single task (must be positive).
+     */
+    public HistogramBinner(int parallelism, int splitThreshold) {
+        setParallelism(parallelism);
+        setSplitThreshold(splitThreshold);
+    }
+
+    /**
+     * Returns the number of threads used for binning.
+     *
+     * @return The parallelism.
+     */
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Sets the number of threads used for binning.
+     *
+     * @param parallelism  the number of threads (1 means that all work is
+     *                     done on the calling thread).
+     */
+    public synchronized void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(
+                    "Requires 'parallelism' >= 1.");
+        }
+        if (this.pool != null && parallelism != this.parallelism) {
+            this.pool.shutdown();
+            this.pool = null;
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns the largest number of samples handled by a single task.
+     *
+     * @return The split threshold.
+     */
+    public int getSplitThreshold() {
+        return this.splitThreshold;
+    }
+
+    /**
+     * Sets the largest number of samples handled by a single task.
+     * Smaller values give better load balancing, larger values less
+     * overhead.
+     *
+     * @param threshold  the threshold (must be positive).
+     */
+    public void setSplitThreshold(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException(
+                    "Requires 'threshold' >= 1.");
+        }
+        this.splitThreshold = threshold;
+    }
+
+    /**
+     * Creates a histogram of an array of samples.
+     *
+     * @param values  the samples (<code>null</code> not permitted).
+     * @param bins  the number of bins (must be at least 1).
+     * @param minimum  the lower bound of the first bin.
+     * @param maximum  the upper bound of the last bin.
+     *
+     * @return The histogram.
+     */
+    public HistogramCounts createCounts(double[] values, int bins,
+            double minimum, double maximum) {
+        HistogramCounts result = new HistogramCounts(bins, minimum, maximum);
+        add(result, values);
+        return result;
+    }
+
+    /**
+     * Adds an array of samples to a histogram.
+     *
+     * @param counts  the histogram (<code>null</code> not permitted).
+     * @param values  the samples (<code>null</code> not permitted).
+     */
+    public void add(HistogramCounts counts, double[] values) {
+        if (counts == null) {
+            throw new IllegalArgumentException("Null 'counts' argument.");
+        }
+        if (values == null) {
+            throw new IllegalArgumentException("Null 'values' argument.");
+        }
+        if (this.parallelism == 1 || values.length <= this.splitThreshold) {
+            counts.add(values);
+            return;
+        }
+        long[] binCounts = getPool().invoke(new CountTask(values, 0,
+                values.length, this.splitThreshold, counts.getMinimum(),
+                counts.getMaximum(), counts.getBinCount()));
+        counts.addCounts(binCounts, values.length);
+    }
+
+    /**
+     * Releases the worker threads.  The binner can still be used
+     * afterwards (a new pool is created when needed).
+     */
+    public synchronized void shutdown() {
+        if (this.pool != null) {
+            this.pool.shutdown();
+            this.pool = null;
+        }
+    }
+
+    /**
+     * Returns the pool, creating it if necessary.
+     *
+     * @return The pool.
+     */
+    private synchronized ForkJoinPool getPool() {
+        if (this.pool == null) {
+            this.pool = new ForkJoinPool(this.parallelism);
+        }
+        return this.pool;
+    }
+
+    /**
+     * A task that returns the bin counts of a block of samples.
+     */
+    static final class CountTask extends RecursiveTask<long[]> {
+
+        /** For serialization. */
+        private static final long serialVersionUID = 1L;
+
+        /** The samples. */
+        private final double[] values;
+
+        /** The index of the first sample. */
+        private final int from;
+
+        /** The index after the last sample. */
+        private final int to;
+
+        /** The largest number of samples for one task. */
+        private final int splitThreshold;
+
+        /** The lower bound of the first bin. */
+        private final double minimum;
+
+        /** The upper bound of the last bin. */
+        private final double maximum;
+
+        /** The number of bins. */
+        private final int bins;
+
+        /**
+         * Creates a new task.
+         *
+         * @param values  the samples.
+         * @param from  the index of the first sample.
+         * @param to  the index after the last sample.
+         * @param splitThreshold  the largest number of samples for one
+         *                        task.
+         * @param minimum  the lower bound of the first bin.
+         * @param maximum  the upper bound of the last bin.
+         * @param bins  the number of bins.
+         */
+        CountTask(double[] values, int from, int to, int splitThreshold,
+                double minimum, double maximum, int bins) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.splitThreshold = splitThreshold;
+            this.minimum = minimum;
+            this.maximum = maximum;
+            this.bins = bins;
+        }
+
+        /**
+         * Computes the counts.
+         *
+         * @return The bin counts.
+         */
+        protected long[] compute() {
+            if (this.to - this.from <= this.splitThreshold) {
+                long[] result = new long[this.bins];
+                HistogramCounts.countValues(this.values, this.from, this.to,
+                        this.minimum, this.maximum, result);
+                return result;
+            }
+            int mid = (this.from + this.to) >>> 1;
+            CountTask left = new CountTask(this.values, this.from, mid,
+                    this.splitThreshold, this.minimum, this.maximum,
+                    this.bins);
+            CountTask right = new CountTask(this.values, mid, this.to,
+                    this.splitThreshold, this.minimum, this.maximum,
+                    this.bins);
+            right.fork();
+            long[] result = left.compute();
+            long[] other = right.join();
+            for (int i = 0; i < result.length; i++) {
+                result[i] += other[i];
+            }
+            return result;
+        }
+
+    }
+
+}
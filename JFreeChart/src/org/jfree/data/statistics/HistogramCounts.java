@@ -0,0 +1,333 @@
+package org.jfree.data.statistics;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.jfree.util.PublicCloneable;
+
+/**
+ * The bin counts of a histogram with a fixed number of equal-width bins,
+ * held in a primitive <code>long[]</code> array rather than as one
+ * {@link HistogramBin} object per bin.  Samples can be added at any time,
+ * and the counts of two histograms with the same bins can be merged, so a
+ * histogram can grow a day (or a shard) at a time without being rebuilt.
+ * <P>
+ * A sample is assigned to a bin exactly as
+ * {@link HistogramDataset#addSeries(Comparable, double[], int, double,
+ * double)} assigns it:  samples below the minimum go into the first bin,
+ * and samples at or above the maximum (and <code>NaN</code> values) go
+ * into the last bin.  The bin boundaries are accumulated in the same way
+ * too, so they match those of a {@link HistogramDataset} bit for bit.
+ * <P>
+ * See {@link HistogramBinner} for binning large arrays on several
+ * threads.
+ */
+public class HistogramCounts implements Cloneable, PublicCloneable,
+        Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -2748530612849753185L;
+
+    /** The lower bound of the first bin. */
+    private double minimum;
+
+    /** The upper bound of the last bin. */
+    private double maximum;
+
+    /** The bin width. */
+    private double binWidth;
+
+    /** The bin boundaries (one more than the number of bins). */
+    private double[] boundaries;
+
+    /** The bin counts. */
+    private long[] counts;
+
+    /** The total of the bin counts. */
+    private long total;
+
+    /**
+     * Creates a new histogram with no samples.
+     *
+     * @param bins  the number of bins (must be at least 1).
+     * @param minimum  the lower bound of the first bin.
+     * @param maximum  the upper bound of the last bin.
+     */
+    public HistogramCounts(int bins, double minimum, double maximum) {
+        if (bins < 1) {
+            throw new IllegalArgumentException(
+                    "The 'bins' value must be at least 1.");
+        }
+        this.minimum = minimum;
+        this.maximum = maximum;
+        this.binWidth = (maximum - minimum) / bins;
+        this.boundaries = new double[bins + 1];
+        double lower = minimum;
+        for (int i = 0; i < bins; i++) {
+            this.boundaries[i] = lower;
+            lower = lower + this.binWidth;
+        }
+        this.boundaries[bins] = maximum;
+        this.counts = new long[bins];
+    }
+
+    /**
+     * Returns the number of bins.
+     *
+     * @return The number of bins.
+     */
+    public int getBinCount() {
+        return this.counts.length;
+    }
+
+    /**
+     * Returns the lower bound of the first bin.
+     *
+     * @return The minimum.
+     */
+    public double getMinimum() {
+        return this.minimum;
+    }
+
+    /**
+     * Returns the upper bound of the last bin.
+     *
+     * @return The maximum.
+     */
+    public double getMaximum() {
+        return this.maximum;
+    }
+
+    /**
+     * Returns the bin width.
+     *
+     * @return The bin width.
+     */
+    public double getBinWidth() {
+        return this.binWidth;
+    }
+
+    /**
+     * Returns the lower bound of a bin.
+     *
+     * @param bin  the bin index.
+     *
+     * @return The lower bound.
+     */
+    public double getStartBoundary(int bin) {
+        checkBin(bin);
+        return this.boundaries[bin];
+    }
+
+    /**
+     * Returns the upper bound of a bin.
+     *
+     * @param bin  the bin index.
+     *
+     * @return The upper bound.
+     */
+    public double getEndBoundary(int bin) {
+        checkBin(bin);
+        return this.boundaries[bin + 1];
+    }
+
+    /**
+     * Returns the number of samples in a bin.
+     *
+     * @param bin  the bin index.
+     *
+     * @return The count.
+     */
+    public long getCount(int bin) {
+        checkBin(bin);
+        return this.counts[bin];
+    }
+
+    /**
+     * Returns the total number of samples.
+     *
+     * @return The total.
+     */
+    public long getTotal() {
+        return this.total;
+    }
+
+    /**
+     * Returns the index of the bin that a sample belongs to.
+     *
+     * @param value  the sample.
+     *
+     * @return The bin index.
+     */
+    public int getBinIndex(double value) {
+        return binIndex(value, this.minimum, this.maximum,
+                this.counts.length);
+    }
+
+    /**
+     * Adds a sample.
+     *
+     * @param value  the sample.
+     */
+    public void add(double value) {
+        this.counts[getBinIndex(value)]++;
+        this.total++;
+    }
+
+    /**
+     * Adds an array of samples, on the calling thread.
+     *
+     * @param values  the samples (<code>null</code> not permitted).
+     */
+    public void add(double[] values) {
+        if (values == null) {
+            throw new IllegalArgumentException("Null 'values' argument.");
+        }
+        countValues(values, 0, values.length, this.minimum, this.maximum,
+                this.counts);
+        this.total += values.length;
+    }
+
+    /**
+     * Adds the counts of another histogram with the same bins to this one.
+     * The other histogram is not changed.
+     *
+     * @param other  the other histogram (<code>null</code> not permitted).
+     */
+    public void merge(HistogramCounts other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Null 'other' argument.");
+        }
+        if (!hasSameBins(other)) {
+            throw new IllegalArgumentException(
+                    "The histograms have different bins.");
+        }
+        addCounts(other.counts, other.total);
+    }
+
+    /**
+     * Returns <code>true</code> if another histogram has the same number
+     * of bins, minimum and maximum as this one.
+     *
+     * @param other  the other histogram (<code>null</code> not permitted).
+     *
+     * @return A boolean.
+     */
+    public boolean hasSameBins(HistogramCounts other) {
+        return this.counts.length == other.counts.length
+                && Double.doubleToLongBits(this.minimum)
+                == Double.doubleToLongBits(other.minimum)
+                && Double.doubleToLongBits(this.maximum)
+                == Double.doubleToLongBits(other.maximum);
+    }
+
+    /**
+     * Adds a block of bin counts to this histogram.
+     *
+     * @param binCounts  the counts (one per bin).
+     * @param binTotal  the total of the counts.
+     */
+    void addCounts(long[] binCounts, long binTotal) {
+        for (int i = 0; i < this.counts.length; i++) {
+            this.counts[i] += binCounts[i];
+        }
+        this.total += binTotal;
+    }
+
+    /**
+     * Returns the index of the bin that a sample belongs to, as
+     * {@link HistogramDataset} calculates it.  Where rounding would give
+     * an index past the last bin, the last bin is returned.
+     *
+     * @param value  the sample.
+     * @param minimum  the lower bound of the first bin.
+     * @param maximum  the upper bound of the last bin.
+     * @param bins  the number of bins.
+     *
+     * @return The bin index.
+     */
+    static int binIndex(double value, double minimum, double maximum,
+            int bins) {
+        int result = bins - 1;
+        if (value < maximum) {
+            double fraction = (value - minimum) / (maximum - minimum);
+            if (fraction < 0.0) {
+                fraction = 0.0;
+            }
+            result = Math.min((int) (fraction * bins), bins - 1);
+        }
+        return result;
+    }
+
+    /**
+     * Counts the samples in a block of an array.
+     *
+     * @param values  the samples.
+     * @param from  the index of the first sample.
+     * @param to  the index after the last sample.
+     * @param minimum  the lower bound of the first bin.
+     * @param maximum  the upper bound of the last bin.
+     * @param binCounts  the counts to increment (one per bin).
+     */
+    static void countValues(double[] values, int from, int to,
+            double minimum, double maximum, long[] binCounts) {
+        int bins = binCounts.length;
+        for (int i = from; i < to; i++) {
+            binCounts[binIndex(values[i], minimum, maximum, bins)]++;
+        }
+    }
+
+    /**
+     * Checks a bin index.
+     *
+     * @param bin  the bin index.
+     */
+    private void checkBin(int bin) {
+        if (bin < 0 || bin >= this.counts.length) {
+            throw new IndexOutOfBoundsException("Bin index out of bounds: "
+                    + bin);
+        }
+    }
+
+    /**
+     * Tests this histogram for equality with an arbitrary object.
+     *
+     * @param obj  the object (<code>null</code> permitted).
+     *
+     * @return A boolean.
+     */
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof HistogramCounts)) {
+            return false;
+        }
+        HistogramCounts that = (HistogramCounts) obj;
+        return hasSameBins(that) && this.total == that.total
+                && Arrays.equals(this.counts, that.counts);
+    }
+
+    /**
+     * Returns a hash code for the histogram.
+     *
+     * @return A hash code.
+     */
+    public int hashCode() {
+        return Arrays.hashCode(this.counts);
+    }
+
+    /**
+     * Returns a clone of the histogram.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException if there is a problem cloning.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        HistogramCounts clone = (HistogramCounts) super.clone();
+        clone.counts = this.counts.clone();
+        return clone;
+    }
+
+}
@@ -0,0 +1,435 @@
+package org.jfree.data.statistics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jfree.data.UnknownKeyException;
+import org.jfree.data.xy.AbstractIntervalXYDataset;
+import org.jfree.data.xy.IntervalXYDataset;
+import org.jfree.util.ObjectUtilities;
+import org.jfree.util.PublicCloneable;
+
+/**
+ * A dataset that can be used for creating histograms, with the same series
+ * and items as {@link HistogramDataset}.  Each series is held as a
+ * {@link HistogramCounts} instance (a primitive <code>long[]</code> array
+ * of bin counts) rather than as a list of {@link HistogramBin} objects, so
+ * a series can hold more than <code>Integer.MAX_VALUE</code> samples.
+ * Large arrays are binned on several threads by a {@link HistogramBinner},
+ * and more samples (or the counts of histograms built elsewhere) can be
+ * added to an existing series with
+ * {@link #addValues(Comparable, double[])} and
+ * {@link #merge(Comparable, HistogramCounts)}, without binning the earlier
+ * samples again.
+ * <P>
+ * Every change sends a single
+ * {@link org.jfree.data.general.DatasetChangeEvent} to the registered
+ * listeners, however many samples it adds.
+ */
+public class ParallelHistogramDataset extends AbstractIntervalXYDataset
+        implements IntervalXYDataset, Cloneable, PublicCloneable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 3917445260187313542L;
+
+    /** The series keys. */
+    private List keys;
+
+    /** The bin counts for each series (instances of HistogramCounts). */
+    private List counts;
+
+    /** The histogram type. */
+    private HistogramType type;
+
+    /** The binner used for arrays of samples. */
+    private HistogramBinner binner;
+
+    /**
+     * Creates a new (empty) dataset with a default type of
+     * {@link HistogramType#FREQUENCY}, and a binner that uses one thread
+     * per available processor.
+     */
+    public ParallelHistogramDataset() {
+        this(new HistogramBinner());
+    }
+
+    /**
+     * Creates a new (empty) dataset with a default type of
+     * {@link HistogramType#FREQUENCY}.
+     *
+     * @param binner  the binner used for arrays of samples
+     *                (<code>null</code> not permitted).
+     */
+    public ParallelHistogramDataset(HistogramBinner binner) {
+        if (binner == null) {
+            throw new IllegalArgumentException("Null 'binner' argument.");
+        }
+        this.keys = new ArrayList();
+        this.counts = new ArrayList();
+        this.type = HistogramType.FREQUENCY;
+        this.binner = binner;
+    }
+
+    /**
+     * Returns the histogram type.
+     *
+     * @return The type (never <code>null</code>).
+     */
+    public HistogramType getType() {
+        return this.type;
+    }
+
+    /**
+     * Sets the histogram type and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param type  the type (<code>null</code> not permitted).
+     */
+    public void setType(HistogramType type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Null 'type' argument");
+        }
+        this.type = type;
+        fireDatasetChanged();
+    }
+
+    /**
+     * Returns the binner used for arrays of samples.
+     *
+     * @return The binner (never <code>null</code>).
+     */
+    public HistogramBinner getBinner() {
+        return this.binner;
+    }
+
+    /**
+     * Adds a series to the dataset, using the specified number of bins,
+     * and sends a {@link org.jfree.data.general.DatasetChangeEvent} to all
+     * registered listeners.  The bins span the range of the values.
+     *
+     * @param key  the series key (<code>null</code> not permitted).
+     * @param values  the values (<code>null</code> not permitted, and it
+     *                must contain at least one value).
+     * @param bins  the number of bins (must be at least 1).
+     */
+    public void addSeries(Comparable key, double[] values, int bins) {
+        if (values == null || values.length < 1) {
+            throw new IllegalArgumentException(
+                    "Null or zero length 'values' argument.");
+        }
+        double minimum = Double.MAX_VALUE;
+        double maximum = -Double.MAX_VALUE;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] < minimum) {
+                minimum = values[i];
+            }
+            if (values[i] > maximum) {
+                maximum = values[i];
+            }
+        }
+        addSeries(key, values, bins, minimum, maximum);
+    }
+
+    /**
+     * Adds a series to the dataset and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.  Values below the minimum are counted in the first bin,
+     * and values at or above the maximum in the last bin, as
+     * {@link HistogramDataset} counts them.
+     *
+     * @param key  the series key (<code>null</code> not permitted).
+     * @param values  the values (<code>null</code> not permitted).
+     * @param bins  the number of bins (must be at least 1).
+     * @param minimum  the lower bound of the bin range.
+     * @param maximum  the upper bound of the bin range.
+     */
+    public void addSeries(Comparable key, double[] values, int bins,
+            double minimum, double maximum) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null 'key' argument.");
+        }
+        if (values == null) {
+            throw new IllegalArgumentException("Null 'values' argument.");
+        }
+        this.keys.add(key);
+        this.counts.add(this.binner.createCounts(values, bins, minimum,
+                maximum));
+        fireDatasetChanged();
+    }
+
+    /**
+     * Adds more values to an existing series and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.  The values are counted in the existing bins.
+     *
+     * @param key  the series key (<code>null</code> not permitted).
+     * @param values  the values (<code>null</code> not permitted).
+     *
+     * @throws UnknownKeyException if the dataset has no series with the
+     *         specified key.
+     */
+    public void addValues(Comparable key, double[] values) {
+        if (values == null) {
+            throw new IllegalArgumentException("Null 'values' argument.");
+        }
+        this.binner.add(getCounts(key), values);
+        fireDatasetChanged();
+    }
+
+    /**
+     * Merges the bin counts of a histogram into a series and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.  If the dataset has no series with the specified key, a
+     * new series is added with a copy of the counts.  The histogram is not
+     * changed.
+     *
+     * @param key  the series key (<code>null</code> not permitted).
+     * @param histogram  the histogram (<code>null</code> not permitted,
+     *                   and it must have the same bins as an existing
+     *                   series).
+     */
+    public void merge(Comparable key, HistogramCounts histogram) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null 'key' argument.");
+        }
+        if (histogram == null) {
+            throw new IllegalArgumentException("Null 'histogram' argument.");
+        }
+        int series = this.keys.indexOf(key);
+        if (series >= 0) {
+            getCounts(series).merge(histogram);
+        }
+        else {
+            HistogramCounts copy = new HistogramCounts(
+                    histogram.getBinCount(), histogram.getMinimum(),
+                    histogram.getMaximum());
+            copy.merge(histogram);
+            this.keys.add(key);
+            this.counts.add(copy);
+        }
+        fireDatasetChanged();
+    }
+
+    /**
+     * Returns a copy of the bin counts for a series.
+     *
+     * @param series  the series index (zero-based).
+     *
+     * @return The bin counts.
+     */
+    public HistogramCounts getHistogramCounts(int series) {
+        try {
+            return (HistogramCounts) getCounts(series).clone();
+        }
+        catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the bin counts for a series.
+     *
+     * @param series  the series index (zero-based).
+     *
+     * @return The bin counts.
+     */
+    private HistogramCounts getCounts(int series) {
+        return (HistogramCounts) this.counts.get(series);
+    }
+
+    /**
+     * Returns the bin counts for a series.
+     *
+     * @param key  the series key (<code>null</code> not permitted).
+     *
+     * @return The bin counts.
+     */
+    private HistogramCounts getCounts(Comparable key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null 'key' argument.");
+        }
+        int series = this.keys.indexOf(key);
+        if (series < 0) {
+            throw new UnknownKeyException("Key not found: " + key);
+        }
+        return getCounts(series);
+    }
+
+    /**
+     * Returns the number of series in the dataset.
+     *
+     * @return The series count.
+     */
+    public int getSeriesCount() {
+        return this.keys.size();
+    }
+
+    /**
+     * Returns the key for a series.
+     *
+     * @param series  the series index (zero-based).
+     *
+     * @return The series key.
+     */
+    public Comparable getSeriesKey(int series) {
+        return (Comparable) this.keys.get(series);
+    }
+
+    /**
+     * Returns the number of data items (bins) for a series.
+     *
+     * @param series  the series index (zero-based).
+     *
+     * @return The item count.
+     */
+    public int getItemCount(int series) {
+        return getCounts(series).getBinCount();
+    }
+
+    /**
+     * Returns the x-value for a bin (the midpoint of the bin).
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The x-value.
+     */
+    public Number getX(int series, int item) {
+        HistogramCounts histogram = getCounts(series);
+        double x = (histogram.getStartBoundary(item)
+                + histogram.getEndBoundary(item)) / 2.0;
+        return Double.valueOf(x);
+    }
+
+    /**
+     * Returns the y-value for a bin, which depends on the histogram type:
+     * the count for {@link HistogramType#FREQUENCY}, the count divided by
+     * the total for {@link HistogramType#RELATIVE_FREQUENCY}, and the count
+     * divided by the total and the bin width for
+     * {@link HistogramType#SCALE_AREA_TO_1}.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The y-value.
+     */
+    public Number getY(int series, int item) {
+        HistogramCounts histogram = getCounts(series);
+        double count = histogram.getCount(item);
+        double total = histogram.getTotal();
+        if (this.type == HistogramType.FREQUENCY) {
+            return Double.valueOf(count);
+        }
+        else if (this.type == HistogramType.RELATIVE_FREQUENCY) {
+            return Double.valueOf(count / total);
+        }
+        else if (this.type == HistogramType.SCALE_AREA_TO_1) {
+            return Double.valueOf(count / (histogram.getBinWidth() * total));
+        }
+        else {
+            throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * Returns the start value for a bin.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The start value.
+     */
+    public Number getStartX(int series, int item) {
+        return Double.valueOf(getCounts(series).getStartBoundary(item));
+    }
+
+    /**
+     * Returns the end value for a bin.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The end value.
+     */
+    public Number getEndX(int series, int item) {
+        return Double.valueOf(getCounts(series).getEndBoundary(item));
+    }
+
+    /**
+     * Returns the start y-value for a bin (which is the same as the
+     * y-value).
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The start y-value.
+     */
+    public Number getStartY(int series, int item) {
+        return getY(series, item);
+    }
+
+    /**
+     * Returns the end y-value for a bin (which is the same as the
+     * y-value).
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The end y-value.
+     */
+    public Number getEndY(int series, int item) {
+        return getY(series, item);
+    }
+
+    /**
+     * Tests this dataset for equality with an arbitrary object.  The
+     * binners are not compared.
+     *
+     * @param obj  the object (<code>null</code> permitted).
+     *
+     * @return A boolean.
+     */
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof ParallelHistogramDataset)) {
+            return false;
+        }
+        ParallelHistogramDataset that = (ParallelHistogramDataset) obj;
+        if (!ObjectUtilities.equal(this.type, that.type)) {
+            return false;
+        }
+        return this.keys.equals(that.keys) && this.counts.equals(that.counts);
+    }
+
+    /**
+     * Returns a hash code for the dataset.
+     *
+     * @return A hash code.
+     */
+    public int hashCode() {
+        return 29 * this.keys.hashCode() + this.counts.hashCode();
+    }
+
+    /**
+     * Returns a clone of the dataset.  The clone shares the binner of this
+     * dataset.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException if there is a problem cloning.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        ParallelHistogramDataset clone
+                = (ParallelHistogramDataset) super.clone();
+        clone.keys = new ArrayList(this.keys);
+        clone.counts = new ArrayList(this.counts.size());
+        for (int i = 0; i < this.counts.size(); i++) {
+            clone.counts.add(getCounts(i).clone());
+        }
+        return clone;
+    }
+
+}
@@ -0,0 +1,712 @@
+package org.jfree.data.statistics;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.jfree.util.PublicCloneable;
+
+/**
+ * A streaming summary of a stream of values that answers quantile and rank
+ * queries approximately, in a fixed amount of memory however many values
+ * are added (a KLL sketch, after Karnin, Lang and Liberty, "Optimal
+ * Quantile Approximation in Streams", 2016).
+ * <P>
+ * The sketch keeps a stack of buffers.  Values are added to the lowest
+ * buffer, where each value has a weight of 1;  when a buffer is full it is
+ * sorted and every second value (starting at random from the first or the
+ * second) moves up to the next buffer, with twice the weight, while the
+ * rest are dropped.  The buffers shrink by a factor of 2/3 from the top
+ * down to a minimum of 8 values, so the sketch holds about
+ * <code>3k</code> values, plus 8 for each level below those.
+ * <P>
+ * <b>Error bounds:</b>  the rank of a value returned by
+ * {@link #getQuantile(double)}, and the rank returned by
+ * {@link #getRank(double)}, are within
+ * {@link #getNormalizedRankError()} of the exact one (as a fraction of the
+ * count) with a probability of about 99%, for any order of the values.
+ * This is about 1.3% for the default <code>k</code> of 200, and falls
+ * roughly as <code>1 / k</code>.  The error is in the rank, not the value:
+ * a quantile is always one of the values added, and the count, mean,
+ * minimum and maximum are exact.  While no buffer has been full, the
+ * sketch holds every value and is exact.
+ * <P>
+ * Sketches with the same <code>k</code> can be merged (see
+ * {@link #merge(QuantileSketch)}), and the merged sketch has the same
+ * error bounds as one that had all the values added to it, so a stream can
+ * be summarised in shards or threads, each with its own sketch, and the
+ * sketches merged for queries.  A sketch is not thread-safe.
+ * <P>
+ * <code>NaN</code> values are ignored.
+ */
+public class QuantileSketch implements Cloneable, PublicCloneable,
+        Serializable {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 2619475381027463918L;
+
+    /** The default value for <code>k</code>. */
+    public static final int DEFAULT_K = 200;
+
+    /** The smallest value for <code>k</code>. */
+    public static final int MINIMUM_K = 8;
+
+    /** The smallest buffer capacity. */
+    private static final int MINIMUM_CAPACITY = 8;
+
+    /** The ratio of the capacity of a buffer to the one above it. */
+    private static final double CAPACITY_RATIO = 2.0 / 3.0;
+
+    /** The capacity of the top buffer. */
+    private int k;
+
+    /** The buffers, where the values in level h have a weight of 2^h. */
+    private double[][] levels;
+
+    /** The number of values in each buffer. */
+    private int[] sizes;
+
+    /** The number of levels in use. */
+    private int levelCount;
+
+    /** The number of values held in all the buffers. */
+    private int retained;
+
+    /** The number of values the buffers can hold before a compaction. */
+    private int capacity;
+
+    /** The number of values added. */
+    private long count;
+
+    /** The sum of the values added. */
+    private double sum;
+
+    /** The smallest value added. */
+    private double minimum;
+
+    /** The largest value added. */
+    private double maximum;
+
+    /** The random number generator for the compactions. */
+    private Random random;
+
+    /** The values held, sorted (or <code>null</code> if not known). */
+    private transient double[] sortedValues;
+
+    /** The cumulative weights of the sorted values. */
+    private transient long[] cumulativeWeights;
+
+    /**
+     * Creates a new empty sketch with the default <code>k</code>.
+     */
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * Creates a new empty sketch.
+     *
+     * @param k  the capacity of the top buffer, which controls the accuracy
+     *           (at least {@link #MINIMUM_K}).
+     */
+    public QuantileSketch(int k) {
+        this(k, new Random());
+    }
+
+    /**
+     * Creates a new empty sketch that uses a given random number generator
+     * (for repeatable results).
+     *
+     * @param k  the capacity of the top buffer, which controls the accuracy
+     *           (at least {@link #MINIMUM_K}).
+     * @param random  the random number generator (<code>null</code> not
+     *                permitted).
+     */
+    public QuantileSketch(int k, Random random) {
+        if (k < MINIMUM_K) {
+            throw new IllegalArgumentException("Requires k >= " + MINIMUM_K
+                    + ".");
+        }
+        if (random == null) {
+            throw new IllegalArgumentException("Null 'random' argument.");
+        }
+        this.k = k;
+        this.random = random;
+        this.levels = new double[0][];
+        this.sizes = new int[0];
+        this.minimum = Double.POSITIVE_INFINITY;
+        this.maximum = Double.NEGATIVE_INFINITY;
+        grow();
+    }
+
+    /**
+     * Returns the capacity of the top buffer.
+     *
+     * @return The capacity.
+     */
+    public int getK() {
+        return this.k;
+    }
+
+    /**
+     * Returns the number of values added (including those in merged
+     * sketches).
+     *
+     * @return The count.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Returns the number of values the sketch holds.
+     *
+     * @return The number of values held.
+     */
+    public int getRetainedCount() {
+        return this.retained;
+    }
+
+    /**
+     * Returns <code>true</code> if the sketch holds every value added, in
+     * which case the quantiles are exact.
+     *
+     * @return A boolean.
+     */
+    public boolean isExact() {
+        return this.retained == this.count;
+    }
+
+    /**
+     * Returns the mean of the values added.
+     *
+     * @return The mean (<code>Double.NaN</code> if the sketch is empty).
+     */
+    public double getMean() {
+        return this.count > 0 ? this.sum / this.count : Double.NaN;
+    }
+
+    /**
+     * Returns the smallest value added.
+     *
+     * @return The minimum (<code>Double.NaN</code> if the sketch is empty).
+     */
+    public double getMinimum() {
+        return this.count > 0 ? this.minimum : Double.NaN;
+    }
+
+    /**
+     * Returns the largest value added.
+     *
+     * @return The maximum (<code>Double.NaN</code> if the sketch is empty).
+     */
+    public double getMaximum() {
+        return this.count > 0 ? this.maximum : Double.NaN;
+    }
+
+    /**
+     * Returns the normalized rank error of this sketch:  the largest
+     * difference, as a fraction of the count, between the rank of a
+     * quantile and the requested rank, at a confidence of about 99%.
+     *
+     * @return The normalized rank error.
+     */
+    public double getNormalizedRankError() {
+        return getNormalizedRankError(this.k);
+    }
+
+    /**
+     * Returns the normalized rank error of a sketch (see
+     * {@link #getNormalizedRankError()}).
+     *
+     * @param k  the capacity of the top buffer.
+     *
+     * @return The normalized rank error.
+     */
+    public static double getNormalizedRankError(int k) {
+        // an empirical fit, as published for KLL sketches with the same
+        // buffer sizes
+        return 2.296 / Math.pow(k, 0.9723);
+    }
+
+    /**
+     * Adds a value to the sketch.
+     *
+     * @param value  the value (ignored if <code>NaN</code>).
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        this.count++;
+        this.sum += value;
+        if (value < this.minimum) {
+            this.minimum = value;
+        }
+        if (value > this.maximum) {
+            this.maximum = value;
+        }
+        append(0, value);
+        this.retained++;
+        this.sortedValues = null;
+        if (this.retained >= this.capacity) {
+            compress();
+        }
+    }
+
+    /**
+     * Adds an array of values to the sketch.
+     *
+     * @param values  the values (<code>null</code> not permitted).
+     */
+    public void add(double[] values) {
+        if (values == null) {
+            throw new IllegalArgumentException("Null 'values' argument.");
+        }
+        for (int i = 0; i < values.length; i++) {
+            add(values[i]);
+        }
+    }
+
+    /**
+     * Adds the values summarised by another sketch to this one.  The other
+     * sketch is not changed.
+     *
+     * @param other  the other sketch (<code>null</code> not permitted, and
+     *               it must have the same <code>k</code>).
+     */
+    public void merge(QuantileSketch other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Null 'other' argument.");
+        }
+        if (other.k != this.k) {
+            throw new IllegalArgumentException(
+                    "Cannot merge sketches with different values of k.");
+        }
+        if (other.count == 0) {
+            return;
+        }
+        if (other == this) {
+            other = (QuantileSketch) other.copy();
+        }
+        this.count += other.count;
+        this.sum += other.sum;
+        this.minimum = Math.min(this.minimum, other.minimum);
+        this.maximum = Math.max(this.maximum, other.maximum);
+        while (this.levelCount < other.levelCount) {
+            grow();
+        }
+        for (int h = 0; h < other.levelCount; h++) {
+            for (int i = 0; i < other.sizes[h]; i++) {
+                append(h, other.levels[h][i]);
+            }
+            this.retained += other.sizes[h];
+        }
+        this.sortedValues = null;
+        while (this.retained >= this.capacity) {
+            compress();
+        }
+    }
+
+    /**
+     * Returns an approximate quantile of the values added:  a value whose
+     * rank is within the error bounds of <code>probability * count</code>.
+     * For the probabilities 0.0 and 1.0, the exact minimum and maximum are
+     * returned, and if the sketch is exact, the quantile is the one that
+     * {@link SelectionStatistics#calculateQuantiles(double[], double[],
+     * boolean)} returns.
+     *
+     * @param probability  the probability (in the range 0.0 to 1.0).
+     *
+     * @return The quantile (<code>Double.NaN</code> if the sketch is
+     *         empty).
+     */
+    public double getQuantile(double probability) {
+        if (!(probability >= 0.0 && probability <= 1.0)) {
+            throw new IllegalArgumentException(
+                    "Probability must be in the range 0.0 to 1.0.");
+        }
+        if (this.count == 0) {
+            return Double.NaN;
+        }
+        if (probability == 0.0) {
+            return this.minimum;
+        }
+        if (probability == 1.0) {
+            return this.maximum;
+        }
+        if (isExact()) {
+            return SelectionStatistics.calculateQuantiles(getExactValues(),
+                    new double[] {probability}, false)[0];
+        }
+        sort();
+        double rank = probability * (this.count - 1);
+        int i = Arrays.binarySearch(this.cumulativeWeights,
+                (long) Math.floor(rank) + 1);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return this.sortedValues[Math.min(i, this.sortedValues.length - 1)];
+    }
+
+    /**
+     * Returns the approximate fraction of the values added that are less
+     * than or equal to a value.
+     *
+     * @param value  the value.
+     *
+     * @return The rank, in the range 0.0 to 1.0 (<code>Double.NaN</code> if
+     *         the sketch is empty).
+     */
+    public double getRank(double value) {
+        if (this.count == 0) {
+            return Double.NaN;
+        }
+        if (value < this.minimum) {
+            return 0.0;
+        }
+        if (value >= this.maximum) {
+            return 1.0;
+        }
+        sort();
+        int low = 0;
+        int high = this.sortedValues.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.sortedValues[mid] <= value) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        long weight = low > 0 ? this.cumulativeWeights[low - 1] : 0L;
+        return (double) weight / this.count;
+    }
+
+    /**
+     * Creates a {@link BoxAndWhiskerItem} from the sketch, with the same
+     * definitions as {@link BoxAndWhiskerCalculator}.  If the sketch is
+     * exact, the item is the one that
+     * {@link SelectionBoxAndWhiskerCalculator} creates from the values.
+     * Otherwise the quartiles are approximate (see
+     * {@link #getQuantile(double)}), the mean is exact, and the whiskers
+     * and outliers are taken from the values the sketch holds (plus the
+     * exact minimum and maximum), so the outlier list is a sample of the
+     * outliers in which each value stands for up to
+     * <code>2<sup>h</sup></code> of them.
+     *
+     * @return A box-and-whisker item.
+     */
+    public BoxAndWhiskerItem createBoxAndWhiskerItem() {
+        if (isExact()) {
+            // copied again, so the mean is summed in the order of the
+            // values
+            return SelectionBoxAndWhiskerCalculator
+                    .calculateBoxAndWhiskerStatistics(getExactValues(),
+                    true);
+        }
+        double q1 = getQuantile(0.25);
+        double median = getQuantile(0.5);
+        double q3 = getQuantile(0.75);
+        double interQuartileRange = q3 - q1;
+        double upperOutlierThreshold = q3 + (interQuartileRange * 1.5);
+        double lowerOutlierThreshold = q1 - (interQuartileRange * 1.5);
+        double upperFaroutThreshold = q3 + (interQuartileRange * 2.0);
+        double lowerFaroutThreshold = q1 - (interQuartileRange * 2.0);
+
+        double minRegularValue = Double.POSITIVE_INFINITY;
+        double maxRegularValue = Double.NEGATIVE_INFINITY;
+        double minOutlier = Double.POSITIVE_INFINITY;
+        double maxOutlier = Double.NEGATIVE_INFINITY;
+        List outliers = new ArrayList();
+        sort();
+        int n = this.sortedValues.length;
+        for (int i = -1; i <= n; i++) {
+            double value;
+            if (i == -1) {
+                value = this.minimum;
+            }
+            else if (i == n) {
+                value = this.maximum;
+            }
+            else {
+                value = this.sortedValues[i];
+            }
+            boolean held = i >= 0 && i < n;
+            if (value > upperOutlierThreshold) {
+                if (held || value > this.sortedValues[n - 1]) {
+                    outliers.add(Double.valueOf(value));
+                }
+                if (value > maxOutlier && value <= upperFaroutThreshold) {
+                    maxOutlier = value;
+                }
+            }
+            else if (value < lowerOutlierThreshold) {
+                if (held || value < this.sortedValues[0]) {
+                    outliers.add(Double.valueOf(value));
+                }
+                if (value < minOutlier && value >= lowerFaroutThreshold) {
+                    minOutlier = value;
+                }
+            }
+            else {
+                minRegularValue = Math.min(minRegularValue, value);
+                maxRegularValue = Math.max(maxRegularValue, value);
+            }
+        }
+        minOutlier = Math.min(minOutlier, minRegularValue);
+        maxOutlier = Math.max(maxOutlier, maxRegularValue);
+        Collections.sort(outliers);
+
+        return new BoxAndWhiskerItem(Double.valueOf(getMean()),
+                Double.valueOf(median), Double.valueOf(q1),
+                Double.valueOf(q3), Double.valueOf(minRegularValue),
+                Double.valueOf(maxRegularValue), Double.valueOf(minOutlier),
+                Double.valueOf(maxOutlier), outliers);
+    }
+
+    /**
+     * Removes all the values from the sketch.
+     */
+    public void clear() {
+        this.levels = new double[0][];
+        this.sizes = new int[0];
+        this.levelCount = 0;
+        this.retained = 0;
+        this.count = 0;
+        this.sum = 0.0;
+        this.minimum = Double.POSITIVE_INFINITY;
+        this.maximum = Double.NEGATIVE_INFINITY;
+        this.sortedValues = null;
+        grow();
+    }
+
+    /**
+     * Returns a copy of the values held by an exact sketch.
+     *
+     * @return The values.
+     */
+    private double[] getExactValues() {
+        double[] result = new double[this.sizes[0]];
+        System.arraycopy(this.levels[0], 0, result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * Returns the capacity of a level.
+     *
+     * @param h  the level.
+     *
+     * @return The capacity.
+     */
+    private int capacity(int h) {
+        double c = this.k * Math.pow(CAPACITY_RATIO, this.levelCount - 1 - h);
+        return Math.max(MINIMUM_CAPACITY, (int) Math.ceil(c));
+    }
+
+    /**
+     * Adds a level at the top and updates the capacity.
+     */
+    private void grow() {
+        int h = this.levelCount;
+        if (h == this.levels.length) {
+            double[][] l = new double[h + 1][];
+            int[] s = new int[h + 1];
+            System.arraycopy(this.levels, 0, l, 0, h);
+            System.arraycopy(this.sizes, 0, s, 0, h);
+            this.levels = l;
+            this.sizes = s;
+        }
+        this.levels[h] = new double[MINIMUM_CAPACITY];
+        this.sizes[h] = 0;
+        this.levelCount++;
+        this.capacity = 0;
+        for (int i = 0; i < this.levelCount; i++) {
+            this.capacity += capacity(i);
+        }
+    }
+
+    /**
+     * Adds a value to a level.
+     *
+     * @param h  the level.
+     * @param value  the value.
+     */
+    private void append(int h, double value) {
+        double[] level = this.levels[h];
+        int size = this.sizes[h];
+        if (size == level.length) {
+            double[] l = new double[size * 2];
+            System.arraycopy(level, 0, l, 0, size);
+            this.levels[h] = l;
+            level = l;
+        }
+        level[size] = value;
+        this.sizes[h] = size + 1;
+    }
+
+    /**
+     * Compacts the lowest full levels until the values fit the capacity
+     * (or no level is full).
+     */
+    private void compress() {
+        for (int h = 0; h < this.levelCount; h++) {
+            if (this.sizes[h] >= capacity(h)) {
+                if (h + 1 >= this.levelCount) {
+                    grow();
+                }
+                compact(h);
+                if (this.retained < this.capacity) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sorts a level and moves every second value up to the next level.  If
+     * the level holds an odd number of values, the smallest stays.
+     *
+     * @param h  the level.
+     */
+    private void compact(int h) {
+        double[] level = this.levels[h];
+        int size = this.sizes[h];
+        Arrays.sort(level, 0, size);
+        int start = size % 2;
+        int offset = this.random.nextBoolean() ? 1 : 0;
+        for (int i = start + offset; i < size; i += 2) {
+            append(h + 1, level[i]);
+        }
+        this.sizes[h] = start;
+        this.retained -= (size - start) / 2;
+        this.sortedValues = null;
+    }
+
+    /**
+     * Sorts the values held, with their cumulative weights, if they are
+     * not already known.
+     */
+    private void sort() {
+        if (this.sortedValues != null) {
+            return;
+        }
+        double[] values = new double[0];
+        long[] weights = new long[0];
+        for (int h = 0; h < this.levelCount; h++) {
+            int size = this.sizes[h];
+            double[] level = new double[size];
+            System.arraycopy(this.levels[h], 0, level, 0, size);
+            Arrays.sort(level);
+            // merge the sorted level into the values so far
+            double[] v = new double[values.length + size];
+            long[] w = new long[values.length + size];
+            int i = 0;
+            int j = 0;
+            for (int m = 0; m < v.length; m++) {
+                if (j == size || (i < values.length
+                        && values[i] <= level[j])) {
+                    v[m] = values[i];
+                    w[m] = weights[i++];
+                }
+                else {
+                    v[m] = level[j++];
+                    w[m] = 1L << h;
+                }
+            }
+            values = v;
+            weights = w;
+        }
+        for (int m = 1; m < weights.length; m++) {
+            weights[m] += weights[m - 1];
+        }
+        this.cumulativeWeights = weights;
+        this.sortedValues = values;
+    }
+
+    /**
+     * Returns a copy of the sketch, sharing its random number generator.
+     *
+     * @return The copy.
+     */
+    private Object copy() {
+        try {
+            return clone();
+        }
+        catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+
+    /**
+     * Tests this sketch for equality with an arbitrary object.
+     *
+     * @param obj  the object (<code>null</code> permitted).
+     *
+     * @return A boolean.
+     */
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof QuantileSketch)) {
+            return false;
+        }
+        QuantileSketch that = (QuantileSketch) obj;
+        if (this.k != that.k || this.count != that.count
+                || this.levelCount != that.levelCount) {
+            return false;
+        }
+        if (Double.doubleToLongBits(this.sum)
+                != Double.doubleToLongBits(that.sum)) {
+            return false;
+        }
+        for (int h = 0; h < this.levelCount; h++) {
+            if (this.sizes[h] != that.sizes[h]) {
+                return false;
+            }
+            for (int i = 0; i < this.sizes[h]; i++) {
+                if (Double.doubleToLongBits(this.levels[h][i])
+                        != Double.doubleToLongBits(that.levels[h][i])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a hash code for the sketch.
+     *
+     * @return A hash code.
+     */
+    public int hashCode() {
+        int result = this.k;
+        result = 37 * result + (int) (this.count ^ (this.count >>> 32));
+        long bits = Double.doubleToLongBits(this.sum);
+        return 37 * result + (int) (bits ^ (bits >>> 32));
+    }
+
+    /**
+     * Returns a clone of the sketch.  The clone shares the random number
+     * generator.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException if there is a problem cloning.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        QuantileSketch clone = (QuantileSketch) super.clone();
+        clone.levels = new double[this.levels.length][];
+        for (int h = 0; h < this.levelCount; h++) {
+            clone.levels[h] = this.levels[h].clone();
+        }
+        clone.sizes = this.sizes.clone();
+        return clone;
+    }
+
+}
@@ -0,0 +1,272 @@
+package org.jfree.data.statistics;
+
+import java.util.Arrays;
+
+/**
+ * Finds order statistics of an array of values by partitioning the array
+ * in place (introselect).  Several ranks are found in one pass:  each
+ * partition step only goes on into the parts of the array that hold a
+ * requested rank, so a few ranks take expected <code>O(n)</code> time, and
+ * a part that is partitioned too many times is sorted instead, so the
+ * worst case is <code>O(n log n)</code>.
+ * <P>
+ * The values are ordered as {@link Double#compareTo(Double)} orders them
+ * (and so as a sorted list of {@link Double} objects is):  NaN values come
+ * after all other values and <code>-0.0</code> comes before
+ * <code>0.0</code>.
+ */
+final class QuickSelect {
+
+    /** The size of the parts that are sorted rather than partitioned. */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    /** The size of the parts that take the pivot from nine values. */
+    private static final int NINTHER_THRESHOLD = 128;
+
+    /** The values (NaN values are moved to the end). */
+    private double[] values;
+
+    /** The number of values that are not NaN. */
+    private int count;
+
+    /** The number of values less than zero. */
+    private int negativeCount;
+
+    /** The number of values equal to <code>-0.0</code>. */
+    private int negativeZeroCount;
+
+    /**
+     * Creates a new instance that reorders the given array.
+     *
+     * @param values  the values (<code>null</code> not permitted).
+     */
+    QuickSelect(double[] values) {
+        this.values = values;
+        int end = values.length;
+        int i = 0;
+        while (i < end) {
+            double v = values[i];
+            if (v != v) {
+                end--;
+                values[i] = values[end];
+                values[end] = v;
+            }
+            else {
+                if (v < 0.0) {
+                    this.negativeCount++;
+                }
+                else if (v == 0.0 && 1.0 / v < 0.0) {
+                    this.negativeZeroCount++;
+                }
+                i++;
+            }
+        }
+        this.count = end;
+    }
+
+    /**
+     * Reorders the values so that the value at each of the given ranks is
+     * the one that would be there if the values were sorted.
+     *
+     * @param ranks  the ranks (zero-based, in ascending order).
+     */
+    void select(int[] ranks) {
+        int last = 0;
+        while (last < ranks.length && ranks[last] < this.count) {
+            last++;
+        }
+        int depth = 2;
+        for (int n = this.count; n > 1; n >>>= 1) {
+            depth += 2;
+        }
+        select(0, this.count, ranks, 0, last, depth);
+    }
+
+    /**
+     * Returns the value at a rank, after a call to {@link #select(int[])}
+     * that included the rank.
+     *
+     * @param rank  the rank (zero-based).
+     *
+     * @return The value.
+     */
+    double getValue(int rank) {
+        if (rank >= this.count) {
+            return Double.NaN;
+        }
+        double v = this.values[rank];
+        if (v == 0.0) {
+            // the partitions do not tell -0.0 and 0.0 apart
+            v = rank < this.negativeCount + this.negativeZeroCount ? -0.0
+                    : 0.0;
+        }
+        return v;
+    }
+
+    /**
+     * Returns the median of the values between two ranks, as
+     * {@link Statistics#calculateMedian(java.util.List, int, int)}
+     * calculates it for a sorted list.
+     *
+     * @param start  the first rank.
+     * @param end  the last rank.
+     *
+     * @return The median.
+     */
+    double getMedian(int start, int end) {
+        int n = end - start + 1;
+        if (n % 2 == 1) {
+            return getValue(start + (n - 1) / 2);
+        }
+        return (getValue(start + n / 2 - 1) + getValue(start + n / 2)) / 2.0;
+    }
+
+    /**
+     * Adds the ranks needed by {@link #getMedian(int, int)} to an array.
+     *
+     * @param start  the first rank.
+     * @param end  the last rank.
+     * @param ranks  the array.
+     * @param index  the index for the first rank.
+     *
+     * @return The index after the last rank added.
+     */
+    static int addMedianRanks(int start, int end, int[] ranks, int index) {
+        int n = end - start + 1;
+        if (n % 2 == 1) {
+            ranks[index++] = start + (n - 1) / 2;
+        }
+        else {
+            ranks[index++] = start + n / 2 - 1;
+            ranks[index++] = start + n / 2;
+        }
+        return index;
+    }
+
+    /**
+     * Partitions a part of the array until the requested ranks in it are
+     * in place.
+     *
+     * @param from  the start of the part (inclusive).
+     * @param to  the end of the part (exclusive).
+     * @param ranks  the ranks.
+     * @param rankFrom  the index of the first rank in the part.
+     * @param rankTo  the index after the last rank in the part.
+     * @param depth  the number of partitions left before sorting.
+     */
+    private void select(int from, int to, int[] ranks, int rankFrom,
+            int rankTo, int depth) {
+        double[] a = this.values;
+        while (rankFrom < rankTo) {
+            if (to - from <= INSERTION_SORT_THRESHOLD) {
+                insertionSort(from, to);
+                return;
+            }
+            if (depth-- == 0) {
+                Arrays.sort(a, from, to);
+                return;
+            }
+            double pivot = pivot(from, to);
+            // three-way partition: [from, lt) < pivot, [lt, gt] == pivot,
+            // (gt, to) > pivot
+            int lt = from;
+            int gt = to - 1;
+            int i = from;
+            while (i <= gt) {
+                double v = a[i];
+                if (v < pivot) {
+                    a[i++] = a[lt];
+                    a[lt++] = v;
+                }
+                else if (v > pivot) {
+                    a[i] = a[gt];
+                    a[gt--] = v;
+                }
+                else {
+                    i++;
+                }
+            }
+            int left = rankFrom;
+            while (left < rankTo && ranks[left] < lt) {
+                left++;
+            }
+            int right = left;
+            while (right < rankTo && ranks[right] <= gt) {
+                right++;
+            }
+            select(from, lt, ranks, rankFrom, left, depth);
+            from = gt + 1;
+            rankFrom = right;
+        }
+    }
+
+    /**
+     * Returns a pivot for a part of the array:  the median of three values,
+     * or for a large part the median of three such medians.
+     *
+     * @param from  the start of the part (inclusive).
+     * @param to  the end of the part (exclusive).
+     *
+     * @return The pivot.
+     */
+    private double pivot(int from, int to) {
+        int last = to - 1;
+        int middle = (from + last) >>> 1;
+        if (to - from < NINTHER_THRESHOLD) {
+            return median(from, middle, last);
+        }
+        int step = (to - from) / 8;
+        return median3(median(from, from + step, from + 2 * step),
+                median(middle - step, middle, middle + step),
+                median(last - 2 * step, last - step, last));
+    }
+
+    /**
+     * Returns the median of the values at three indices.
+     *
+     * @param i  the first index.
+     * @param j  the second index.
+     * @param k  the third index.
+     *
+     * @return The median.
+     */
+    private double median(int i, int j, int k) {
+        return median3(this.values[i], this.values[j], this.values[k]);
+    }
+
+    /**
+     * Returns the median of three values.
+     *
+     * @param a  the first value.
+     * @param b  the second value.
+     * @param c  the third value.
+     *
+     * @return The median.
+     */
+    private static double median3(double a, double b, double c) {
+        if (a < b) {
+            return b < c ? b : (a < c ? c : a);
+        }
+        return a < c ? a : (b < c ? c : b);
+    }
+
+    /**
+     * Sorts a part of the array.
+     *
+     * @param from  the start of the part (inclusive).
+     * @param to  the end of the part (exclusive).
+     */
+    private void insertionSort(int from, int to) {
+        double[] a = this.values;
+        for (int i = from + 1; i < to; i++) {
+            double v = a[i];
+            int j = i - 1;
+            while (j >= from && a[j] > v) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = v;
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+package org.jfree.data.statistics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A utility class that calculates box-and-whisker statistics for an array
+ * of values, with the same results as {@link BoxAndWhiskerCalculator}.
+ * {@link BoxAndWhiskerCalculator} sorts the list of values, and then finds
+ * the median and each quartile from the sorted list;  the methods in this
+ * class find the three of them in one partitioning pass (see
+ * {@link SelectionStatistics#calculateQuartiles(double[], boolean)}) and
+ * then make one more pass for the mean and the outliers, which takes
+ * expected <code>O(n)</code> time.  Only the outliers are sorted.
+ * <P>
+ * The mean can differ from that of {@link BoxAndWhiskerCalculator} in the
+ * last bits, as the values are summed in a different order.
+ */
+public abstract class SelectionBoxAndWhiskerCalculator {
+
+    /**
+     * Calculates the statistics required for a {@link BoxAndWhiskerItem}
+     * from an array of values.  The array is not modified.
+     *
+     * @param values  the values (<code>null</code> not permitted).
+     *
+     * @return A box-and-whisker item.
+     */
+    public static BoxAndWhiskerItem calculateBoxAndWhiskerStatistics(
+            double[] values) {
+        return calculateBoxAndWhiskerStatistics(values, true);
+    }
+
+    /**
+     * Calculates the statistics required for a {@link BoxAndWhiskerItem}
+     * from an array of values, as
+     * {@link BoxAndWhiskerCalculator#calculateBoxAndWhiskerStatistics(List)}
+     * calculates them for a list of the values.  Values more than 1.5
+     * interquartile ranges beyond the quartiles are outliers (listed in
+     * ascending order), and the minimum and maximum outliers are the most
+     * extreme values within 2.0 interquartile ranges.
+     *
+     * @param values  the values (<code>null</code> not permitted).
+     * @param copy  a flag that controls whether the values are copied
+     *              (if <code>false</code>, the array is reordered).
+     *
+     * @return A box-and-whisker item.
+     */
+    public static BoxAndWhiskerItem calculateBoxAndWhiskerStatistics(
+            double[] values, boolean copy) {
+        QuickSelect select = SelectionStatistics.createSelect(values, copy);
+        double[] quartiles = SelectionStatistics.calculateQuartiles(select,
+                values.length);
+        double q1 = quartiles[0];
+        double q3 = quartiles[2];
+        double interQuartileRange = q3 - q1;
+        double upperOutlierThreshold = q3 + (interQuartileRange * 1.5);
+        double lowerOutlierThreshold = q1 - (interQuartileRange * 1.5);
+        double upperFaroutThreshold = q3 + (interQuartileRange * 2.0);
+        double lowerFaroutThreshold = q1 - (interQuartileRange * 2.0);
+
+        double sum = 0.0;
+        double minRegularValue = Double.POSITIVE_INFINITY;
+        double maxRegularValue = Double.NEGATIVE_INFINITY;
+        double minOutlier = Double.POSITIVE_INFINITY;
+        double maxOutlier = Double.NEGATIVE_INFINITY;
+        List outliers = new ArrayList();
+        for (int i = 0; i < values.length; i++) {
+            double value = values[i];
+            sum += value;
+            if (value > upperOutlierThreshold) {
+                outliers.add(Double.valueOf(value));
+                if (value > maxOutlier && value <= upperFaroutThreshold) {
+                    maxOutlier = value;
+                }
+            }
+            else if (value < lowerOutlierThreshold) {
+                outliers.add(Double.valueOf(value));
+                if (value < minOutlier && value >= lowerFaroutThreshold) {
+                    minOutlier = value;
+                }
+            }
+            else {
+                minRegularValue = Math.min(minRegularValue, value);
+                maxRegularValue = Math.max(maxRegularValue, value);
+            }
+        }
+        minOutlier = Math.min(minOutlier, minRegularValue);
+        maxOutlier = Math.max(maxOutlier, maxRegularValue);
+        Collections.sort(outliers);
+        double mean = values.length > 0 ? sum / values.length : Double.NaN;
+
+        return new BoxAndWhiskerItem(Double.valueOf(mean),
+                Double.valueOf(quartiles[1]), Double.valueOf(q1),
+                Double.valueOf(q3), Double.valueOf(minRegularValue),
+                Double.valueOf(maxRegularValue), Double.valueOf(minOutlier),
+                Double.valueOf(maxOutlier), outliers);
+    }
+
+}
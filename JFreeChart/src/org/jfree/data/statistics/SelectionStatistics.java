@@ -0,0 +1,228 @@
+package org.jfree.data.statistics;
+
+import java.util.Arrays;
+
+/**
+ * A utility class that calculates medians and quantiles of an array of
+ * values by selection rather than by sorting.  {@link Statistics} and
+ * {@link BoxAndWhiskerCalculator} copy the values into a list of
+ * {@link Number} objects and sort it, which takes
+ * <code>O(n log n)</code> time for each median;  the methods in this class
+ * partition a <code>double[]</code> until the values they need are in
+ * place (see {@link QuickSelect}), which takes expected <code>O(n)</code>
+ * time, and find several quantiles in the same pass.
+ * <P>
+ * The median and the quartiles are exactly those of the sort-based
+ * methods:  the values are ordered as a sorted list of {@link Double}
+ * objects is, so NaN values come last.
+ * <P>
+ * Each method has a <code>copy</code> flag.  If it is <code>false</code>,
+ * the method reorders the array it is given instead of a copy, which saves
+ * the allocation when the caller has no further use for the order of the
+ * values.
+ */
+public abstract class SelectionStatistics {
+
+    /**
+     * Returns the median of an array of values (see
+     * {@link #calculateMedian(double[], boolean)}).  The array is not
+     * modified.
+     *
+     * @param values  the values (<code>null</code> not permitted).
+     *
+     * @return The median.
+     */
+    public static double calculateMedian(double[] values) {
+        return calculateMedian(values, true);
+    }
+
+    /**
+     * Returns the median of an array of values, the same as
+     * {@link Statistics#calculateMedian(java.util.List)} returns for a list
+     * of the values:  the middle value, or the mean of the two middle
+     * values for an even number of values, or <code>Double.NaN</code> if
+     * there are no values.
+     *
+     * @param values  the values (<code>null</code> not permitted).
+     * @param copy  a flag that controls whether the values are copied
+     *              (if <code>false</code>, the array is reordered).
+     *
+     * @return The median.
+     */
+    public static double calculateMedian(double[] values, boolean copy) {
+        QuickSelect select = createSelect(values, copy);
+        int n = values.length;
+        if (n == 0) {
+            return Double.NaN;
+        }
+        int[] ranks = new int[2];
+        int count = QuickSelect.addMedianRanks(0, n - 1, ranks, 0);
+        select.select(trim(ranks, count));
+        return select.getMedian(0, n - 1);
+    }
+
+    /**
+     * Returns the first quartile, the median and the third quartile of an
+     * array of values, the same as
+     * {@link BoxAndWhiskerCalculator#calculateQ1(java.util.List)},
+     * {@link Statistics#calculateMedian(java.util.List)} and
+     * {@link BoxAndWhiskerCalculator#calculateQ3(java.util.List)} return
+     * for a sorted list of the values.  All three are found in one pass.
+     *
+     * @param values  the values (<code>null</code> not permitted).
+     * @param copy  a flag that controls whether the values are copied
+     *              (if <code>false</code>, the array is reordered).
+     *
+     * @return An array containing Q1, the median and Q3 (all
+     *         <code>Double.NaN</code> if there are no values).
+     */
+    public static double[] calculateQuartiles(double[] values,
+            boolean copy) {
+        QuickSelect select = createSelect(values, copy);
+        return calculateQuartiles(select, values.length);
+    }
+
+    /**
+     * Returns the quartiles of the values in a selection.
+     *
+     * @param select  the selection.
+     * @param n  the number of values.
+     *
+     * @return An array containing Q1, the median and Q3.
+     */
+    static double[] calculateQuartiles(QuickSelect select, int n) {
+        if (n == 0) {
+            return new double[] {Double.NaN, Double.NaN, Double.NaN};
+        }
+        // the lower half includes the middle value when n is odd, the
+        // upper half always does
+        int lowerEnd = n % 2 == 1 ? n / 2 : n / 2 - 1;
+        int[] ranks = new int[6];
+        int count = QuickSelect.addMedianRanks(0, lowerEnd, ranks, 0);
+        count = QuickSelect.addMedianRanks(0, n - 1, ranks, count);
+        count = QuickSelect.addMedianRanks(n / 2, n - 1, ranks, count);
+        select.select(sortRanks(ranks, count));
+        return new double[] {select.getMedian(0, lowerEnd),
+                select.getMedian(0, n - 1), select.getMedian(n / 2, n - 1)};
+    }
+
+    /**
+     * Returns a quantile of an array of values (see
+     * {@link #calculateQuantiles(double[], double[], boolean)}).  The array
+     * is not modified.
+     *
+     * @param values  the values (<code>null</code> not permitted).
+     * @param probability  the probability (in the range 0.0 to 1.0).
+     *
+     * @return The quantile.
+     */
+    public static double calculateQuantile(double[] values,
+            double probability) {
+        return calculateQuantiles(values, new double[] {probability},
+                true)[0];
+    }
+
+    /**
+     * Returns quantiles of an array of values, all found in one pass.  The
+     * quantile for a probability <code>p</code> is found by linear
+     * interpolation between the sorted values at the ranks either side of
+     * <code>p * (n - 1)</code>, so the quantile for 0.5 is the median, and
+     * those for 0.0 and 1.0 are the smallest and largest values.
+     *
+     * @param values  the values (<code>null</code> not permitted).
+     * @param probabilities  the probabilities (<code>null</code> not
+     *                       permitted, each in the range 0.0 to 1.0).
+     * @param copy  a flag that controls whether the values are copied
+     *              (if <code>false</code>, the array is reordered).
+     *
+     * @return An array containing the quantiles (all
+     *         <code>Double.NaN</code> if there are no values).
+     */
+    public static double[] calculateQuantiles(double[] values,
+            double[] probabilities, boolean copy) {
+        if (probabilities == null) {
+            throw new IllegalArgumentException(
+                    "Null 'probabilities' argument.");
+        }
+        for (int i = 0; i < probabilities.length; i++) {
+            if (!(probabilities[i] >= 0.0 && probabilities[i] <= 1.0)) {
+                throw new IllegalArgumentException(
+                        "Probabilities must be in the range 0.0 to 1.0.");
+            }
+        }
+        QuickSelect select = createSelect(values, copy);
+        int n = values.length;
+        double[] result = new double[probabilities.length];
+        if (n == 0) {
+            Arrays.fill(result, Double.NaN);
+            return result;
+        }
+        int[] ranks = new int[probabilities.length * 2];
+        for (int i = 0; i < probabilities.length; i++) {
+            double h = probabilities[i] * (n - 1);
+            ranks[2 * i] = (int) Math.floor(h);
+            ranks[2 * i + 1] = (int) Math.ceil(h);
+        }
+        select.select(sortRanks(ranks, ranks.length));
+        for (int i = 0; i < probabilities.length; i++) {
+            double h = probabilities[i] * (n - 1);
+            int lower = (int) Math.floor(h);
+            double v = select.getValue(lower);
+            if (h > lower) {
+                double upper = select.getValue(lower + 1);
+                if (upper != v) {
+                    v = v + (h - lower) * (upper - v);
+                }
+            }
+            result[i] = v;
+        }
+        return result;
+    }
+
+    /**
+     * Creates a selection for an array of values.
+     *
+     * @param values  the values (<code>null</code> not permitted).
+     * @param copy  a flag that controls whether the values are copied.
+     *
+     * @return The selection.
+     */
+    static QuickSelect createSelect(double[] values, boolean copy) {
+        if (values == null) {
+            throw new IllegalArgumentException("Null 'values' argument.");
+        }
+        return new QuickSelect(copy ? values.clone() : values);
+    }
+
+    /**
+     * Returns the first ranks in an array, sorted.
+     *
+     * @param ranks  the ranks.
+     * @param count  the number of ranks.
+     *
+     * @return The sorted ranks.
+     */
+    private static int[] sortRanks(int[] ranks, int count) {
+        int[] result = trim(ranks, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Returns the first ranks in an array.
+     *
+     * @param ranks  the ranks.
+     * @param count  the number of ranks.
+     *
+     * @return The ranks.
+     */
+    private static int[] trim(int[] ranks, int count) {
+        if (count == ranks.length) {
+            return ranks;
+        }
+        int[] result = new int[count];
+        System.arraycopy(ranks, 0, result, 0, count);
+        return result;
+    }
+
+}
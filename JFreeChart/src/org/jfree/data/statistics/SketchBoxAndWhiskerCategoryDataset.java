@@ -0,0 +1,764 @@
+package org.jfree.data.statistics;
+
+import java.io.Serializable;
+import java.util.List;
+
+import org.jfree.data.IndexedKeyedObjects2D;
+import org.jfree.data.RangeInfo;
+import org.jfree.data.general.AbstractDataset;
+
+/**
+ * A {@link BoxAndWhiskerCategoryDataset} that summarises the samples for
+ * each cell in a {@link QuantileSketch}, rather than holding a
+ * {@link BoxAndWhiskerItem} calculated in advance from all the samples as
+ * {@link DefaultBoxAndWhiskerCategoryDataset} does.  Samples are added one
+ * at a time or in arrays, or as whole sketches built elsewhere (for
+ * example, one per thread or shard) with
+ * {@link #merge(QuantileSketch, Comparable, Comparable)}, so the memory
+ * used for each cell is bounded however many samples arrive.
+ * <P>
+ * The item for a cell is created from its sketch when it is first read
+ * after a change (see {@link QuantileSketch#createBoxAndWhiskerItem()}),
+ * so the quartiles and outliers are approximate once a cell has more
+ * samples than its sketch holds, with the error bounds of the sketch.
+ * The cells are held in an {@link IndexedKeyedObjects2D}, so they are
+ * found by key in O(1) time and old columns can be removed cheaply.
+ * <P>
+ * Like the other datasets, this class is not thread-safe:  threads that
+ * receive samples should fill their own sketches and merge them into the
+ * dataset on the thread that reads it.
+ */
+public class SketchBoxAndWhiskerCategoryDataset extends AbstractDataset
+        implements BoxAndWhiskerCategoryDataset, RangeInfo {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -5193760484310263702L;
+
+    /** The capacity of the top buffer for each sketch. */
+    private int k;
+
+    /** The cells. */
+    private IndexedKeyedObjects2D data;
+
+    /**
+     * The lowest minimum outlier and the highest maximum outlier
+     * (<code>null</code> if they need calculating).
+     */
+    private transient double[] rangeBounds;
+
+    /**
+     * Creates a new empty dataset, with sketches that have the default
+     * <code>k</code>.
+     */
+    public SketchBoxAndWhiskerCategoryDataset() {
+        this(QuantileSketch.DEFAULT_K);
+    }
+
+    /**
+     * Creates a new empty dataset.
+     *
+     * @param k  the capacity of the top buffer for each sketch (see
+     *           {@link QuantileSketch#QuantileSketch(int)}).
+     */
+    public SketchBoxAndWhiskerCategoryDataset(int k) {
+        if (k < QuantileSketch.MINIMUM_K) {
+            throw new IllegalArgumentException("Requires k >= "
+                    + QuantileSketch.MINIMUM_K + ".");
+        }
+        this.k = k;
+        this.data = new IndexedKeyedObjects2D();
+    }
+
+    /**
+     * Returns the capacity of the top buffer for each sketch.
+     *
+     * @return The capacity.
+     */
+    public int getK() {
+        return this.k;
+    }
+
+    /**
+     * Adds a sample to a cell and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param value  the sample (ignored if <code>NaN</code>).
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     */
+    public void add(double value, Comparable rowKey, Comparable columnKey) {
+        getCell(rowKey, columnKey).sketch.add(value);
+        fireDatasetChanged();
+    }
+
+    /**
+     * Adds an array of samples to a cell and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param values  the samples (<code>null</code> not permitted).
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     */
+    public void add(double[] values, Comparable rowKey,
+            Comparable columnKey) {
+        if (values == null) {
+            throw new IllegalArgumentException("Null 'values' argument.");
+        }
+        getCell(rowKey, columnKey).sketch.add(values);
+        fireDatasetChanged();
+    }
+
+    /**
+     * Merges a sketch into a cell and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.  The sketch is not changed.
+     *
+     * @param sketch  the sketch (<code>null</code> not permitted, and it
+     *                must have the same <code>k</code> as the dataset).
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     */
+    public void merge(QuantileSketch sketch, Comparable rowKey,
+            Comparable columnKey) {
+        if (sketch == null) {
+            throw new IllegalArgumentException("Null 'sketch' argument.");
+        }
+        if (sketch.getK() != this.k) {
+            throw new IllegalArgumentException(
+                    "The sketch must have the same k as the dataset.");
+        }
+        getCell(rowKey, columnKey).sketch.merge(sketch);
+        fireDatasetChanged();
+    }
+
+    /**
+     * Returns a copy of the sketch for a cell.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The sketch (possibly <code>null</code>).
+     */
+    public QuantileSketch getSketch(int row, int column) {
+        Cell cell = (Cell) this.data.getObject(row, column);
+        if (cell == null) {
+            return null;
+        }
+        try {
+            return (QuantileSketch) cell.sketch.clone();
+        }
+        catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the box-and-whisker item for a cell.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The item (possibly <code>null</code>).
+     */
+    public BoxAndWhiskerItem getItem(int row, int column) {
+        Cell cell = (Cell) this.data.getObject(row, column);
+        return cell != null ? cell.getItem() : null;
+    }
+
+    /**
+     * Returns the value for an item (the median).
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The value (possibly <code>null</code>).
+     */
+    public Number getValue(int row, int column) {
+        return getMedianValue(row, column);
+    }
+
+    /**
+     * Returns the value for an item (the median).
+     *
+     * @param rowKey  the row key.
+     * @param columnKey  the column key.
+     *
+     * @return The value (possibly <code>null</code>).
+     */
+    public Number getValue(Comparable rowKey, Comparable columnKey) {
+        return getMedianValue(rowKey, columnKey);
+    }
+
+    /**
+     * Returns the mean value for an item.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The mean value (possibly <code>null</code>).
+     */
+    public Number getMeanValue(int row, int column) {
+        BoxAndWhiskerItem item = getItem(row, column);
+        return item != null ? item.getMean() : null;
+    }
+
+    /**
+     * Returns the mean value for an item.
+     *
+     * @param rowKey  the row key.
+     * @param columnKey  the column key.
+     *
+     * @return The mean value (possibly <code>null</code>).
+     */
+    public Number getMeanValue(Comparable rowKey, Comparable columnKey) {
+        return getMeanValue(getRowIndex(rowKey), getColumnIndex(columnKey));
+    }
+
+    /**
+     * Returns the median value for an item.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The median value (possibly <code>null</code>).
+     */
+    public Number getMedianValue(int row, int column) {
+        BoxAndWhiskerItem item = getItem(row, column);
+        return item != null ? item.getMedian() : null;
+    }
+
+    /**
+     * Returns the median value for an item.
+     *
+     * @param rowKey  the row key.
+     * @param columnKey  the column key.
+     *
+     * @return The median value (possibly <code>null</code>).
+     */
+    public Number getMedianValue(Comparable rowKey, Comparable columnKey) {
+        return getMedianValue(getRowIndex(rowKey),
+                getColumnIndex(columnKey));
+    }
+
+    /**
+     * Returns the first quartile value for an item.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The first quartile value (possibly <code>null</code>).
+     */
+    public Number getQ1Value(int row, int column) {
+        BoxAndWhiskerItem item = getItem(row, column);
+        return item != null ? item.getQ1() : null;
+    }
+
+    /**
+     * Returns the first quartile value for an item.
+     *
+     * @param rowKey  the row key.
+     * @param columnKey  the column key.
+     *
+     * @return The first quartile value (possibly <code>null</code>).
+     */
+    public Number getQ1Value(Comparable rowKey, Comparable columnKey) {
+        return getQ1Value(getRowIndex(rowKey), getColumnIndex(columnKey));
+    }
+
+    /**
+     * Returns the third quartile value for an item.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The third quartile value (possibly <code>null</code>).
+     */
+    public Number getQ3Value(int row, int column) {
+        BoxAndWhiskerItem item = getItem(row, column);
+        return item != null ? item.getQ3() : null;
+    }
+
+    /**
+     * Returns the third quartile value for an item.
+     *
+     * @param rowKey  the row key.
+     * @param columnKey  the column key.
+     *
+     * @return The third quartile value (possibly <code>null</code>).
+     */
+    public Number getQ3Value(Comparable rowKey, Comparable columnKey) {
+        return getQ3Value(getRowIndex(rowKey), getColumnIndex(columnKey));
+    }
+
+    /**
+     * Returns the minimum regular (non-outlier) value for an item.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The minimum regular value (possibly <code>null</code>).
+     */
+    public Number getMinRegularValue(int row, int column) {
+        BoxAndWhiskerItem item = getItem(row, column);
+        return item != null ? item.getMinRegularValue() : null;
+    }
+
+    /**
+     * Returns the minimum regular (non-outlier) value for an item.
+     *
+     * @param rowKey  the row key.
+     * @param columnKey  the column key.
+     *
+     * @return The minimum regular value (possibly <code>null</code>).
+     */
+    public Number getMinRegularValue(Comparable rowKey,
+            Comparable columnKey) {
+        return getMinRegularValue(getRowIndex(rowKey),
+                getColumnIndex(columnKey));
+    }
+
+    /**
+     * Returns the maximum regular (non-outlier) value for an item.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The maximum regular value (possibly <code>null</code>).
+     */
+    public Number getMaxRegularValue(int row, int column) {
+        BoxAndWhiskerItem item = getItem(row, column);
+        return item != null ? item.getMaxRegularValue() : null;
+    }
+
+    /**
+     * Returns the maximum regular (non-outlier) value for an item.
+     *
+     * @param rowKey  the row key.
+     * @param columnKey  the column key.
+     *
+     * @return The maximum regular value (possibly <code>null</code>).
+     */
+    public Number getMaxRegularValue(Comparable rowKey,
+            Comparable columnKey) {
+        return getMaxRegularValue(getRowIndex(rowKey),
+                getColumnIndex(columnKey));
+    }
+
+    /**
+     * Returns the minimum outlier (non-farout) value for an item.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The minimum outlier (possibly <code>null</code>).
+     */
+    public Number getMinOutlier(int row, int column) {
+        BoxAndWhiskerItem item = getItem(row, column);
+        return item != null ? item.getMinOutlier() : null;
+    }
+
+    /**
+     * Returns the minimum outlier (non-farout) value for an item.
+     *
+     * @param rowKey  the row key.
+     * @param columnKey  the column key.
+     *
+     * @return The minimum outlier (possibly <code>null</code>).
+     */
+    public Number getMinOutlier(Comparable rowKey, Comparable columnKey) {
+        return getMinOutlier(getRowIndex(rowKey), getColumnIndex(columnKey));
+    }
+
+    /**
+     * Returns the maximum outlier (non-farout) value for an item.
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The maximum outlier (possibly <code>null</code>).
+     */
+    public Number getMaxOutlier(int row, int column) {
+        BoxAndWhiskerItem item = getItem(row, column);
+        return item != null ? item.getMaxOutlier() : null;
+    }
+
+    /**
+     * Returns the maximum outlier (non-farout) value for an item.
+     *
+     * @param rowKey  the row key.
+     * @param columnKey  the column key.
+     *
+     * @return The maximum outlier (possibly <code>null</code>).
+     */
+    public Number getMaxOutlier(Comparable rowKey, Comparable columnKey) {
+        return getMaxOutlier(getRowIndex(rowKey), getColumnIndex(columnKey));
+    }
+
+    /**
+     * Returns the outliers for an item (a sample of them, once the item
+     * has more samples than its sketch holds).
+     *
+     * @param row  the row index (zero-based).
+     * @param column  the column index (zero-based).
+     *
+     * @return The outliers (possibly <code>null</code>).
+     */
+    public List getOutliers(int row, int column) {
+        BoxAndWhiskerItem item = getItem(row, column);
+        return item != null ? item.getOutliers() : null;
+    }
+
+    /**
+     * Returns the outliers for an item (a sample of them, once the item
+     * has more samples than its sketch holds).
+     *
+     * @param rowKey  the row key.
+     * @param columnKey  the column key.
+     *
+     * @return The outliers (possibly <code>null</code>).
+     */
+    public List getOutliers(Comparable rowKey, Comparable columnKey) {
+        return getOutliers(getRowIndex(rowKey), getColumnIndex(columnKey));
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return The row count.
+     */
+    public int getRowCount() {
+        return this.data.getRowCount();
+    }
+
+    /**
+     * Returns the number of columns.
+     *
+     * @return The column count.
+     */
+    public int getColumnCount() {
+        return this.data.getColumnCount();
+    }
+
+    /**
+     * Returns a row key.
+     *
+     * @param row  the row index (zero-based).
+     *
+     * @return The row key.
+     */
+    public Comparable getRowKey(int row) {
+        return this.data.getRowKey(row);
+    }
+
+    /**
+     * Returns the index for a row key.
+     *
+     * @param key  the row key.
+     *
+     * @return The row index, or <code>-1</code>.
+     */
+    public int getRowIndex(Comparable key) {
+        return this.data.getRowIndex(key);
+    }
+
+    /**
+     * Returns the row keys.
+     *
+     * @return The row keys.
+     */
+    public List getRowKeys() {
+        return this.data.getRowKeys();
+    }
+
+    /**
+     * Returns a column key.
+     *
+     * @param column  the column index (zero-based).
+     *
+     * @return The column key.
+     */
+    public Comparable getColumnKey(int column) {
+        return this.data.getColumnKey(column);
+    }
+
+    /**
+     * Returns the index for a column key.
+     *
+     * @param key  the column key.
+     *
+     * @return The column index, or <code>-1</code>.
+     */
+    public int getColumnIndex(Comparable key) {
+        return this.data.getColumnIndex(key);
+    }
+
+    /**
+     * Returns the column keys.
+     *
+     * @return The column keys.
+     */
+    public List getColumnKeys() {
+        return this.data.getColumnKeys();
+    }
+
+    /**
+     * Returns the minimum y-value in the dataset:  the lowest minimum
+     * outlier of the items, as for
+     * {@link DefaultBoxAndWhiskerCategoryDataset}.
+     *
+     * @param includeInterval  a flag that determines whether or not the
+     *                         y-interval is taken into account (ignored).
+     *
+     * @return The minimum value (<code>Double.NaN</code> if the dataset is
+     *         empty).
+     */
+    public double getRangeLowerBound(boolean includeInterval) {
+        double[] bounds = calculateRangeBounds();
+        return bounds[0] <= bounds[1] ? bounds[0] : Double.NaN;
+    }
+
+    /**
+     * Returns the maximum y-value in the dataset:  the highest maximum
+     * outlier of the items, as for
+     * {@link DefaultBoxAndWhiskerCategoryDataset}.
+     *
+     * @param includeInterval  a flag that determines whether or not the
+     *                         y-interval is taken into account (ignored).
+     *
+     * @return The maximum value (<code>Double.NaN</code> if the dataset is
+     *         empty).
+     */
+    public double getRangeUpperBound(boolean includeInterval) {
+        double[] bounds = calculateRangeBounds();
+        return bounds[0] <= bounds[1] ? bounds[1] : Double.NaN;
+    }
+
+    /**
+     * Returns the range of the values in this dataset's range (see
+     * {@link #getRangeLowerBound(boolean)} and
+     * {@link #getRangeUpperBound(boolean)}).  The bounds are calculated
+     * again after a change.
+     *
+     * @param includeInterval  a flag that determines whether or not the
+     *                         y-interval is taken into account (ignored).
+     *
+     * @return The range (<code>(0.0, 0.0)</code> if the dataset is empty).
+     */
+    public original.Range getRangeBounds(boolean includeInterval) {
+        double[] bounds = calculateRangeBounds();
+        return bounds[0] <= bounds[1]
+                ? new original.Range(bounds[0], bounds[1])
+                : new original.Range(0.0, 0.0);
+    }
+
+    /**
+     * Returns the lowest minimum outlier and the highest maximum outlier
+     * of the items, calculating them if necessary.
+     *
+     * @return The bounds (the lower bound is greater than the upper bound
+     *         if there are no items).
+     */
+    private double[] calculateRangeBounds() {
+        if (this.rangeBounds == null) {
+            double minimum = Double.POSITIVE_INFINITY;
+            double maximum = Double.NEGATIVE_INFINITY;
+            for (int r = 0; r < getRowCount(); r++) {
+                for (int c = 0; c < getColumnCount(); c++) {
+                    BoxAndWhiskerItem item = getItem(r, c);
+                    if (item != null) {
+                        minimum = Math.min(minimum,
+                                item.getMinOutlier().doubleValue());
+                        maximum = Math.max(maximum,
+                                item.getMaxOutlier().doubleValue());
+                    }
+                }
+            }
+            this.rangeBounds = new double[] {minimum, maximum};
+        }
+        return this.rangeBounds;
+    }
+
+    /**
+     * Removes a row and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param rowKey  the row key.
+     */
+    public void removeRow(Comparable rowKey) {
+        this.data.removeRow(rowKey);
+        this.rangeBounds = null;
+        fireDatasetChanged();
+    }
+
+    /**
+     * Removes a column and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param columnKey  the column key.
+     */
+    public void removeColumn(Comparable columnKey) {
+        this.data.removeColumn(columnKey);
+        this.rangeBounds = null;
+        fireDatasetChanged();
+    }
+
+    /**
+     * Clears all data and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     */
+    public void clear() {
+        this.data.clear();
+        this.rangeBounds = null;
+        fireDatasetChanged();
+    }
+
+    /**
+     * Returns the cell for a pair of keys, creating it if necessary, and
+     * marks it as changed.
+     *
+     * @param rowKey  the row key (<code>null</code> not permitted).
+     * @param columnKey  the column key (<code>null</code> not permitted).
+     *
+     * @return The cell.
+     */
+    private Cell getCell(Comparable rowKey, Comparable columnKey) {
+        if (rowKey == null) {
+            throw new IllegalArgumentException("Null 'rowKey' argument.");
+        }
+        if (columnKey == null) {
+            throw new IllegalArgumentException("Null 'columnKey' argument.");
+        }
+        Cell cell = null;
+        int row = this.data.getRowIndex(rowKey);
+        int column = this.data.getColumnIndex(columnKey);
+        if (row >= 0 && column >= 0) {
+            cell = (Cell) this.data.getObject(row, column);
+        }
+        if (cell == null) {
+            cell = new Cell(new QuantileSketch(this.k));
+            this.data.setObject(cell, rowKey, columnKey);
+        }
+        cell.item = null;
+        this.rangeBounds = null;
+        return cell;
+    }
+
+    /**
+     * Tests this dataset for equality with an arbitrary object.
+     *
+     * @param obj  the object (<code>null</code> permitted).
+     *
+     * @return A boolean.
+     */
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof SketchBoxAndWhiskerCategoryDataset)) {
+            return false;
+        }
+        SketchBoxAndWhiskerCategoryDataset that
+                = (SketchBoxAndWhiskerCategoryDataset) obj;
+        return this.k == that.k && this.data.equals(that.data);
+    }
+
+    /**
+     * Returns a hash code for the dataset.
+     *
+     * @return A hash code.
+     */
+    public int hashCode() {
+        return this.data.hashCode();
+    }
+
+    /**
+     * Returns a clone of the dataset.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException if there is a problem cloning.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        SketchBoxAndWhiskerCategoryDataset clone
+                = (SketchBoxAndWhiskerCategoryDataset) super.clone();
+        IndexedKeyedObjects2D cells = new IndexedKeyedObjects2D();
+        for (int r = 0; r < getRowCount(); r++) {
+            for (int c = 0; c < getColumnCount(); c++) {
+                Cell cell = (Cell) this.data.getObject(r, c);
+                if (cell != null) {
+                    cells.setObject(new Cell((QuantileSketch)
+                            cell.sketch.clone()), getRowKey(r),
+                            getColumnKey(c));
+                }
+            }
+        }
+        clone.data = cells;
+        return clone;
+    }
+
+    /**
+     * A cell:  a sketch and the item created from it.
+     */
+    private static class Cell implements Serializable {
+
+        /** For serialization. */
+        private static final long serialVersionUID = 4062177519236605541L;
+
+        /** The sketch. */
+        private QuantileSketch sketch;
+
+        /** The item (<code>null</code> if it needs creating). */
+        private transient BoxAndWhiskerItem item;
+
+        /**
+         * Creates a new cell.
+         *
+         * @param sketch  the sketch.
+         */
+        Cell(QuantileSketch sketch) {
+            this.sketch = sketch;
+        }
+
+        /**
+         * Returns the item, creating it if necessary.
+         *
+         * @return The item.
+         */
+        BoxAndWhiskerItem getItem() {
+            if (this.item == null) {
+                this.item = this.sketch.createBoxAndWhiskerItem();
+            }
+            return this.item;
+        }
+
+        /**
+         * Tests this cell for equality with an arbitrary object.
+         *
+         * @param obj  the object (<code>null</code> permitted).
+         *
+         * @return A boolean.
+         */
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Cell)) {
+                return false;
+            }
+            return this.sketch.equals(((Cell) obj).sketch);
+        }
+
+        /**
+         * Returns a hash code for the cell.
+         *
+         * @return A hash code.
+         */
+        public int hashCode() {
+            return this.sketch.hashCode();
+        }
+
+    }
+
+}
@@ -0,0 +1,92 @@
+package org.jfree.data.test;
+
+import static org.junit.Assert.*;
+import org.jfree.data.benchmark.BenchmarkHarness;
+import org.jfree.data.benchmark.DataBenchmarks;
+import org.junit.*;
+
+import java.io.StringWriter;
+
+public class BenchmarkHarnessTest {
+
+    private BenchmarkHarness harness;
+
+    @Before
+    public void setUp() {
+        harness = new BenchmarkHarness(1, 3);
+    }
+
+    /**
+     * Test Case: One successful benchmark.
+     * Test Strategy: Normal case (ECP)
+     * Expected: A result with the given names, size and iteration count.
+     */
+    @Test
+    public void testRunRecordsResult() {
+        final int[] calls = new int[1];
+        BenchmarkHarness.Result result = harness.run("count", "test", 10,
+                new BenchmarkHarness.Operation() {
+            public double run() {
+                calls[0]++;
+                return calls[0];
+            }
+        });
+        assertEquals(4, calls[0]);
+        assertEquals("count", result.getBenchmark());
+        assertEquals(10, result.getSize());
+        assertEquals(3, result.getIterations());
+        assertTrue(result.getNanosPerOp() >= 0.0);
+        assertNull(result.getError());
+        assertEquals(1, harness.getResults().size());
+    }
+
+    /**
+     * Test Case: An operation that throws.
+     * Test Strategy: Error handling
+     * Expected: The failure is recorded and the harness can keep going.
+     */
+    @Test
+    public void testRunRecordsFailure() {
+        BenchmarkHarness.Result result = harness.run("fail", "test", 1,
+                new BenchmarkHarness.Operation() {
+            public double run() {
+                throw new IllegalArgumentException("bad");
+            }
+        });
+        assertTrue(Double.isNaN(result.getNanosPerOp()));
+        assertTrue(result.getError().indexOf("bad") >= 0);
+    }
+
+    /**
+     * Test Case: CSV output for all benchmarks at a small size.
+     * Test Strategy: Normal case, machine-readable output
+     * Expected: A header line plus one line per benchmark for both Range
+     * implementations.
+     */
+    @Test
+    public void testWriteCsv() {
+        DataBenchmarks.runAll(harness, new int[] {16});
+        StringWriter out = new StringWriter();
+        harness.writeCsv(out);
+        String[] lines = out.toString().split("\\r?\\n");
+        assertEquals(BenchmarkHarness.CSV_HEADER, lines[0]);
+        assertEquals(harness.getResults().size() + 1, lines.length);
+        assertTrue(out.toString().indexOf(DataBenchmarks.JAR_RANGE) >= 0);
+        assertTrue(out.toString().indexOf(DataBenchmarks.ORIGINAL_RANGE) >= 0);
+    }
+
+    /**
+     * Test Case: No measurement iterations.
+     * Test Strategy: BVA
+     * Expected: IllegalArgumentException.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroIterations() {
+        new BenchmarkHarness(0, 0);
+    }
+
+    @After
+    public void tearDown() {
+        harness = null;
+    }
+}
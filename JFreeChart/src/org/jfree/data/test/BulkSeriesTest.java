@@ -0,0 +1,303 @@
+package org.jfree.data.test;
+
+import static org.junit.Assert.*;
+import org.jfree.data.general.SeriesChangeEvent;
+import org.jfree.data.general.SeriesChangeListener;
+import org.jfree.data.general.SeriesException;
+import org.jfree.data.time.BulkTimeSeries;
+import org.jfree.data.time.Day;
+import org.jfree.data.time.RegularTimePeriod;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.xy.BulkXYSeries;
+import org.jfree.data.xy.DoubleXYSeries;
+import org.jfree.data.xy.XYSeries;
+import org.junit.*;
+
+import java.util.Random;
+
+public class BulkSeriesTest {
+
+    private static final double[] X = {4.0, 2.0, 2.0, 8.0, 1.0, 6.0};
+    private static final double[] Y = {1.0, 2.0, 3.0, 4.0, 5.0, 6.0};
+
+    private int eventCount;
+    private SeriesChangeListener counter;
+
+    @Before
+    public void setUp() {
+        eventCount = 0;
+        counter = new SeriesChangeListener() {
+            public void seriesChanged(SeriesChangeEvent event) {
+                eventCount++;
+            }
+        };
+    }
+
+    private XYSeries reference(boolean autoSort) {
+        XYSeries s = new XYSeries("S", autoSort, true);
+        s.add(2.0, -1.0);
+        s.add(5.0, -2.0);
+        for (int i = 0; i < X.length; i++) {
+            s.add(X[i], Y[i]);
+        }
+        return s;
+    }
+
+    /**
+     * Test Case: addAll on a sorted series with duplicate x-values.
+     * Test Strategy: Equivalence with repeated add()
+     * Expected: Same items as XYSeries.add, and one event.
+     */
+    @Test
+    public void testXYSeriesAddAllSorted() {
+        BulkXYSeries s = new BulkXYSeries("S");
+        s.add(2.0, -1.0);
+        s.add(5.0, -2.0);
+        s.addChangeListener(counter);
+        s.addAll(X, Y);
+        assertEquals(1, eventCount);
+        assertEquals(reference(true).getItems(), s.getItems());
+    }
+
+    /**
+     * Test Case: addAll on an unsorted series.
+     * Test Strategy: Equivalence with repeated add()
+     * Expected: Items appended in the order given.
+     */
+    @Test
+    public void testXYSeriesAddAllUnsorted() {
+        BulkXYSeries s = new BulkXYSeries("S", false, true);
+        s.add(2.0, -1.0);
+        s.add(5.0, -2.0);
+        s.addAll(X, Y);
+        assertEquals(reference(false).getItems(), s.getItems());
+    }
+
+    /**
+     * Test Case: addAll with a repeated x-value where duplicates are not
+     * allowed.
+     * Test Strategy: Invalid input
+     * Expected: SeriesException and the series is unchanged.
+     */
+    @Test
+    public void testXYSeriesAddAllDuplicate() {
+        BulkXYSeries s = new BulkXYSeries("S", true, false);
+        s.add(3.0, 0.0);
+        try {
+            s.addAll(new double[] {1.0, 3.0}, new double[] {0.0, 0.0});
+            fail("Expected SeriesException.");
+        }
+        catch (SeriesException e) {
+            assertEquals(1, s.getItemCount());
+        }
+    }
+
+    /**
+     * Test Case: addAll past the maximum item count.
+     * Test Strategy: BVA (maximum item count)
+     * Expected: Only the largest items are kept.
+     */
+    @Test
+    public void testXYSeriesAddAllMaximum() {
+        BulkXYSeries s = new BulkXYSeries("S");
+        s.setMaximumItemCount(3);
+        s.addAll(X, Y);
+        assertEquals(3, s.getItemCount());
+        assertEquals(4.0, s.getX(0).doubleValue(), 0.0);
+        assertEquals(8.0, s.getX(2).doubleValue(), 0.0);
+    }
+
+    /**
+     * Test Case: DoubleXYSeries.addAll, sorted and unsorted.
+     * Test Strategy: Equivalence with repeated add()
+     * Expected: Same items as XYSeries.add, and one event each.
+     */
+    @Test
+    public void testDoubleXYSeriesAddAll() {
+        DoubleXYSeries sorted = new DoubleXYSeries("S", true, true, 0);
+        DoubleXYSeries unsorted = new DoubleXYSeries("S", false, true, 0);
+        sorted.add(2.0, -1.0);
+        sorted.add(5.0, -2.0);
+        unsorted.add(2.0, -1.0);
+        unsorted.add(5.0, -2.0);
+        sorted.addChangeListener(counter);
+        sorted.addAll(X, Y);
+        unsorted.addAll(X, Y);
+        assertEquals(1, eventCount);
+        assertEquals(reference(true).getItems(), sorted.getItems());
+        assertEquals(reference(false).getItems(), unsorted.getItems());
+    }
+
+    /**
+     * Test Case: DoubleXYSeries.addAll with a repeated x-value.
+     * Test Strategy: Invalid input
+     * Expected: SeriesException.
+     */
+    @Test(expected = SeriesException.class)
+    public void testDoubleXYSeriesAddAllDuplicate() {
+        DoubleXYSeries s = new DoubleXYSeries("S", false, false);
+        s.addAll(new double[] {1.0, 2.0, 1.0}, new double[3]);
+    }
+
+    /**
+     * Test Case: Sorted DoubleXYSeries.addAll that fails on an existing
+     *            x-value after the merge has started.
+     * Test Strategy: Invalid input (state after the exception)
+     * Expected: SeriesException, and neither the items nor the rewrite
+     *           count change.
+     */
+    @Test
+    public void testDoubleXYSeriesAddAllFailureKeepsRewriteCount() {
+        DoubleXYSeries s = new DoubleXYSeries("S", true, false);
+        s.add(1.0, 10.0);
+        s.add(3.0, 30.0);
+        long rewrites = s.getRewriteCount();
+        try {
+            s.addAll(new double[] {2.0, 3.0}, new double[2]);
+            fail("Expected SeriesException to be thrown");
+        } catch (SeriesException e) {
+            // Expected behavior, test passes
+        }
+        assertEquals(2, s.getItemCount());
+        assertEquals(rewrites, s.getRewriteCount());
+        s.addAll(new double[] {4.0}, new double[] {40.0});
+        assertEquals(rewrites, s.getRewriteCount());
+    }
+
+    /**
+     * Test Case: Unsorted addAll without duplicates, for pairs of
+     *            x-values that include 0.0, -0.0 and NaN.
+     * Test Strategy: Equivalence with add()
+     * Expected: addAll rejects a pair exactly when a second add() does.
+     */
+    @Test
+    public void testAddAllDuplicatesMatchAdd() {
+        double[][] pairs = {{1.0, 1.0}, {1.0, 2.0}, {0.0, -0.0},
+            {Double.NaN, Double.NaN}, {Double.NaN, 0.0}};
+        for (int i = 0; i < pairs.length; i++) {
+            XYSeries[] viaAdd = {new DoubleXYSeries("S", false, false),
+                new BulkXYSeries("S", false, false)};
+            DoubleXYSeries d = new DoubleXYSeries("S", false, false);
+            BulkXYSeries b = new BulkXYSeries("S", false, false);
+            b.add(pairs[i][0], 0.0);
+            boolean[] rejected = new boolean[4];
+            for (int k = 0; k < 2; k++) {
+                viaAdd[k].add(pairs[i][0], 0.0);
+                try {
+                    viaAdd[k].add(pairs[i][1], 0.0);
+                }
+                catch (SeriesException e) {
+                    rejected[k] = true;
+                }
+            }
+            try {
+                d.addAll(pairs[i], new double[2]);
+            }
+            catch (SeriesException e) {
+                rejected[2] = true;
+            }
+            try {
+                b.addAll(new double[] {pairs[i][1]}, new double[1]);
+            }
+            catch (SeriesException e) {
+                rejected[3] = true;
+            }
+            assertEquals("DoubleXYSeries " + i, rejected[0], rejected[2]);
+            assertEquals("BulkXYSeries " + i, rejected[1], rejected[3]);
+        }
+    }
+
+    /**
+     * Test Case: Sorted DoubleXYSeries.addAll of many values in random
+     *            order, with repeated values.
+     * Test Strategy: Equivalence with repeated add()
+     * Expected: Same items as XYSeries.add (equal x-values keep the order
+     *           they were given in).
+     */
+    @Test
+    public void testDoubleXYSeriesAddAllRandomOrder() {
+        Random random = new Random(91L);
+        double[] x = new double[1000];
+        double[] y = new double[1000];
+        XYSeries reference = new XYSeries("S", true, true);
+        for (int i = 0; i < x.length; i++) {
+            x[i] = random.nextInt(200);
+            y[i] = i;
+            reference.add(x[i], y[i]);
+        }
+        DoubleXYSeries s = new DoubleXYSeries("S", true, true, 0);
+        s.addAll(x, y);
+        assertEquals(reference.getItems(), s.getItems());
+    }
+
+    /**
+     * Test Case: TimeSeries addAll with periods out of order.
+     * Test Strategy: Equivalence with repeated add()
+     * Expected: Same items as TimeSeries.add, and one event.
+     */
+    @Test
+    public void testTimeSeriesAddAllPeriods() {
+        BulkTimeSeries s = new BulkTimeSeries("T", Day.class);
+        TimeSeries ref = new TimeSeries("T", Day.class);
+        s.add(new Day(10, 1, 2020), 0.0);
+        ref.add(new Day(10, 1, 2020), 0.0);
+        RegularTimePeriod[] periods = new RegularTimePeriod[5];
+        double[] values = new double[5];
+        for (int i = 0; i < 5; i++) {
+            periods[i] = new Day(20 - 3 * i, 1, 2020);
+            values[i] = i;
+            ref.add(periods[i], values[i]);
+        }
+        s.addChangeListener(counter);
+        s.addAll(periods, values);
+        assertEquals(1, eventCount);
+        assertEquals(ref.getItems(), s.getItems());
+    }
+
+    /**
+     * Test Case: TimeSeries addAll from milliseconds.
+     * Test Strategy: Normal case
+     * Expected: Each time is converted to its day.
+     */
+    @Test
+    public void testTimeSeriesAddAllMillis() {
+        BulkTimeSeries s = new BulkTimeSeries("T", Day.class);
+        Day first = new Day(1, 3, 2021);
+        long[] millis = new long[10];
+        double[] values = new double[10];
+        RegularTimePeriod day = first;
+        for (int i = 0; i < 10; i++) {
+            millis[i] = day.getMiddleMillisecond();
+            values[i] = i;
+            day = day.next();
+        }
+        s.addAll(millis, values);
+        assertEquals(10, s.getItemCount());
+        assertEquals(first, s.getTimePeriod(0));
+        assertEquals(9.0, s.getValue(9).doubleValue(), 0.0);
+    }
+
+    /**
+     * Test Case: TimeSeries addAll with a period already in the series.
+     * Test Strategy: Invalid input
+     * Expected: SeriesException and the series is unchanged.
+     */
+    @Test
+    public void testTimeSeriesAddAllDuplicate() {
+        BulkTimeSeries s = new BulkTimeSeries("T", Day.class);
+        s.add(new Day(1, 1, 2020), 1.0);
+        try {
+            s.addAll(new RegularTimePeriod[] {new Day(2, 1, 2020),
+                    new Day(1, 1, 2020)}, new double[2]);
+            fail("Expected SeriesException.");
+        }
+        catch (SeriesException e) {
+            assertEquals(1, s.getItemCount());
+        }
+    }
+
+    @After
+    public void tearDown() {
+        counter = null;
+    }
+}
@@ -0,0 +1,189 @@
+package org.jfree.data.test;
+
+import static org.junit.Assert.*;
+import org.jfree.data.CumulativeKeyedValues;
+import org.jfree.data.DefaultKeyedValues;
+import org.jfree.data.KeyedValues;
+import org.jfree.data.UnknownKeyException;
+import org.junit.*;
+
+import java.util.Random;
+
+public class CumulativeKeyedValuesTest {
+
+    private CumulativeKeyedValues values;
+
+    @Before
+    public void setUp() {
+        // Same data as DataUtilitiesTest.testGetCumulativePercentagesNormalCase
+        DefaultKeyedValues source = new DefaultKeyedValues();
+        source.addValue("0", 5);
+        source.addValue("1", 9);
+        source.addValue("2", 2);
+        values = new CumulativeKeyedValues(source);
+    }
+
+    /**
+     * Test Case: Standard case with positive values.
+     * Test Strategy: Normal case (ECP), as DataUtilitiesTest
+     * Expected: Correct cumulative percentages calculated.
+     */
+    @Test
+    public void testCumulativePercentagesNormalCase() {
+        KeyedValues result = values.getCumulativePercentages();
+        assertEquals(3, result.getItemCount());
+        assertEquals(0.3125, result.getValue(0).doubleValue(), 0.0001);
+        assertEquals(0.875, result.getValue(1).doubleValue(), 0.0001);
+        assertEquals(1.0, result.getValue("2").doubleValue(), 0.0001);
+    }
+
+    /**
+     * Test Case: Point update of one value.
+     * Test Strategy: State transition
+     * Expected: The live view reflects the new value.
+     */
+    @Test
+    public void testSetValueUpdatesView() {
+        KeyedValues view = values.getCumulativePercentages();
+        values.setValue("1", 0);
+        // Same data as DataUtilitiesTest.testGetCumulativePercentagesWithZeroValue, scaled
+        assertEquals(5.0 / 7.0, view.getValue(0).doubleValue(), 0.0001);
+        assertEquals(5.0 / 7.0, view.getValue(1).doubleValue(), 0.0001);
+        assertEquals(1.0, view.getValue(2).doubleValue(), 0.0001);
+    }
+
+    /**
+     * Test Case: Negative values.
+     * Test Strategy: Handling negative numbers (ECP)
+     * Expected: Running totals -3, 2, 6 divided by the total 6.
+     */
+    @Test
+    public void testNegativeValues() {
+        CumulativeKeyedValues data = new CumulativeKeyedValues();
+        data.setValue("0", -3);
+        data.setValue("1", 5);
+        data.setValue("2", 4);
+        assertEquals(-0.5, data.getCumulativePercentage(0), 0.0001);
+        assertEquals(1.0 / 3.0, data.getCumulativePercentage(1), 0.0001);
+        assertEquals(1.0, data.getCumulativePercentage(2), 0.0001);
+    }
+
+    /**
+     * Test Case: A null value.
+     * Test Strategy: Null handling (ECP)
+     * Expected: The key is kept, the value counts as zero.
+     */
+    @Test
+    public void testNullValueCountsAsZero() {
+        values.setValue("3", (Number) null);
+        assertNull("The raw value should stay null", values.getValue("3"));
+        assertEquals(4, values.getItemCount());
+        assertEquals(1.0, values.getCumulativePercentage("3"), 0.0001);
+        assertEquals(1.0, values.getCumulativePercentage("2"), 0.0001);
+    }
+
+    /**
+     * Test Case: Remove an item from the middle.
+     * Test Strategy: State transition
+     * Expected: Later items move down and the totals are rebuilt.
+     */
+    @Test
+    public void testRemoveValue() {
+        values.removeValue("1");
+        assertEquals(2, values.getItemCount());
+        assertEquals(1, values.getIndex("2"));
+        assertEquals(5.0 / 7.0, values.getCumulativePercentage(0), 0.0001);
+        assertEquals(-1, values.getIndex("1"));
+    }
+
+    /**
+     * Test Case: A value set to NaN and back, then to infinity and back,
+     *            and items appended after an infinite value.
+     * Test Strategy: State transition (non-finite values)
+     * Expected: Totals and percentages recover once the values are finite
+     *           again.
+     */
+    @Test
+    public void testNonFiniteValueAndBack() {
+        CumulativeKeyedValues data = new CumulativeKeyedValues();
+        data.setValue("a", 1.0);
+        data.setValue("b", 2.0);
+        data.setValue("c", 3.0);
+        data.setValue("b", Double.NaN);
+        assertTrue(Double.isNaN(data.getTotal()));
+        assertEquals(1.0, data.getCumulativeTotal(0), 0.0);
+        data.setValue("b", 2.0);
+        assertEquals(6.0, data.getTotal(), 0.0);
+        assertEquals(1.0 / 6.0, data.getCumulativePercentage(0), 1e-12);
+        assertEquals(0.5, data.getCumulativePercentage("b"), 1e-12);
+
+        data.setValue("a", Double.POSITIVE_INFINITY);
+        data.setValue("d", 4.0);
+        data.setValue("e", 5.0);
+        assertEquals(Double.POSITIVE_INFINITY, data.getTotal(), 0.0);
+        data.setValue("a", 1.0);
+        assertEquals(15.0, data.getTotal(), 0.0);
+        for (int i = 0; i < 5; i++) {
+            assertEquals((i + 1) * (i + 2) / 2.0, data.getCumulativeTotal(i),
+                    0.0);
+        }
+    }
+
+    /**
+     * Test Case: Unknown key.
+     * Test Strategy: Invalid input (ECP)
+     * Expected: UnknownKeyException.
+     */
+    @Test
+    public void testUnknownKey() {
+        try {
+            values.getCumulativePercentage("X");
+            fail("Expected UnknownKeyException to be thrown");
+        } catch (UnknownKeyException e) {
+            // Expected behavior, test passes
+        }
+    }
+
+    /**
+     * Test Case: Null source.
+     * Test Strategy: Invalid input (ECP), as DataUtilitiesTest
+     * Expected: IllegalArgumentException.
+     */
+    @Test
+    public void testNullSource() {
+        try {
+            new CumulativeKeyedValues(null);
+            fail("Expected IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
+            // Expected behavior, test passes
+        }
+    }
+
+    /**
+     * Test Case: Many random appends and point updates.
+     * Test Strategy: Comparison with a recomputed running total
+     * Expected: Cumulative totals match a full recomputation.
+     */
+    @Test(timeout = 10000)
+    public void testMatchesFullRecomputation() {
+        Random random = new Random(18L);
+        CumulativeKeyedValues data = new CumulativeKeyedValues();
+        int n = 1000;
+        double[] expected = new double[n];
+        for (int i = 0; i < n; i++) {
+            expected[i] = random.nextInt(100);
+            data.setValue(Integer.valueOf(i), expected[i]);
+        }
+        for (int u = 0; u < 5000; u++) {
+            int i = random.nextInt(n);
+            expected[i] = random.nextInt(100) - 20;
+            data.setValue(Integer.valueOf(i), expected[i]);
+        }
+        double running = 0.0;
+        for (int i = 0; i < n; i++) {
+            running += expected[i];
+            assertEquals("Cumulative total " + i, running, data.getCumulativeTotal(i), 1e-6);
+        }
+        assertEquals(running, data.getTotal(), 1e-6);
+    }
+}
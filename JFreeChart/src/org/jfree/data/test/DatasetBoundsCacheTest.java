@@ -0,0 +1,438 @@
+package org.jfree.data.test;
+
+import static org.junit.Assert.*;
+import org.jfree.data.DomainOrder;
+import org.jfree.data.category.BatchCategoryDataset;
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.general.Dataset;
+import org.jfree.data.general.DatasetAppendEvent;
+import org.jfree.data.general.DatasetBoundsCache;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeListener;
+import org.jfree.data.general.DatasetUtilities;
+import org.jfree.data.time.BatchTimeSeriesCollection;
+import org.jfree.data.time.Day;
+import org.jfree.data.time.IndexedTimeSeries;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.time.TimeSeriesCollection;
+import org.jfree.data.xy.AbstractXYDataset;
+import org.jfree.data.xy.BatchXYSeriesCollection;
+import org.jfree.data.xy.DoubleXYSeries;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DatasetBoundsCacheTest {
+
+    /**
+     * A one-series dataset that sends a DatasetAppendEvent for each new
+     * item and counts the values read from it.
+     */
+    static class AppendingDataset extends AbstractXYDataset {
+
+        private static final long serialVersionUID = 1L;
+
+        private double[] y = new double[16];
+        private int count;
+        int reads;
+
+        void append(double value) {
+            y[count++] = value;
+            notifyListeners(new DatasetAppendEvent(this, this, 0, count - 1,
+                    count - 1));
+        }
+
+        void set(int item, double value) {
+            y[item] = value;
+            fireDatasetChanged();
+        }
+
+        public int getSeriesCount() { return 1; }
+        public Comparable getSeriesKey(int series) { return "S1"; }
+        public DomainOrder getDomainOrder() { return DomainOrder.ASCENDING; }
+        public int getItemCount(int series) { return count; }
+        public Number getX(int series, int item) {
+            return Double.valueOf(item);
+        }
+        public Number getY(int series, int item) {
+            return Double.valueOf(getYValue(series, item));
+        }
+        public double getYValue(int series, int item) {
+            reads++;
+            return y[item];
+        }
+    }
+
+    /**
+     * A BatchXYSeriesCollection that counts the y-values read from it.
+     */
+    static class CountingXYCollection extends BatchXYSeriesCollection {
+
+        private static final long serialVersionUID = 1L;
+
+        int reads;
+
+        public double getYValue(int series, int item) {
+            reads++;
+            return super.getYValue(series, item);
+        }
+    }
+
+    /**
+     * A BatchTimeSeriesCollection that counts the y-values read from it.
+     */
+    static class CountingTimeCollection extends BatchTimeSeriesCollection {
+
+        private static final long serialVersionUID = 1L;
+
+        int reads;
+
+        public double getYValue(int series, int item) {
+            reads++;
+            return super.getYValue(series, item);
+        }
+    }
+
+    /**
+     * A BatchCategoryDataset that counts the values read from it.
+     */
+    static class CountingCategoryDataset extends BatchCategoryDataset {
+
+        private static final long serialVersionUID = 1L;
+
+        int reads;
+
+        public Number getValue(int row, int column) {
+            reads++;
+            return super.getValue(row, column);
+        }
+    }
+
+    private XYSeries series;
+    private XYSeriesCollection dataset;
+    private DatasetBoundsCache cache;
+    private List events;
+
+    @Before
+    public void setUp() {
+        series = new XYSeries("S1");
+        series.add(1.0, 4.0);
+        series.add(2.0, -3.0);
+        series.add(5.0, 8.0);
+        dataset = new XYSeriesCollection(series);
+        cache = new DatasetBoundsCache(dataset);
+        events = new ArrayList();
+    }
+
+    private void recordEvents(Dataset source) {
+        source.addChangeListener(new DatasetChangeListener() {
+            public void datasetChanged(DatasetChangeEvent event) {
+                events.add(event);
+            }
+        });
+    }
+
+    private void assertAppend(int series, int first, int last) {
+        DatasetChangeEvent event = (DatasetChangeEvent) events.get(
+                events.size() - 1);
+        assertTrue(event instanceof DatasetAppendEvent);
+        DatasetAppendEvent append = (DatasetAppendEvent) event;
+        assertEquals(series, append.getSeries());
+        assertEquals(first, append.getFirstItem());
+        assertEquals(last, append.getLastItem());
+    }
+
+    private void assertNotAppend() {
+        assertFalse(events.get(events.size() - 1)
+                instanceof DatasetAppendEvent);
+    }
+
+    /**
+     * Test Case: Bounds of an XYSeriesCollection.
+     * Test Strategy: Normal case, compared with DatasetUtilities
+     * Expected: Same bounds as the full scan in DatasetUtilities.
+     */
+    @Test
+    public void testXYSeriesCollectionMatchesDatasetUtilities() {
+        assertEquals(DatasetUtilities.iterateXYRangeBounds(dataset),
+                cache.getRangeBounds());
+        assertEquals(DatasetUtilities.iterateDomainBounds(dataset, false),
+                cache.getDomainBounds());
+    }
+
+    /**
+     * Test Case: Change to the dataset after the bounds are cached.
+     * Test Strategy: State transition (invalidation)
+     * Expected: The cache sees the removed maximum and the new minimum.
+     */
+    @Test
+    public void testInvalidatedByChangeEvent() {
+        cache.getRangeBounds();
+        series.remove(2);
+        series.add(0.5, -10.0);
+        assertEquals(-10.0, cache.getRangeBounds().getLowerBound(), 0.0);
+        assertEquals(4.0, cache.getRangeBounds().getUpperBound(), 0.0);
+        assertEquals(0.5, cache.getDomainBounds().getLowerBound(), 0.0);
+    }
+
+    /**
+     * Test Case: TimeSeriesCollection.
+     * Test Strategy: Normal case, compared with DatasetUtilities
+     * Expected: Same range bounds as the full scan.
+     */
+    @Test
+    public void testTimeSeriesCollection() {
+        TimeSeries ts = new TimeSeries("T", Day.class);
+        ts.add(new Day(1, 1, 2020), 3.0);
+        ts.add(new Day(2, 1, 2020), 7.0);
+        TimeSeriesCollection tsc = new TimeSeriesCollection(ts);
+        DatasetBoundsCache tsCache = new DatasetBoundsCache(tsc);
+        assertEquals(DatasetUtilities.iterateXYRangeBounds(tsc),
+                tsCache.getRangeBounds());
+        ts.add(new Day(3, 1, 2020), -1.0);
+        assertEquals(DatasetUtilities.iterateXYRangeBounds(tsc),
+                tsCache.getRangeBounds());
+    }
+
+    /**
+     * Test Case: DefaultCategoryDataset with a null value.
+     * Test Strategy: Normal case and null handling
+     * Expected: Same bounds as iterateCategoryRangeBounds; no domain bounds.
+     */
+    @Test
+    public void testCategoryDataset() {
+        DefaultCategoryDataset category = new DefaultCategoryDataset();
+        category.addValue(2.0, "R1", "C1");
+        category.addValue(null, "R1", "C2");
+        category.addValue(-6.0, "R2", "C2");
+        DatasetBoundsCache categoryCache = new DatasetBoundsCache(category);
+        assertEquals(
+                DatasetUtilities.iterateCategoryRangeBounds(category, false),
+                categoryCache.getRangeBounds());
+        assertNull(categoryCache.getDomainBounds());
+        category.addValue(9.0, "R3", "C1");
+        assertEquals(9.0, categoryCache.getRangeBounds().getUpperBound(), 0.0);
+    }
+
+    /**
+     * Test Case: Appends to a dataset that sends DatasetAppendEvent.
+     * Test Strategy: State transition (incremental update)
+     * Expected: Only the new item is read; bounds are extended.
+     */
+    @Test
+    public void testAppendOnlyReadsNewItems() {
+        AppendingDataset appending = new AppendingDataset();
+        appending.append(1.0);
+        appending.append(5.0);
+        DatasetBoundsCache appendCache = new DatasetBoundsCache(appending);
+        assertEquals(new original.Range(1.0, 5.0),
+                appendCache.getRangeBounds());
+        appending.reads = 0;
+        appending.append(-2.0);
+        assertEquals(new original.Range(-2.0, 5.0),
+                appendCache.getRangeBounds());
+        assertEquals(1, appending.reads);
+        appendCache.getRangeBounds();
+        assertEquals(1, appending.reads);
+    }
+
+    /**
+     * Test Case: Change that lowers the current maximum.
+     * Test Strategy: State transition (rescan)
+     * Expected: The series is scanned again and the bounds shrink.
+     */
+    @Test
+    public void testPlainEventRescans() {
+        AppendingDataset appending = new AppendingDataset();
+        appending.append(1.0);
+        appending.append(5.0);
+        DatasetBoundsCache appendCache = new DatasetBoundsCache(appending);
+        appendCache.getRangeBounds();
+        appending.set(1, 2.0);
+        assertEquals(new original.Range(1.0, 2.0),
+                appendCache.getRangeBounds());
+    }
+
+    /**
+     * Test Case: Items added to the end of a DoubleXYSeries in a
+     *            BatchXYSeriesCollection, then an update and an insert.
+     * Test Strategy: State transition (incremental update and rescan)
+     * Expected: DatasetAppendEvents for the appends, which only read the
+     *           new items; plain events for the other changes, after which
+     *           the bounds match DatasetUtilities.
+     */
+    @Test
+    public void testBatchXYSeriesCollectionAppends() {
+        DoubleXYSeries s1 = new DoubleXYSeries("S1");
+        s1.add(1.0, 4.0);
+        s1.add(2.0, -3.0);
+        DoubleXYSeries s2 = new DoubleXYSeries("S2");
+        s2.add(1.0, 1.0);
+        CountingXYCollection xy = new CountingXYCollection();
+        xy.addSeries(s1);
+        xy.addSeries(s2);
+        recordEvents(xy);
+        DatasetBoundsCache xyCache = new DatasetBoundsCache(xy);
+        assertEquals(new original.Range(-3.0, 4.0), xyCache.getRangeBounds());
+        xy.reads = 0;
+        s2.add(3.0, 9.0);
+        assertAppend(1, 1, 1);
+        s1.addAll(new double[] {3.0, 4.0}, new double[] {-5.0, 2.0});
+        assertAppend(0, 2, 3);
+        assertEquals(new original.Range(-5.0, 9.0), xyCache.getRangeBounds());
+        assertEquals(3, xy.reads);
+
+        s2.updateByIndex(1, Double.valueOf(0.0));
+        assertNotAppend();
+        s1.add(0.5, 20.0);
+        assertNotAppend();
+        assertEquals(DatasetUtilities.iterateXYRangeBounds(xy),
+                xyCache.getRangeBounds());
+        assertEquals(DatasetUtilities.iterateDomainBounds(xy, false),
+                xyCache.getDomainBounds());
+    }
+
+    /**
+     * Test Case: Days added to an IndexedTimeSeries in a
+     *            BatchTimeSeriesCollection, then an add that evicts the
+     *            maximum and an update.
+     * Test Strategy: State transition (incremental update and rescan)
+     * Expected: A DatasetAppendEvent for the plain append, which only
+     *           reads the new item; plain events for the other changes,
+     *           after which the bounds match DatasetUtilities.
+     */
+    @Test
+    public void testBatchTimeSeriesCollectionAppends() {
+        IndexedTimeSeries ts = new IndexedTimeSeries("T", Day.class);
+        ts.add(new Day(1, 1, 2020), 30.0);
+        ts.add(new Day(2, 1, 2020), 7.0);
+        CountingTimeCollection tsc = new CountingTimeCollection();
+        tsc.addSeries(ts);
+        recordEvents(tsc);
+        DatasetBoundsCache tsCache = new DatasetBoundsCache(tsc);
+        assertEquals(new original.Range(7.0, 30.0), tsCache.getRangeBounds());
+        tsc.reads = 0;
+        ts.add(new Day(3, 1, 2020), -1.0);
+        assertAppend(0, 2, 2);
+        assertEquals(new original.Range(-1.0, 30.0), tsCache.getRangeBounds());
+        assertEquals(1, tsc.reads);
+
+        ts.setMaximumItemCount(3);
+        ts.add(new Day(4, 1, 2020), 5.0);
+        assertNotAppend();
+        assertEquals(new original.Range(-1.0, 7.0), tsCache.getRangeBounds());
+        ts.update(0, Double.valueOf(50.0));
+        assertNotAppend();
+        assertEquals(DatasetUtilities.iterateXYRangeBounds(tsc),
+                tsCache.getRangeBounds());
+    }
+
+    /**
+     * Test Case: Items added to a full DoubleXYSeries window (maximum item
+     *            count 100000) in a BatchXYSeriesCollection, each evicting
+     *            the oldest item.
+     * Test Strategy: State transition (incremental update with eviction)
+     * Expected: DatasetAppendEvents that count the removed item; only the
+     *           new items are read while the evicted items do not hold a
+     *           y-bound, and the series is read again once one does.
+     */
+    @Test
+    public void testFullWindowAppendsOnlyReadNewItems() {
+        int n = 100000;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i;
+            y[i] = i % 1000;
+        }
+        y[5] = -1.0;
+        DoubleXYSeries window = new DoubleXYSeries("W");
+        window.setMaximumItemCount(n);
+        window.addAll(x, y);
+        CountingXYCollection xy = new CountingXYCollection();
+        xy.addSeries(window);
+        recordEvents(xy);
+        DatasetBoundsCache xyCache = new DatasetBoundsCache(xy);
+        assertEquals(new original.Range(-1.0, 999.0),
+                xyCache.getRangeBounds());
+        xy.reads = 0;
+        for (int k = 0; k < 5; k++) {
+            window.add(n + k, 500.0);
+            assertAppend(0, n - 1, n - 1);
+            assertEquals(1, ((DatasetAppendEvent) events.get(
+                    events.size() - 1)).getRemovedItemCount());
+            assertEquals(new original.Range(-1.0, 999.0),
+                    xyCache.getRangeBounds());
+            assertEquals(new original.Range(k + 1, n + k),
+                    xyCache.getDomainBounds());
+        }
+        assertEquals(5, xy.reads);
+
+        // the sixth append evicts the minimum, so the series is read again
+        window.add(n + 5, 500.0);
+        assertEquals(new original.Range(0.0, 999.0),
+                xyCache.getRangeBounds());
+        assertEquals(5 + n, xy.reads);
+        assertEquals(DatasetUtilities.iterateXYRangeBounds(xy),
+                xyCache.getRangeBounds());
+        assertEquals(DatasetUtilities.iterateDomainBounds(xy, false),
+                xyCache.getDomainBounds());
+    }
+
+    /**
+     * Test Case: Values added to existing rows of a BatchCategoryDataset
+     *            in new columns, then a new row and a changed value.
+     * Test Strategy: State transition (incremental update and rescan)
+     * Expected: DatasetAppendEvents for the new columns, which only read
+     *           the new columns; the bounds match DatasetUtilities after
+     *           every change.
+     */
+    @Test
+    public void testBatchCategoryDatasetAppends() {
+        CountingCategoryDataset category = new CountingCategoryDataset();
+        category.addValue(2.0, "R1", "C1");
+        category.addValue(-6.0, "R2", "C1");
+        recordEvents(category);
+        DatasetBoundsCache categoryCache = new DatasetBoundsCache(category);
+        assertEquals(new original.Range(-6.0, 2.0),
+                categoryCache.getRangeBounds());
+        category.reads = 0;
+        category.addValue(8.0, "R1", "C2");
+        assertAppend(0, 1, 1);
+        category.addValue(-9.0, "R2", "C3");
+        assertAppend(1, 2, 2);
+        assertEquals(new original.Range(-9.0, 8.0),
+                categoryCache.getRangeBounds());
+        assertEquals(3, category.reads);
+
+        category.setValue(1.0, "R1", "C2");
+        assertNotAppend();
+        category.addValue(12.0, "R3", "C1");
+        assertNotAppend();
+        assertEquals(DatasetUtilities.iterateCategoryRangeBounds(category,
+                false), categoryCache.getRangeBounds());
+    }
+
+    /**
+     * Test Case: Dispose.
+     * Test Strategy: Listener removal
+     * Expected: The dataset no longer holds the cache as a listener.
+     */
+    @Test
+    public void testDispose() {
+        assertTrue(dataset.hasListener(cache));
+        cache.dispose();
+        assertFalse(dataset.hasListener(cache));
+    }
+
+    @After
+    public void tearDown() {
+        cache = null;
+        events = null;
+        dataset = null;
+        series = null;
+    }
+}
@@ -0,0 +1,183 @@
+package org.jfree.data.test;
+
+import static org.junit.Assert.*;
+import org.jfree.data.general.BackpressurePolicy;
+import org.jfree.data.general.DatasetBatchChangeEvent;
+import org.jfree.data.general.DatasetChangeDispatcher;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeListener;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class DatasetChangeDispatcherTest {
+
+    private XYSeries series;
+    private XYSeriesCollection dataset;
+    private ScheduledThreadPoolExecutor executor;
+    private CountDownLatch release;
+    private List events;
+    private DatasetChangeListener recorder;
+
+    @Before
+    public void setUp() {
+        series = new XYSeries("S");
+        dataset = new XYSeriesCollection(series);
+        // an executor whose only thread is held until the test releases it,
+        // so that queued events are delivered by flush()
+        executor = new ScheduledThreadPoolExecutor(1);
+        release = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            public void run() {
+                try {
+                    release.await();
+                }
+                catch (InterruptedException e) {
+                    // finish
+                }
+            }
+        });
+        events = new ArrayList();
+        recorder = new DatasetChangeListener() {
+            public void datasetChanged(DatasetChangeEvent event) {
+                events.add(event);
+            }
+        };
+    }
+
+    private DatasetChangeDispatcher create(int capacity,
+            BackpressurePolicy policy) {
+        DatasetChangeDispatcher d = new DatasetChangeDispatcher(dataset, 30.0,
+                capacity, policy, executor);
+        d.addChangeListener(recorder);
+        return d;
+    }
+
+    /**
+     * Test Case: A burst of changes that fits in the queue.
+     * Test Strategy: Coalescing
+     * Expected: One merged event is delivered on flush.
+     */
+    @Test
+    public void testBurstIsMerged() {
+        DatasetChangeDispatcher d = create(100, BackpressurePolicy.MERGE);
+        for (int i = 0; i < 50; i++) {
+            series.add(i, i);
+        }
+        assertEquals(0, events.size());
+        assertEquals(50, d.getQueueSize());
+        d.flush();
+        assertEquals(1, events.size());
+        DatasetBatchChangeEvent event = (DatasetBatchChangeEvent) events.get(0);
+        assertEquals(50, event.getEventCount());
+        assertSame(dataset, event.getDataset());
+        assertEquals(50, d.getReceivedCount());
+        assertEquals(1, d.getDeliveredCount());
+        assertEquals(49, d.getMergedCount());
+        assertEquals(0, d.getDroppedCount());
+        d.flush();
+        assertEquals(1, events.size());
+    }
+
+    /**
+     * Test Case: A single queued change.
+     * Test Strategy: BVA (one event)
+     * Expected: The original event is delivered unchanged.
+     */
+    @Test
+    public void testSingleEventUnchanged() {
+        DatasetChangeDispatcher d = create(10, BackpressurePolicy.MERGE);
+        series.add(1.0, 1.0);
+        d.flush();
+        assertEquals(1, events.size());
+        assertFalse(events.get(0) instanceof DatasetBatchChangeEvent);
+    }
+
+    /**
+     * Test Case: Full queue with the MERGE policy.
+     * Test Strategy: Backpressure policy
+     * Expected: Nothing dropped; queue stays within capacity.
+     */
+    @Test
+    public void testMergeWhenFull() {
+        DatasetChangeDispatcher d = create(2, BackpressurePolicy.MERGE);
+        for (int i = 0; i < 5; i++) {
+            series.add(i, i);
+        }
+        assertTrue(d.getQueueSize() <= 2);
+        assertEquals(0, d.getDroppedCount());
+        d.flush();
+        assertEquals(1, events.size());
+        assertEquals(5, ((DatasetBatchChangeEvent) events.get(0))
+                .getEventCount());
+        assertEquals(4, d.getMergedCount());
+    }
+
+    /**
+     * Test Case: Full queue with DROP_NEWEST and DROP_OLDEST.
+     * Test Strategy: Backpressure policy
+     * Expected: Extra events are dropped and counted.
+     */
+    @Test
+    public void testDropPolicies() {
+        DatasetChangeDispatcher newest = create(2,
+                BackpressurePolicy.DROP_NEWEST);
+        DatasetChangeDispatcher oldest = create(2,
+                BackpressurePolicy.DROP_OLDEST);
+        for (int i = 0; i < 5; i++) {
+            series.add(i, i);
+        }
+        assertEquals(2, newest.getQueueSize());
+        assertEquals(3, newest.getDroppedCount());
+        assertEquals(2, oldest.getQueueSize());
+        assertEquals(3, oldest.getDroppedCount());
+    }
+
+    /**
+     * Test Case: Delivery on the dispatcher's own thread.
+     * Test Strategy: Normal case (asynchronous)
+     * Expected: The listener runs on a different thread.
+     */
+    @Test
+    public void testOwnThread() throws InterruptedException {
+        DatasetChangeDispatcher d = new DatasetChangeDispatcher(dataset);
+        final CountDownLatch delivered = new CountDownLatch(1);
+        final Thread[] thread = new Thread[1];
+        d.addChangeListener(new DatasetChangeListener() {
+            public void datasetChanged(DatasetChangeEvent event) {
+                thread[0] = Thread.currentThread();
+                delivered.countDown();
+            }
+        });
+        series.add(1.0, 1.0);
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertNotSame(Thread.currentThread(), thread[0]);
+        d.dispose();
+        series.add(2.0, 2.0);
+        assertEquals(1, d.getReceivedCount());
+    }
+
+    /**
+     * Test Case: Non-positive rate.
+     * Test Strategy: Invalid input
+     * Expected: IllegalArgumentException.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRate() {
+        new DatasetChangeDispatcher(dataset, 0.0, 10,
+                BackpressurePolicy.MERGE);
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+        dataset = null;
+    }
+}
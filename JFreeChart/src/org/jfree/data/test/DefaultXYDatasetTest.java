@@ -0,0 +1,74 @@
+package org.jfree.data.test;
+
+import static org.junit.Assert.*;
+import org.jfree.data.xy.DefaultXYDataset;
+import org.junit.*;
+
+public class DefaultXYDatasetTest {
+
+    private double[] x;
+    private double[] y;
+    private DefaultXYDataset dataset;
+
+    @Before
+    public void setUp() {
+        x = new double[] {1.0, 2.0, 3.0};
+        y = new double[] {10.0, -5.5, 0.25};
+        dataset = new DefaultXYDataset();
+        dataset.addSeries("S1", x, y);
+    }
+
+    /**
+     * Test Case: One series from two arrays.
+     * Test Strategy: Normal case (ECP)
+     * Expected: Values read from the arrays, as primitives and as Numbers.
+     */
+    @Test
+    public void testValues() {
+        assertEquals(1, dataset.getSeriesCount());
+        assertEquals("S1", dataset.getSeriesKey(0));
+        assertEquals(3, dataset.getItemCount(0));
+        assertEquals(2.0, dataset.getXValue(0, 1), 0.0);
+        assertEquals(-5.5, dataset.getY(0, 1).doubleValue(), 0.0);
+    }
+
+    /**
+     * Test Case: Changes to the arrays after the series is added.
+     * Test Strategy: State transition (zero-copy)
+     * Expected: The dataset reflects the change.
+     */
+    @Test
+    public void testNoCopy() {
+        y[2] = 42.0;
+        assertEquals(42.0, dataset.getYValue(0, 2), 0.0);
+    }
+
+    /**
+     * Test Case: Replacing and removing a series.
+     * Test Strategy: State transition
+     * Expected: Same key replaces the data; remove drops the series.
+     */
+    @Test
+    public void testReplaceAndRemove() {
+        dataset.addSeries("S1", new double[][] {{5.0}, {6.0}});
+        assertEquals(1, dataset.getSeriesCount());
+        assertEquals(1, dataset.getItemCount(0));
+        dataset.removeSeries("S1");
+        assertEquals(0, dataset.getSeriesCount());
+    }
+
+    /**
+     * Test Case: Arrays of different lengths.
+     * Test Strategy: Invalid input (ECP)
+     * Expected: IllegalArgumentException.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnequalLengths() {
+        dataset.addSeries("S2", new double[] {1.0}, new double[] {1.0, 2.0});
+    }
+
+    @After
+    public void tearDown() {
+        dataset = null;
+    }
+}
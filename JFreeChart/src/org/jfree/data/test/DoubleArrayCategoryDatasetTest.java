@@ -0,0 +1,96 @@
+package org.jfree.data.test;
+
+import static org.junit.Assert.*;
+import org.jfree.data.UnknownKeyException;
+import org.jfree.data.category.DoubleArrayCategoryDataset;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeListener;
+import org.junit.*;
+
+public class DoubleArrayCategoryDatasetTest {
+
+    private double[][] data;
+    private DoubleArrayCategoryDataset dataset;
+
+    @Before
+    public void setUp() {
+        // Same data as DataUtilitiesTest.testCreateNumberArray2DNormalCase
+        data = new double[][] {{1.0, 2.0}, {3.0, 4.5}};
+        dataset = new DoubleArrayCategoryDataset("S", "C", data);
+    }
+
+    /**
+     * Test Case: Keys made from a prefix.
+     * Test Strategy: Normal case (ECP)
+     * Expected: Keys S1, S2 and C1, C2, found by index and by key.
+     */
+    @Test
+    public void testPrefixKeys() {
+        assertEquals(2, dataset.getRowCount());
+        assertEquals(2, dataset.getColumnCount());
+        assertEquals("S2", dataset.getRowKey(1));
+        assertEquals("C1", dataset.getColumnKey(0));
+        assertEquals(1, dataset.getRowIndex("S2"));
+        assertEquals(-1, dataset.getColumnIndex("C3"));
+        assertEquals(4.5, dataset.getValue("S2", "C2").doubleValue(), 0.0);
+    }
+
+    /**
+     * Test Case: Changes to the array.
+     * Test Strategy: State transition (zero-copy)
+     * Expected: Direct changes are visible, and setValue notifies listeners.
+     */
+    @Test
+    public void testSetValueWritesThrough() {
+        final int[] events = new int[1];
+        dataset.addChangeListener(new DatasetChangeListener() {
+            public void datasetChanged(DatasetChangeEvent event) {
+                events[0]++;
+            }
+        });
+        data[0][1] = -2.0;
+        assertEquals(-2.0, dataset.getDoubleValue(0, 1), 0.0);
+        dataset.setValue(1, 0, 8.0);
+        assertEquals(8.0, data[1][0], 0.0);
+        assertEquals(1, events[0]);
+    }
+
+    /**
+     * Test Case: Rows of different lengths.
+     * Test Strategy: Invalid input (ECP)
+     * Expected: IllegalArgumentException.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testRaggedData() {
+        new DoubleArrayCategoryDataset("S", "C", new double[][] {{1.0}, {1.0, 2.0}});
+    }
+
+    /**
+     * Test Case: Unknown column key.
+     * Test Strategy: Invalid input (ECP)
+     * Expected: UnknownKeyException.
+     */
+    @Test(expected = UnknownKeyException.class)
+    public void testUnknownKey() {
+        dataset.getValue("S1", "X");
+    }
+
+    /**
+     * Test Case: Clone.
+     * Test Strategy: Independence of copies
+     * Expected: Equal to the original, but not sharing the array.
+     */
+    @Test
+    public void testClone() throws CloneNotSupportedException {
+        DoubleArrayCategoryDataset clone = (DoubleArrayCategoryDataset) dataset.clone();
+        assertEquals(dataset, clone);
+        data[0][0] = 99.0;
+        assertFalse(dataset.equals(clone));
+    }
+
+    @After
+    public void tearDown() {
+        dataset = null;
+        data = null;
+    }
+}
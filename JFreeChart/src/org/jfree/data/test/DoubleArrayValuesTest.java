@@ -0,0 +1,89 @@
+package org.jfree.data.test;
+
+import static org.junit.Assert.*;
+import org.jfree.data.DoubleArrayValues;
+import org.junit.*;
+
+public class DoubleArrayValuesTest {
+
+    private double[] data;
+    private DoubleArrayValues values;
+
+    @Before
+    public void setUp() {
+        // Same data as DataUtilitiesTest.testCreateNumberArrayNormalCase
+        data = new double[] {1.0, 2.5, -3.0};
+        values = new DoubleArrayValues(data);
+    }
+
+    /**
+     * Test Case: View of a normal array.
+     * Test Strategy: Normal case (ECP)
+     * Expected: Every element of the array, including the last, as a Number.
+     */
+    @Test
+    public void testValues() {
+        assertEquals(data.length, values.size());
+        assertEquals(data.length, values.getItemCount());
+        for (int i = 0; i < data.length; i++) {
+            assertEquals(data[i], values.get(i).doubleValue(), 0.0);
+            assertEquals(data[i], values.getDoubleValue(i), 0.0);
+        }
+    }
+
+    /**
+     * Test Case: Changes to the array after the view is created.
+     * Test Strategy: State transition (zero-copy)
+     * Expected: The view reflects the change, and writes go to the array.
+     */
+    @Test
+    public void testWriteThrough() {
+        assertSame(data, values.getData());
+        data[1] = 7.0;
+        assertEquals(7.0, values.getValue(1).doubleValue(), 0.0);
+        values.set(2, Double.valueOf(4.5));
+        assertEquals(4.5, data[2], 0.0);
+    }
+
+    /**
+     * Test Case: Boxing of small whole numbers.
+     * Test Strategy: BVA at the cache limits, and negative zero
+     * Expected: Cached instances inside [-128, 127], new ones outside.
+     */
+    @Test
+    public void testValueOfCache() {
+        assertSame(DoubleArrayValues.valueOf(-128.0), DoubleArrayValues.valueOf(-128.0));
+        assertSame(DoubleArrayValues.valueOf(127.0), DoubleArrayValues.valueOf(127.0));
+        assertNotSame(DoubleArrayValues.valueOf(128.0), DoubleArrayValues.valueOf(128.0));
+        assertNotSame(DoubleArrayValues.valueOf(0.5), DoubleArrayValues.valueOf(0.5));
+        Double negativeZero = DoubleArrayValues.valueOf(-0.0);
+        assertEquals(Double.valueOf(-0.0), negativeZero);
+        assertTrue(Double.isNaN(DoubleArrayValues.valueOf(Double.NaN).doubleValue()));
+    }
+
+    /**
+     * Test Case: Null array.
+     * Test Strategy: Invalid input (ECP)
+     * Expected: IllegalArgumentException, as createNumberArray.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullData() {
+        new DoubleArrayValues(null);
+    }
+
+    /**
+     * Test Case: Index past the end of the array.
+     * Test Strategy: BVA
+     * Expected: IndexOutOfBoundsException.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIndexOutOfBounds() {
+        values.get(3);
+    }
+
+    @After
+    public void tearDown() {
+        values = null;
+        data = null;
+    }
+}
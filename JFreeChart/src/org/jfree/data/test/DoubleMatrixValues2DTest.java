@@ -0,0 +1,161 @@
+package org.jfree.data.test;
+
+import static org.junit.Assert.*;
+import org.jfree.data.DoubleMatrixValues2D;
+import org.jfree.data.Values2D;
+import org.junit.*;
+
+import java.util.Random;
+
+public class DoubleMatrixValues2DTest {
+
+    private DoubleMatrixValues2D values;
+
+    @Before
+    public void setUp() {
+        // 4 x 4 matrix with missing values, mirroring DataUtilitiesTest_TC_DU_003/007
+        values = DoubleMatrixValues2D.fromArray(new double[][] {
+            {1.0, 2.0, 10.0, 4.0},
+            {3.0, 4.0, Double.NaN, 1.0},
+            {8.0, Double.NaN, 5.5, Double.NaN},
+            {2.0, 6.0, Double.NaN, 3.0}
+        });
+    }
+
+    /**
+     * Test Case: Column containing missing values.
+     * Test Strategy: ECP - Null handling, as DataUtilitiesTest_TC_DU_003
+     * Expected Behavior: Missing values are skipped, total is 15.5.
+     */
+    @Test
+    public void testGetColumnTotalSkipsMissingValues() {
+        assertEquals("The sum of column 2 should exclude missing values and be 15.5",
+                15.5, values.getColumnTotal(2), 0.000000001d);
+    }
+
+    /**
+     * Test Case: Row containing missing values.
+     * Test Strategy: ECP - Null handling, as DataUtilitiesTest_TC_DU_007
+     * Expected Behavior: Missing values are skipped, total is 13.5.
+     */
+    @Test
+    public void testGetRowTotalSkipsMissingValues() {
+        assertEquals("The sum of row 2 should exclude missing values and be 13.5",
+                13.5, values.getRowTotal(2), 0.000000001d);
+    }
+
+    /**
+     * Test Case: Missing values read through the Values2D interface.
+     * Test Strategy: ECP - Null marker
+     * Expected Behavior: NaN cells are reported as null, others as their value.
+     */
+    @Test
+    public void testGetValueReportsMissingAsNull() {
+        assertNull("A NaN cell should be reported as null", values.getValue(1, 2));
+        assertEquals(5.5, values.getValue(2, 2).doubleValue(), 0.000000001d);
+        values.setValue(1, 2, 7.0);
+        assertEquals(7.0, values.getDoubleValue(1, 2), 0.000000001d);
+        values.setValue(1, 2, (Number) null);
+        assertTrue("Setting null should store NaN", Double.isNaN(values.getDoubleValue(1, 2)));
+    }
+
+    /**
+     * Test Case: Totals compared with a boxed summation over the same cells.
+     * Test Strategy: Comparison with a loop over getValue()
+     * Expected Behavior: The primitive totals are identical (same order of additions).
+     */
+    @Test(timeout = 5000)
+    public void testTotalsMatchBoxedSummation() {
+        int rows = 300;
+        int columns = 200;
+        DoubleMatrixValues2D matrix = new DoubleMatrixValues2D(rows, columns);
+        Random random = new Random(18L);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                if (random.nextInt(10) != 0) {
+                    matrix.setValue(r, c, random.nextDouble() * Math.pow(10, random.nextInt(12)));
+                }
+            }
+        }
+        Values2D boxed = matrix;
+        for (int c = 0; c < columns; c++) {
+            double total = 0.0;
+            for (int r = 0; r < rows; r++) {
+                Number n = boxed.getValue(r, c);
+                if (n != null) {
+                    total += n.doubleValue();
+                }
+            }
+            assertEquals("Column " + c + " total", total, matrix.getColumnTotal(c), 0.0);
+        }
+        for (int r = 0; r < rows; r++) {
+            double total = 0.0;
+            for (int c = 0; c < columns; c++) {
+                Number n = boxed.getValue(r, c);
+                if (n != null) {
+                    total += n.doubleValue();
+                }
+            }
+            assertEquals("Row " + r + " total", total, matrix.getRowTotal(r), 0.0);
+        }
+    }
+
+    /**
+     * Test Case: Data array with the wrong length.
+     * Test Strategy: Invalid input (ECP)
+     * Expected Behavior: IllegalArgumentException.
+     */
+    @Test
+    public void testWrongDataLengthRejected() {
+        try {
+            new DoubleMatrixValues2D(2, 3, new double[5]);
+            fail("Expected IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
+            // Expected behavior, test passes
+        }
+    }
+
+    /**
+     * Test Case: Dimensions whose product overflows an int.
+     * Test Strategy: BVA - 100000 x 100000 cells
+     * Expected Behavior: IllegalArgumentException before any allocation.
+     */
+    @Test
+    public void testTooManyCellsRejected() {
+        try {
+            new DoubleMatrixValues2D(100000, 100000);
+            fail("Expected IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
+            // Expected behavior, test passes
+        }
+    }
+
+    /**
+     * Test Case: Row index outside the matrix.
+     * Test Strategy: BVA - Index just past the last row
+     * Expected Behavior: IndexOutOfBoundsException.
+     */
+    @Test
+    public void testRowTotalOutOfRange() {
+        try {
+            values.getRowTotal(4);
+            fail("Expected IndexOutOfBoundsException to be thrown");
+        } catch (IndexOutOfBoundsException e) {
+            // Expected behavior, test passes
+        }
+    }
+
+    /**
+     * Test Case: Copy from another Values2D and clone.
+     * Test Strategy: ECP - Equality after copying
+     * Expected Behavior: Copies are equal but independent.
+     */
+    @Test
+    public void testCopyOfAndClone() throws CloneNotSupportedException {
+        DoubleMatrixValues2D copy = DoubleMatrixValues2D.copyOf(values);
+        assertEquals("A copy should equal the original", values, copy);
+        DoubleMatrixValues2D clone = (DoubleMatrixValues2D) values.clone();
+        clone.setValue(0, 0, 99.0);
+        assertFalse("Changing a clone should not change the original", values.equals(clone));
+    }
+}
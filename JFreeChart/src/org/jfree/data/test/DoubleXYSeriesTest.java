@@ -0,0 +1,146 @@
+package org.jfree.data.test;
+
+import static org.junit.Assert.*;
+import org.jfree.data.general.SeriesException;
+import org.jfree.data.xy.BatchXYSeriesCollection;
+import org.jfree.data.xy.DoubleXYSeries;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.junit.*;
+
+public class DoubleXYSeriesTest {
+
+    private DoubleXYSeries series;
+    private XYSeries reference;
+
+    @Before
+    public void setUp() {
+        series = new DoubleXYSeries("S");
+        reference = new XYSeries("S");
+        double[] xs = {5.0, 1.0, 3.0, 3.0, 9.0, 0.5};
+        for (int i = 0; i < xs.length; i++) {
+            series.add(xs[i], i * 10.0);
+            reference.add(xs[i], i * 10.0);
+        }
+    }
+
+    /**
+     * Test Case: Sorted adds, including a duplicate x-value.
+     * Test Strategy: Equivalence with XYSeries
+     * Expected: Same items in the same order as XYSeries.
+     */
+    @Test
+    public void testSameOrderAsXYSeries() {
+        assertEquals(reference.getItemCount(), series.getItemCount());
+        for (int i = 0; i < reference.getItemCount(); i++) {
+            assertEquals(reference.getX(i).doubleValue(),
+                    series.getXValue(i), 0.0);
+            assertEquals(reference.getY(i).doubleValue(),
+                    series.getYValue(i), 0.0);
+            assertEquals(reference.getDataItem(i), series.getDataItem(i));
+        }
+    }
+
+    /**
+     * Test Case: indexOf on a sorted series.
+     * Test Strategy: Binary search, present and absent keys
+     * Expected: Same results as XYSeries.
+     */
+    @Test
+    public void testIndexOf() {
+        assertEquals(reference.indexOf(Double.valueOf(9.0)),
+                series.indexOf(Double.valueOf(9.0)));
+        assertEquals(reference.indexOf(Double.valueOf(2.0)),
+                series.indexOf(Double.valueOf(2.0)));
+        assertEquals(-1, series.indexOf(-7.0));
+    }
+
+    /**
+     * Test Case: Duplicate x-value in a series that does not allow them.
+     * Test Strategy: Invalid input
+     * Expected: SeriesException.
+     */
+    @Test(expected = SeriesException.class)
+    public void testDuplicateRejected() {
+        DoubleXYSeries s = new DoubleXYSeries("S", true, false);
+        s.add(1.0, 1.0);
+        s.add(1.0, 2.0);
+    }
+
+    /**
+     * Test Case: Growth past the initial capacity, and a maximum item count.
+     * Test Strategy: BVA (capacity), state transition
+     * Expected: Oldest items are removed; newest kept.
+     */
+    @Test
+    public void testGrowthAndMaximumItemCount() {
+        DoubleXYSeries s = new DoubleXYSeries("S", false, true, 2);
+        for (int i = 0; i < 1000; i++) {
+            s.add(i, i);
+        }
+        assertEquals(1000, s.getItemCount());
+        s.setMaximumItemCount(10);
+        assertEquals(10, s.getItemCount());
+        assertEquals(990.0, s.getXValue(0), 0.0);
+        s.add(1000.0, 1000.0);
+        assertEquals(10, s.getItemCount());
+        assertEquals(991.0, s.getXValue(0), 0.0);
+    }
+
+    /**
+     * Test Case: update, addOrUpdate, remove, delete and a null y-value.
+     * Test Strategy: Normal cases for the modifying methods
+     * Expected: Same results as XYSeries.
+     */
+    @Test
+    public void testModifications() {
+        series.update(Double.valueOf(9.0), Double.valueOf(-1.0));
+        reference.update(Double.valueOf(9.0), Double.valueOf(-1.0));
+        assertEquals(reference.addOrUpdate(Double.valueOf(2.0), null),
+                series.addOrUpdate(Double.valueOf(2.0), null));
+        assertNull(series.getY(series.indexOf(2.0)));
+        assertEquals(reference.remove(Double.valueOf(5.0)),
+                series.remove(Double.valueOf(5.0)));
+        reference.delete(0, 1);
+        series.delete(0, 1);
+        assertEquals(reference.getItems(), series.getItems());
+    }
+
+    /**
+     * Test Case: Clone and equals.
+     * Test Strategy: Normal case
+     * Expected: The clone is equal but independent.
+     */
+    @Test
+    public void testClone() throws CloneNotSupportedException {
+        DoubleXYSeries copy = (DoubleXYSeries) series.clone();
+        assertEquals(series, copy);
+        copy.add(100.0, 1.0);
+        assertFalse(series.equals(copy));
+        assertEquals(6, series.getItemCount());
+    }
+
+    /**
+     * Test Case: Series in an XYSeriesCollection.
+     * Test Strategy: Integration
+     * Expected: The collection reads the same values, with and without
+     * the primitive path of BatchXYSeriesCollection.
+     */
+    @Test
+    public void testInCollection() {
+        XYSeriesCollection plain = new XYSeriesCollection(series);
+        BatchXYSeriesCollection batch = new BatchXYSeriesCollection(series);
+        for (int i = 0; i < series.getItemCount(); i++) {
+            assertEquals(series.getXValue(i), plain.getXValue(0, i), 0.0);
+            assertEquals(series.getYValue(i), plain.getYValue(0, i), 0.0);
+            assertEquals(series.getYValue(i), batch.getYValue(0, i), 0.0);
+        }
+        assertEquals(9.0, plain.getDomainUpperBound(false), 0.0);
+    }
+
+    @After
+    public void tearDown() {
+        series = null;
+        reference = null;
+    }
+}
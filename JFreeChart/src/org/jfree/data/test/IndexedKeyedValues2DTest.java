@@ -0,0 +1,181 @@
+package org.jfree.data.test;
+
+import static org.junit.Assert.*;
+import org.jfree.data.DefaultKeyedValues2D;
+import org.jfree.data.IndexedKeyedObjects2D;
+import org.jfree.data.IndexedKeyedValues2D;
+import org.jfree.data.UnknownKeyException;
+import org.jfree.data.category.IndexedCategoryDataset;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeListener;
+import org.junit.*;
+
+import java.util.Random;
+
+public class IndexedKeyedValues2DTest {
+
+    private IndexedKeyedValues2D values;
+
+    @Before
+    public void setUp() {
+        values = new IndexedKeyedValues2D();
+        values.addValue(Double.valueOf(1.0), "R1", "C1");
+        values.addValue(Double.valueOf(2.0), "R1", "C2");
+        values.addValue(Double.valueOf(3.0), "R2", "C1");
+    }
+
+    /**
+     * Test Case: Lookup by key and by index.
+     * Test Strategy: Normal case (ECP)
+     * Expected: Keys in insertion order; missing cells are null.
+     */
+    @Test
+    public void testLookup() {
+        assertEquals(2, values.getRowCount());
+        assertEquals(2, values.getColumnCount());
+        assertEquals(1, values.getRowIndex("R2"));
+        assertEquals(1, values.getColumnIndex("C2"));
+        assertEquals(-1, values.getColumnIndex("C9"));
+        assertEquals(3.0, values.getValue("R2", "C1").doubleValue(), 0.0);
+        assertNull(values.getValue(1, 1));
+    }
+
+    /**
+     * Test Case: Remove a column from the front of the table.
+     * Test Strategy: State transition (tombstone)
+     * Expected: Later columns move down one place; their values are kept.
+     */
+    @Test
+    public void testRemoveColumn() {
+        values.removeColumn("C1");
+        assertEquals(1, values.getColumnCount());
+        assertEquals("C2", values.getColumnKey(0));
+        assertEquals(0, values.getColumnIndex("C2"));
+        assertEquals(-1, values.getColumnIndex("C1"));
+        assertEquals(2.0, values.getValue(0, 0).doubleValue(), 0.0);
+        values.addValue(Double.valueOf(7.0), "R2", "C1");
+        assertEquals(1, values.getColumnIndex("C1"));
+        assertEquals(7.0, values.getValue("R2", "C1").doubleValue(), 0.0);
+    }
+
+    /**
+     * Test Case: Remove a value, emptying a row.
+     * Test Strategy: Compared with DefaultKeyedValues2D.removeValue
+     * Expected: The empty row is removed; the column is kept.
+     */
+    @Test
+    public void testRemoveValue() {
+        values.removeValue("R2", "C1");
+        assertEquals(1, values.getRowCount());
+        assertEquals(-1, values.getRowIndex("R2"));
+        assertEquals(2, values.getColumnCount());
+    }
+
+    /**
+     * Test Case: Sliding window of columns over many rows.
+     * Test Strategy: Cross-check with DefaultKeyedValues2D
+     * Expected: Same keys and values after each add/remove step, across
+     * compactions.
+     */
+    @Test
+    public void testSlidingWindowMatchesDefaultKeyedValues2D() {
+        Random random = new Random(7);
+        DefaultKeyedValues2D expected = new DefaultKeyedValues2D();
+        IndexedKeyedValues2D actual = new IndexedKeyedValues2D();
+        int window = 20;
+        for (int t = 0; t < 200; t++) {
+            for (int r = 0; r < 5; r++) {
+                Double v = Double.valueOf(random.nextInt(1000));
+                expected.addValue(v, "R" + r, "T" + t);
+                actual.addValue(v, "R" + r, "T" + t);
+            }
+            if (t >= window) {
+                expected.removeColumn("T" + (t - window));
+                actual.removeColumn("T" + (t - window));
+            }
+            assertEquals(expected.getColumnKeys(), actual.getColumnKeys());
+        }
+        assertEquals(expected.getRowKeys(), actual.getRowKeys());
+        for (int r = 0; r < expected.getRowCount(); r++) {
+            for (int c = 0; c < expected.getColumnCount(); c++) {
+                assertEquals(expected.getValue(r, c), actual.getValue(r, c));
+                assertEquals(c, actual.getColumnIndex(expected.getColumnKey(c)));
+            }
+        }
+    }
+
+    /**
+     * Test Case: equals and clone after compaction.
+     * Test Strategy: Independence of copies
+     * Expected: Equal whatever the slot layout; clones are independent.
+     */
+    @Test
+    public void testEqualsAndClone() throws CloneNotSupportedException {
+        IndexedKeyedValues2D other = new IndexedKeyedValues2D();
+        other.addValue(Double.valueOf(9.0), "R1", "X");
+        other.removeColumn("X");
+        other.addValue(Double.valueOf(1.0), "R1", "C1");
+        other.addValue(Double.valueOf(2.0), "R1", "C2");
+        other.addValue(Double.valueOf(3.0), "R2", "C1");
+        assertEquals(values, other);
+        IndexedKeyedValues2D clone = (IndexedKeyedValues2D) values.clone();
+        assertEquals(values, clone);
+        clone.removeRow("R1");
+        assertEquals(2, values.getRowCount());
+        assertFalse(values.equals(clone));
+    }
+
+    /**
+     * Test Case: Unknown keys.
+     * Test Strategy: Invalid input (ECP)
+     * Expected: UnknownKeyException.
+     */
+    @Test(expected = UnknownKeyException.class)
+    public void testUnknownColumnKey() {
+        values.getValue("R1", "C9");
+    }
+
+    /**
+     * Test Case: IndexedKeyedObjects2D with objects.
+     * Test Strategy: Normal case (ECP)
+     * Expected: Objects are stored and returned by key.
+     */
+    @Test
+    public void testObjects() {
+        IndexedKeyedObjects2D objects = new IndexedKeyedObjects2D();
+        objects.addObject("A", "R1", "C1");
+        objects.setObject("B", "R1", "C1");
+        assertEquals("B", objects.getObject("R1", "C1"));
+        objects.removeObject("R1", "C1");
+        assertEquals(0, objects.getRowCount());
+        assertEquals(0, objects.getColumnCount());
+    }
+
+    /**
+     * Test Case: Category dataset over the indexed table.
+     * Test Strategy: Normal case, listener notification
+     * Expected: Values by key, one event per change.
+     */
+    @Test
+    public void testCategoryDataset() {
+        IndexedCategoryDataset dataset = new IndexedCategoryDataset();
+        final int[] events = new int[1];
+        dataset.addChangeListener(new DatasetChangeListener() {
+            public void datasetChanged(DatasetChangeEvent event) {
+                events[0]++;
+            }
+        });
+        dataset.addValue(1.0, "S1", "C1");
+        dataset.addValue(2.0, "S1", "C2");
+        dataset.incrementValue(5.0, "S1", "C1");
+        dataset.removeColumn(1);
+        assertEquals(6.0, dataset.getValue("S1", "C1").doubleValue(), 0.0);
+        assertEquals(1, dataset.getColumnCount());
+        assertEquals(4, events[0]);
+    }
+
+    @After
+    public void tearDown() {
+        values = null;
+    }
+}
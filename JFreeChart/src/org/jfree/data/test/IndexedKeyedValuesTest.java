@@ -0,0 +1,170 @@
+package org.jfree.data.test;
+
+import static org.junit.Assert.*;
+import org.jfree.data.DefaultKeyedValues;
+import org.jfree.data.IndexedKeyedObjects;
+import org.jfree.data.IndexedKeyedValues;
+import org.jfree.data.KeyedObjects;
+import org.jfree.data.UnknownKeyException;
+import org.jfree.util.SortOrder;
+import org.junit.*;
+
+import java.util.Random;
+
+public class IndexedKeyedValuesTest {
+
+    private IndexedKeyedValues values;
+
+    @Before
+    public void setUp() {
+        values = new IndexedKeyedValues();
+        values.addValue("A", 5.0);
+        values.addValue("B", 9.0);
+        values.addValue("C", 2.0);
+    }
+
+    /**
+     * Test Case: Lookup by key.
+     * Test Strategy: Normal case (ECP)
+     * Expected: Indices in insertion order; -1 for an unknown key.
+     */
+    @Test
+    public void testGetIndex() {
+        assertEquals(0, values.getIndex("A"));
+        assertEquals(2, values.getIndex("C"));
+        assertEquals(-1, values.getIndex("Z"));
+        assertEquals(9.0, values.getValue("B").doubleValue(), 0.0);
+        values.setValue("B", 1.0);
+        assertEquals(3, values.getItemCount());
+        assertEquals(1.0, values.getValue(1).doubleValue(), 0.0);
+    }
+
+    /**
+     * Test Case: Remove from the middle and from the end.
+     * Test Strategy: State transition
+     * Expected: Later keys move down one place.
+     */
+    @Test
+    public void testRemoveValue() {
+        values.removeValue("A");
+        assertEquals(-1, values.getIndex("A"));
+        assertEquals(0, values.getIndex("B"));
+        assertEquals(1, values.getIndex("C"));
+        values.removeValue("C");
+        assertEquals(-1, values.getIndex("C"));
+        values.addValue("D", 4.0);
+        assertEquals(1, values.getIndex("D"));
+    }
+
+    /**
+     * Test Case: Sort by keys and by values.
+     * Test Strategy: State transition
+     * Expected: The index follows the new order.
+     */
+    @Test
+    public void testSort() {
+        values.sortByValues(SortOrder.ASCENDING);
+        assertEquals(0, values.getIndex("C"));
+        assertEquals(2, values.getIndex("B"));
+        values.sortByKeys(SortOrder.DESCENDING);
+        assertEquals(0, values.getIndex("C"));
+        assertEquals(2, values.getIndex("A"));
+    }
+
+    /**
+     * Test Case: equals, hashCode and clone.
+     * Test Strategy: Compared with DefaultKeyedValues
+     * Expected: Same behavior as the superclass; clones are independent.
+     */
+    @Test
+    public void testEqualsHashCodeClone() throws CloneNotSupportedException {
+        DefaultKeyedValues plain = new DefaultKeyedValues();
+        plain.addValue("A", 5.0);
+        plain.addValue("B", 9.0);
+        plain.addValue("C", 2.0);
+        assertTrue(values.equals(plain));
+        assertEquals(plain.hashCode(), values.hashCode());
+        IndexedKeyedValues clone = (IndexedKeyedValues) values.clone();
+        assertEquals(values, clone);
+        clone.removeValue("A");
+        assertEquals(0, values.getIndex("A"));
+        assertEquals(0, clone.getIndex("B"));
+    }
+
+    /**
+     * Test Case: Unknown key.
+     * Test Strategy: Invalid input (ECP)
+     * Expected: UnknownKeyException, as DefaultKeyedValues.
+     */
+    @Test(expected = UnknownKeyException.class)
+    public void testUnknownKey() {
+        values.getValue("Z");
+    }
+
+    /**
+     * Test Case: Random sequence of updates.
+     * Test Strategy: Cross-check with DefaultKeyedValues
+     * Expected: Same keys, indices and values after every step.
+     */
+    @Test
+    public void testRandomOperationsMatchDefaultKeyedValues() {
+        Random random = new Random(11);
+        DefaultKeyedValues expected = new DefaultKeyedValues();
+        IndexedKeyedValues actual = new IndexedKeyedValues();
+        for (int step = 0; step < 2000; step++) {
+            String key = "K" + random.nextInt(50);
+            int op = random.nextInt(10);
+            if (op < 6) {
+                double v = random.nextInt(100);
+                expected.setValue(key, v);
+                actual.setValue(key, v);
+            }
+            else if (op < 8) {
+                expected.removeValue(key);
+                actual.removeValue(key);
+            }
+            else if (op == 8) {
+                expected.sortByValues(SortOrder.DESCENDING);
+                actual.sortByValues(SortOrder.DESCENDING);
+            }
+            else {
+                expected.sortByKeys(SortOrder.ASCENDING);
+                actual.sortByKeys(SortOrder.ASCENDING);
+            }
+            assertEquals(expected.getIndex(key), actual.getIndex(key));
+        }
+        assertEquals(expected.getKeys(), actual.getKeys());
+        for (int i = 0; i < expected.getItemCount(); i++) {
+            assertEquals(i, actual.getIndex(expected.getKey(i)));
+        }
+    }
+
+    /**
+     * Test Case: KeyedObjects with a hash index.
+     * Test Strategy: Normal case and state transition
+     * Expected: O(1) lookups that follow removals; equal to KeyedObjects.
+     */
+    @Test
+    public void testIndexedKeyedObjects() throws CloneNotSupportedException {
+        IndexedKeyedObjects objects = new IndexedKeyedObjects();
+        KeyedObjects plain = new KeyedObjects();
+        for (int i = 0; i < 5; i++) {
+            objects.addObject("K" + i, "V" + i);
+            plain.addObject("K" + i, "V" + i);
+        }
+        assertTrue(objects.equals(plain));
+        assertEquals("V3", objects.getObject("K3"));
+        objects.removeValue("K1");
+        assertEquals(2, objects.getIndex("K3"));
+        objects.setObject("K3", "X");
+        assertEquals("X", objects.getObject(2));
+        IndexedKeyedObjects clone = (IndexedKeyedObjects) objects.clone();
+        assertEquals(objects, clone);
+        assertEquals(3, clone.getIndex("K4"));
+    }
+
+    @After
+    public void tearDown() {
+        values = null;
+    }
+}
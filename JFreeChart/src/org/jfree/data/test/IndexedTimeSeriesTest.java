@@ -0,0 +1,406 @@
+package org.jfree.data.test;
+
+import static org.junit.Assert.*;
+import org.jfree.data.time.BatchTimeSeriesCollection;
+import org.jfree.data.time.Day;
+import org.jfree.data.time.Hour;
+import org.jfree.data.time.IndexedTimeSeries;
+import org.jfree.data.time.Minute;
+import org.jfree.data.time.RegularTimePeriod;
+import org.jfree.data.time.TimePeriodAnchor;
+import org.jfree.data.time.TimePeriodArithmetic;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.time.TimeSeriesCollection;
+import org.jfree.data.time.TimeSeriesSnapshot;
+import org.junit.*;
+
+import java.util.Random;
+import java.util.TimeZone;
+
+public class IndexedTimeSeriesTest {
+
+    private IndexedTimeSeries series;
+    private TimeSeries reference;
+    private BatchTimeSeriesCollection indexed;
+    private TimeSeriesCollection plain;
+
+    @Before
+    public void setUp() {
+        series = new IndexedTimeSeries("T", Minute.class);
+        reference = new TimeSeries("T", Minute.class);
+        indexed = new BatchTimeSeriesCollection(series);
+        plain = new TimeSeriesCollection(reference);
+    }
+
+    private void add(RegularTimePeriod period, double value) {
+        series.add(period, value);
+        reference.add(period, value);
+    }
+
+    private void assertSame() {
+        assertEquals(reference.getItems(), series.getItems());
+        TimePeriodAnchor[] anchors = {TimePeriodAnchor.START,
+                TimePeriodAnchor.MIDDLE, TimePeriodAnchor.END};
+        for (int a = 0; a < anchors.length; a++) {
+            indexed.setXPosition(anchors[a]);
+            plain.setXPosition(anchors[a]);
+            assertEquals(plain.getDomainBounds(false),
+                    indexed.getDomainBounds(false));
+            assertEquals(plain.getDomainBounds(true),
+                    indexed.getDomainBounds(true));
+            for (int i = 0; i < reference.getItemCount(); i++) {
+                assertEquals(plain.getXValue(0, i), indexed.getXValue(0, i),
+                        0.0);
+                assertEquals(plain.getX(0, i), indexed.getX(0, i));
+                assertEquals(plain.getStartX(0, i), indexed.getStartX(0, i));
+                assertEquals(plain.getEndX(0, i), indexed.getEndX(0, i));
+                long x = plain.getX(0, i).longValue();
+                for (long d = -1; d <= 1; d++) {
+                    int[] expected = plain.getSurroundingItems(0, x + d);
+                    int[] actual = indexed.getSurroundingItems(0, x + d);
+                    assertEquals(expected[0], actual[0]);
+                    assertEquals(expected[1], actual[1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test Case: Appends with a maximum item count and age.
+     * Test Strategy: Equivalence with TimeSeries and TimeSeriesCollection
+     * Expected: The same items, x-values and surrounding items.
+     */
+    @Test
+    public void testRollingWindow() {
+        series.setMaximumItemCount(50);
+        reference.setMaximumItemCount(50);
+        series.setMaximumItemAge(40);
+        reference.setMaximumItemAge(40);
+        RegularTimePeriod minute = new Minute(0, 12, 1, 6, 2021);
+        for (int i = 0; i < 300; i++) {
+            add(minute, i);
+            minute = minute.next();
+            if (i % 7 == 0) {
+                minute = minute.next();
+            }
+        }
+        assertSame();
+        assertEquals(reference.getIndex(new Minute(30, 16, 1, 6, 2021)),
+                series.getIndex(new Minute(30, 16, 1, 6, 2021)));
+    }
+
+    /**
+     * Test Case: Random inserts, updates and deletes.
+     * Test Strategy: Equivalence with TimeSeries after each change
+     * Expected: The same items, indices and x-values.
+     */
+    @Test
+    public void testRandomChanges() throws CloneNotSupportedException {
+        Random random = new Random(637L);
+        RegularTimePeriod base = new Minute(0, 0, 1, 1, 2022);
+        for (int step = 0; step < 200; step++) {
+            int op = random.nextInt(4);
+            RegularTimePeriod period = new Minute(new java.util.Date(
+                    base.getFirstMillisecond() + 60000L
+                    * random.nextInt(500)));
+            if (op <= 1) {
+                if (reference.getIndex(period) < 0) {
+                    add(period, step);
+                }
+            }
+            else if (op == 2 && reference.getItemCount() > 0) {
+                int index = random.nextInt(reference.getItemCount());
+                series.update(index, Double.valueOf(-step));
+                reference.update(index, Double.valueOf(-step));
+            }
+            else if (reference.getItemCount() > 2) {
+                series.delete(0, 1);
+                reference.delete(0, 1);
+            }
+            assertEquals(reference.getIndex(period), series.getIndex(period));
+        }
+        assertSame();
+        TimeSeries copy = (TimeSeries) series.clone();
+        copy.add(new Minute(0, 0, 1, 1, 2030), 1.0);
+        assertEquals(reference.getItemCount(), series.getItemCount());
+        assertSame();
+    }
+
+    /**
+     * Test Case: Day periods, with the index read before and after adds.
+     * Test Strategy: Normal case (millisecond accessors)
+     * Expected: The same milliseconds as the time periods.
+     */
+    @Test
+    public void testDayMilliseconds() {
+        IndexedTimeSeries s = new IndexedTimeSeries("D");
+        Day day = new Day(31, 12, 2020);
+        s.add(day, 1.0);
+        assertEquals(day.getFirstMillisecond(), s.getFirstMillisecond(0));
+        s.add(day.next(), 2.0);
+        assertEquals(day.next().getLastMillisecond(),
+                s.getLastMillisecond(1));
+        assertEquals(day.getMiddleMillisecond(),
+                s.getMillisecond(0, TimePeriodAnchor.MIDDLE));
+        assertEquals(-3, s.getIndex(new Day(5, 1, 2021)));
+    }
+
+    /**
+     * Test Case: A reader thread while another thread appends to a window.
+     * Test Strategy: Concurrency (snapshots read without locking)
+     * Expected: Every snapshot is in order, within the maximum item count,
+     *           and has the value that was added with each time period.
+     */
+    @Test
+    public void testSnapshotsWhileAppending() throws InterruptedException {
+        series.setMaximumItemCount(100);
+        final long start = new Minute(0, 0, 1, 1, 2023).getFirstMillisecond();
+        final boolean[] done = new boolean[1];
+        final String[] failure = new String[1];
+        Thread reader = new Thread() {
+            public void run() {
+                boolean finished = false;
+                while (!finished && failure[0] == null) {
+                    synchronized (done) {
+                        finished = done[0];
+                    }
+                    TimeSeriesSnapshot snapshot = series.getSnapshot();
+                    int n = snapshot.getItemCount();
+                    if (n > 100) {
+                        failure[0] = "Too many items: " + n;
+                    }
+                    for (int i = 0; i < n && failure[0] == null; i++) {
+                        long ms = snapshot.getFirstMillisecond(i);
+                        if (i > 0
+                                && ms <= snapshot.getFirstMillisecond(i - 1)) {
+                            failure[0] = "Out of order at " + i;
+                        }
+                        else if (snapshot.getYValue(i)
+                                != (ms - start) / 60000L) {
+                            failure[0] = "Wrong value at " + i;
+                        }
+                    }
+                }
+            }
+        };
+        reader.start();
+        RegularTimePeriod minute = new Minute(0, 0, 1, 1, 2023);
+        for (int i = 0; i < 5000; i++) {
+            series.add(minute, i);
+            minute = minute.next();
+        }
+        synchronized (done) {
+            done[0] = true;
+        }
+        reader.join();
+        assertNull(failure[0], failure[0]);
+        assertEquals(100, indexed.getItemCount(0));
+        assertEquals(4999.0, indexed.getYValue(0, 99), 0.0);
+    }
+
+    /**
+     * Test Case: Eight threads reading the domain bounds while another
+     *            thread appends to four windowed series.
+     * Test Strategy: Concurrency (bounds read from snapshots)
+     * Expected: No exception, and every range is ordered and within the
+     *           appended time periods.
+     */
+    @Test
+    public void testDomainBoundsWhileAppending() throws InterruptedException {
+        final BatchTimeSeriesCollection collection
+                = new BatchTimeSeriesCollection();
+        final IndexedTimeSeries[] windows = new IndexedTimeSeries[4];
+        for (int s = 0; s < windows.length; s++) {
+            windows[s] = new IndexedTimeSeries("W" + s, Minute.class);
+            windows[s].setMaximumItemCount(50);
+            windows[s].add(new Minute(0, 0, 1, 1, 2023), 0.0);
+            collection.addSeries(windows[s]);
+        }
+        final double start = new Minute(0, 0, 1, 1, 2023)
+                .getFirstMillisecond();
+        final double end = new Minute(0, 0, 1, 1, 2023)
+                .getFirstMillisecond() + 3001 * 60000L;
+        final boolean[] done = new boolean[1];
+        final String[] failure = new String[1];
+        Thread[] threads = new Thread[9];
+        for (int t = 0; t < 8; t++) {
+            final boolean includeInterval = t % 2 == 0;
+            threads[t] = new Thread() {
+                public void run() {
+                    boolean finished = false;
+                    while (!finished) {
+                        synchronized (done) {
+                            finished = done[0] || failure[0] != null;
+                        }
+                        try {
+                            original.Range bounds = collection
+                                    .getDomainBounds(includeInterval);
+                            double lower = collection.getDomainLowerBound(
+                                    includeInterval);
+                            double upper = collection.getDomainUpperBound(
+                                    includeInterval);
+                            if (bounds.getLowerBound() < start
+                                    || bounds.getUpperBound() > end
+                                    || lower > upper) {
+                                fail(bounds + ", " + lower + ", " + upper);
+                            }
+                        }
+                        catch (Throwable e) {
+                            fail(e.toString());
+                        }
+                    }
+                }
+
+                private void fail(String message) {
+                    synchronized (done) {
+                        if (failure[0] == null) {
+                            failure[0] = message;
+                        }
+                    }
+                }
+            };
+        }
+        threads[8] = new Thread() {
+            public void run() {
+                RegularTimePeriod minute = new Minute(1, 0, 1, 1, 2023);
+                for (int i = 1; i <= 3000; i++) {
+                    for (int s = 0; s < windows.length; s++) {
+                        windows[s].add(minute, i);
+                    }
+                    minute = minute.next();
+                }
+            }
+        };
+        for (int t = 0; t < threads.length; t++) {
+            threads[t].start();
+        }
+        threads[8].join();
+        synchronized (done) {
+            done[0] = true;
+        }
+        for (int t = 0; t < 8; t++) {
+            threads[t].join();
+        }
+        assertNull(failure[0], failure[0]);
+        assertEquals(new original.Range(start + 2951 * 60000L,
+                start + 3001 * 60000L - 1), collection.getDomainBounds(true));
+    }
+
+    /**
+     * Test Case: Changes made while notification is off.
+     * Test Strategy: Normal case (snapshot published on setNotify(true))
+     * Expected: Readers see the old items until notification is back on.
+     */
+    @Test
+    public void testSnapshotWithNotifyOff() {
+        add(new Minute(0, 9, 1, 6, 2021), 1.0);
+        series.setNotify(false);
+        series.add(new Minute(1, 9, 1, 6, 2021), 2.0);
+        series.delete(0, 0);
+        assertEquals(1, series.getSnapshot().getItemCount());
+        assertEquals(1.0, series.getSnapshot().getYValue(0), 0.0);
+        series.setNotify(true);
+        assertEquals(1, series.getSnapshot().getItemCount());
+        assertEquals(2.0, series.getSnapshot().getYValue(0), 0.0);
+        assertEquals(new Minute(1, 9, 1, 6, 2021).getFirstMillisecond(),
+                indexed.getStartX(0, 0).longValue());
+    }
+
+    /**
+     * Test Case: Plain TimeSeries in the collection, without synchronized
+     *            x-value methods.
+     * Test Strategy: Equivalence with TimeSeriesCollection
+     * Expected: The same x-values for every anchor.
+     */
+    @Test
+    public void testPlainSeriesXValues() {
+        RegularTimePeriod minute = new Minute(59, 23, 31, 12, 2021);
+        for (int i = 0; i < 20; i++) {
+            reference.add(minute, i);
+            minute = minute.next();
+        }
+        BatchTimeSeriesCollection batch = new BatchTimeSeriesCollection(
+                reference);
+        TimePeriodAnchor[] anchors = {TimePeriodAnchor.START,
+                TimePeriodAnchor.MIDDLE, TimePeriodAnchor.END};
+        for (int a = 0; a < anchors.length; a++) {
+            batch.setXPosition(anchors[a]);
+            plain.setXPosition(anchors[a]);
+            assertEquals(plain.getDomainBounds(false),
+                    batch.getDomainBounds(false));
+            assertEquals(plain.getDomainBounds(true),
+                    batch.getDomainBounds(true));
+            assertEquals(plain.getDomainLowerBound(true),
+                    batch.getDomainLowerBound(true), 0.0);
+            assertEquals(plain.getDomainUpperBound(false),
+                    batch.getDomainUpperBound(false), 0.0);
+            for (int i = 0; i < 20; i++) {
+                assertEquals(plain.getX(0, i), batch.getX(0, i));
+                assertEquals(plain.getXValue(0, i), batch.getXValue(0, i),
+                        0.0);
+                assertEquals(plain.getStartX(0, i), batch.getStartX(0, i));
+                assertEquals(plain.getEndX(0, i), batch.getEndX(0, i));
+            }
+        }
+    }
+
+    /**
+     * Test Case: Hours of the day on which daylight saving time starts in
+     *            the default time zone (8-Mar-2020 if it has none), where
+     *            the skipped hour starts at the same millisecond as the
+     *            next hour.
+     * Test Strategy: Comparison with TimeSeries (run with
+     *                -Duser.timezone=America/New_York to cover the gap)
+     * Expected: getIndex(), getValue(), update() and delete() by time
+     *           period find the same items as in a TimeSeries.
+     */
+    @Test
+    public void testDaylightSavingGap() {
+        TimeZone zone = TimePeriodArithmetic.getDefault().getTimeZone();
+        Day day = new Day(8, 3, 2020);
+        Day d = new Day(1, 1, 2020);
+        for (int i = 0; i < 366; i++) {
+            if (d.getLastMillisecond(zone) - d.getFirstMillisecond(zone) + 1 < 24 * 3600000L) {
+                day = d;
+                break;
+            }
+            d = (Day) d.next();
+        }
+        IndexedTimeSeries hours = new IndexedTimeSeries("H", Hour.class);
+        TimeSeries expected = new TimeSeries("H", Hour.class);
+        for (int h = 0; h < 24; h++) {
+            hours.add(new Hour(h, day), h);
+            expected.add(new Hour(h, day), h);
+        }
+        for (int h = 0; h < 24; h++) {
+            Hour hour = new Hour(h, day);
+            assertEquals("Index of " + hour, expected.getIndex(hour), hours.getIndex(hour));
+            assertEquals("Value of " + hour, expected.getValue(hour), hours.getValue(hour));
+            hours.update(hour, Double.valueOf(h + 100.0));
+            expected.update(hour, Double.valueOf(h + 100.0));
+        }
+        assertEquals(expected.getItems(), hours.getItems());
+        for (int h = 1; h < 24; h += 2) {
+            hours.delete(new Hour(h, day));
+            expected.delete(new Hour(h, day));
+        }
+        assertEquals(expected.getItems(), hours.getItems());
+        assertEquals(expected.getIndex(new Hour(3, day)), hours.getIndex(new Hour(3, day)));
+    }
+
+    /**
+     * Test Case: Millisecond of an item index equal to the item count.
+     * Test Strategy: BVA (upper bound)
+     * Expected: IndexOutOfBoundsException.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIndexOutOfBounds() {
+        series.getFirstMillisecond(0);
+    }
+
+    @After
+    public void tearDown() {
+        series = null;
+        reference = null;
+    }
+}
@@ -0,0 +1,149 @@
+package org.jfree.data.test;
+
+import static org.junit.Assert.*;
+import org.jfree.data.IntervalIndex;
+import org.jfree.data.Range;
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class IntervalIndexTest {
+
+    private IntervalIndex<String> index;
+
+    @Before
+    public void setUp() {
+        index = new IntervalIndex<String>();
+        index.add(5.0, 10.0, "A");
+        index.add(-10.0, -5.0, "B");
+        index.add(3.0, 3.0, "C");
+        index.add(0.0, 1e9, "D");
+    }
+
+    /**
+     * Test Case: Stabbing queries at and between interval bounds.
+     * Test Strategy: BVA - Closed interval bounds
+     * Expected Behavior: Intervals contain both of their bounds.
+     */
+    @Test
+    public void testFindContainingBounds() {
+        assertEquals(Arrays.asList("D", "A"), index.findContaining(5.0));
+        assertEquals(Arrays.asList("D", "A"), index.findContaining(10.0));
+        assertEquals(Arrays.asList("D", "C"), index.findContaining(3.0));
+        assertEquals(Arrays.asList("B"), index.findContaining(-7.0));
+        assertTrue("No interval should contain -11.0", index.findContaining(-11.0).isEmpty());
+        assertTrue("No interval should contain NaN", index.findContaining(Double.NaN).isEmpty());
+    }
+
+    /**
+     * Test Case: Overlap queries touching an interval at either bound.
+     * Test Strategy: BVA - Closed-interval edge cases from RangeTest_TC_RNG_025/026
+     * Expected Behavior: Touching counts as an intersection.
+     */
+    @Test
+    public void testFindIntersectingClosedIntervalEdges() {
+        IntervalIndex<String> single = new IntervalIndex<String>();
+        single.add(5.0, 10.0, "R");
+        assertEquals("Range(5,10) should intersect with Range(7,12)", 1, single.findIntersecting(7.0, 12.0).size());
+        assertEquals("Range(5,10) should intersect with Range(10,15)", 1, single.findIntersecting(10.0, 15.0).size());
+        assertEquals("Range(5,10) should intersect with Range(4.9999,5)", 1, single.findIntersecting(4.9999, 5.0).size());
+        assertEquals("Range(5,10) should NOT intersect with Range(1,4)", 0, single.findIntersecting(1.0, 4.0).size());
+    }
+
+    /**
+     * Test Case: Remove items, including an item that is not present.
+     * Test Strategy: State transition
+     * Expected Behavior: Removed items no longer appear in query results.
+     */
+    @Test
+    public void testRemove() {
+        assertTrue("A should be removed", index.remove(5.0, 10.0, "A"));
+        assertFalse("A should not be removed twice", index.remove(5.0, 10.0, "A"));
+        assertFalse("Bounds must match for removal", index.remove(0.0, 1.0, "D"));
+        assertEquals(3, index.size());
+        assertEquals(Arrays.asList("D"), index.findContaining(7.0));
+    }
+
+    /**
+     * Test Case: Bulk build from a collection of ranges.
+     * Test Strategy: ECP - Overlapping, disjoint and repeated ranges
+     * Expected Behavior: Each range is indexed by its own lower and upper bounds.
+     */
+    @Test
+    public void testBuildFromRanges() {
+        Range r1 = new Range(1.0, 5.0);
+        Range r2 = new Range(3.0, 8.0);
+        Range r3 = new Range(-4.0, -2.0);
+        IntervalIndex<Range> ranges = IntervalIndex.build(Arrays.asList(r1, r2, r3, r1));
+        assertEquals(4, ranges.size());
+        assertEquals(Arrays.asList(r1, r1, r2), ranges.findContaining(4.0));
+        assertEquals(Arrays.asList(r2), ranges.findContaining(8.0));
+        assertEquals(Arrays.asList(r3, r1, r1), ranges.findIntersecting(-2.0, 1.0));
+        assertTrue("r1 should be indexed as (1,5)", ranges.remove(1.0, 5.0, r1));
+    }
+
+    /**
+     * Test Case: Random intervals, insertions and removals.
+     * Test Strategy: Comparison with a linear scan
+     * Expected Behavior: Query results match a scan using closed-interval rules.
+     */
+    @Test(timeout = 10000)
+    public void testMatchesLinearScan() {
+        Random random = new Random(637L);
+        int n = 2000;
+        double[] lower = new double[n];
+        double[] upper = new double[n];
+        List<Integer> items = new ArrayList<Integer>();
+        for (int i = 0; i < n; i++) {
+            lower[i] = random.nextInt(1000);
+            upper[i] = lower[i] + random.nextInt(50);
+            items.add(i);
+        }
+        IntervalIndex<Integer> bulk = IntervalIndex.build(lower, upper, items);
+        IntervalIndex<Integer> incremental = new IntervalIndex<Integer>();
+        for (int i = 0; i < n; i++) {
+            incremental.add(lower[i], upper[i], i);
+        }
+        boolean[] removed = new boolean[n];
+        for (int i = 0; i < n; i += 3) {
+            assertTrue(bulk.remove(lower[i], upper[i], i));
+            assertTrue(incremental.remove(lower[i], upper[i], i));
+            removed[i] = true;
+        }
+        for (int q = 0; q < 500; q++) {
+            double b0 = random.nextInt(1100) - 50;
+            double b1 = b0 + random.nextInt(30);
+            List<Integer> expected = new ArrayList<Integer>();
+            for (int i = 0; i < n; i++) {
+                if (!removed[i] && b0 <= upper[i] && b1 >= lower[i]) {
+                    expected.add(i);
+                }
+            }
+            List<Integer> fromBulk = bulk.findIntersecting(b0, b1);
+            List<Integer> fromIncremental = incremental.findIntersecting(b0, b1);
+            Collections.sort(fromBulk);
+            Collections.sort(fromIncremental);
+            assertEquals("Bulk-built index should match a linear scan", expected, fromBulk);
+            assertEquals("Incrementally built index should match a linear scan", expected, fromIncremental);
+        }
+    }
+
+    /**
+     * Test Case: An interval with a NaN bound.
+     * Test Strategy: Invalid input (ECP)
+     * Expected Behavior: IllegalArgumentException.
+     */
+    @Test
+    public void testAddNaNRejected() {
+        try {
+            index.add(Double.NaN, 1.0, "X");
+            fail("Expected IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
+            // Expected behavior, test passes
+        }
+    }
+}
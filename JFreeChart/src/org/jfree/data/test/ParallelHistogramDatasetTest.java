@@ -0,0 +1,190 @@
+package org.jfree.data.test;
+
+import static org.junit.Assert.*;
+import org.jfree.data.UnknownKeyException;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeListener;
+import org.jfree.data.statistics.HistogramBinner;
+import org.jfree.data.statistics.HistogramCounts;
+import org.jfree.data.statistics.HistogramDataset;
+import org.jfree.data.statistics.HistogramType;
+import org.jfree.data.statistics.ParallelHistogramDataset;
+import org.junit.*;
+
+import java.util.Random;
+
+public class ParallelHistogramDatasetTest {
+
+    private static final HistogramType[] TYPES = {HistogramType.FREQUENCY,
+        HistogramType.RELATIVE_FREQUENCY, HistogramType.SCALE_AREA_TO_1};
+
+    private Random random;
+    private int events;
+
+    @Before
+    public void setUp() {
+        random = new Random(637L);
+        events = 0;
+    }
+
+    private double[] randomValues(int n) {
+        double[] result = new double[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = random.nextGaussian() * 10.0;
+        }
+        return result;
+    }
+
+    private void assertSame(Number expected, Number actual) {
+        assertEquals(Double.doubleToLongBits(expected.doubleValue()),
+                Double.doubleToLongBits(actual.doubleValue()));
+    }
+
+    private void assertSameItems(HistogramDataset expected,
+            ParallelHistogramDataset actual) {
+        assertEquals(expected.getSeriesCount(), actual.getSeriesCount());
+        for (int s = 0; s < expected.getSeriesCount(); s++) {
+            assertEquals(expected.getSeriesKey(s), actual.getSeriesKey(s));
+            assertEquals(expected.getItemCount(s), actual.getItemCount(s));
+            for (int i = 0; i < expected.getItemCount(s); i++) {
+                assertSame(expected.getX(s, i), actual.getX(s, i));
+                assertSame(expected.getY(s, i), actual.getY(s, i));
+                assertSame(expected.getStartX(s, i), actual.getStartX(s, i));
+                assertSame(expected.getEndX(s, i), actual.getEndX(s, i));
+                assertSame(expected.getStartY(s, i), actual.getStartY(s, i));
+                assertSame(expected.getEndY(s, i), actual.getEndY(s, i));
+            }
+        }
+    }
+
+    /**
+     * Test Case: Series of random values, including values outside the
+     *            bin range and NaN, for each histogram type.
+     * Test Strategy: Equivalence with HistogramDataset
+     * Expected: Identical x-values, y-values and bin boundaries.
+     */
+    @Test
+    public void testSameAsHistogramDataset() {
+        HistogramDataset expected = new HistogramDataset();
+        ParallelHistogramDataset actual = new ParallelHistogramDataset(
+                new HistogramBinner(4, 1000));
+        double[] values = randomValues(25000);
+        values[7] = Double.NaN;
+        values[8] = 1e6;
+        expected.addSeries("S1", values, 7);
+        actual.addSeries("S1", values, 7);
+        expected.addSeries("S2", values, 13, -5.0, 5.0);
+        actual.addSeries("S2", values, 13, -5.0, 5.0);
+        expected.addSeries("S3", new double[] {0.1, 0.2, 0.3}, 3, 0.0, 0.3);
+        actual.addSeries("S3", new double[] {0.1, 0.2, 0.3}, 3, 0.0, 0.3);
+        for (int t = 0; t < TYPES.length; t++) {
+            expected.setType(TYPES[t]);
+            actual.setType(TYPES[t]);
+            assertSameItems(expected, actual);
+        }
+    }
+
+    /**
+     * Test Case: A large array binned with several thread and split
+     *            threshold settings.
+     * Test Strategy: Equivalence with binning on the calling thread
+     * Expected: The same counts for every setting.
+     */
+    @Test
+    public void testParallelBinning() {
+        double[] values = randomValues(300001);
+        HistogramCounts serial = new HistogramBinner(1, 1000).createCounts(
+                values, 50, -20.0, 20.0);
+        int[] thresholds = {1, 777, 65536};
+        for (int i = 0; i < thresholds.length; i++) {
+            HistogramBinner binner = new HistogramBinner(3, thresholds[i]);
+            assertEquals(serial, binner.createCounts(values, 50, -20.0,
+                    20.0));
+            binner.shutdown();
+        }
+        assertEquals(300001, serial.getTotal());
+    }
+
+    /**
+     * Test Case: Values appended to a series in several arrays, and counts
+     *            built separately and merged.
+     * Test Strategy: Equivalence with binning all the values at once
+     * Expected: The same items, and one event per change.
+     */
+    @Test
+    public void testAppendAndMerge() {
+        ParallelHistogramDataset dataset = new ParallelHistogramDataset(
+                new HistogramBinner(2, 500));
+        dataset.addChangeListener(new DatasetChangeListener() {
+            public void datasetChanged(DatasetChangeEvent event) {
+                events++;
+            }
+        });
+        double[] all = randomValues(12000);
+        double[][] days = new double[3][4000];
+        for (int d = 0; d < 3; d++) {
+            System.arraycopy(all, d * 4000, days[d], 0, 4000);
+        }
+        dataset.addSeries("S", days[0], 20, -30.0, 30.0);
+        dataset.addValues("S", days[1]);
+        HistogramCounts shard = new HistogramCounts(20, -30.0, 30.0);
+        shard.add(days[2]);
+        dataset.merge("S", shard);
+        dataset.merge("T", shard);
+        assertEquals(4, events);
+        assertEquals(4000, shard.getTotal());
+        dataset.setType(HistogramType.SCALE_AREA_TO_1);
+        assertEquals(5, events);
+
+        HistogramDataset expected = new HistogramDataset();
+        expected.setType(HistogramType.SCALE_AREA_TO_1);
+        expected.addSeries("S", all, 20, -30.0, 30.0);
+        expected.addSeries("T", days[2], 20, -30.0, 30.0);
+        assertSameItems(expected, dataset);
+        assertEquals(12000, dataset.getHistogramCounts(0).getTotal());
+    }
+
+    /**
+     * Test Case: Cloned dataset.
+     * Test Strategy: Independence of the clone
+     * Expected: An equal clone that does not change with the original.
+     */
+    @Test
+    public void testClone() throws CloneNotSupportedException {
+        ParallelHistogramDataset dataset = new ParallelHistogramDataset();
+        dataset.addSeries("S", randomValues(100), 10);
+        ParallelHistogramDataset clone
+                = (ParallelHistogramDataset) dataset.clone();
+        assertEquals(dataset, clone);
+        dataset.addValues("S", new double[] {0.0});
+        assertFalse(dataset.equals(clone));
+        assertEquals(100, clone.getHistogramCounts(0).getTotal());
+    }
+
+    /**
+     * Test Case: Merging counts with different bins into a series.
+     * Test Strategy: Invalid input
+     * Expected: IllegalArgumentException.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeDifferentBins() {
+        ParallelHistogramDataset dataset = new ParallelHistogramDataset();
+        dataset.addSeries("S", new double[] {1.0, 2.0}, 4, 0.0, 4.0);
+        dataset.merge("S", new HistogramCounts(4, 0.0, 5.0));
+    }
+
+    /**
+     * Test Case: Values added to a series that does not exist.
+     * Test Strategy: Invalid input
+     * Expected: UnknownKeyException.
+     */
+    @Test(expected = UnknownKeyException.class)
+    public void testAddValuesUnknownKey() {
+        new ParallelHistogramDataset().addValues("S", new double[] {1.0});
+    }
+
+    @After
+    public void tearDown() {
+        random = null;
+    }
+}
@@ -0,0 +1,245 @@
+package org.jfree.data.test;
+
+import static org.junit.Assert.*;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeListener;
+import org.jfree.data.statistics.BoxAndWhiskerItem;
+import org.jfree.data.statistics.QuantileSketch;
+import org.jfree.data.statistics.SelectionBoxAndWhiskerCalculator;
+import org.jfree.data.statistics.SketchBoxAndWhiskerCategoryDataset;
+import org.junit.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class QuantileSketchTest {
+
+    private static final double[] PROBABILITIES = {0.01, 0.1, 0.25, 0.5,
+        0.75, 0.9, 0.99};
+
+    private Random random;
+    private int events;
+
+    @Before
+    public void setUp() {
+        random = new Random(637L);
+        events = 0;
+    }
+
+    private double[] randomValues(int n) {
+        double[] result = new double[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = Math.exp(random.nextGaussian());
+        }
+        return result;
+    }
+
+    private void assertRankError(double[] values, QuantileSketch sketch) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int n = sorted.length;
+        double bound = sketch.getNormalizedRankError();
+        for (int i = 0; i < PROBABILITIES.length; i++) {
+            double q = sketch.getQuantile(PROBABILITIES[i]);
+            int rank = Arrays.binarySearch(sorted, q);
+            assertTrue(rank >= 0);
+            double error = Math.abs(rank - PROBABILITIES[i] * (n - 1)) / n;
+            assertTrue(error <= bound);
+            assertEquals((rank + 1.0) / n, sketch.getRank(q), bound);
+        }
+    }
+
+    /**
+     * Test Case: A sketch holding fewer values than its capacity.
+     * Test Strategy: Equivalence with the exact calculator
+     * Expected: The same box-and-whisker item and quantiles.
+     */
+    @Test
+    public void testExactSketch() {
+        double[] values = randomValues(150);
+        values[3] = 40.0;
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(values);
+        sketch.add(Double.NaN);
+        assertTrue(sketch.isExact());
+        assertEquals(150, sketch.getCount());
+        assertEquals(SelectionBoxAndWhiskerCalculator
+                .calculateBoxAndWhiskerStatistics(values),
+                sketch.createBoxAndWhiskerItem());
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        assertEquals(sorted[0], sketch.getQuantile(0.0), 0.0);
+        assertEquals(sorted[149], sketch.getQuantile(1.0), 0.0);
+        assertEquals((sorted[74] + sorted[75]) / 2.0,
+                sketch.getQuantile(0.5), 1e-12);
+    }
+
+    /**
+     * Test Case: A stream much larger than the sketch, in random, ascending
+     *            and descending order.
+     * Test Strategy: Equivalence with exact ranks, within the error bound
+     * Expected: Rank errors within the bound, bounded memory, and an exact
+     *           count, mean, minimum and maximum.
+     */
+    @Test
+    public void testLargeStreams() {
+        double[] values = randomValues(200000);
+        for (int order = 0; order < 3; order++) {
+            if (order > 0) {
+                Arrays.sort(values);
+            }
+            QuantileSketch sketch = new QuantileSketch(200,
+                    new Random(order));
+            for (int i = 0; i < values.length; i++) {
+                sketch.add(order == 2 ? values[values.length - 1 - i]
+                        : values[i]);
+            }
+            assertFalse(sketch.isExact());
+            assertTrue(sketch.getRetainedCount() < 800);
+            assertEquals(200000, sketch.getCount());
+            double sum = 0.0;
+            double min = Double.POSITIVE_INFINITY;
+            double max = 0.0;
+            for (int i = 0; i < values.length; i++) {
+                sum += values[i];
+                min = Math.min(min, values[i]);
+                max = Math.max(max, values[i]);
+            }
+            assertEquals(sum / values.length, sketch.getMean(), 1e-9);
+            assertEquals(min, sketch.getMinimum(), 0.0);
+            assertEquals(max, sketch.getMaximum(), 0.0);
+            assertRankError(values, sketch);
+        }
+    }
+
+    /**
+     * Test Case: Shards of a stream summarised separately and merged.
+     * Test Strategy: Equivalence with exact ranks, within the error bound
+     * Expected: Rank errors within the bound, and the shards unchanged.
+     */
+    @Test
+    public void testMerge() {
+        double[] values = randomValues(100000);
+        QuantileSketch merged = new QuantileSketch(100, new Random(1L));
+        for (int shard = 0; shard < 8; shard++) {
+            QuantileSketch sketch = new QuantileSketch(100,
+                    new Random(shard + 2L));
+            for (int i = shard; i < values.length; i += 8) {
+                sketch.add(values[i]);
+            }
+            long count = sketch.getCount();
+            merged.merge(sketch);
+            assertEquals(count, sketch.getCount());
+        }
+        assertEquals(100000, merged.getCount());
+        assertRankError(values, merged);
+        merged.merge(merged);
+        assertEquals(200000, merged.getCount());
+    }
+
+    /**
+     * Test Case: Box-and-whisker item of a large stream with outliers.
+     * Test Strategy: Comparison with the exact item
+     * Expected: Approximate quartiles, exact mean and extreme outliers.
+     */
+    @Test
+    public void testApproximateItem() {
+        double[] values = randomValues(50000);
+        values[100] = -50.0;
+        values[200] = 500.0;
+        QuantileSketch sketch = new QuantileSketch(200, new Random(3L));
+        sketch.add(values);
+        BoxAndWhiskerItem exact = SelectionBoxAndWhiskerCalculator
+                .calculateBoxAndWhiskerStatistics(values);
+        BoxAndWhiskerItem item = sketch.createBoxAndWhiskerItem();
+        assertEquals(exact.getMean().doubleValue(),
+                item.getMean().doubleValue(), 1e-9);
+        double iqr = exact.getQ3().doubleValue()
+                - exact.getQ1().doubleValue();
+        assertEquals(exact.getMedian().doubleValue(),
+                item.getMedian().doubleValue(), 0.1 * iqr);
+        assertEquals(exact.getQ1().doubleValue(),
+                item.getQ1().doubleValue(), 0.1 * iqr);
+        assertEquals(exact.getQ3().doubleValue(),
+                item.getQ3().doubleValue(), 0.1 * iqr);
+        assertTrue(item.getOutliers().size() < sketch.getRetainedCount());
+        assertEquals(Double.valueOf(-50.0), item.getOutliers().get(0));
+        assertEquals(Double.valueOf(500.0), item.getOutliers().get(
+                item.getOutliers().size() - 1));
+    }
+
+    /**
+     * Test Case: Samples and sketches added to a dataset.
+     * Test Strategy: Equivalence with the sketches of each cell
+     * Expected: Items created on demand, one event per change, and the
+     *           range bounds of the items.
+     */
+    @Test
+    public void testDataset() {
+        SketchBoxAndWhiskerCategoryDataset dataset
+                = new SketchBoxAndWhiskerCategoryDataset();
+        dataset.addChangeListener(new DatasetChangeListener() {
+            public void datasetChanged(DatasetChangeEvent event) {
+                events++;
+            }
+        });
+        assertTrue(Double.isNaN(dataset.getRangeLowerBound(false)));
+        double[] values = randomValues(20000);
+        dataset.add(values, "R1", "C1");
+        dataset.add(0.5, "R1", "C2");
+        QuantileSketch shard = new QuantileSketch();
+        shard.add(values);
+        dataset.merge(shard, "R2", "C1");
+        assertEquals(3, events);
+        assertEquals(2, dataset.getRowCount());
+        assertEquals(2, dataset.getColumnCount());
+        assertEquals(shard.createBoxAndWhiskerItem().getMean(),
+                dataset.getMeanValue("R2", "C1"));
+        assertEquals(dataset.getMedianValue(0, 0), dataset.getValue(0, 0));
+        assertEquals(0.5, dataset.getQ1Value("R1", "C2").doubleValue(), 0.0);
+        assertNull(dataset.getItem(1, 1));
+        assertNull(dataset.getOutliers(1, 1));
+        dataset.add(1e6, "R1", "C1");
+        assertTrue(dataset.getOutliers(0, 0).contains(Double.valueOf(1e6)));
+        double lower = Math.min(dataset.getMinOutlier(0, 0).doubleValue(),
+                dataset.getMinOutlier(1, 0).doubleValue());
+        assertEquals(lower, dataset.getRangeLowerBound(false), 0.0);
+        assertEquals(20001, dataset.getSketch(0, 0).getCount());
+        dataset.removeColumn("C1");
+        assertEquals(0.5, dataset.getRangeUpperBound(false), 0.0);
+        assertEquals(5, events);
+    }
+
+    /**
+     * Test Case: Cloned dataset.
+     * Test Strategy: Independence of the clone
+     * Expected: An equal clone that does not change with the original.
+     */
+    @Test
+    public void testDatasetClone() throws CloneNotSupportedException {
+        SketchBoxAndWhiskerCategoryDataset dataset
+                = new SketchBoxAndWhiskerCategoryDataset(50);
+        dataset.add(randomValues(1000), "R", "C");
+        SketchBoxAndWhiskerCategoryDataset clone
+                = (SketchBoxAndWhiskerCategoryDataset) dataset.clone();
+        assertEquals(dataset, clone);
+        dataset.add(1.0, "R", "C");
+        assertFalse(dataset.equals(clone));
+        assertEquals(1000, clone.getSketch(0, 0).getCount());
+    }
+
+    /**
+     * Test Case: Merging sketches with different values of k.
+     * Test Strategy: Invalid input
+     * Expected: IllegalArgumentException.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeDifferentK() {
+        new QuantileSketch(100).merge(new QuantileSketch(200));
+    }
+
+    @After
+    public void tearDown() {
+        random = null;
+    }
+}
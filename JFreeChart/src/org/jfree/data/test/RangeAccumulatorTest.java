@@ -0,0 +1,169 @@
+package org.jfree.data.test;
+
+import static org.junit.Assert.*;
+import org.jfree.data.Range;
+import org.jfree.data.RangeAccumulator;
+import org.jfree.data.RangeBatch;
+import org.jfree.data.general.DatasetUtilities;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.junit.*;
+
+public class RangeAccumulatorTest {
+
+    private RangeAccumulator accumulator;
+
+    @Before
+    public void setUp() {
+        accumulator = new RangeAccumulator();
+    }
+
+    /**
+     * Test Case: Nothing has been included.
+     * Test Strategy: ECP - Null case, as Range.combine(null, null)
+     * Expected Behavior: toRange() should return null.
+     */
+    @Test
+    public void testEmptyAccumulatorReturnsNull() {
+        assertTrue("A new accumulator should be empty", accumulator.isEmpty());
+        assertNull("An empty accumulator should return a null range", accumulator.toRange());
+    }
+
+    /**
+     * Test Case: Values inside, below and above the current bounds.
+     * Test Strategy: ECP - Same cases as the expandToInclude() tests
+     * Expected Behavior: The bounds grow only when a value lies outside them.
+     */
+    @Test
+    public void testIncludeValues() {
+        accumulator.include(5.0);
+        accumulator.include(10.0);
+        accumulator.include(7.0);
+        assertEquals("Range should be (5,10)", new Range(5.0, 10.0), accumulator.toRange());
+        accumulator.include(12.0);
+        accumulator.include(-1e12);
+        assertEquals("Range should be (-1e12,12)", new Range(-1e12, 12.0), accumulator.toRange());
+    }
+
+    /**
+     * Test Case: NaN and infinite values.
+     * Test Strategy: BVA - Special values, as handled by Range.expandToInclude()
+     * Expected Behavior: NaN is ignored after the first value, infinities extend the bounds.
+     */
+    @Test
+    public void testIncludeSpecialValues() {
+        accumulator.include(5.0);
+        accumulator.include(Double.NaN);
+        assertEquals("NaN should not change the bounds", new Range(5.0, 5.0), accumulator.toRange());
+        accumulator.include(Double.POSITIVE_INFINITY);
+        accumulator.include(Double.NEGATIVE_INFINITY);
+        assertEquals("Infinite values should extend the bounds",
+                Double.NEGATIVE_INFINITY, accumulator.getLowerBound(), 0.0);
+        assertEquals("Infinite values should extend the bounds",
+                Double.POSITIVE_INFINITY, accumulator.getUpperBound(), 0.0);
+    }
+
+    /**
+     * Test Case: NaN as the first value.
+     * Test Strategy: BVA - Special values, as Range.expandToInclude(null, NaN)
+     * Expected Behavior: The bounds stay NaN.
+     */
+    @Test
+    public void testIncludeNaNFirstValue() {
+        accumulator.include(Double.NaN);
+        accumulator.include(3.0);
+        assertTrue("Lower bound should stay NaN", Double.isNaN(accumulator.getLowerBound()));
+        assertTrue("Upper bound should stay NaN", Double.isNaN(accumulator.getUpperBound()));
+    }
+
+    /**
+     * Test Case: A primitive array and a sub-range of an array.
+     * Test Strategy: ECP - Normal case
+     * Expected Behavior: Only the selected values are included.
+     */
+    @Test
+    public void testIncludeArray() {
+        double[] values = {100.0, 4.0, -2.0, 9.0, -100.0};
+        accumulator.include(values, 1, 4);
+        assertEquals("Range should be (-2,9)", new Range(-2.0, 9.0), accumulator.toRange());
+        accumulator.include(values);
+        assertEquals("Range should be (-100,100)", new Range(-100.0, 100.0), accumulator.toRange());
+    }
+
+    /**
+     * Test Case: Combine intervals, including touching and nested ones.
+     * Test Strategy: ECP - Same cases as the combine() tests
+     * Expected Behavior: The result spans every interval.
+     */
+    @Test
+    public void testIncludeIntervals() {
+        accumulator.include(1.0, 5.0);
+        accumulator.include(5.0, 10.0);
+        accumulator.include(3.0, 7.0);
+        assertEquals("Touching ranges should merge into (1,10).", new Range(1, 10), accumulator.toRange());
+        accumulator.include(new RangeBatch(new double[] {Integer.MIN_VALUE}, new double[] {-1}));
+        assertEquals("Lower boundary values should merge into (Integer.MIN_VALUE, 10).",
+                new Range(Integer.MIN_VALUE, 10), accumulator.toRange());
+    }
+
+    /**
+     * Test Case: Include Range objects with lower < upper.
+     * Test Strategy: ECP - Disjoint positive and negative ranges
+     * Expected Behavior: The result spans both ranges, upper bounds included.
+     */
+    @Test
+    public void testIncludeRangesWithDistinctBounds() {
+        accumulator.include(new Range(2.0, 8.0));
+        assertEquals("Upper bound should be 8", 8.0, accumulator.getUpperBound(), 0.0d);
+        accumulator.include(new Range(-10.0, -5.0));
+        accumulator.include(new Range(0.1, 0.7));
+        assertEquals("Lower bound should be -10", -10.0, accumulator.getLowerBound(), 0.0d);
+        assertEquals("Upper bound should still be 8", 8.0, accumulator.getUpperBound(), 0.0d);
+    }
+
+    /**
+     * Test Case: A null range.
+     * Test Strategy: ECP - Null handling
+     * Expected Behavior: The accumulator is unchanged.
+     */
+    @Test
+    public void testIncludeNullRangeIgnored() {
+        accumulator.include((Range) null);
+        assertTrue("Including null should leave the accumulator empty", accumulator.isEmpty());
+    }
+
+    /**
+     * Test Case: Reuse after reset().
+     * Test Strategy: State transition
+     * Expected Behavior: Previous bounds are forgotten.
+     */
+    @Test
+    public void testReset() {
+        accumulator.include(1.0);
+        accumulator.include(2.0);
+        accumulator.reset();
+        assertTrue("A reset accumulator should be empty", accumulator.isEmpty());
+        accumulator.include(8.0);
+        assertEquals("Range should be (8,8)", new Range(8.0, 8.0), accumulator.toRange());
+    }
+
+    /**
+     * Test Case: Bounds in the range type used by the dataset APIs.
+     * Test Strategy: Normal case, compared with DatasetUtilities
+     * Expected Behavior: Same bounds as findRangeBounds, with no conversion.
+     */
+    @Test
+    public void testOriginalRangeMatchesDatasetUtilities() {
+        XYSeries series = new XYSeries("S1");
+        series.add(-2.0, 1.0);
+        series.add(5.0, 3.0);
+        XYSeriesCollection dataset = new XYSeriesCollection(series);
+        accumulator.include(DatasetUtilities.findRangeBounds(dataset));
+        accumulator.include(7.5);
+        original.Range result = accumulator.toOriginalRange();
+        assertEquals(1.0, result.getLowerBound(), 0.0);
+        assertEquals(7.5, result.getUpperBound(), 0.0);
+        accumulator.reset();
+        assertNull(accumulator.toOriginalRange());
+    }
+}
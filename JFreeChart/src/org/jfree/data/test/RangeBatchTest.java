@@ -0,0 +1,182 @@
+package org.jfree.data.test;
+
+import static org.junit.Assert.*;
+import org.jfree.data.Range;
+import org.jfree.data.RangeBatch;
+import org.junit.*;
+
+import java.util.Arrays;
+
+public class RangeBatchTest {
+
+    private RangeBatch batch;
+
+    @Before
+    public void setUp() {
+        // Ranges (2,8), (5,10), (-10,-5) and the single point (3,3)
+        batch = new RangeBatch(new double[] {2.0, 5.0, -10.0, 3.0},
+                new double[] {8.0, 10.0, -5.0, 3.0});
+    }
+
+    /**
+     * Test Case: Constrain values inside, on and outside the range (2,8).
+     * Test Strategy: BVA - Same values as the RangeTest constrain() cases
+     * Expected Behavior: Each result matches the scalar constrain() contract.
+     */
+    @Test
+    public void testConstrainIntoMatchesScalarContract() {
+        double[] values = {5, 2, 8, 0, -5, 10, 100, 1.9999, 8.0001, 1, 9};
+        double[] expected = {5, 2, 8, 2, 2, 8, 8, 2, 8, 2, 8};
+        double[] lower = new double[values.length];
+        double[] upper = new double[values.length];
+        Arrays.fill(lower, 2.0);
+        Arrays.fill(upper, 8.0);
+        RangeBatch sameRange = new RangeBatch(lower, upper);
+        double[] result = new double[values.length];
+        sameRange.constrainInto(values, result);
+        assertArrayEquals("Constrained values should match Range(2,8).constrain().",
+                expected, result, 0.000000001d);
+    }
+
+    /**
+     * Test Case: Constrain one value against every range in the batch.
+     * Test Strategy: ECP - Below, inside and above different ranges
+     * Expected Behavior: The nearest bound is returned for values outside a range.
+     */
+    @Test
+    public void testConstrainIntoSingleValue() {
+        double[] result = new double[4];
+        batch.constrainInto(4.0, result);
+        assertArrayEquals("4.0 constrained to each range",
+                new double[] {4.0, 5.0, -5.0, 3.0}, result, 0.000000001d);
+    }
+
+    /**
+     * Test Case: Contains with values at, inside and outside the bounds.
+     * Test Strategy: BVA - Closed interval bounds and NaN
+     * Expected Behavior: Bounds are included and NaN is never contained.
+     */
+    @Test
+    public void testContainsAllPerItemValues() {
+        boolean[] result = new boolean[4];
+        int count = batch.containsAll(new double[] {2.0, 10.0, -11.0, Double.NaN}, result);
+        assertTrue("Range(2,8) should contain its lower bound 2.0", result[0]);
+        assertTrue("Range(5,10) should contain its upper bound 10.0", result[1]);
+        assertFalse("Range(-10,-5) should not contain -11.0", result[2]);
+        assertFalse("Range(3,3) should not contain NaN", result[3]);
+        assertEquals("Two ranges should contain their value", 2, count);
+    }
+
+    /**
+     * Test Case: One value tested against every range.
+     * Test Strategy: ECP - Single-point range containing its own value
+     * Expected Behavior: Only ranges that include 3.0 report true.
+     */
+    @Test
+    public void testContainsAllSingleValue() {
+        boolean[] result = new boolean[4];
+        int count = batch.containsAll(3.0, result);
+        assertTrue("Range(2,8) should contain 3.0", result[0]);
+        assertFalse("Range(5,10) should not contain 3.0", result[1]);
+        assertFalse("Range(-10,-5) should not contain 3.0", result[2]);
+        assertTrue("Single-point range (3,3) should contain 3.0", result[3]);
+        assertEquals("Two ranges should contain 3.0", 2, count);
+    }
+
+    /**
+     * Test Case: Intersection with touching, overlapping and disjoint intervals.
+     * Test Strategy: BVA - Closed-interval edge cases from RangeTest_TC_RNG_025/026
+     * Expected Behavior: Touching at either bound counts as an intersection.
+     */
+    @Test
+    public void testIntersectsAllClosedIntervalEdges() {
+        RangeBatch single = new RangeBatch(new double[] {5.0}, new double[] {10.0});
+        boolean[] result = new boolean[1];
+        single.intersectsAll(7.0, 12.0, result);
+        assertTrue("Range(5,10) should intersect with Range(7,12)", result[0]);
+        single.intersectsAll(10.0, 15.0, result);
+        assertTrue("Range(5,10) should intersect with Range(10,15)", result[0]);
+        single.intersectsAll(4.9999, 5.0, result);
+        assertTrue("Range(5,10) should intersect with Range(4.9999,5)", result[0]);
+        single.intersectsAll(1.0, 4.0, result);
+        assertFalse("Range(5,10) should NOT intersect with Range(1,4)", result[0]);
+        single.intersectsAll(Double.MIN_VALUE, Double.MAX_VALUE, result);
+        assertTrue("Range(5,10) should intersect with a very large range", result[0]);
+    }
+
+    /**
+     * Test Case: Combine every range in the batch.
+     * Test Strategy: ECP - Non-overlapping and nested ranges
+     * Expected Behavior: The result spans the smallest lower and largest upper bound.
+     */
+    @Test
+    public void testCombineAll() {
+        assertEquals("Combined batch should be (-10,10).", new Range(-10, 10), batch.combineAll());
+    }
+
+    /**
+     * Test Case: Combine an empty batch.
+     * Test Strategy: ECP - Null case, as Range.combine(null, null)
+     * Expected Behavior: The method should return null.
+     */
+    @Test
+    public void testCombineAllEmptyReturnsNull() {
+        RangeBatch empty = new RangeBatch(new double[0], new double[0]);
+        assertNull("Combining an empty batch should return null.", empty.combineAll());
+    }
+
+    /**
+     * Test Case: Lower bound greater than upper bound.
+     * Test Strategy: Invalid input (ECP)
+     * Expected Behavior: IllegalArgumentException, as for the Range constructor.
+     */
+    @Test
+    public void testInvalidBoundsRejected() {
+        try {
+            new RangeBatch(new double[] {1.0, 5.0}, new double[] {2.0, 4.0});
+            fail("Expected IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
+            // Expected behavior, test passes
+        }
+    }
+
+    /**
+     * Test Case: Result array shorter than the batch.
+     * Test Strategy: Invalid input (ECP)
+     * Expected Behavior: IllegalArgumentException.
+     */
+    @Test
+    public void testShortResultArrayRejected() {
+        try {
+            batch.containsAll(1.0, new boolean[2]);
+            fail("Expected IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
+            // Expected behavior, test passes
+        }
+    }
+
+    /**
+     * Test Case: Build a batch from Range objects with lower < upper.
+     * Test Strategy: ECP - Positive, negative, fractional and point ranges
+     * Expected Behavior: Each item keeps both of its bounds.
+     */
+    @Test
+    public void testBuildFromRangesKeepsUpperBounds() {
+        RangeBatch fromRanges = new RangeBatch(new Range[] {
+                new Range(2, 8), new Range(-10, -5), new Range(0.1, 0.7),
+                new Range(3, 3)});
+        assertEquals("Item count", 4, fromRanges.getItemCount());
+        assertArrayEquals("Lower bounds", new double[] {2, -10, 0.1, 3},
+                new double[] {fromRanges.getLowerBound(0),
+                fromRanges.getLowerBound(1), fromRanges.getLowerBound(2),
+                fromRanges.getLowerBound(3)}, 0.0d);
+        assertArrayEquals("Upper bounds", new double[] {8, -5, 0.7, 3},
+                new double[] {fromRanges.getUpperBound(0),
+                fromRanges.getUpperBound(1), fromRanges.getUpperBound(2),
+                fromRanges.getUpperBound(3)}, 0.0d);
+        boolean[] result = new boolean[4];
+        assertEquals("Ranges containing 7.0", 1,
+                fromRanges.containsAll(7.0, result));
+        assertTrue("(2,8) should contain 7.0", result[0]);
+    }
+}
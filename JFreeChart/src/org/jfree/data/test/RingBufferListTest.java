@@ -0,0 +1,134 @@
+package org.jfree.data.test;
+
+import static org.junit.Assert.*;
+import org.jfree.data.RingBufferList;
+import org.jfree.data.time.Day;
+import org.jfree.data.time.RegularTimePeriod;
+import org.jfree.data.time.RingTimeSeries;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.xy.RingXYSeries;
+import org.jfree.data.xy.XYSeries;
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class RingBufferListTest {
+
+    private RingBufferList list;
+
+    @Before
+    public void setUp() {
+        list = new RingBufferList();
+    }
+
+    /**
+     * Test Case: Random adds, inserts and removes.
+     * Test Strategy: Equivalence with ArrayList
+     * Expected: The same contents after every operation.
+     */
+    @Test
+    public void testSameAsArrayList() {
+        List expected = new ArrayList();
+        Random random = new Random(637L);
+        for (int step = 0; step < 5000; step++) {
+            int op = random.nextInt(6);
+            Integer value = Integer.valueOf(step);
+            if (op == 0 || expected.isEmpty()) {
+                expected.add(value);
+                list.add(value);
+            }
+            else if (op == 1) {
+                int index = random.nextInt(expected.size() + 1);
+                expected.add(index, value);
+                list.add(index, value);
+            }
+            else if (op == 2) {
+                assertEquals(expected.remove(0), list.remove(0));
+            }
+            else if (op == 3) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), list.remove(index));
+            }
+            else if (op == 4) {
+                int to = random.nextInt(expected.size() + 1);
+                int from = random.nextInt(to + 1);
+                expected.subList(from, to).clear();
+                list.subList(from, to).clear();
+            }
+            else {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.set(index, value),
+                        list.set(index, value));
+            }
+            assertEquals(expected, list);
+        }
+    }
+
+    /**
+     * Test Case: get with an index equal to the size.
+     * Test Strategy: BVA (upper bound)
+     * Expected: IndexOutOfBoundsException.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfBounds() {
+        list.add("A");
+        list.get(1);
+    }
+
+    /**
+     * Test Case: Rolling window on RingXYSeries.
+     * Test Strategy: Equivalence with XYSeries
+     * Expected: The same window of items.
+     */
+    @Test
+    public void testRingXYSeries() throws CloneNotSupportedException {
+        XYSeries ring = new RingXYSeries("S");
+        XYSeries reference = new XYSeries("S");
+        ring.setMaximumItemCount(100);
+        reference.setMaximumItemCount(100);
+        for (int i = 0; i < 1000; i++) {
+            ring.add(i, i * 0.5);
+            reference.add(i, i * 0.5);
+        }
+        ring.add(950.5, 1.0);
+        reference.add(950.5, 1.0);
+        assertEquals(reference.getItems(), ring.getItems());
+        assertEquals(901.0, ring.getX(0).doubleValue(), 0.0);
+        assertEquals(reference.indexOf(Double.valueOf(950.5)),
+                ring.indexOf(Double.valueOf(950.5)));
+        XYSeries copy = (XYSeries) ring.clone();
+        assertTrue(copy instanceof RingXYSeries);
+        assertEquals(ring.getItems(), copy.getItems());
+    }
+
+    /**
+     * Test Case: Rolling window on RingTimeSeries, by count and by age.
+     * Test Strategy: Equivalence with TimeSeries
+     * Expected: The same window of items.
+     */
+    @Test
+    public void testRingTimeSeries() {
+        TimeSeries ring = new RingTimeSeries("T", Day.class);
+        TimeSeries reference = new TimeSeries("T", Day.class);
+        ring.setMaximumItemAge(30);
+        reference.setMaximumItemAge(30);
+        RegularTimePeriod day = new Day(1, 1, 2020);
+        for (int i = 0; i < 200; i++) {
+            ring.add(day, i);
+            reference.add(day, i);
+            day = day.next();
+        }
+        assertEquals(reference.getItems(), ring.getItems());
+        ring.setMaximumItemCount(10);
+        reference.setMaximumItemCount(10);
+        assertEquals(reference.getItems(), ring.getItems());
+        assertEquals(190.0, ring.getValue(0).doubleValue(), 0.0);
+    }
+
+    @After
+    public void tearDown() {
+        list = null;
+    }
+}
@@ -0,0 +1,268 @@
+package org.jfree.data.test;
+
+import static org.junit.Assert.*;
+import org.jfree.data.time.ExponentialMovingAverage;
+import org.jfree.data.time.Minute;
+import org.jfree.data.time.RegularTimePeriod;
+import org.jfree.data.time.RollingExtremum;
+import org.jfree.data.time.RollingMean;
+import org.jfree.data.time.RollingStandardDeviation;
+import org.jfree.data.time.RollingStatistic;
+import org.jfree.data.time.RollingStatisticOperator;
+import org.jfree.data.time.RollingStatistics;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.time.TimeSeriesCollection;
+import org.jfree.data.time.WeightedMovingAverage;
+import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class RollingStatisticsTest {
+
+    private static final int MEAN = 0;
+    private static final int WEIGHTED = 1;
+    private static final int MINIMUM = 2;
+    private static final int MAXIMUM = 3;
+    private static final int STD_DEV = 4;
+
+    private TimeSeries source;
+    private Random random;
+
+    @Before
+    public void setUp() {
+        source = new TimeSeries("S", Minute.class);
+        random = new Random(637L);
+        RegularTimePeriod minute = new Minute(0, 0, 1, 1, 2022);
+        for (int i = 0; i < 400; i++) {
+            source.add(minute, random.nextInt(15) == 0 ? null
+                    : Double.valueOf(1e6 + random.nextGaussian()));
+            minute = minute.next();
+            while (random.nextInt(4) == 0) {
+                minute = minute.next();
+            }
+        }
+    }
+
+    private RollingStatistic create(int kind) {
+        switch (kind) {
+            case MEAN: return new RollingMean();
+            case WEIGHTED: return new WeightedMovingAverage();
+            case MINIMUM: return new RollingExtremum(false);
+            case MAXIMUM: return new RollingExtremum(true);
+            default: return new RollingStandardDeviation();
+        }
+    }
+
+    private Double naive(int kind, List values) {
+        int n = values.size();
+        if (n == 0 || (kind == STD_DEV && n < 2)) {
+            return null;
+        }
+        double sum = 0.0;
+        double weighted = 0.0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            double v = ((Number) values.get(i)).doubleValue();
+            sum += v;
+            weighted += (i + 1) * v;
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+        switch (kind) {
+            case MEAN: return Double.valueOf(sum / n);
+            case WEIGHTED:
+                return Double.valueOf(weighted / (n * (n + 1) / 2.0));
+            case MINIMUM: return Double.valueOf(min);
+            case MAXIMUM: return Double.valueOf(max);
+            default:
+                double mean = sum / n;
+                double squares = 0.0;
+                for (int i = 0; i < n; i++) {
+                    double d = ((Number) values.get(i)).doubleValue() - mean;
+                    squares += d * d;
+                }
+                return Double.valueOf(Math.sqrt(squares / (n - 1)));
+        }
+    }
+
+    private Double naiveAt(int kind, int index, int periodCount) {
+        List values = new ArrayList();
+        long serial = source.getTimePeriod(index).getSerialIndex();
+        for (int j = index; j >= 0 && j > index - periodCount; j--) {
+            if (source.getTimePeriod(j).getSerialIndex()
+                    <= serial - periodCount) {
+                break;
+            }
+            if (source.getValue(j) != null) {
+                values.add(0, source.getValue(j));
+            }
+        }
+        return naive(kind, values);
+    }
+
+    private void assertClose(Number expected, Number actual) {
+        if (expected == null) {
+            assertNull(actual);
+        }
+        else {
+            assertEquals(expected.doubleValue(), actual.doubleValue(), 1e-6);
+        }
+    }
+
+    /**
+     * Test Case: Each windowed statistic over a series with gaps and nulls.
+     * Test Strategy: Equivalence with a naive calculation of each window
+     * Expected: The same results for every item after the skip.
+     */
+    @Test
+    public void testWindowedStatistics() {
+        int[] counts = {1, 3, 30};
+        for (int kind = MEAN; kind <= STD_DEV; kind++) {
+            for (int c = 0; c < counts.length; c++) {
+                TimeSeries result = RollingStatistics.createRollingStatistic(
+                        source, "R", counts[c], 2, create(kind));
+                int offset = source.getItemCount() - result.getItemCount();
+                assertEquals(source.getTimePeriod(offset),
+                        result.getTimePeriod(0));
+                for (int i = 0; i < result.getItemCount(); i++) {
+                    assertClose(naiveAt(kind, i + offset, counts[c]),
+                            result.getValue(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Test Case: Exponential moving average with alpha 2 / (n + 1).
+     * Test Strategy: Equivalence with the recurrence
+     * Expected: The recurrence, skipping nulls, seeded by the first value.
+     */
+    @Test
+    public void testExponentialMovingAverage() {
+        ExponentialMovingAverage ema = ExponentialMovingAverage
+                .forPeriodCount(9);
+        assertEquals(0.2, ema.getAlpha(), 1e-15);
+        TimeSeries result = RollingStatistics.createRollingStatistic(source,
+                "E", 5, 0, ema);
+        Double expected = null;
+        for (int i = 0; i < source.getItemCount(); i++) {
+            Number v = source.getValue(i);
+            if (v != null) {
+                expected = expected == null ? Double.valueOf(v.doubleValue())
+                        : Double.valueOf(expected.doubleValue() + 0.2
+                        * (v.doubleValue() - expected.doubleValue()));
+            }
+            assertClose(expected, result.getValue(i));
+        }
+        assertNull(ema.getValue());
+    }
+
+    /**
+     * Test Case: Statistics of two series in a collection, and of an
+     *            XY dataset.
+     * Test Strategy: Equivalence with the single-series methods
+     * Expected: A copy of the statistic for each series.
+     */
+    @Test
+    public void testCollections() {
+        TimeSeries other = new TimeSeries("T", Minute.class);
+        other.add(new Minute(0, 0, 1, 1, 2022), 5.0);
+        TimeSeriesCollection collection = new TimeSeriesCollection(source);
+        collection.addSeries(other);
+        TimeSeriesCollection result = RollingStatistics
+                .createRollingStatistic(collection, " max", 10, 0,
+                new RollingExtremum(true));
+        assertEquals("S max", result.getSeries(0).getKey());
+        assertEquals(5.0, result.getSeries(1).getValue(0).doubleValue(), 0.0);
+        XYSeries xy = new XYSeries("X");
+        for (int i = 0; i < 100; i++) {
+            xy.add(i * 0.5, random.nextGaussian());
+        }
+        XYDataset xyResult = RollingStatistics.createRollingStatistic(
+                new XYSeriesCollection(xy), "", 5.0, 0.0,
+                new RollingStandardDeviation());
+        assertEquals(100, xyResult.getItemCount(0));
+        List window = new ArrayList();
+        for (int i = 90; i < 100; i++) {
+            window.add(xy.getY(i));
+        }
+        assertClose(naive(STD_DEV, window), xyResult.getY(0, 99));
+    }
+
+    /**
+     * Test Case: Items appended to the source one at a time.
+     * Test Strategy: Equivalence with the batch calculation
+     * Expected: The same series for every statistic.
+     */
+    @Test
+    public void testOperators() {
+        TimeSeries live = new TimeSeries("L", Minute.class);
+        RollingStatisticOperator[] operators
+                = new RollingStatisticOperator[STD_DEV + 2];
+        for (int kind = MEAN; kind <= STD_DEV; kind++) {
+            operators[kind] = new RollingStatisticOperator(live, "R", 20, 1,
+                    create(kind));
+        }
+        operators[STD_DEV + 1] = new RollingStatisticOperator(live, "E", 20,
+                1, new ExponentialMovingAverage(0.3));
+        for (int i = 0; i < source.getItemCount(); i++) {
+            live.add(source.getTimePeriod(i), source.getValue(i));
+        }
+        for (int k = 0; k < operators.length; k++) {
+            RollingStatistic statistic = k <= STD_DEV ? create(k)
+                    : new ExponentialMovingAverage(0.3);
+            TimeSeries expected = RollingStatistics.createRollingStatistic(
+                    source, "R", 20, 1, statistic);
+            TimeSeries actual = operators[k].getTarget();
+            assertEquals(expected.getItemCount(), actual.getItemCount());
+            for (int i = 0; i < expected.getItemCount(); i++) {
+                assertClose(expected.getValue(i), actual.getValue(i));
+            }
+        }
+    }
+
+    /**
+     * Test Case: NaN leaving a rolling maximum window.
+     * Test Strategy: Special values
+     * Expected: NaN while it is in the window, the maximum afterwards.
+     */
+    @Test
+    public void testExtremumWithNaN() {
+        TimeSeries s = new TimeSeries("N", Minute.class);
+        RegularTimePeriod minute = new Minute(0, 0, 1, 1, 2022);
+        double[] values = {3.0, Double.NaN, 1.0, 2.0, 0.5};
+        for (int i = 0; i < values.length; i++) {
+            s.add(minute, values[i]);
+            minute = minute.next();
+        }
+        TimeSeries max = RollingStatistics.createRollingStatistic(s, "M", 2,
+                0, new RollingExtremum(true));
+        assertEquals(3.0, max.getValue(0).doubleValue(), 0.0);
+        assertTrue(Double.isNaN(max.getValue(1).doubleValue()));
+        assertTrue(Double.isNaN(max.getValue(2).doubleValue()));
+        assertEquals(2.0, max.getValue(3).doubleValue(), 0.0);
+        assertEquals(2.0, max.getValue(4).doubleValue(), 0.0);
+    }
+
+    /**
+     * Test Case: Null statistic.
+     * Test Strategy: Invalid input
+     * Expected: IllegalArgumentException.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullStatistic() {
+        RollingStatistics.createRollingStatistic(source, "R", 5, 0, null);
+    }
+
+    @After
+    public void tearDown() {
+        source = null;
+        random = null;
+    }
+}
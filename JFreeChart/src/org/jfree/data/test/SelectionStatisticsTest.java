@@ -0,0 +1,213 @@
+package org.jfree.data.test;
+
+import static org.junit.Assert.*;
+import org.jfree.data.statistics.BoxAndWhiskerCalculator;
+import org.jfree.data.statistics.BoxAndWhiskerItem;
+import org.jfree.data.statistics.SelectionBoxAndWhiskerCalculator;
+import org.jfree.data.statistics.SelectionStatistics;
+import org.jfree.data.statistics.Statistics;
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class SelectionStatisticsTest {
+
+    private static final double[] SPECIAL = {0.0, -0.0, Double.NaN,
+        Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+
+    private Random random;
+
+    @Before
+    public void setUp() {
+        random = new Random(637L);
+    }
+
+    private double[] randomValues(int n) {
+        double[] result = new double[n];
+        int kind = random.nextInt(4);
+        for (int i = 0; i < n; i++) {
+            if (kind == 0) {
+                result[i] = random.nextGaussian();
+            }
+            else if (kind == 1) {
+                result[i] = random.nextInt(5) - 2;
+            }
+            else if (kind == 2) {
+                result[i] = random.nextInt(10) == 0
+                        ? SPECIAL[random.nextInt(SPECIAL.length)]
+                        : random.nextInt(3) - 1;
+            }
+            else {
+                result[i] = i;
+            }
+        }
+        return result;
+    }
+
+    private List toList(double[] values) {
+        List result = new ArrayList();
+        for (int i = 0; i < values.length; i++) {
+            result.add(Double.valueOf(values[i]));
+        }
+        return result;
+    }
+
+    private void assertSame(double expected, double actual) {
+        assertEquals(Double.doubleToLongBits(expected),
+                Double.doubleToLongBits(actual));
+    }
+
+    private void assertSame(Number expected, Number actual) {
+        assertSame(expected.doubleValue(), actual.doubleValue());
+    }
+
+    /**
+     * Test Case: Median and quartiles of arrays with duplicates, signed
+     *            zeros, infinities and NaN values.
+     * Test Strategy: Equivalence with the sort-based methods
+     * Expected: Identical results, and the array is not modified.
+     */
+    @Test
+    public void testMedianAndQuartiles() {
+        for (int trial = 0; trial < 2000; trial++) {
+            int n = trial < 1900 ? random.nextInt(60) : random.nextInt(5000);
+            double[] values = randomValues(n);
+            double[] original = values.clone();
+            List list = toList(values);
+            assertSame(Statistics.calculateMedian(list),
+                    SelectionStatistics.calculateMedian(values));
+            double[] quartiles = SelectionStatistics.calculateQuartiles(
+                    values, true);
+            assertTrue(Arrays.equals(original, values));
+            Collections.sort(list);
+            assertSame(BoxAndWhiskerCalculator.calculateQ1(list),
+                    quartiles[0]);
+            assertSame(Statistics.calculateMedian(list, false),
+                    quartiles[1]);
+            assertSame(BoxAndWhiskerCalculator.calculateQ3(list),
+                    quartiles[2]);
+            assertSame(quartiles[1],
+                    SelectionStatistics.calculateMedian(values, false));
+        }
+    }
+
+    /**
+     * Test Case: Box-and-whisker statistics of arrays with outliers.
+     * Test Strategy: Equivalence with BoxAndWhiskerCalculator
+     * Expected: Identical results, apart from rounding in the mean.
+     */
+    @Test
+    public void testBoxAndWhiskerStatistics() {
+        for (int trial = 0; trial < 500; trial++) {
+            double[] values = randomValues(random.nextInt(200));
+            for (int i = 0; i < values.length; i += 1 + random.nextInt(20)) {
+                values[i] = values[i] * 10.0 + random.nextGaussian();
+            }
+            BoxAndWhiskerItem expected = BoxAndWhiskerCalculator
+                    .calculateBoxAndWhiskerStatistics(toList(values));
+            BoxAndWhiskerItem actual = SelectionBoxAndWhiskerCalculator
+                    .calculateBoxAndWhiskerStatistics(values);
+            double mean = expected.getMean().doubleValue();
+            if (Double.isNaN(mean) || Double.isInfinite(mean)) {
+                assertSame(expected.getMean(), actual.getMean());
+            }
+            else {
+                assertEquals(mean, actual.getMean().doubleValue(), 1e-9);
+            }
+            assertSame(expected.getMedian(), actual.getMedian());
+            assertSame(expected.getQ1(), actual.getQ1());
+            assertSame(expected.getQ3(), actual.getQ3());
+            assertSame(expected.getMinRegularValue(),
+                    actual.getMinRegularValue());
+            assertSame(expected.getMaxRegularValue(),
+                    actual.getMaxRegularValue());
+            assertSame(expected.getMinOutlier(), actual.getMinOutlier());
+            assertSame(expected.getMaxOutlier(), actual.getMaxOutlier());
+            assertEquals(expected.getOutliers(), actual.getOutliers());
+        }
+    }
+
+    /**
+     * Test Case: Several quantiles of random arrays.
+     * Test Strategy: Equivalence with interpolation in a sorted copy
+     * Expected: The same quantiles, with the extremes at 0.0 and 1.0.
+     */
+    @Test
+    public void testQuantiles() {
+        double[] probabilities = {0.0, 0.01, 0.25, 0.5, 0.9, 0.999, 1.0};
+        for (int trial = 0; trial < 500; trial++) {
+            double[] values = new double[1 + random.nextInt(300)];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = random.nextInt(3) == 0 ? random.nextInt(4)
+                        : random.nextGaussian();
+            }
+            double[] sorted = values.clone();
+            Arrays.sort(sorted);
+            double[] actual = SelectionStatistics.calculateQuantiles(values,
+                    probabilities, false);
+            for (int i = 0; i < probabilities.length; i++) {
+                double h = probabilities[i] * (sorted.length - 1);
+                int lower = (int) Math.floor(h);
+                double expected = sorted[lower];
+                if (h > lower) {
+                    expected += (h - lower) * (sorted[lower + 1] - expected);
+                }
+                assertEquals(expected, actual[i], 1e-12);
+            }
+            assertSame(sorted[0], actual[0]);
+            assertSame(sorted[sorted.length - 1],
+                    actual[probabilities.length - 1]);
+        }
+        assertTrue(Double.isNaN(SelectionStatistics.calculateQuantile(
+                new double[0], 0.5)));
+    }
+
+    /**
+     * Test Case: A large sorted array and a large array of equal values.
+     * Test Strategy: Worst cases for partitioning
+     * Expected: The middle values.
+     */
+    @Test
+    public void testLargeOrderedArrays() {
+        double[] values = new double[100001];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = values.length - i;
+        }
+        assertSame(50001.0, SelectionStatistics.calculateMedian(values));
+        Arrays.fill(values, 7.0);
+        double[] quartiles = SelectionStatistics.calculateQuartiles(values,
+                false);
+        assertSame(7.0, quartiles[0]);
+        assertSame(7.0, quartiles[2]);
+    }
+
+    /**
+     * Test Case: Probability outside the range 0.0 to 1.0.
+     * Test Strategy: Invalid input
+     * Expected: IllegalArgumentException.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidProbability() {
+        SelectionStatistics.calculateQuantile(new double[] {1.0}, 1.5);
+    }
+
+    /**
+     * Test Case: Null values.
+     * Test Strategy: Invalid input
+     * Expected: IllegalArgumentException.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullValues() {
+        SelectionBoxAndWhiskerCalculator.calculateBoxAndWhiskerStatistics(
+                null);
+    }
+
+    @After
+    public void tearDown() {
+        random = null;
+    }
+}
@@ -0,0 +1,254 @@
+package org.jfree.data.test;
+
+import static org.junit.Assert.*;
+import org.jfree.data.time.Day;
+import org.jfree.data.time.Minute;
+import org.jfree.data.time.MovingAverage;
+import org.jfree.data.time.MovingAverageOperator;
+import org.jfree.data.time.RegularTimePeriod;
+import org.jfree.data.time.SlidingMovingAverage;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.junit.*;
+
+import java.util.Random;
+
+public class SlidingMovingAverageTest {
+
+    private TimeSeries source;
+    private Random random;
+
+    @Before
+    public void setUp() {
+        source = new TimeSeries("S", Minute.class);
+        random = new Random(637L);
+    }
+
+    private Number randomValue() {
+        int r = random.nextInt(20);
+        if (r == 0) {
+            return null;
+        }
+        return Double.valueOf(random.nextGaussian() * 100.0);
+    }
+
+    private void fill(TimeSeries series, int n) {
+        RegularTimePeriod minute = new Minute(0, 0, 1, 1, 2022);
+        for (int i = 0; i < n; i++) {
+            series.add(minute, randomValue());
+            minute = minute.next();
+            while (random.nextInt(5) == 0) {
+                minute = minute.next();
+            }
+        }
+    }
+
+    private void assertSameSeries(TimeSeries expected, TimeSeries actual) {
+        assertEquals(expected.getItemCount(), actual.getItemCount());
+        for (int i = 0; i < expected.getItemCount(); i++) {
+            assertEquals(expected.getTimePeriod(i), actual.getTimePeriod(i));
+            Number e = expected.getValue(i);
+            Number a = actual.getValue(i);
+            if (e == null) {
+                assertNull(a);
+            }
+            else {
+                assertEquals(e.doubleValue(), a.doubleValue(),
+                        1e-9 * (1.0 + Math.abs(e.doubleValue())));
+            }
+        }
+    }
+
+    /**
+     * Test Case: Series with gaps and null values, several windows.
+     * Test Strategy: Equivalence with MovingAverage
+     * Expected: The same time periods and averages.
+     */
+    @Test
+    public void testTimeSeriesWithGapsAndNulls() {
+        fill(source, 500);
+        int[] counts = {1, 2, 7, 60, 1000};
+        for (int c = 0; c < counts.length; c++) {
+            for (int skip = 0; skip <= 5; skip += 5) {
+                assertSameSeries(MovingAverage.createMovingAverage(source,
+                        "A", counts[c], skip),
+                        SlidingMovingAverage.createMovingAverage(source, "A",
+                        counts[c], skip));
+            }
+        }
+    }
+
+    /**
+     * Test Case: Infinite and NaN values moving through the window.
+     * Test Strategy: Equivalence with MovingAverage (special values)
+     * Expected: The same averages, finite again once they leave.
+     */
+    @Test
+    public void testSpecialValues() {
+        RegularTimePeriod day = new Day(1, 1, 2022);
+        double[] values = {1.0, Double.POSITIVE_INFINITY, 2.0, 3.0,
+                Double.NaN, 4.0, Double.NEGATIVE_INFINITY, 5.0, 6.0, 7.0,
+                Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 8.0, 9.0,
+                10.0};
+        TimeSeries s = new TimeSeries("D", Day.class);
+        for (int i = 0; i < values.length; i++) {
+            s.add(day, values[i]);
+            day = day.next();
+        }
+        TimeSeries expected = MovingAverage.createMovingAverage(s, "A", 3, 0);
+        TimeSeries actual = SlidingMovingAverage.createMovingAverage(s, "A",
+                3, 0);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(expected.getValue(i).doubleValue(),
+                    actual.getValue(i).doubleValue(), 1e-12);
+        }
+        assertEquals(9.0, actual.getValue(values.length - 1).doubleValue(),
+                1e-12);
+    }
+
+    /**
+     * Test Case: XY series with duplicate x-values, and an unsorted one.
+     * Test Strategy: Equivalence with MovingAverage
+     * Expected: The same items in the same order.
+     */
+    @Test
+    public void testXYDataset() {
+        XYSeries sorted = new XYSeries("X");
+        XYSeries unsorted = new XYSeries("U", false);
+        for (int i = 0; i < 300; i++) {
+            double x = Math.floor(i / 3.0) + random.nextInt(2);
+            sorted.add(x, randomValue());
+            unsorted.add(random.nextInt(100), randomValue());
+        }
+        XYSeriesCollection dataset = new XYSeriesCollection();
+        dataset.addSeries(sorted);
+        dataset.addSeries(unsorted);
+        for (int s = 0; s < 2; s++) {
+            XYSeries expected = MovingAverage.createMovingAverage(dataset, s,
+                    "A", 4.5, 2.0);
+            XYSeries actual = SlidingMovingAverage.createMovingAverage(
+                    dataset, s, "A", 4.5, 2.0);
+            assertEquals(expected.getItemCount(), actual.getItemCount());
+            for (int i = 0; i < expected.getItemCount(); i++) {
+                assertEquals(expected.getX(i), actual.getX(i));
+                Number e = expected.getY(i);
+                if (e == null) {
+                    assertNull(actual.getY(i));
+                }
+                else {
+                    assertEquals(e.doubleValue(),
+                            actual.getY(i).doubleValue(), 1e-9);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test Case: Items appended to the source one at a time.
+     * Test Strategy: Equivalence with the moving average of the whole
+     *                source after each append
+     * Expected: The same series, and one change event for each append.
+     */
+    @Test
+    public void testOperatorAppends() {
+        fill(source, 20);
+        MovingAverageOperator operator = new MovingAverageOperator(source,
+                "A", 30, 3);
+        final int[] events = new int[1];
+        operator.getTarget().addChangeListener(
+                new org.jfree.data.general.SeriesChangeListener() {
+            public void seriesChanged(
+                    org.jfree.data.general.SeriesChangeEvent event) {
+                events[0]++;
+            }
+        });
+        RegularTimePeriod minute = source.getTimePeriod(19).next();
+        for (int i = 0; i < 200; i++) {
+            source.add(minute, randomValue());
+            minute = minute.next().next();
+        }
+        assertEquals(200, events[0]);
+        assertSameSeries(SlidingMovingAverage.createMovingAverage(source,
+                "A", 30, 3), operator.getTarget());
+        operator.dispose();
+        source.add(minute, 1.0);
+        assertEquals(200, events[0]);
+    }
+
+    /**
+     * Test Case: An item inserted before the last item, and a new value
+     *            for the last item.
+     * Test Strategy: Robustness (changes other than appends)
+     * Expected: The moving average is created again from the source.
+     */
+    @Test
+    public void testOperatorOtherChanges() {
+        fill(source, 50);
+        MovingAverageOperator operator = new MovingAverageOperator(source,
+                "A", 10, 0);
+        source.addOrUpdate(source.getTimePeriod(49), 1000.0);
+        assertSameSeries(SlidingMovingAverage.createMovingAverage(source,
+                "A", 10, 0), operator.getTarget());
+        RegularTimePeriod missing = new Minute(0, 0, 1, 1, 2022);
+        while (source.getIndex(missing) >= 0) {
+            missing = missing.next();
+        }
+        source.add(missing, -500.0);
+        assertSameSeries(SlidingMovingAverage.createMovingAverage(source,
+                "A", 10, 0), operator.getTarget());
+        source.clear();
+        assertEquals(0, operator.getTarget().getItemCount());
+    }
+
+    /**
+     * Test Case: An item inserted before the last item of a source that is
+     *            at its maximum item count, so that the oldest item is
+     *            removed and the item count does not change.
+     * Test Strategy: Robustness (insert hidden by eviction)
+     * Expected: The moving average is created again from the source,
+     *           also when the insert is hidden by a later append made
+     *           while notification is off.
+     */
+    @Test
+    public void testOperatorInsertIntoFullSource() {
+        TimeSeries days = new TimeSeries("D", Day.class);
+        days.setMaximumItemCount(5);
+        for (int d = 1; d <= 9; d += 2) {
+            days.add(new Day(d, 1, 2020), d * 10.0);
+        }
+        MovingAverageOperator operator = new MovingAverageOperator(days,
+                "A", 3, 0);
+        days.add(new Day(6, 1, 2020), 100.0);
+        assertEquals(5, days.getItemCount());
+        assertSameSeries(SlidingMovingAverage.createMovingAverage(days, "A",
+                3, 0), operator.getTarget());
+        days.setNotify(false);
+        days.add(new Day(8, 1, 2020), -40.0);
+        days.add(new Day(11, 1, 2020), 5.0);
+        days.setNotify(true);
+        assertSameSeries(SlidingMovingAverage.createMovingAverage(days, "A",
+                3, 0), operator.getTarget());
+        days.add(new Day(12, 1, 2020), 7.0);
+        assertEquals(new Day(12, 1, 2020), operator.getTarget()
+                .getTimePeriod(4));
+        assertEquals(6.0, operator.getTarget().getValue(4).doubleValue(),
+                1e-9);
+    }
+
+    /**
+     * Test Case: Period count of zero.
+     * Test Strategy: BVA (below lower bound)
+     * Expected: IllegalArgumentException.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroPeriodCount() {
+        SlidingMovingAverage.createMovingAverage(source, "A", 0, 0);
+    }
+
+    @After
+    public void tearDown() {
+        source = null;
+        random = null;
+    }
+}
@@ -0,0 +1,151 @@
+package org.jfree.data.test;
+
+import static org.junit.Assert.*;
+import org.jfree.data.time.Day;
+import org.jfree.data.time.Hour;
+import org.jfree.data.time.Millisecond;
+import org.jfree.data.time.Minute;
+import org.jfree.data.time.Month;
+import org.jfree.data.time.RegularTimePeriod;
+import org.jfree.data.time.Second;
+import org.jfree.data.time.TimePeriodArithmetic;
+import org.junit.*;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.TimeZone;
+
+public class TimePeriodArithmeticTest {
+
+    private static final Class[] CLASSES = {Day.class, Hour.class,
+            Minute.class, Second.class, Millisecond.class};
+
+    private TimeZone newYork;
+    private TimePeriodArithmetic arithmetic;
+
+    @Before
+    public void setUp() {
+        newYork = TimeZone.getTimeZone("America/New_York");
+        arithmetic = TimePeriodArithmetic.getInstance(newYork);
+    }
+
+    private void assertSameAsCalendar(TimeZone zone, long from, long to,
+            long step) {
+        TimePeriodArithmetic a = TimePeriodArithmetic.getInstance(zone);
+        Calendar calendar = Calendar.getInstance(zone);
+        for (long t = from; t <= to; t += step) {
+            for (int c = 0; c < CLASSES.length; c++) {
+                RegularTimePeriod expected = RegularTimePeriod.createInstance(
+                        CLASSES[c], new Date(t), zone);
+                assertEquals(expected, a.createInstance(CLASSES[c], t));
+                assertEquals(expected.getFirstMillisecond(calendar),
+                        a.getFirstMillisecond(expected));
+                assertEquals(expected.getLastMillisecond(calendar),
+                        a.getLastMillisecond(expected));
+                assertEquals(expected.getMiddleMillisecond(calendar),
+                        a.getMiddleMillisecond(expected));
+            }
+        }
+    }
+
+    /**
+     * Test Case: Every 7 minutes across the spring and autumn transitions.
+     * Test Strategy: Equivalence with Calendar (DST gap and overlap)
+     * Expected: The same time periods and milliseconds.
+     */
+    @Test
+    public void testDaylightSavingTransitions() {
+        long spring = new Day(14, 3, 2021).getFirstMillisecond(newYork);
+        long autumn = new Day(7, 11, 2021).getFirstMillisecond(newYork);
+        long minutes = 7 * 60000L + 13;
+        assertSameAsCalendar(newYork, spring - 86400000L,
+                spring + 2 * 86400000L, minutes);
+        assertSameAsCalendar(newYork, autumn - 86400000L,
+                autumn + 2 * 86400000L, minutes);
+    }
+
+    /**
+     * Test Case: Local times skipped and repeated by the transitions.
+     * Test Strategy: Equivalence with Calendar (non-existent and
+     *                ambiguous local hours)
+     * Expected: The same milliseconds as the Calendar methods.
+     */
+    @Test
+    public void testSkippedAndRepeatedHours() {
+        Calendar calendar = Calendar.getInstance(newYork);
+        RegularTimePeriod[] periods = {new Hour(2, 14, 3, 2021),
+                new Minute(30, 2, 14, 3, 2021), new Hour(1, 7, 11, 2021),
+                new Second(59, 59, 1, 7, 11, 2021),
+                new Millisecond(999, 0, 0, 2, 14, 3, 2021)};
+        for (int i = 0; i < periods.length; i++) {
+            assertEquals(periods[i].getFirstMillisecond(calendar),
+                    arithmetic.getFirstMillisecond(periods[i]));
+            assertEquals(periods[i].getLastMillisecond(calendar),
+                    arithmetic.getLastMillisecond(periods[i]));
+        }
+    }
+
+    /**
+     * Test Case: Zones with a half-hour transition, a negative-offset
+     *            southern zone and a zone without daylight saving.
+     * Test Strategy: Equivalence with Calendar over a year
+     * Expected: The same time periods and milliseconds.
+     */
+    @Test
+    public void testOtherZones() {
+        String[] ids = {"Australia/Lord_Howe", "America/Sao_Paulo",
+                "Asia/Kolkata", "Europe/London"};
+        long from = new Day(1, 1, 2018).getFirstMillisecond();
+        for (int i = 0; i < ids.length; i++) {
+            assertSameAsCalendar(TimeZone.getTimeZone(ids[i]), from,
+                    from + 366 * 86400000L, 3 * 3600000L + 61001);
+        }
+    }
+
+    /**
+     * Test Case: A Month, which is not one of the supported classes.
+     * Test Strategy: Equivalence with Calendar (fallback)
+     * Expected: The same milliseconds as the Calendar methods.
+     */
+    @Test
+    public void testOtherPeriodClass() {
+        Month month = new Month(3, 2021);
+        assertEquals(month.getFirstMillisecond(newYork),
+                arithmetic.getFirstMillisecond(month));
+        assertEquals(month.getLastMillisecond(newYork),
+                arithmetic.getLastMillisecond(month));
+        assertEquals(month, arithmetic.createInstance(Month.class,
+                month.getFirstMillisecond(newYork)));
+    }
+
+    /**
+     * Test Case: The zone passed in is changed after the instance is made.
+     * Test Strategy: Robustness (private copy of the zone)
+     * Expected: The instance keeps the original offsets.
+     */
+    @Test
+    public void testZoneCopied() {
+        TimeZone zone = TimeZone.getTimeZone("GMT+02:00");
+        TimePeriodArithmetic a = TimePeriodArithmetic.getInstance(zone);
+        zone.setRawOffset(0);
+        Day day = new Day(1, 6, 2021);
+        assertEquals(day.getFirstMillisecond(TimeZone.getTimeZone(
+                "GMT+02:00")), a.getFirstMillisecond(day));
+        assertEquals(7200000, a.getTimeZone().getRawOffset());
+    }
+
+    /**
+     * Test Case: Null period.
+     * Test Strategy: Invalid input
+     * Expected: IllegalArgumentException.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullPeriod() {
+        arithmetic.getFirstMillisecond(null);
+    }
+
+    @After
+    public void tearDown() {
+        arithmetic = null;
+    }
+}
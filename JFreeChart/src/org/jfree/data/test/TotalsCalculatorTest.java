@@ -0,0 +1,170 @@
+package org.jfree.data.test;
+
+import static org.junit.Assert.*;
+import org.jfree.data.DoubleMatrixValues2D;
+import org.jfree.data.TotalsCalculator;
+import org.jfree.data.Values2D;
+import org.junit.*;
+
+import java.util.Random;
+
+public class TotalsCalculatorTest {
+
+    private TotalsCalculator sequential;
+    private TotalsCalculator parallel;
+
+    @Before
+    public void setUp() {
+        sequential = new TotalsCalculator(1, 64, true);
+        parallel = new TotalsCalculator(4, 64, true);
+    }
+
+    @After
+    public void tearDown() {
+        parallel.shutdown();
+    }
+
+    /**
+     * Test Case: Table containing null values.
+     * Test Strategy: ECP - Null handling, as DataUtilitiesTest_TC_DU_003/007
+     * Expected Behavior: Nulls are skipped in every row and column total.
+     */
+    @Test
+    public void testTotalsSkipNullValues() {
+        Values2D values = new Values2D() {
+            private final Number[][] cells = {
+                {1.0, 2.0, 10.0, 4.0},
+                {3.0, 4.0, null, 1.0},
+                {8.0, null, 5.5, null},
+                {2.0, 6.0, null, 3.0}
+            };
+
+            public int getRowCount() {
+                return 4;
+            }
+
+            public int getColumnCount() {
+                return 4;
+            }
+
+            public Number getValue(int row, int column) {
+                return cells[row][column];
+            }
+        };
+        assertArrayEquals("Column totals should exclude null values",
+                new double[] {14.0, 12.0, 15.5, 8.0}, sequential.calculateColumnTotals(values), 0.000000001d);
+        assertArrayEquals("Row totals should exclude null values",
+                new double[] {17.0, 8.0, 13.5, 11.0}, sequential.calculateRowTotals(values), 0.000000001d);
+    }
+
+    /**
+     * Test Case: Large values that cancel, with small values in between.
+     * Test Strategy: Precision - Mixed magnitudes
+     * Expected Behavior: Compensated summation keeps the small values.
+     */
+    @Test
+    public void testCompensatedSummationKeepsSmallValues() {
+        int rows = 3000;
+        double[] data = new double[rows];
+        for (int r = 0; r < rows; r += 3) {
+            data[r] = 1e16;
+            data[r + 1] = 1.0;
+            data[r + 2] = -1e16;
+        }
+        DoubleMatrixValues2D column = new DoubleMatrixValues2D(rows, 1, data);
+        assertEquals("Every 1.0 should be counted", 1000.0, parallel.calculateColumnTotals(column)[0], 0.0);
+        DoubleMatrixValues2D row = new DoubleMatrixValues2D(1, rows, data);
+        assertEquals("Every 1.0 should be counted", 1000.0, parallel.calculateRowTotals(row)[0], 0.0);
+    }
+
+    /**
+     * Test Case: The same table totalled with one thread and with four threads.
+     * Test Strategy: Determinism - Repeated runs with different parallelism
+     * Expected Behavior: The totals are identical bit for bit.
+     */
+    @Test(timeout = 10000)
+    public void testDeterministicAcrossParallelism() {
+        DoubleMatrixValues2D matrix = randomMatrix(2000, 30);
+        double[] expectedColumns = sequential.calculateColumnTotals(matrix);
+        double[] expectedRows = sequential.calculateRowTotals(matrix);
+        for (int run = 0; run < 5; run++) {
+            assertArrayEquals(expectedColumns, parallel.calculateColumnTotals(matrix), 0.0);
+            assertArrayEquals(expectedRows, parallel.calculateRowTotals(matrix), 0.0);
+        }
+    }
+
+    /**
+     * Test Case: Unordered merging of partial column totals.
+     * Test Strategy: Comparison with the deterministic mode
+     * Expected Behavior: Totals agree to within rounding error.
+     */
+    @Test(timeout = 10000)
+    public void testNonDeterministicModeAgrees() {
+        DoubleMatrixValues2D matrix = randomMatrix(2000, 30);
+        parallel.setDeterministic(false);
+        double[] expected = sequential.calculateColumnTotals(matrix);
+        double[] result = parallel.calculateColumnTotals(matrix);
+        for (int c = 0; c < expected.length; c++) {
+            assertEquals("Column " + c, expected[c], result[c], Math.abs(expected[c]) * 1e-12);
+        }
+    }
+
+    /**
+     * Test Case: Boxed Values2D with the same content as a primitive matrix.
+     * Test Strategy: Comparison of the primitive and boxed paths
+     * Expected Behavior: The totals are identical.
+     */
+    @Test(timeout = 10000)
+    public void testBoxedAndPrimitivePathsAgree() {
+        final DoubleMatrixValues2D matrix = randomMatrix(500, 20);
+        Values2D boxed = new Values2D() {
+            public int getRowCount() {
+                return matrix.getRowCount();
+            }
+
+            public int getColumnCount() {
+                return matrix.getColumnCount();
+            }
+
+            public Number getValue(int row, int column) {
+                return matrix.getValue(row, column);
+            }
+        };
+        assertArrayEquals(parallel.calculateColumnTotals(matrix), parallel.calculateColumnTotals(boxed), 0.0);
+        assertArrayEquals(parallel.calculateRowTotals(matrix), parallel.calculateRowTotals(boxed), 0.0);
+    }
+
+    /**
+     * Test Case: Invalid configuration values.
+     * Test Strategy: Invalid input (ECP)
+     * Expected Behavior: IllegalArgumentException.
+     */
+    @Test
+    public void testInvalidConfigurationRejected() {
+        try {
+            new TotalsCalculator(0, 64, true);
+            fail("Expected IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
+            // Expected behavior, test passes
+        }
+        try {
+            sequential.setSplitThreshold(0);
+            fail("Expected IllegalArgumentException to be thrown");
+        } catch (IllegalArgumentException e) {
+            // Expected behavior, test passes
+        }
+    }
+
+    private static DoubleMatrixValues2D randomMatrix(int rows, int columns) {
+        Random random = new Random(637L);
+        DoubleMatrixValues2D matrix = new DoubleMatrixValues2D(rows, columns);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                if (random.nextInt(20) != 0) {
+                    matrix.setValue(r, c, (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(15)));
+                }
+            }
+        }
+        return matrix;
+    }
+}
@@ -0,0 +1,248 @@
+package org.jfree.data.test;
+
+import static org.junit.Assert.*;
+import org.jfree.data.category.BatchCategoryDataset;
+import org.jfree.data.general.DatasetBatchChangeEvent;
+import org.jfree.data.general.DatasetBoundsCache;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeListener;
+import org.jfree.data.general.UpdateBatch;
+import org.jfree.data.time.BatchTimeSeriesCollection;
+import org.jfree.data.time.Day;
+import org.jfree.data.time.IndexedTimeSeries;
+import org.jfree.data.time.TimeSeries;
+import org.jfree.data.xy.BatchXYSeriesCollection;
+import org.jfree.data.xy.DoubleXYSeries;
+import org.jfree.data.xy.XYSeries;
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class UpdateBatchTest {
+
+    private XYSeries s1;
+    private XYSeries s2;
+    private BatchXYSeriesCollection dataset;
+    private List events;
+
+    @Before
+    public void setUp() {
+        s1 = new XYSeries("S1");
+        s2 = new XYSeries("S2");
+        s2.add(0.0, 0.0);
+        dataset = new BatchXYSeriesCollection(s1);
+        dataset.addSeries(s2);
+        events = new ArrayList();
+        dataset.addChangeListener(new DatasetChangeListener() {
+            public void datasetChanged(DatasetChangeEvent event) {
+                events.add(event);
+            }
+        });
+    }
+
+    /**
+     * Test Case: Outside a batch.
+     * Test Strategy: Normal case (unchanged behavior)
+     * Expected: One plain event per change.
+     */
+    @Test
+    public void testNoBatch() {
+        s1.add(1.0, 1.0);
+        s1.add(2.0, 2.0);
+        assertEquals(2, events.size());
+        assertFalse(events.get(0) instanceof DatasetBatchChangeEvent);
+    }
+
+    /**
+     * Test Case: Changes to one series in a try-with-resources batch.
+     * Test Strategy: Coalescing
+     * Expected: One event that names only the changed series.
+     */
+    @Test
+    @SuppressWarnings("try")
+    public void testBatchCoalescesSeriesChanges() {
+        try (UpdateBatch batch = UpdateBatch.begin(dataset)) {
+            for (int i = 0; i < 100; i++) {
+                s1.add(i, i * 2.0);
+            }
+            assertTrue(dataset.isUpdating());
+            assertEquals(0, events.size());
+        }
+        assertFalse(dataset.isUpdating());
+        assertEquals(1, events.size());
+        DatasetBatchChangeEvent event = (DatasetBatchChangeEvent) events.get(0);
+        assertFalse(event.isFullChange());
+        assertEquals(1, event.getAffectedSeriesCount());
+        assertEquals(0, event.getAffectedSeries(0));
+        assertEquals(-1, event.getFirstAppendedItem(0));
+        assertEquals(100, event.getEventCount());
+    }
+
+    /**
+     * Test Case: Appends to DoubleXYSeries in a batch, one of them followed
+     *            by an update, after an earlier series was removed.
+     * Test Strategy: Coalescing of appended item ranges
+     * Expected: The appended items of the series that only grew, and -1
+     *           for the series that was also updated.
+     */
+    @Test
+    @SuppressWarnings("try")
+    public void testBatchReportsAppendedItems() {
+        DoubleXYSeries d1 = new DoubleXYSeries("D1");
+        d1.add(0.0, 0.0);
+        DoubleXYSeries d2 = new DoubleXYSeries("D2");
+        dataset.addSeries(d1);
+        dataset.addSeries(d2);
+        dataset.removeSeries(0);
+        events.clear();
+        try (UpdateBatch batch = UpdateBatch.begin(dataset)) {
+            for (int i = 1; i <= 5; i++) {
+                d1.add(i, i);
+            }
+            d1.addAll(new double[] {6.0, 7.0}, new double[] {6.0, 7.0});
+            d2.add(1.0, 1.0);
+            d2.add(2.0, 2.0);
+            d2.updateByIndex(0, Double.valueOf(5.0));
+        }
+        assertEquals(1, events.size());
+        DatasetBatchChangeEvent event = (DatasetBatchChangeEvent) events.get(0);
+        assertFalse(event.isFullChange());
+        assertEquals(2, event.getAffectedSeriesCount());
+        assertEquals(1, event.getAffectedSeries(0));
+        assertEquals(1, event.getFirstAppendedItem(0));
+        assertEquals(7, event.getLastAppendedItem(0));
+        assertEquals(2, event.getAffectedSeries(1));
+        assertEquals(-1, event.getFirstAppendedItem(1));
+    }
+
+    /**
+     * Test Case: Days added to an IndexedTimeSeries in a batch.
+     * Test Strategy: Coalescing of appended item ranges
+     * Expected: One event with the appended items.
+     */
+    @Test
+    @SuppressWarnings("try")
+    public void testTimeSeriesBatchReportsAppendedItems() {
+        IndexedTimeSeries ts = new IndexedTimeSeries("T", Day.class);
+        ts.add(new Day(1, 1, 2020), 1.0);
+        BatchTimeSeriesCollection tsc = new BatchTimeSeriesCollection(ts);
+        final List tsEvents = new ArrayList();
+        tsc.addChangeListener(new DatasetChangeListener() {
+            public void datasetChanged(DatasetChangeEvent event) {
+                tsEvents.add(event);
+            }
+        });
+        try (UpdateBatch batch = UpdateBatch.begin(tsc)) {
+            for (int d = 2; d <= 10; d++) {
+                ts.add(new Day(d, 1, 2020), d);
+            }
+        }
+        assertEquals(1, tsEvents.size());
+        DatasetBatchChangeEvent event
+                = (DatasetBatchChangeEvent) tsEvents.get(0);
+        assertEquals(1, event.getAffectedSeriesCount());
+        assertEquals(1, event.getFirstAppendedItem(0));
+        assertEquals(9, event.getLastAppendedItem(0));
+        assertEquals(9, event.getEventCount());
+    }
+
+    /**
+     * Test Case: Nested batches, with a series added inside.
+     * Test Strategy: State transition
+     * Expected: One event at the end of the outer batch, marked as a full
+     * change.
+     */
+    @Test
+    public void testNestedBatchWithStructuralChange() {
+        dataset.beginUpdate();
+        dataset.beginUpdate();
+        s2.add(5.0, 5.0);
+        dataset.addSeries(new XYSeries("S3"));
+        dataset.endUpdate();
+        assertEquals(0, events.size());
+        dataset.endUpdate();
+        assertEquals(1, events.size());
+        assertTrue(((DatasetBatchChangeEvent) events.get(0)).isFullChange());
+    }
+
+    /**
+     * Test Case: Empty batch.
+     * Test Strategy: BVA (no changes)
+     * Expected: No event.
+     */
+    @Test
+    public void testEmptyBatch() {
+        dataset.beginUpdate();
+        dataset.endUpdate();
+        assertEquals(0, events.size());
+    }
+
+    /**
+     * Test Case: endUpdate without beginUpdate.
+     * Test Strategy: Invalid state
+     * Expected: IllegalStateException.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testUnbalancedEnd() {
+        dataset.endUpdate();
+    }
+
+    /**
+     * Test Case: Bounds cache on a batched collection.
+     * Test Strategy: Integration with DatasetBoundsCache
+     * Expected: Only the changed series is rescanned; bounds are correct.
+     */
+    @Test
+    @SuppressWarnings("try")
+    public void testBoundsCacheAfterBatch() {
+        DatasetBoundsCache cache = new DatasetBoundsCache(dataset);
+        assertEquals(0.0, cache.getRangeBounds().getUpperBound(), 0.0);
+        try (UpdateBatch batch = UpdateBatch.begin(dataset)) {
+            s1.add(1.0, 9.0);
+            s1.add(2.0, -4.0);
+        }
+        assertEquals(new original.Range(-4.0, 9.0), cache.getRangeBounds());
+    }
+
+    /**
+     * Test Case: TimeSeriesCollection and DefaultCategoryDataset batches.
+     * Test Strategy: Normal case for each collection type
+     * Expected: One event per batch.
+     */
+    @Test
+    @SuppressWarnings("try")
+    public void testTimeSeriesAndCategoryBatches() {
+        TimeSeries ts = new TimeSeries("T", Day.class);
+        BatchTimeSeriesCollection tsc = new BatchTimeSeriesCollection(ts);
+        BatchCategoryDataset category = new BatchCategoryDataset();
+        final int[] counts = new int[2];
+        tsc.addChangeListener(new DatasetChangeListener() {
+            public void datasetChanged(DatasetChangeEvent event) {
+                counts[0]++;
+            }
+        });
+        category.addChangeListener(new DatasetChangeListener() {
+            public void datasetChanged(DatasetChangeEvent event) {
+                counts[1]++;
+            }
+        });
+        try (UpdateBatch a = UpdateBatch.begin(tsc);
+                UpdateBatch b = UpdateBatch.begin(category)) {
+            for (int d = 1; d <= 10; d++) {
+                ts.add(new Day(d, 1, 2020), d);
+                category.addValue(d, "R", "C" + d);
+            }
+        }
+        assertEquals(10, ts.getItemCount());
+        assertEquals(10, category.getColumnCount());
+        assertEquals(1, counts[0]);
+        assertEquals(1, counts[1]);
+    }
+
+    @After
+    public void tearDown() {
+        dataset = null;
+        events = null;
+    }
+}
@@ -0,0 +1,513 @@
+package org.jfree.data.time;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.jfree.data.DomainOrder;
+import org.jfree.data.general.AppendableSeries;
+import org.jfree.data.general.BatchedDataset;
+import org.jfree.data.general.DatasetAppendEvent;
+import org.jfree.data.general.DatasetBatchChangeEvent;
+import org.jfree.data.general.DatasetChangeCoalescer;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.SeriesAppendTracker;
+import org.jfree.data.general.SeriesChangeEvent;
+
+/**
+ * A {@link TimeSeriesCollection} that can group changes to any of its
+ * series into a single {@link DatasetBatchChangeEvent} (see
+ * {@link BatchedDataset}).  Inside a batch, the change events from each
+ * series are recorded against that series' index instead of being passed
+ * on, so a loop of {@link TimeSeries#add(RegularTimePeriod, double)} calls
+ * over several series causes one redraw rather than one per item.
+ * <P>
+ * The x-values of an {@link IndexedTimeSeries} are read from its arrays of
+ * milliseconds, instead of being calculated for each item with a
+ * {@link java.util.Calendar}.  Both use the default time zone.
+ * <P>
+ * None of the x-value methods are <code>synchronized</code>:  the methods
+ * inherited from {@link TimeSeriesCollection} share one calendar, so
+ * renderers reading the collection on several threads wait for each
+ * other, while this class uses {@link TimePeriodArithmetic}.  The items of an
+ * {@link IndexedTimeSeries} are read from its latest
+ * {@link TimeSeriesSnapshot}, so they can be read without locking while a
+ * single thread adds items to the series.  Each call reads the latest
+ * snapshot;  code that reads several values that must agree with each
+ * other should use {@link IndexedTimeSeries#getSnapshot()}.  The domain
+ * bounds are read in the same way, from the first and last items of each
+ * snapshot.
+ * <P>
+ * A change to a series that implements
+ * {@link AppendableSeries} (such as {@link IndexedTimeSeries}) and that
+ * only added items after its last item is sent to the listeners as a
+ * {@link DatasetAppendEvent}, so that listeners such as
+ * {@link org.jfree.data.general.DatasetBoundsCache} only read the new
+ * items.  The event also counts the oldest items that were removed to
+ * make room for them (for a maximum item count or age).  Inside a batch,
+ * the appended items are recorded in the {@link DatasetBatchChangeEvent}
+ * (as a change to the series if items were removed).  Changes to other
+ * series are sent as plain change events.
+ */
+public class BatchTimeSeriesCollection extends TimeSeriesCollection
+        implements BatchedDataset {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 2917486603318127055L;
+
+    /** The change record (created when first needed). */
+    private transient DatasetChangeCoalescer coalescer;
+
+    /**
+     * The append trackers for the series that implement
+     * {@link AppendableSeries}, keyed by series identity (created when first
+     * needed).
+     */
+    private transient Map trackers;
+
+    /**
+     * The index of each series, keyed by series identity (created when
+     * first needed).
+     */
+    private transient Map seriesIndices;
+
+    /**
+     * Creates an empty collection.
+     */
+    public BatchTimeSeriesCollection() {
+        super();
+    }
+
+    /**
+     * Creates a collection containing one series.
+     *
+     * @param series  the series (<code>null</code> ignored).
+     */
+    public BatchTimeSeriesCollection(TimeSeries series) {
+        super(series);
+        getTrackers();
+    }
+
+    /**
+     * Adds a series to the collection and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param series  the series (<code>null</code> not permitted).
+     */
+    public void addSeries(TimeSeries series) {
+        super.addSeries(series);
+        this.seriesIndices = null;
+        if (series instanceof AppendableSeries) {
+            getTrackers().put(series, new SeriesAppendTracker(
+                    (AppendableSeries) series));
+        }
+    }
+
+    /**
+     * Removes a series from the collection and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param index  the series index (zero-based).
+     */
+    public void removeSeries(int index) {
+        TimeSeries removed = index >= 0 && index < getSeriesCount()
+                ? getSeries(index) : null;
+        super.removeSeries(index);
+        this.seriesIndices = null;
+        getTrackers().remove(removed);
+    }
+
+    /**
+     * Removes a series from the collection and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param series  the series (<code>null</code> not permitted).
+     */
+    public void removeSeries(TimeSeries series) {
+        super.removeSeries(series);
+        this.seriesIndices = null;
+        getTrackers().remove(series);
+    }
+
+    /**
+     * Removes all the series from the collection and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     */
+    public void removeAllSeries() {
+        super.removeAllSeries();
+        this.seriesIndices = null;
+        getTrackers().clear();
+    }
+
+    /**
+     * Returns the order of the x-values in each series.  The items of a
+     * time series are sorted by time period, so this method returns
+     * {@link DomainOrder#ASCENDING}.
+     *
+     * @return The domain order.
+     */
+    public DomainOrder getDomainOrder() {
+        return DomainOrder.ASCENDING;
+    }
+
+    /**
+     * Returns the number of items in a series.
+     *
+     * @param series  the series index (zero-based).
+     *
+     * @return The item count.
+     */
+    public int getItemCount(int series) {
+        TimeSeries s = getSeries(series);
+        if (s instanceof IndexedTimeSeries) {
+            return ((IndexedTimeSeries) s).getSnapshot().getItemCount();
+        }
+        return super.getItemCount(series);
+    }
+
+    /**
+     * Returns the x-value for an item.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The x-value, in milliseconds.
+     */
+    public double getXValue(int series, int item) {
+        TimeSeries s = getSeries(series);
+        if (s instanceof IndexedTimeSeries) {
+            return ((IndexedTimeSeries) s).getMillisecond(item,
+                    getXPosition());
+        }
+        return getX(s.getTimePeriod(item));
+    }
+
+    /**
+     * Returns the x-value for an item.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The x-value, in milliseconds.
+     */
+    public Number getX(int series, int item) {
+        return Long.valueOf((long) getXValue(series, item));
+    }
+
+    /**
+     * Returns the x-value for a time period, calculated without a shared
+     * calendar.
+     *
+     * @param period  the time period (<code>null</code> not permitted).
+     *
+     * @return The x-value, in milliseconds.
+     */
+    protected long getX(RegularTimePeriod period) {
+        return TimePeriodArithmetic.getDefault().getMillisecond(period,
+                getXPosition());
+    }
+
+    /**
+     * Returns the start x-value for an item.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The first millisecond of the time period.
+     */
+    public Number getStartX(int series, int item) {
+        TimeSeries s = getSeries(series);
+        if (s instanceof IndexedTimeSeries) {
+            return Long.valueOf(((IndexedTimeSeries) s).getFirstMillisecond(
+                    item));
+        }
+        return Long.valueOf(TimePeriodArithmetic.getDefault()
+                .getFirstMillisecond(s.getTimePeriod(item)));
+    }
+
+    /**
+     * Returns the end x-value for an item.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The last millisecond of the time period.
+     */
+    public Number getEndX(int series, int item) {
+        TimeSeries s = getSeries(series);
+        if (s instanceof IndexedTimeSeries) {
+            return Long.valueOf(((IndexedTimeSeries) s).getLastMillisecond(
+                    item));
+        }
+        return Long.valueOf(TimePeriodArithmetic.getDefault()
+                .getLastMillisecond(s.getTimePeriod(item)));
+    }
+
+    /**
+     * Returns the y-value for an item.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The value (possibly <code>null</code>).
+     */
+    public Number getY(int series, int item) {
+        TimeSeries s = getSeries(series);
+        if (s instanceof IndexedTimeSeries) {
+            return ((IndexedTimeSeries) s).getSnapshot().getValue(item);
+        }
+        return super.getY(series, item);
+    }
+
+    /**
+     * Returns the indices of the items just before and just after a time.
+     * For an {@link IndexedTimeSeries}, the items are found by a binary
+     * search.
+     *
+     * @param series  the series index (zero-based).
+     * @param milliseconds  the time.
+     *
+     * @return The indices (an array of length 2, <code>-1</code> where
+     *         there is no item).
+     */
+    public int[] getSurroundingItems(int series, long milliseconds) {
+        TimeSeries s = getSeries(series);
+        if (s instanceof IndexedTimeSeries) {
+            return ((IndexedTimeSeries) s).getSurroundingItems(
+                    getXPosition(), milliseconds);
+        }
+        return super.getSurroundingItems(series, milliseconds);
+    }
+
+    /**
+     * Returns the minimum x-value in the dataset.
+     *
+     * @param includeInterval  a flag that determines whether or not the
+     *                         x-interval is taken into account.
+     *
+     * @return The minimum value, or <code>Double.NaN</code> if the dataset
+     *         has no items.
+     */
+    public double getDomainLowerBound(boolean includeInterval) {
+        original.Range bounds = getDomainBounds(includeInterval);
+        return bounds != null ? bounds.getLowerBound() : Double.NaN;
+    }
+
+    /**
+     * Returns the maximum x-value in the dataset.
+     *
+     * @param includeInterval  a flag that determines whether or not the
+     *                         x-interval is taken into account.
+     *
+     * @return The maximum value, or <code>Double.NaN</code> if the dataset
+     *         has no items.
+     */
+    public double getDomainUpperBound(boolean includeInterval) {
+        original.Range bounds = getDomainBounds(includeInterval);
+        return bounds != null ? bounds.getUpperBound() : Double.NaN;
+    }
+
+    /**
+     * Returns the range of the x-values in the dataset.  The first and
+     * last items of an {@link IndexedTimeSeries} are read from one
+     * snapshot, and the milliseconds of other series are calculated
+     * without the shared calendar.
+     *
+     * @param includeInterval  a flag that determines whether or not the
+     *                         x-interval is taken into account.
+     *
+     * @return The range, or <code>null</code> if the dataset has no items.
+     */
+    public original.Range getDomainBounds(boolean includeInterval) {
+        TimePeriodAnchor anchor = getXPosition();
+        TimePeriodArithmetic arithmetic = TimePeriodArithmetic.getDefault();
+        original.Range result = null;
+        for (int i = 0; i < getSeriesCount(); i++) {
+            TimeSeries s = getSeries(i);
+            long lower;
+            long upper;
+            if (s instanceof IndexedTimeSeries) {
+                TimeSeriesSnapshot snapshot
+                        = ((IndexedTimeSeries) s).getSnapshot();
+                int last = snapshot.getItemCount() - 1;
+                if (last < 0) {
+                    continue;
+                }
+                if (includeInterval) {
+                    lower = snapshot.getFirstMillisecond(0);
+                    upper = snapshot.getLastMillisecond(last);
+                }
+                else {
+                    lower = snapshot.getMillisecond(0, anchor);
+                    upper = snapshot.getMillisecond(last, anchor);
+                }
+            }
+            else {
+                int last = s.getItemCount() - 1;
+                if (last < 0) {
+                    continue;
+                }
+                RegularTimePeriod first = s.getTimePeriod(0);
+                RegularTimePeriod end = s.getTimePeriod(last);
+                if (includeInterval) {
+                    lower = arithmetic.getFirstMillisecond(first);
+                    upper = arithmetic.getLastMillisecond(end);
+                }
+                else {
+                    lower = arithmetic.getMillisecond(first, anchor);
+                    upper = arithmetic.getMillisecond(end, anchor);
+                }
+            }
+            result = original.Range.combine(result,
+                    new original.Range(lower, upper));
+        }
+        return result;
+    }
+
+    /**
+     * Starts a batch of changes.
+     */
+    public void beginUpdate() {
+        getCoalescer().begin();
+    }
+
+    /**
+     * Ends a batch of changes, and notifies the listeners if this ends the
+     * outermost batch and anything changed.
+     */
+    public void endUpdate() {
+        if (getCoalescer().end()) {
+            DatasetBatchChangeEvent event = this.coalescer.createEvent(this,
+                    this);
+            if (event != null) {
+                super.notifyListeners(event);
+            }
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if a batch is open.
+     *
+     * @return A boolean.
+     */
+    public boolean isUpdating() {
+        return this.coalescer != null && this.coalescer.isActive();
+    }
+
+    /**
+     * Receives notification that a series has changed.  An append is sent
+     * as a {@link DatasetAppendEvent} (or, inside a batch, recorded as
+     * one);  inside a batch, any other change is recorded against the
+     * series.
+     *
+     * @param event  the event.
+     */
+    public void seriesChanged(SeriesChangeEvent event) {
+        DatasetAppendEvent append = createAppendEvent(event.getSource());
+        if (append != null) {
+            notifyListeners(append);
+        }
+        else if (isUpdating()) {
+            this.coalescer.seriesChanged(indexOfSeries(event.getSource()));
+        }
+        else {
+            super.seriesChanged(event);
+        }
+    }
+
+    /**
+     * Marks the state of a series after a change and, if the change only
+     * appended items to the series, returns an event that describes them.
+     *
+     * @param source  the series.
+     *
+     * @return The event, or <code>null</code>.
+     */
+    private DatasetAppendEvent createAppendEvent(Object source) {
+        SeriesAppendTracker tracker
+                = (SeriesAppendTracker) getTrackers().get(source);
+        if (tracker == null) {
+            return null;
+        }
+        AppendableSeries series = (AppendableSeries) source;
+        int removed = tracker.getRemovedItemCount(series);
+        int first = tracker.getItemCount() - removed;
+        int appended = tracker.getAppendedItemCount(series);
+        tracker.mark(series);
+        int index = indexOfSeries(source);
+        if (appended < 0 || index < 0) {
+            return null;
+        }
+        return new DatasetAppendEvent(this, this, index, first,
+                first + appended - 1, removed);
+    }
+
+    /**
+     * Notifies the listeners of a change, or records the change if a batch
+     * is open.
+     *
+     * @param event  the event.
+     */
+    protected void notifyListeners(DatasetChangeEvent event) {
+        if (isUpdating()) {
+            this.coalescer.datasetChanged(event);
+        }
+        else {
+            super.notifyListeners(event);
+        }
+    }
+
+    /**
+     * Returns the index of a series in this collection.
+     *
+     * @param series  the series.
+     *
+     * @return The index, or <code>-1</code>.
+     */
+    private int indexOfSeries(Object series) {
+        if (this.seriesIndices == null) {
+            this.seriesIndices = new IdentityHashMap();
+            for (int i = getSeriesCount() - 1; i >= 0; i--) {
+                this.seriesIndices.put(getSeries(i), Integer.valueOf(i));
+            }
+        }
+        Integer index = (Integer) this.seriesIndices.get(series);
+        return index != null ? index.intValue() : -1;
+    }
+
+    /**
+     * Returns the append trackers, creating them for the current series if
+     * necessary.
+     *
+     * @return The trackers.
+     */
+    private Map getTrackers() {
+        if (this.trackers == null) {
+            this.trackers = new IdentityHashMap();
+            for (int i = 0; i < getSeriesCount(); i++) {
+                TimeSeries s = getSeries(i);
+                if (s instanceof AppendableSeries) {
+                    this.trackers.put(s, new SeriesAppendTracker(
+                            (AppendableSeries) s));
+                }
+            }
+        }
+        return this.trackers;
+    }
+
+    /**
+     * Returns the change record, creating it if necessary.
+     *
+     * @return The change record.
+     */
+    private DatasetChangeCoalescer getCoalescer() {
+        if (this.coalescer == null) {
+            this.coalescer = new DatasetChangeCoalescer();
+        }
+        return this.coalescer;
+    }
+
+}
@@ -0,0 +1,186 @@
+package org.jfree.data.time;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.jfree.data.general.SeriesException;
+
+/**
+ * A {@link TimeSeries} that can add many items at once.  Adding
+ * <code>m</code> items to a series of <code>n</code> items one at a time
+ * costs a search, an insertion and a change event for each item;  the
+ * <code>addAll()</code> methods sort the new items once (which takes
+ * linear time if they are already in order), merge them with the existing
+ * items in <code>O(n + m)</code>, apply the maximum item count and age
+ * once, and send one change event.
+ */
+public class BulkTimeSeries extends TimeSeries {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 6408132951377042514L;
+
+    /**
+     * Creates a new empty series, for {@link Day} time periods.
+     *
+     * @param name  the series name (<code>null</code> not permitted).
+     */
+    public BulkTimeSeries(String name) {
+        super(name);
+    }
+
+    /**
+     * Creates a new empty series.
+     *
+     * @param name  the series name (<code>null</code> not permitted).
+     * @param timePeriodClass  the type of time period (<code>null</code> not
+     *                         permitted).
+     */
+    public BulkTimeSeries(String name, Class timePeriodClass) {
+        super(name, timePeriodClass);
+    }
+
+    /**
+     * Creates a new empty series.
+     *
+     * @param name  the series name (<code>null</code> not permitted).
+     * @param domain  the domain description (<code>null</code> permitted).
+     * @param range  the range description (<code>null</code> permitted).
+     * @param timePeriodClass  the type of time period (<code>null</code> not
+     *                         permitted).
+     */
+    public BulkTimeSeries(String name, String domain, String range,
+            Class timePeriodClass) {
+        super(name, domain, range, timePeriodClass);
+    }
+
+    /**
+     * Adds a number of items to the series and sends a single change event
+     * to all registered listeners.  If any of the time periods cannot be
+     * added, the series is not changed.
+     *
+     * @param periods  the time periods (<code>null</code> not permitted,
+     *                 and must be instances of the time period class of
+     *                 the series).
+     * @param values  the values (<code>null</code> not permitted, same
+     *                length as <code>periods</code>).
+     *
+     * @throws SeriesException if a time period has the wrong class, is
+     *         already in the series, or appears more than once.
+     */
+    public void addAll(RegularTimePeriod[] periods, double[] values) {
+        if (periods == null) {
+            throw new IllegalArgumentException("Null 'periods' argument.");
+        }
+        if (values == null) {
+            throw new IllegalArgumentException("Null 'values' argument.");
+        }
+        if (periods.length != values.length) {
+            throw new IllegalArgumentException(
+                    "The 'periods' and 'values' arrays must have the same "
+                    + "length.");
+        }
+        TimeSeriesDataItem[] items = new TimeSeriesDataItem[periods.length];
+        for (int i = 0; i < periods.length; i++) {
+            if (periods[i] == null) {
+                throw new IllegalArgumentException("Null period at index "
+                        + i + ".");
+            }
+            if (!periods[i].getClass().equals(this.timePeriodClass)) {
+                throw new SeriesException("You are trying to add data where "
+                        + "the time period class is "
+                        + periods[i].getClass().getName()
+                        + ", but the TimeSeries is expecting an instance of "
+                        + this.timePeriodClass.getName() + ".");
+            }
+            items[i] = new TimeSeriesDataItem(periods[i], values[i]);
+        }
+        addAll(items);
+    }
+
+    /**
+     * Adds a number of items to the series and sends a single change event
+     * to all registered listeners.  Each time is converted to the time
+     * period (of the time period class of the series) that contains it, in
+     * the default time zone.  If any of the time periods cannot be added,
+     * the series is not changed.
+     *
+     * @param millis  the times, in milliseconds since 1-Jan-1970
+     *                (<code>null</code> not permitted).
+     * @param values  the values (<code>null</code> not permitted, same
+     *                length as <code>millis</code>).
+     *
+     * @throws SeriesException if two times fall in the same time period, or
+     *         in a time period that is already in the series.
+     */
+    public void addAll(long[] millis, double[] values) {
+        if (millis == null) {
+            throw new IllegalArgumentException("Null 'millis' argument.");
+        }
+        if (values == null) {
+            throw new IllegalArgumentException("Null 'values' argument.");
+        }
+        if (millis.length != values.length) {
+            throw new IllegalArgumentException(
+                    "The 'millis' and 'values' arrays must have the same "
+                    + "length.");
+        }
+        TimeSeriesDataItem[] items = new TimeSeriesDataItem[millis.length];
+        for (int i = 0; i < millis.length; i++) {
+            RegularTimePeriod period = RegularTimePeriod.createInstance(
+                    this.timePeriodClass, new Date(millis[i]),
+                    RegularTimePeriod.DEFAULT_TIME_ZONE);
+            items[i] = new TimeSeriesDataItem(period, values[i]);
+        }
+        addAll(items);
+    }
+
+    /**
+     * Sorts new items, merges them with the existing items and sends a
+     * change event.
+     *
+     * @param items  the new items.
+     *
+     * @throws SeriesException if a time period is repeated.
+     */
+    private void addAll(TimeSeriesDataItem[] items) {
+        if (items.length == 0) {
+            return;
+        }
+        Arrays.sort(items);
+        int n = this.data.size();
+        List merged = new ArrayList(n + items.length);
+        int i = 0;
+        int j = 0;
+        TimeSeriesDataItem previous = null;
+        while (i < n || j < items.length) {
+            TimeSeriesDataItem item;
+            if (j == items.length || (i < n && ((TimeSeriesDataItem)
+                    this.data.get(i)).compareTo(items[j]) <= 0)) {
+                item = (TimeSeriesDataItem) this.data.get(i++);
+            }
+            else {
+                item = items[j++];
+            }
+            if (previous != null && previous.compareTo(item) == 0) {
+                throw new SeriesException("You are attempting to add an "
+                        + "observation for the time period "
+                        + item.getPeriod().toString()
+                        + " but the series already contains an observation"
+                        + " for that time period. Duplicates are not "
+                        + "permitted.  Try using the addOrUpdate() method.");
+            }
+            previous = item;
+            merged.add(item);
+        }
+        int excess = merged.size() - getMaximumItemCount();
+        if (excess > 0) {
+            merged.subList(0, excess).clear();
+        }
+        this.data = merged;
+        removeAgedItems(false);
+        fireSeriesChanged();
+    }
+
+}
@@ -0,0 +1,113 @@
+package org.jfree.data.time;
+
+/**
+ * An exponential moving average:  each new value moves the average by a
+ * fixed fraction (<code>alpha</code>) of the difference between the value
+ * and the average.  The first value is the first average.  The average
+ * depends on every value since the start of the series, not just on the
+ * values in the window, and each item counts as one step whatever the gap
+ * since the previous item.
+ */
+public class ExponentialMovingAverage extends RollingStatistic {
+
+    /** The smoothing factor. */
+    private double alpha;
+
+    /** The current average. */
+    private double average;
+
+    /** A flag that indicates that a value has been added. */
+    private boolean started;
+
+    /**
+     * Creates a new exponential moving average.
+     *
+     * @param alpha  the smoothing factor (in the range <code>0.0</code>
+     *               (exclusive) to <code>1.0</code> (inclusive)).
+     */
+    public ExponentialMovingAverage(double alpha) {
+        if (!(alpha > 0.0 && alpha <= 1.0)) {
+            throw new IllegalArgumentException(
+                    "Requires 0.0 < alpha <= 1.0.");
+        }
+        this.alpha = alpha;
+    }
+
+    /**
+     * Creates a new exponential moving average with the smoothing factor
+     * usually matched to a simple moving average over a number of items,
+     * <code>2 / (periodCount + 1)</code>.
+     *
+     * @param periodCount  the number of items (at least 1).
+     *
+     * @return The exponential moving average.
+     */
+    public static ExponentialMovingAverage forPeriodCount(int periodCount) {
+        if (periodCount < 1) {
+            throw new IllegalArgumentException(
+                    "periodCount must be greater than or equal to 1.");
+        }
+        return new ExponentialMovingAverage(2.0 / (periodCount + 1));
+    }
+
+    /**
+     * Returns the smoothing factor.
+     *
+     * @return The smoothing factor.
+     */
+    public double getAlpha() {
+        return this.alpha;
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value  the value.
+     */
+    protected void add(double value) {
+        if (this.started) {
+            this.average += this.alpha * (value - this.average);
+        }
+        else {
+            this.average = value;
+            this.started = true;
+        }
+    }
+
+    /**
+     * Does nothing, as the average keeps the effect of the older values.
+     *
+     * @param value  the value.
+     */
+    protected void remove(double value) {
+        // the older values have already decayed into the average
+    }
+
+    /**
+     * Removes all the values.
+     */
+    public void reset() {
+        this.average = 0.0;
+        this.started = false;
+    }
+
+    /**
+     * Returns the average.
+     *
+     * @return The average, or <code>null</code> if no value has been added.
+     */
+    public Number getValue() {
+        return this.started ? Double.valueOf(this.average) : null;
+    }
+
+    /**
+     * Returns <code>false</code>, as the average depends on the values that
+     * have left the window.
+     *
+     * @return <code>false</code>.
+     */
+    protected boolean isWindowed() {
+        return false;
+    }
+
+}
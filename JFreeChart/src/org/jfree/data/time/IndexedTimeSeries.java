@@ -0,0 +1,521 @@
+package org.jfree.data.time;
+
+import org.jfree.data.general.AppendableSeries;
+
+/**
+ * A {@link TimeSeries} that keeps the first, middle and last millisecond of
+ * each time period, in the default time zone, and the values in arrays.
+ * {@link #getIndex(RegularTimePeriod)} searches the array of first
+ * milliseconds instead of comparing {@link RegularTimePeriod} objects, and
+ * {@link BatchTimeSeriesCollection} reads the x-values of this series from
+ * the arrays instead of calculating them for each item every time the chart
+ * is drawn.
+ * <P>
+ * The arrays are published as an immutable {@link TimeSeriesSnapshot}
+ * after each change, so one thread can change the series while any number
+ * of other threads read it through {@link #getSnapshot()} (or through
+ * {@link BatchTimeSeriesCollection}) without locking.  The other methods
+ * of the series are not safe to call from other threads while it is being
+ * changed.
+ * <P>
+ * Adding an item after the last item (the usual case for a live series)
+ * and removing the oldest items (for the maximum item count or age) update
+ * the snapshot in constant amortized time, and changing a value leaves the
+ * milliseconds as they are;  any other change builds a new snapshot from
+ * all the items.  While notification is off (see {@link #setNotify(boolean)})
+ * the snapshot is not rebuilt, so readers see the series as it was before.
+ * <P>
+ * The series counts the changes that do more than add one item after the
+ * last item, and the oldest items removed to make room for it (see
+ * {@link AppendableSeries}), so that
+ * {@link BatchTimeSeriesCollection} can report appends to its listeners.
+ * Changes that the snapshot cannot follow count as rewrites.
+ */
+public class IndexedTimeSeries extends TimeSeries
+        implements AppendableSeries {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 3356048519250932176L;
+
+    /** No change is in progress. */
+    private static final int NO_CHANGE = 0;
+
+    /** An item is being added after the last item. */
+    private static final int APPEND = 1;
+
+    /** The oldest items are being removed. */
+    private static final int REMOVE_OLDEST = 2;
+
+    /** A value is being changed. */
+    private static final int UPDATE_VALUE = 3;
+
+    /** Any other change. */
+    private static final int OTHER_CHANGE = 4;
+
+    /** The latest snapshot (<code>null</code> until first needed). */
+    private transient volatile TimeSeriesSnapshot snapshot;
+
+    /**
+     * A flag that indicates that the snapshot is older than the items
+     * (only set while notification is off).
+     */
+    private transient boolean stale;
+
+    /** The outermost change in progress. */
+    private transient int pendingChange;
+
+    /** The index of the item whose value is being changed. */
+    private transient int updatedIndex;
+
+    /** The number of nested changes in progress. */
+    private transient int changeDepth;
+
+    /** The item count before the outermost change in progress. */
+    private transient int countBefore;
+
+    /**
+     * A flag that indicates that a change event was requested during the
+     * change in progress.
+     */
+    private transient boolean eventPending;
+
+    /** The number of changes other than appends. */
+    private transient long rewriteCount;
+
+    /** The number of items removed to make room for appended items. */
+    private transient long removedOldestCount;
+
+    /**
+     * Creates a new empty series, for {@link Day} time periods.
+     *
+     * @param name  the series name (<code>null</code> not permitted).
+     */
+    public IndexedTimeSeries(String name) {
+        this(name, Day.class);
+    }
+
+    /**
+     * Creates a new empty series.
+     *
+     * @param name  the series name (<code>null</code> not permitted).
+     * @param timePeriodClass  the type of time period (<code>null</code> not
+     *                         permitted).
+     */
+    public IndexedTimeSeries(String name, Class timePeriodClass) {
+        super(name, timePeriodClass);
+        this.snapshot = TimeSeriesSnapshot.EMPTY;
+    }
+
+    /**
+     * Creates a new empty series.
+     *
+     * @param name  the series name (<code>null</code> not permitted).
+     * @param domain  the domain description (<code>null</code> permitted).
+     * @param range  the range description (<code>null</code> permitted).
+     * @param timePeriodClass  the type of time period (<code>null</code> not
+     *                         permitted).
+     */
+    public IndexedTimeSeries(String name, String domain, String range,
+            Class timePeriodClass) {
+        super(name, domain, range, timePeriodClass);
+        this.snapshot = TimeSeriesSnapshot.EMPTY;
+    }
+
+    /**
+     * Returns the latest snapshot of the items.  The snapshot does not
+     * change, so several values can be read from it consistently while the
+     * series is being changed by another thread.
+     *
+     * @return The snapshot.
+     */
+    public TimeSeriesSnapshot getSnapshot() {
+        TimeSeriesSnapshot result = this.snapshot;
+        if (result == null) {
+            synchronized (this) {
+                if (this.snapshot == null) {
+                    this.snapshot = TimeSeriesSnapshot.create(this,
+                            getArithmetic());
+                }
+                result = this.snapshot;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of changes made to the series, other than adding
+     * an item after the last item.
+     *
+     * @return The rewrite count.
+     */
+    public long getRewriteCount() {
+        return this.rewriteCount;
+    }
+
+    /**
+     * Returns the number of items removed from the start of the series
+     * (for the maximum item count or age) as items were added after the
+     * last item.
+     *
+     * @return The removed item count.
+     */
+    public long getRemovedOldestCount() {
+        return this.removedOldestCount;
+    }
+
+    /**
+     * Returns the first millisecond of the time period for an item, in the
+     * default time zone.
+     *
+     * @param index  the item index (zero-based).
+     *
+     * @return The millisecond.
+     */
+    public long getFirstMillisecond(int index) {
+        return getSnapshot().getFirstMillisecond(index);
+    }
+
+    /**
+     * Returns the middle millisecond of the time period for an item, in the
+     * default time zone.
+     *
+     * @param index  the item index (zero-based).
+     *
+     * @return The millisecond.
+     */
+    public long getMiddleMillisecond(int index) {
+        return getSnapshot().getMiddleMillisecond(index);
+    }
+
+    /**
+     * Returns the last millisecond of the time period for an item, in the
+     * default time zone.
+     *
+     * @param index  the item index (zero-based).
+     *
+     * @return The millisecond.
+     */
+    public long getLastMillisecond(int index) {
+        return getSnapshot().getLastMillisecond(index);
+    }
+
+    /**
+     * Returns a point in the time period for an item, in the default time
+     * zone.
+     *
+     * @param index  the item index (zero-based).
+     * @param anchor  the point in the time period (<code>null</code> not
+     *                permitted).
+     *
+     * @return The millisecond.
+     */
+    public long getMillisecond(int index, TimePeriodAnchor anchor) {
+        return getSnapshot().getMillisecond(index, anchor);
+    }
+
+    /**
+     * Returns the index of the item for a time period.  The item is found
+     * by its first millisecond;  two time periods can share a first
+     * millisecond (an hour skipped at the start of daylight saving time
+     * starts at the same millisecond as the next hour), so the time period
+     * of the item found is checked, and the items are searched by time
+     * period if it does not match.
+     *
+     * @param period  the time period (<code>null</code> not permitted).
+     *
+     * @return The index, or <code>-(insertion point) - 1</code> if there is
+     *         no item for the time period.
+     */
+    public int getIndex(RegularTimePeriod period) {
+        if (period == null || this.changeDepth > 0 || this.stale
+                || !period.getClass().equals(this.timePeriodClass)) {
+            return super.getIndex(period);
+        }
+        int index = getSnapshot().indexOf(
+                getArithmetic().getFirstMillisecond(period));
+        if (index >= 0 && !getTimePeriod(index).equals(period)) {
+            return super.getIndex(period);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the indices of the items just before and just after a time
+     * (see {@link TimeSeriesSnapshot#getSurroundingItems(TimePeriodAnchor,
+     * long)}).
+     *
+     * @param anchor  the point in each time period to compare with the time
+     *                (<code>null</code> not permitted).
+     * @param millisecond  the time.
+     *
+     * @return The indices (an array of length 2).
+     */
+    public int[] getSurroundingItems(TimePeriodAnchor anchor,
+            long millisecond) {
+        return getSnapshot().getSurroundingItems(anchor, millisecond);
+    }
+
+    /**
+     * Adds an item to the series and sends a change event to all registered
+     * listeners.
+     *
+     * @param item  the item (<code>null</code> not permitted).
+     */
+    public void add(TimeSeriesDataItem item) {
+        int count = getItemCount();
+        boolean append = item != null
+                && item.getPeriod().getClass().equals(this.timePeriodClass)
+                && (count == 0 || item.getPeriod().compareTo(
+                        getTimePeriod(count - 1)) > 0);
+        change(append ? APPEND : OTHER_CHANGE);
+        boolean added = false;
+        try {
+            super.add(item);
+            added = true;
+        }
+        finally {
+            if (!added) {
+                this.pendingChange = OTHER_CHANGE;
+            }
+            changed();
+        }
+    }
+
+    /**
+     * Updates the value of an item and sends a change event to all
+     * registered listeners.
+     *
+     * @param period  the time period (<code>null</code> not permitted).
+     * @param value  the new value (<code>null</code> permitted).
+     */
+    public void update(RegularTimePeriod period, Number value) {
+        if (this.changeDepth == 0 && period != null) {
+            this.updatedIndex = super.getIndex(period);
+        }
+        change(UPDATE_VALUE);
+        try {
+            super.update(period, value);
+        }
+        finally {
+            changed();
+        }
+    }
+
+    /**
+     * Updates the value of an item and sends a change event to all
+     * registered listeners.
+     *
+     * @param index  the item index (zero-based).
+     * @param value  the new value (<code>null</code> permitted).
+     */
+    public void update(int index, Number value) {
+        if (this.changeDepth == 0) {
+            this.updatedIndex = index;
+        }
+        change(UPDATE_VALUE);
+        try {
+            super.update(index, value);
+        }
+        finally {
+            changed();
+        }
+    }
+
+    /**
+     * Sets the maximum number of items in the series, and removes the
+     * oldest items if there are more than this.
+     *
+     * @param maximum  the maximum number of items.
+     */
+    public void setMaximumItemCount(int maximum) {
+        change(REMOVE_OLDEST);
+        try {
+            super.setMaximumItemCount(maximum);
+        }
+        finally {
+            changed();
+        }
+    }
+
+    /**
+     * Removes the items that are older than the maximum item age, compared
+     * with the latest item.
+     *
+     * @param notify  controls whether or not a change event is sent.
+     */
+    public void removeAgedItems(boolean notify) {
+        change(REMOVE_OLDEST);
+        try {
+            super.removeAgedItems(notify);
+        }
+        finally {
+            changed();
+        }
+    }
+
+    /**
+     * Removes the items that are older than the maximum item age, compared
+     * with a given time.
+     *
+     * @param latest  the time, in milliseconds.
+     * @param notify  controls whether or not a change event is sent.
+     */
+    public void removeAgedItems(long latest, boolean notify) {
+        change(REMOVE_OLDEST);
+        try {
+            super.removeAgedItems(latest, notify);
+        }
+        finally {
+            changed();
+        }
+    }
+
+    /**
+     * Sends a change event to all registered listeners (if notification is
+     * on).  Outside the methods that the snapshot can follow, this builds a
+     * new snapshot and counts as a rewrite;  inside them, the event is sent
+     * when the change is finished, so that listeners see the new snapshot.
+     */
+    public void fireSeriesChanged() {
+        if (this.changeDepth > 0) {
+            this.eventPending = true;
+            return;
+        }
+        this.rewriteCount++;
+        if (this.snapshot != null) {
+            rebuild();
+        }
+        super.fireSeriesChanged();
+    }
+
+    /**
+     * Creates a new series with copies of some of the items in this series.
+     *
+     * @param start  the index of the first item to copy.
+     * @param end  the index of the last item to copy.
+     *
+     * @return The new series.
+     *
+     * @throws CloneNotSupportedException if the series cannot be cloned.
+     */
+    public TimeSeries createCopy(int start, int end)
+            throws CloneNotSupportedException {
+        // the copy must not write into the arrays of this series, so it is
+        // made while this series has no snapshot (readers build one if they
+        // need it, as the items do not change meanwhile)
+        TimeSeriesSnapshot current = this.snapshot;
+        this.snapshot = null;
+        try {
+            IndexedTimeSeries copy = (IndexedTimeSeries) super.createCopy(
+                    start, end);
+            copy.snapshot = null;
+            copy.stale = false;
+            return copy;
+        }
+        finally {
+            if (this.snapshot == null) {
+                this.snapshot = current;
+            }
+        }
+    }
+
+    /**
+     * Records the change that is about to be made.  Changes made while
+     * another is in progress (for example, the aged items removed by
+     * {@link #add(TimeSeriesDataItem)}) are part of that change.
+     *
+     * @param change  the change.
+     */
+    private void change(int change) {
+        if (this.changeDepth == 0) {
+            this.pendingChange = change;
+            this.countBefore = getItemCount();
+        }
+        this.changeDepth++;
+    }
+
+    /**
+     * Finishes a change and, at the end of the outermost change, publishes
+     * a new snapshot and sends the change event (if one was requested).
+     */
+    private void changed() {
+        this.changeDepth--;
+        if (this.changeDepth > 0) {
+            return;
+        }
+        int change = this.pendingChange;
+        this.pendingChange = NO_CHANGE;
+        int count = getItemCount();
+        if (change == APPEND && count >= 1
+                && count <= this.countBefore + 1) {
+            this.removedOldestCount += this.countBefore + 1 - count;
+        }
+        else {
+            this.rewriteCount++;
+        }
+        updateSnapshot(change);
+        if (this.eventPending) {
+            this.eventPending = false;
+            super.fireSeriesChanged();
+        }
+    }
+
+    /**
+     * Publishes a new snapshot after a change.
+     *
+     * @param change  the change.
+     */
+    private void updateSnapshot(int change) {
+        TimeSeriesSnapshot current = this.snapshot;
+        if (current == null) {
+            return;
+        }
+        if (this.stale) {
+            rebuild();
+            return;
+        }
+        int count = getItemCount();
+        int previous = current.getItemCount();
+        if (change == UPDATE_VALUE && count == previous
+                && this.updatedIndex >= 0 && this.updatedIndex < count) {
+            this.snapshot = current.update(this.updatedIndex,
+                    getValue(this.updatedIndex));
+        }
+        else if (change == APPEND && count >= 1 && count <= previous + 1) {
+            this.snapshot = current.removeOldest(previous + 1 - count)
+                    .append(getTimePeriod(count - 1), getValue(count - 1),
+                            getArithmetic());
+        }
+        else if (change == REMOVE_OLDEST && count <= previous) {
+            this.snapshot = current.removeOldest(previous - count);
+        }
+        else if (change != UPDATE_VALUE || count != previous) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Builds a new snapshot from all the items or, while notification is
+     * off, marks the snapshot as stale.
+     */
+    private void rebuild() {
+        if (getNotify()) {
+            this.stale = false;
+            this.snapshot = TimeSeriesSnapshot.create(this, getArithmetic());
+        }
+        else {
+            this.stale = true;
+        }
+    }
+
+    /**
+     * Returns the arithmetic used to find the milliseconds, for the default
+     * time zone.
+     *
+     * @return The arithmetic.
+     */
+    private TimePeriodArithmetic getArithmetic() {
+        return TimePeriodArithmetic.getDefault();
+    }
+
+}
@@ -0,0 +1,26 @@
+package org.jfree.data.time;
+
+/**
+ * Keeps a moving average series up to date with a source series (see
+ * {@link RollingStatisticOperator}).  The averages are the same as those
+ * of
+ * {@link SlidingMovingAverage#createMovingAverage(TimeSeries, String, int,
+ * int)}.
+ */
+public class MovingAverageOperator extends RollingStatisticOperator {
+
+    /**
+     * Creates a new operator, containing the moving average of the items
+     * in the source series, and starts listening to the source.
+     *
+     * @param source  the source series (<code>null</code> not permitted).
+     * @param name  the name of the moving average series.
+     * @param periodCount  the number of periods in the moving average.
+     * @param skip  the number of periods to skip at the start.
+     */
+    public MovingAverageOperator(TimeSeries source, String name,
+            int periodCount, int skip) {
+        super(source, name, periodCount, skip, new RollingMean());
+    }
+
+}
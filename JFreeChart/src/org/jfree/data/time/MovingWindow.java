@@ -0,0 +1,180 @@
+package org.jfree.data.time;
+
+/**
+ * The items in a moving window, oldest first, and a
+ * {@link RollingStatistic} of their values.  Items are added at the end and
+ * removed from the start, each in constant amortized time, so a rolling
+ * statistic over <code>n</code> items takes <code>O(n)</code> time whatever
+ * the size of the window.
+ * <P>
+ * Each time as many values have been removed as the window can hold, a
+ * windowed statistic is calculated again from the values in the window,
+ * so rounding errors do not build up over a long series.
+ */
+final class MovingWindow {
+
+    /** The initial array length. */
+    private static final int MINIMUM_CAPACITY = 16;
+
+    /** The statistic. */
+    private RollingStatistic statistic;
+
+    /** The item keys (serial index or x-value). */
+    private double[] keys;
+
+    /** The item values. */
+    private double[] values;
+
+    /** The flags that indicate that an item has a value (is not null). */
+    private boolean[] present;
+
+    /** The array index of the oldest item. */
+    private int head;
+
+    /** The number of items. */
+    private int size;
+
+    /** The number of values removed since the statistic was recalculated. */
+    private int removals;
+
+    /**
+     * Creates a new empty window.
+     *
+     * @param capacity  the expected maximum number of items.
+     * @param statistic  the statistic (its values are removed).
+     */
+    MovingWindow(int capacity, RollingStatistic statistic) {
+        int length = MINIMUM_CAPACITY;
+        while (length < capacity) {
+            length <<= 1;
+        }
+        this.keys = new double[length];
+        this.values = new double[length];
+        this.present = new boolean[length];
+        this.statistic = statistic;
+        statistic.reset();
+    }
+
+    /**
+     * Returns the number of items (including those without a value).
+     *
+     * @return The item count.
+     */
+    int getItemCount() {
+        return this.size;
+    }
+
+    /**
+     * Returns the statistic for the values in the window.
+     *
+     * @return The statistic (possibly <code>null</code>).
+     */
+    Number getValue() {
+        return this.statistic.getValue();
+    }
+
+    /**
+     * Adds an item after the newest item.
+     *
+     * @param key  the key (not less than the key of the newest item).
+     * @param value  the value (<code>null</code> permitted).
+     */
+    void add(double key, Number value) {
+        if (this.size == this.keys.length) {
+            grow();
+        }
+        int i = (this.head + this.size) & (this.keys.length - 1);
+        this.keys[i] = key;
+        this.present[i] = value != null;
+        this.values[i] = value != null ? value.doubleValue() : 0.0;
+        this.size++;
+        if (this.present[i]) {
+            this.statistic.add(this.values[i]);
+        }
+    }
+
+    /**
+     * Removes the oldest items while there are more than a given number.
+     *
+     * @param maximum  the maximum number of items.
+     */
+    void removeExcess(int maximum) {
+        while (this.size > maximum) {
+            removeOldest();
+        }
+    }
+
+    /**
+     * Removes the oldest items while their key is less than or equal to a
+     * limit.
+     *
+     * @param limit  the limit.
+     */
+    void removeUpTo(double limit) {
+        while (this.size > 0 && this.keys[this.head] <= limit) {
+            removeOldest();
+        }
+    }
+
+    /**
+     * Removes all the items.
+     */
+    void clear() {
+        this.head = 0;
+        this.size = 0;
+        this.removals = 0;
+        this.statistic.reset();
+    }
+
+    /**
+     * Removes the oldest item.
+     */
+    private void removeOldest() {
+        int i = this.head;
+        this.head = (this.head + 1) & (this.keys.length - 1);
+        this.size--;
+        if (this.present[i]) {
+            this.statistic.remove(this.values[i]);
+            if (++this.removals >= this.keys.length
+                    && this.statistic.isWindowed()) {
+                recalculate();
+            }
+        }
+    }
+
+    /**
+     * Calculates the statistic again from the values in the window.
+     */
+    private void recalculate() {
+        this.removals = 0;
+        this.statistic.reset();
+        int mask = this.keys.length - 1;
+        for (int k = 0; k < this.size; k++) {
+            int i = (this.head + k) & mask;
+            if (this.present[i]) {
+                this.statistic.add(this.values[i]);
+            }
+        }
+    }
+
+    /**
+     * Doubles the length of the arrays.
+     */
+    private void grow() {
+        int length = this.keys.length;
+        double[] k = new double[length * 2];
+        double[] v = new double[length * 2];
+        boolean[] p = new boolean[length * 2];
+        for (int n = 0; n < this.size; n++) {
+            int i = (this.head + n) & (length - 1);
+            k[n] = this.keys[i];
+            v[n] = this.values[i];
+            p[n] = this.present[i];
+        }
+        this.keys = k;
+        this.values = v;
+        this.present = p;
+        this.head = 0;
+    }
+
+}
@@ -0,0 +1,73 @@
+package org.jfree.data.time;
+
+import org.jfree.data.RingBufferList;
+
+/**
+ * A {@link TimeSeries} that keeps its items in a {@link RingBufferList}, so
+ * that removing the oldest item takes constant time.  Use this class for a
+ * rolling window (see {@link #setMaximumItemCount(int)} and
+ * {@link #setMaximumItemAge(int)}):  {@link TimeSeries} shifts every item
+ * each time the oldest item is removed, while this class only moves the
+ * start of the window.  Items are still accessed by their index in the
+ * window, so {@link #getDataItem(int)} and {@link #getValue(int)} return
+ * the same items as for a {@link TimeSeries}.
+ */
+public class RingTimeSeries extends TimeSeries {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -2275934109683461570L;
+
+    /**
+     * Creates a new empty series, for {@link Day} time periods.
+     *
+     * @param name  the series name (<code>null</code> not permitted).
+     */
+    public RingTimeSeries(String name) {
+        this(name, Day.class);
+    }
+
+    /**
+     * Creates a new empty series.
+     *
+     * @param name  the series name (<code>null</code> not permitted).
+     * @param timePeriodClass  the type of time period (<code>null</code> not
+     *                         permitted).
+     */
+    public RingTimeSeries(String name, Class timePeriodClass) {
+        super(name, timePeriodClass);
+        this.data = new RingBufferList();
+    }
+
+    /**
+     * Creates a new empty series.
+     *
+     * @param name  the series name (<code>null</code> not permitted).
+     * @param domain  the domain description (<code>null</code> permitted).
+     * @param range  the range description (<code>null</code> permitted).
+     * @param timePeriodClass  the type of time period (<code>null</code> not
+     *                         permitted).
+     */
+    public RingTimeSeries(String name, String domain, String range,
+            Class timePeriodClass) {
+        super(name, domain, range, timePeriodClass);
+        this.data = new RingBufferList();
+    }
+
+    /**
+     * Creates a new series with copies of some of the items in this series.
+     *
+     * @param start  the index of the first item to copy.
+     * @param end  the index of the last item to copy.
+     *
+     * @return The new series.
+     *
+     * @throws CloneNotSupportedException if the series cannot be cloned.
+     */
+    public TimeSeries createCopy(int start, int end)
+            throws CloneNotSupportedException {
+        TimeSeries copy = super.createCopy(start, end);
+        ((RingTimeSeries) copy).data = new RingBufferList(copy.getItems());
+        return copy;
+    }
+
+}
@@ -0,0 +1,164 @@
+package org.jfree.data.time;
+
+/**
+ * The minimum or maximum of the values in a moving window.  The candidates
+ * are kept in a monotonic deque:  a new value removes every older value
+ * that it beats from the back of the deque, as those can never be the
+ * extremum again, so the front of the deque is always the extremum and
+ * each value is added and removed at most once.
+ */
+public class RollingExtremum extends RollingStatistic {
+
+    /** The initial deque length (a power of two). */
+    private static final int MINIMUM_CAPACITY = 16;
+
+    /** A flag that selects the maximum rather than the minimum. */
+    private boolean maximum;
+
+    /** The candidate values, oldest first. */
+    private double[] candidates;
+
+    /** The position in the window of each candidate. */
+    private long[] positions;
+
+    /** The array index of the oldest candidate. */
+    private int head;
+
+    /** The number of candidates. */
+    private int size;
+
+    /** The number of values added. */
+    private long added;
+
+    /** The number of values removed. */
+    private long removed;
+
+    /** The number of NaN values. */
+    private int nanCount;
+
+    /**
+     * Creates a new rolling minimum or maximum, with no values.
+     *
+     * @param maximum  <code>true</code> for the maximum, <code>false</code>
+     *                 for the minimum.
+     */
+    public RollingExtremum(boolean maximum) {
+        this.maximum = maximum;
+        this.candidates = new double[MINIMUM_CAPACITY];
+        this.positions = new long[MINIMUM_CAPACITY];
+    }
+
+    /**
+     * Returns <code>true</code> for a rolling maximum, and
+     * <code>false</code> for a rolling minimum.
+     *
+     * @return A boolean.
+     */
+    public boolean isMaximum() {
+        return this.maximum;
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value  the value.
+     */
+    protected void add(double value) {
+        long position = this.added++;
+        if (Double.isNaN(value)) {
+            this.nanCount++;
+            return;
+        }
+        int mask = this.candidates.length - 1;
+        while (this.size > 0) {
+            double last = this.candidates[(this.head + this.size - 1) & mask];
+            if (this.maximum ? last > value : last < value) {
+                break;
+            }
+            this.size--;
+        }
+        if (this.size == this.candidates.length) {
+            grow();
+            mask = this.candidates.length - 1;
+        }
+        int i = (this.head + this.size) & mask;
+        this.candidates[i] = value;
+        this.positions[i] = position;
+        this.size++;
+    }
+
+    /**
+     * Removes a value (the oldest).
+     *
+     * @param value  the value.
+     */
+    protected void remove(double value) {
+        long position = this.removed++;
+        if (Double.isNaN(value)) {
+            this.nanCount--;
+        }
+        else if (this.size > 0 && this.positions[this.head] == position) {
+            this.head = (this.head + 1) & (this.candidates.length - 1);
+            this.size--;
+        }
+    }
+
+    /**
+     * Removes all the values.
+     */
+    public void reset() {
+        this.head = 0;
+        this.size = 0;
+        this.added = 0;
+        this.removed = 0;
+        this.nanCount = 0;
+    }
+
+    /**
+     * Returns the minimum or maximum of the values.
+     *
+     * @return The extremum (<code>NaN</code> if any value is NaN), or
+     *         <code>null</code> if there are no values.
+     */
+    public Number getValue() {
+        if (this.added == this.removed) {
+            return null;
+        }
+        if (this.nanCount > 0) {
+            return Double.valueOf(Double.NaN);
+        }
+        return Double.valueOf(this.candidates[this.head]);
+    }
+
+    /**
+     * Returns a copy of this statistic.
+     *
+     * @return A copy.
+     *
+     * @throws CloneNotSupportedException if the statistic cannot be cloned.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        RollingExtremum clone = (RollingExtremum) super.clone();
+        clone.candidates = this.candidates.clone();
+        clone.positions = this.positions.clone();
+        return clone;
+    }
+
+    /**
+     * Doubles the length of the deque arrays.
+     */
+    private void grow() {
+        int length = this.candidates.length;
+        double[] c = new double[length * 2];
+        long[] p = new long[length * 2];
+        for (int n = 0; n < this.size; n++) {
+            int i = (this.head + n) & (length - 1);
+            c[n] = this.candidates[i];
+            p[n] = this.positions[i];
+        }
+        this.candidates = c;
+        this.positions = p;
+        this.head = 0;
+    }
+
+}
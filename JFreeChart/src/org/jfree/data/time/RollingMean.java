@@ -0,0 +1,125 @@
+package org.jfree.data.time;
+
+/**
+ * The mean of the values in a moving window (a moving average).  The sum
+ * is compensated (Neumaier's variant of Kahan summation), and infinite and
+ * NaN values are counted rather than summed, so the mean is the same as
+ * that of a plain sum over the window.
+ */
+public class RollingMean extends RollingStatistic {
+
+    /** The number of finite values. */
+    private int finiteCount;
+
+    /** The number of NaN values. */
+    private int nanCount;
+
+    /** The number of positive infinite values. */
+    private int positiveInfinityCount;
+
+    /** The number of negative infinite values. */
+    private int negativeInfinityCount;
+
+    /** The sum of the finite values. */
+    private double sum;
+
+    /** The compensation for the rounding errors in the sum. */
+    private double compensation;
+
+    /**
+     * Creates a new moving average, with no values.
+     */
+    public RollingMean() {
+        super();
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value  the value.
+     */
+    protected void add(double value) {
+        count(value, 1);
+    }
+
+    /**
+     * Removes a value.
+     *
+     * @param value  the value.
+     */
+    protected void remove(double value) {
+        count(value, -1);
+    }
+
+    /**
+     * Removes all the values.
+     */
+    public void reset() {
+        this.finiteCount = 0;
+        this.nanCount = 0;
+        this.positiveInfinityCount = 0;
+        this.negativeInfinityCount = 0;
+        this.sum = 0.0;
+        this.compensation = 0.0;
+    }
+
+    /**
+     * Returns the mean of the values.
+     *
+     * @return The mean, or <code>null</code> if there are no values.
+     */
+    public Number getValue() {
+        int count = this.finiteCount + this.nanCount
+                + this.positiveInfinityCount + this.negativeInfinityCount;
+        if (count == 0) {
+            return null;
+        }
+        double result;
+        if (this.nanCount > 0 || (this.positiveInfinityCount > 0
+                && this.negativeInfinityCount > 0)) {
+            result = Double.NaN;
+        }
+        else if (this.positiveInfinityCount > 0) {
+            result = Double.POSITIVE_INFINITY;
+        }
+        else if (this.negativeInfinityCount > 0) {
+            result = Double.NEGATIVE_INFINITY;
+        }
+        else {
+            result = (this.sum + this.compensation) / count;
+        }
+        return Double.valueOf(result);
+    }
+
+    /**
+     * Adds a value to, or removes it from, the sum and counts.
+     *
+     * @param value  the value.
+     * @param sign  <code>1</code> to add the value, <code>-1</code> to
+     *              remove it.
+     */
+    private void count(double value, int sign) {
+        if (Double.isNaN(value)) {
+            this.nanCount += sign;
+        }
+        else if (value == Double.POSITIVE_INFINITY) {
+            this.positiveInfinityCount += sign;
+        }
+        else if (value == Double.NEGATIVE_INFINITY) {
+            this.negativeInfinityCount += sign;
+        }
+        else {
+            this.finiteCount += sign;
+            double v = sign * value;
+            double t = this.sum + v;
+            if (Math.abs(this.sum) >= Math.abs(v)) {
+                this.compensation += (this.sum - t) + v;
+            }
+            else {
+                this.compensation += (v - t) + this.sum;
+            }
+            this.sum = t;
+        }
+    }
+
+}
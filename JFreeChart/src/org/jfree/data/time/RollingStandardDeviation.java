@@ -0,0 +1,97 @@
+package org.jfree.data.time;
+
+/**
+ * The sample standard deviation of the values in a moving window, updated
+ * with Welford's method as values enter and leave the window, which is
+ * much less prone to cancellation than keeping a sum of squares.  As for
+ * {@link org.jfree.data.statistics.Statistics#getStdDev(Number[])}, the
+ * sum of the squared deviations is divided by <code>n - 1</code>.
+ */
+public class RollingStandardDeviation extends RollingStatistic {
+
+    /** The number of finite values. */
+    private int count;
+
+    /** The mean of the finite values. */
+    private double mean;
+
+    /** The sum of the squared deviations from the mean. */
+    private double squares;
+
+    /** The number of infinite or NaN values. */
+    private int otherCount;
+
+    /**
+     * Creates a new rolling standard deviation, with no values.
+     */
+    public RollingStandardDeviation() {
+        super();
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value  the value.
+     */
+    protected void add(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            this.otherCount++;
+            return;
+        }
+        this.count++;
+        double delta = value - this.mean;
+        this.mean += delta / this.count;
+        this.squares += delta * (value - this.mean);
+    }
+
+    /**
+     * Removes a value.
+     *
+     * @param value  the value.
+     */
+    protected void remove(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            this.otherCount--;
+            return;
+        }
+        if (this.count == 1) {
+            this.count = 0;
+            this.mean = 0.0;
+            this.squares = 0.0;
+            return;
+        }
+        double delta = value - this.mean;
+        this.mean -= delta / (this.count - 1);
+        this.squares -= delta * (value - this.mean);
+        this.count--;
+    }
+
+    /**
+     * Removes all the values.
+     */
+    public void reset() {
+        this.count = 0;
+        this.mean = 0.0;
+        this.squares = 0.0;
+        this.otherCount = 0;
+    }
+
+    /**
+     * Returns the standard deviation of the values.
+     *
+     * @return The standard deviation (<code>NaN</code> if any value is
+     *         infinite or NaN), or <code>null</code> if there are fewer
+     *         than two values.
+     */
+    public Number getValue() {
+        if (this.count + this.otherCount < 2) {
+            return null;
+        }
+        if (this.otherCount > 0) {
+            return Double.valueOf(Double.NaN);
+        }
+        return Double.valueOf(Math.sqrt(Math.max(0.0, this.squares)
+                / (this.count - 1)));
+    }
+
+}
@@ -0,0 +1,67 @@
+package org.jfree.data.time;
+
+/**
+ * A statistic of the values in a moving window, updated as values enter
+ * and leave the window rather than calculated from all of them each time.
+ * The window (see {@link RollingStatistics}) passes each non-null value to
+ * {@link #add(double)} as it enters, and to {@link #remove(double)} as it
+ * leaves, always in the order in which the values were added.
+ * <P>
+ * An instance holds the state for one series, so the methods that work
+ * on several series use a copy (see {@link #clone()}) of the instance
+ * they are given for each series.
+ */
+public abstract class RollingStatistic implements Cloneable {
+
+    /**
+     * Adds a value (the newest in the window).
+     *
+     * @param value  the value.
+     */
+    protected abstract void add(double value);
+
+    /**
+     * Removes a value (the oldest in the window).
+     *
+     * @param value  the value.
+     */
+    protected abstract void remove(double value);
+
+    /**
+     * Removes all the values.
+     */
+    public abstract void reset();
+
+    /**
+     * Returns the statistic for the values in the window.
+     *
+     * @return The statistic (<code>null</code> if it is not defined for
+     *         the values in the window, for example if there are none).
+     */
+    public abstract Number getValue();
+
+    /**
+     * Returns <code>true</code> if the statistic depends only on the
+     * values in the window, so that it can be calculated again from them
+     * (which the window does from time to time, to stop rounding errors
+     * building up).  The default is <code>true</code>.
+     *
+     * @return A boolean.
+     */
+    protected boolean isWindowed() {
+        return true;
+    }
+
+    /**
+     * Returns a copy of this statistic, with the same parameters and
+     * values.
+     *
+     * @return A copy.
+     *
+     * @throws CloneNotSupportedException if the statistic cannot be cloned.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        return super.clone();
+    }
+
+}
@@ -0,0 +1,266 @@
+package org.jfree.data.time;
+
+import org.jfree.data.general.SeriesChangeEvent;
+import org.jfree.data.general.SeriesChangeListener;
+
+/**
+ * Keeps a series of a {@link RollingStatistic} up to date with a source
+ * series.  The operator listens to the source and, when items have been
+ * added after the last item it has seen, adds the statistic for just
+ * those items to the target series, in constant amortized time for each
+ * item, instead of creating the whole series again.  The results are the
+ * same as those of
+ * {@link RollingStatistics#createRollingStatistic(TimeSeries, String, int,
+ * int, RollingStatistic)}.
+ * <P>
+ * Items removed from the start of the source (for its maximum item count
+ * or age) are dropped from the window as it moves on, and the target has
+ * the same maximum item count and age as the source.  Any other change to
+ * the source that the operator can see (an item inserted before the last
+ * item, even if the source then removes its oldest item to stay within its
+ * maximum item count, an item removed other than from the start, or a new
+ * value for the last item) makes it create the target items again from
+ * the whole source;  after changing the values of older items, call
+ * {@link #refresh()}.
+ */
+public class RollingStatisticOperator implements SeriesChangeListener {
+
+    /** The source series. */
+    private TimeSeries source;
+
+    /** The rolling statistic series. */
+    private TimeSeries target;
+
+    /** The number of periods in the window. */
+    private int periodCount;
+
+    /** The number of periods to skip at the start of the source. */
+    private int skip;
+
+    /** The items in the current window. */
+    private MovingWindow window;
+
+    /** The serial index of the first period that has a result. */
+    private long firstSerial;
+
+    /** The last source time period seen (<code>null</code> if none). */
+    private RegularTimePeriod lastPeriod;
+
+    /** The value of the last source item seen. */
+    private Number lastValue;
+
+    /** The number of items in the source when it was last seen. */
+    private int lastCount;
+
+    /**
+     * The serial indices of the source items seen, oldest first, from
+     * <code>seenStart</code> (inclusive) to <code>seenEnd</code>
+     * (exclusive).
+     */
+    private long[] seen;
+
+    /** The array index of the oldest source item seen. */
+    private int seenStart;
+
+    /** The array index after the newest source item seen. */
+    private int seenEnd;
+
+    /**
+     * Creates a new operator, containing the rolling statistic of the
+     * items in the source series, and starts listening to the source.
+     *
+     * @param source  the source series (<code>null</code> not permitted).
+     * @param name  the name of the rolling statistic series.
+     * @param periodCount  the number of periods in the window.
+     * @param skip  the number of periods to skip at the start.
+     * @param statistic  the statistic (<code>null</code> not permitted, a
+     *                   copy is used).
+     */
+    public RollingStatisticOperator(TimeSeries source, String name,
+            int periodCount, int skip, RollingStatistic statistic) {
+        if (source == null) {
+            throw new IllegalArgumentException("Null 'source' argument.");
+        }
+        if (periodCount < 1) {
+            throw new IllegalArgumentException(
+                    "periodCount must be greater than or equal to 1.");
+        }
+        this.source = source;
+        this.periodCount = periodCount;
+        this.skip = skip;
+        this.target = new TimeSeries(name, source.getTimePeriodClass());
+        this.target.setMaximumItemCount(source.getMaximumItemCount());
+        this.target.setMaximumItemAge(source.getMaximumItemAge());
+        this.window = new MovingWindow(periodCount,
+                RollingStatistics.copy(statistic));
+        this.seen = new long[16];
+        refresh();
+        source.addChangeListener(this);
+    }
+
+    /**
+     * Returns the source series.
+     *
+     * @return The source series.
+     */
+    public TimeSeries getSource() {
+        return this.source;
+    }
+
+    /**
+     * Returns the rolling statistic series.
+     *
+     * @return The rolling statistic series.
+     */
+    public TimeSeries getTarget() {
+        return this.target;
+    }
+
+    /**
+     * Returns the number of periods in the window.
+     *
+     * @return The period count.
+     */
+    public int getPeriodCount() {
+        return this.periodCount;
+    }
+
+    /**
+     * Returns the number of periods skipped at the start of the source.
+     *
+     * @return The skip.
+     */
+    public int getSkip() {
+        return this.skip;
+    }
+
+    /**
+     * Receives notification that the source has changed, and updates the
+     * rolling statistic series.
+     *
+     * @param event  the event.
+     */
+    public void seriesChanged(SeriesChangeEvent event) {
+        int n = this.source.getItemCount();
+        if (this.lastPeriod == null) {
+            if (n > 0) {
+                refresh();
+            }
+            return;
+        }
+        int index = this.source.getIndex(this.lastPeriod);
+        int added = n - 1 - index;
+        int removed = this.lastCount + added - n;
+        if (index < 0 || removed < 0 || !equal(this.lastValue,
+                this.source.getValue(index))) {
+            refresh();
+            return;
+        }
+        // an insert before the last item that made the source remove its
+        // oldest item leaves the counts as they would be for an append, so
+        // the first item must also be the one expected after removing the
+        // oldest items seen
+        if (this.source.getTimePeriod(0).getSerialIndex()
+                != this.seen[this.seenStart + removed]) {
+            refresh();
+            return;
+        }
+        this.seenStart += removed;
+        this.lastCount = n;
+        if (added == 0) {
+            return;
+        }
+        this.target.setNotify(false);
+        for (int i = index + 1; i < n; i++) {
+            append(i);
+        }
+        this.target.setNotify(true);
+    }
+
+    /**
+     * Creates the rolling statistic series again from all the items in the
+     * source, and sends one change event.
+     */
+    public void refresh() {
+        this.target.setNotify(false);
+        this.target.clear();
+        this.window.clear();
+        this.lastPeriod = null;
+        this.lastValue = null;
+        this.seenStart = 0;
+        this.seenEnd = 0;
+        int n = this.source.getItemCount();
+        if (n > 0) {
+            this.firstSerial = this.source.getTimePeriod(0).getSerialIndex()
+                    + this.skip;
+            for (int i = 0; i < n; i++) {
+                append(i);
+            }
+        }
+        this.lastCount = n;
+        this.target.setNotify(true);
+    }
+
+    /**
+     * Stops listening to the source.  The rolling statistic series is no
+     * longer updated.
+     */
+    public void dispose() {
+        this.source.removeChangeListener(this);
+    }
+
+    /**
+     * Moves the window on to a source item and adds the statistic to the
+     * rolling statistic series.
+     *
+     * @param i  the source item index.
+     */
+    private void append(int i) {
+        RegularTimePeriod period = this.source.getTimePeriod(i);
+        Number value = this.source.getValue(i);
+        long serial = period.getSerialIndex();
+        RollingStatistics.slide(this.window, serial, value,
+                this.periodCount);
+        if (serial >= this.firstSerial) {
+            this.target.add(period, this.window.getValue());
+        }
+        this.lastPeriod = period;
+        this.lastValue = value;
+        remember(serial);
+    }
+
+    /**
+     * Adds a serial index after the newest source item seen, moving the
+     * items seen to the start of the array (or to a larger array) if there
+     * is no room at the end.
+     *
+     * @param serial  the serial index.
+     */
+    private void remember(long serial) {
+        if (this.seenEnd == this.seen.length) {
+            int size = this.seenEnd - this.seenStart;
+            long[] array = this.seen;
+            if (size * 2 > array.length) {
+                array = new long[array.length * 2];
+            }
+            System.arraycopy(this.seen, this.seenStart, array, 0, size);
+            this.seen = array;
+            this.seenStart = 0;
+            this.seenEnd = size;
+        }
+        this.seen[this.seenEnd++] = serial;
+    }
+
+    /**
+     * Tests two values for equality.
+     *
+     * @param a  the first value (<code>null</code> permitted).
+     * @param b  the second value (<code>null</code> permitted).
+     *
+     * @return A boolean.
+     */
+    private static boolean equal(Number a, Number b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+}
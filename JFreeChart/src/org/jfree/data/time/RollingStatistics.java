@@ -0,0 +1,261 @@
+package org.jfree.data.time;
+
+import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+
+/**
+ * A utility class for calculating a {@link RollingStatistic} (such as a
+ * {@link RollingMean}, {@link ExponentialMovingAverage},
+ * {@link WeightedMovingAverage}, {@link RollingExtremum} or
+ * {@link RollingStandardDeviation}) over a moving window, in the same way
+ * as {@link MovingAverage} calculates a moving average.  The windows slide
+ * along the series, so each statistic takes <code>O(n)</code> time for a
+ * series of <code>n</code> items.  The results are ordinary
+ * {@link TimeSeries} and {@link XYSeries} that can be added to any
+ * collection;  to keep a statistic up to date as items are added to a
+ * series, use a {@link RollingStatisticOperator}.
+ * <P>
+ * The window for an item of a time series holds the item and the items
+ * before it in the last <code>periodCount</code> time periods (so a gap in
+ * the time periods shortens the window), and there is no result for the
+ * time periods in the first <code>skip</code> periods of the series.  The
+ * window for an item of an {@link XYDataset} holds the items before it
+ * with an x-value greater than the item's x-value less the period.  Items
+ * with a <code>null</code> value are left out of the statistic.
+ */
+public class RollingStatistics {
+
+    /**
+     * Creates a new series for each series in a collection, containing a
+     * rolling statistic of the original series (see
+     * {@link #createRollingStatistic(TimeSeries, String, int, int,
+     * RollingStatistic)}).
+     *
+     * @param source  the source collection (<code>null</code> not
+     *                permitted).
+     * @param suffix  the suffix added to each source series name to create
+     *                the new series name.
+     * @param periodCount  the number of periods in the window.
+     * @param skip  the number of periods to skip at the start.
+     * @param statistic  the statistic (<code>null</code> not permitted, a
+     *                   copy is used for each series).
+     *
+     * @return A collection of rolling statistic series.
+     */
+    public static TimeSeriesCollection createRollingStatistic(
+            TimeSeriesCollection source, String suffix, int periodCount,
+            int skip, RollingStatistic statistic) {
+        if (source == null) {
+            throw new IllegalArgumentException("Null 'source' argument.");
+        }
+        TimeSeriesCollection result = new TimeSeriesCollection();
+        for (int i = 0; i < source.getSeriesCount(); i++) {
+            TimeSeries series = source.getSeries(i);
+            result.addSeries(createRollingStatistic(series, series.getKey()
+                    + suffix, periodCount, skip, statistic));
+        }
+        return result;
+    }
+
+    /**
+     * Creates a new series containing a rolling statistic of a series.
+     *
+     * @param source  the source series (<code>null</code> not permitted).
+     * @param name  the name of the new series.
+     * @param periodCount  the number of periods in the window.
+     * @param skip  the number of periods to skip at the start.
+     * @param statistic  the statistic (<code>null</code> not permitted, a
+     *                   copy is used).
+     *
+     * @return The rolling statistic series.
+     */
+    public static TimeSeries createRollingStatistic(TimeSeries source,
+            String name, int periodCount, int skip,
+            RollingStatistic statistic) {
+        if (source == null) {
+            throw new IllegalArgumentException("Null 'source' argument.");
+        }
+        if (periodCount < 1) {
+            throw new IllegalArgumentException(
+                    "periodCount must be greater than or equal to 1.");
+        }
+        MovingWindow window = new MovingWindow(Math.min(periodCount,
+                source.getItemCount()), copy(statistic));
+        TimeSeries result = new TimeSeries(name,
+                source.getTimePeriodClass());
+        int n = source.getItemCount();
+        if (n > 0) {
+            long first = source.getTimePeriod(0).getSerialIndex() + skip;
+            result.setNotify(false);
+            for (int i = 0; i < n; i++) {
+                RegularTimePeriod period = source.getTimePeriod(i);
+                long serial = period.getSerialIndex();
+                slide(window, serial, source.getValue(i), periodCount);
+                if (serial >= first) {
+                    result.add(period, window.getValue());
+                }
+            }
+            result.setNotify(true);
+        }
+        return result;
+    }
+
+    /**
+     * Creates a new dataset containing a rolling statistic of each series
+     * in a dataset (see
+     * {@link #createRollingStatistic(XYDataset, int, String, double,
+     * double, RollingStatistic)}).
+     *
+     * @param source  the source dataset (<code>null</code> not permitted).
+     * @param suffix  the suffix added to each source series name to create
+     *                the new series name.
+     * @param period  the length of the window.
+     * @param skip  the length of the initial skip period.
+     * @param statistic  the statistic (<code>null</code> not permitted, a
+     *                   copy is used for each series).
+     *
+     * @return The dataset.
+     */
+    public static XYDataset createRollingStatistic(XYDataset source,
+            String suffix, double period, double skip,
+            RollingStatistic statistic) {
+        if (source == null) {
+            throw new IllegalArgumentException("Null 'source' argument.");
+        }
+        XYSeriesCollection result = new XYSeriesCollection();
+        for (int i = 0; i < source.getSeriesCount(); i++) {
+            result.addSeries(createRollingStatistic(source, i,
+                    source.getSeriesKey(i) + suffix, period, skip,
+                    statistic));
+        }
+        return result;
+    }
+
+    /**
+     * Creates a new series containing a rolling statistic of one series in
+     * a dataset.  If the x-values are not in ascending order, the window is
+     * not a sliding one, so each item's window is filled from the start
+     * (which takes <code>O(n * w)</code> time for windows of
+     * <code>w</code> items).  As {@link MovingAverage} adds its items from
+     * last to first, items with the same x-value end up in reverse
+     * order in the new series.
+     *
+     * @param source  the source dataset (<code>null</code> not permitted).
+     * @param series  the series index (zero-based).
+     * @param name  the name of the new series.
+     * @param period  the length of the window.
+     * @param skip  the length of the initial skip period.
+     * @param statistic  the statistic (<code>null</code> not permitted, a
+     *                   copy is used).
+     *
+     * @return The rolling statistic series.
+     */
+    public static XYSeries createRollingStatistic(XYDataset source,
+            int series, String name, double period, double skip,
+            RollingStatistic statistic) {
+        if (source == null) {
+            throw new IllegalArgumentException("Null 'source' argument.");
+        }
+        if (period < Double.MIN_VALUE) {
+            throw new IllegalArgumentException("period must be positive.");
+        }
+        if (skip < 0.0) {
+            throw new IllegalArgumentException("skip must be >= 0.0.");
+        }
+        int n = source.getItemCount(series);
+        MovingWindow window = new MovingWindow(16, copy(statistic));
+        XYSeries result = new XYSeries(name);
+        if (n == 0) {
+            return result;
+        }
+        double[] x = new double[n];
+        boolean ascending = true;
+        for (int i = 0; i < n; i++) {
+            x[i] = source.getXValue(series, i);
+            ascending = ascending && (i == 0 || x[i] >= x[i - 1]);
+        }
+        Number[] results = new Number[n];
+        for (int i = 0; i < n; i++) {
+            if (ascending) {
+                window.add(x[i], source.getY(series, i));
+                window.removeUpTo(x[i] - period);
+            }
+            else {
+                int start = i;
+                while (start > 0 && x[start - 1] > x[i] - period) {
+                    start--;
+                }
+                window.clear();
+                for (int j = start; j <= i; j++) {
+                    window.add(x[j], source.getY(series, j));
+                }
+            }
+            results[i] = window.getValue();
+        }
+        double first = x[0] + skip;
+        if (!ascending) {
+            for (int i = n - 1; i >= 0; i--) {
+                if (x[i] >= first) {
+                    result.add(x[i], results[i], false);
+                }
+            }
+            result.fireSeriesChanged();
+            return result;
+        }
+        int start = 0;
+        while (start < n) {
+            int end = start;
+            while (end + 1 < n && x[end + 1] == x[start]) {
+                end++;
+            }
+            for (int i = end; i >= start; i--) {
+                if (x[i] >= first) {
+                    result.add(x[i], results[i], false);
+                }
+            }
+            start = end + 1;
+        }
+        result.fireSeriesChanged();
+        return result;
+    }
+
+    /**
+     * Adds an item to a window of time periods and removes the items that
+     * have moved out of it.
+     *
+     * @param window  the window.
+     * @param serial  the serial index of the item's time period.
+     * @param value  the item value (<code>null</code> permitted).
+     * @param periodCount  the number of periods in the window.
+     */
+    static void slide(MovingWindow window, long serial, Number value,
+            int periodCount) {
+        window.add(serial, value);
+        window.removeExcess(periodCount);
+        window.removeUpTo(serial - periodCount);
+    }
+
+    /**
+     * Returns a copy of a statistic, with no values.
+     *
+     * @param statistic  the statistic (<code>null</code> not permitted).
+     *
+     * @return The copy.
+     */
+    static RollingStatistic copy(RollingStatistic statistic) {
+        if (statistic == null) {
+            throw new IllegalArgumentException("Null 'statistic' argument.");
+        }
+        try {
+            RollingStatistic result = (RollingStatistic) statistic.clone();
+            result.reset();
+            return result;
+        }
+        catch (CloneNotSupportedException e) {
+            throw new IllegalArgumentException(
+                    "The statistic cannot be cloned.");
+        }
+    }
+
+}
@@ -0,0 +1,164 @@
+package org.jfree.data.time;
+
+import org.jfree.data.xy.XYDataset;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+
+/**
+ * A utility class for calculating moving averages, with the same methods
+ * and results as {@link MovingAverage}.  {@link MovingAverage} sums the
+ * whole window again for each item, which takes
+ * <code>O(n * periodCount)</code> time;  the methods in this class slide a
+ * {@link RollingMean} along the series (see {@link RollingStatistics}),
+ * adding each item once and removing it once, which takes
+ * <code>O(n)</code> time.  Items with a
+ * <code>null</code> value are skipped, and gaps in the time periods (or
+ * x-values) shorten the window, exactly as before.  The averages can
+ * differ from those of {@link MovingAverage} in the last bits, as the
+ * values are summed in a different order.
+ * <P>
+ * To keep a moving average up to date as items are added to a series, use
+ * a {@link MovingAverageOperator}.
+ */
+public class SlidingMovingAverage {
+
+    /**
+     * Creates a new series for each series in a collection, containing the
+     * moving averages of the original series (see
+     * {@link #createMovingAverage(TimeSeries, String, int, int)}).
+     *
+     * @param source  the source collection (<code>null</code> not
+     *                permitted).
+     * @param suffix  the suffix added to each source series name to create
+     *                the new series name.
+     * @param periodCount  the number of periods in the moving average.
+     * @param skip  the number of periods to skip at the start.
+     *
+     * @return A collection of moving average series.
+     */
+    public static TimeSeriesCollection createMovingAverage(
+            TimeSeriesCollection source, String suffix, int periodCount,
+            int skip) {
+        if (source == null) {
+            throw new IllegalArgumentException("Null 'source' argument.");
+        }
+        if (periodCount < 1) {
+            throw new IllegalArgumentException(
+                    "periodCount must be greater than or equal to 1.");
+        }
+        TimeSeriesCollection result = new TimeSeriesCollection();
+        for (int i = 0; i < source.getSeriesCount(); i++) {
+            TimeSeries series = source.getSeries(i);
+            result.addSeries(createMovingAverage(series, series.getKey()
+                    + suffix, periodCount, skip));
+        }
+        return result;
+    }
+
+    /**
+     * Creates a new series containing the moving average of a series.  The
+     * average for each item is taken over the items in the last
+     * <code>periodCount</code> time periods, up to and including the item,
+     * and there is no average for the time periods in the first
+     * <code>skip</code> periods of the series.
+     *
+     * @param source  the source series (<code>null</code> not permitted).
+     * @param name  the name of the moving average series.
+     * @param periodCount  the number of periods in the moving average.
+     * @param skip  the number of periods to skip at the start.
+     *
+     * @return The moving average series.
+     */
+    public static TimeSeries createMovingAverage(TimeSeries source,
+            String name, int periodCount, int skip) {
+        return RollingStatistics.createRollingStatistic(source, name,
+                periodCount, skip, new RollingMean());
+    }
+
+    /**
+     * Creates a new series containing the moving average of a series over
+     * a number of items (see
+     * {@link MovingAverage#createPointMovingAverage(TimeSeries, String,
+     * int)}, which already takes <code>O(n)</code> time).
+     *
+     * @param source  the source series (<code>null</code> not permitted).
+     * @param name  the name of the moving average series.
+     * @param pointCount  the number of items in the average.
+     *
+     * @return The moving average series.
+     */
+    public static TimeSeries createPointMovingAverage(TimeSeries source,
+            String name, int pointCount) {
+        return MovingAverage.createPointMovingAverage(source, name,
+                pointCount);
+    }
+
+    /**
+     * Creates a new dataset containing the moving averages of each series
+     * in a dataset (see
+     * {@link #createMovingAverage(XYDataset, int, String, double, double)}).
+     *
+     * @param source  the source dataset (<code>null</code> not permitted).
+     * @param suffix  the suffix added to each source series name to create
+     *                the new series name.
+     * @param period  the averaging period.
+     * @param skip  the length of the initial skip period.
+     *
+     * @return The dataset.
+     */
+    public static XYDataset createMovingAverage(XYDataset source,
+            String suffix, long period, long skip) {
+        return createMovingAverage(source, suffix, (double) period,
+                (double) skip);
+    }
+
+    /**
+     * Creates a new dataset containing the moving averages of each series
+     * in a dataset (see
+     * {@link #createMovingAverage(XYDataset, int, String, double, double)}).
+     *
+     * @param source  the source dataset (<code>null</code> not permitted).
+     * @param suffix  the suffix added to each source series name to create
+     *                the new series name.
+     * @param period  the averaging period.
+     * @param skip  the length of the initial skip period.
+     *
+     * @return The dataset.
+     */
+    public static XYDataset createMovingAverage(XYDataset source,
+            String suffix, double period, double skip) {
+        if (source == null) {
+            throw new IllegalArgumentException("Null 'source' argument.");
+        }
+        XYSeriesCollection result = new XYSeriesCollection();
+        for (int i = 0; i < source.getSeriesCount(); i++) {
+            result.addSeries(createMovingAverage(source, i,
+                    source.getSeriesKey(i) + suffix, period, skip));
+        }
+        return result;
+    }
+
+    /**
+     * Creates a new series containing the moving average of one series in
+     * a dataset.  The average for each item is taken over the items with
+     * an x-value greater than the item's x-value less the period, up to and
+     * including the item, and there is no average for the items in the
+     * first <code>skip</code> of the x-range (see
+     * {@link RollingStatistics#createRollingStatistic(XYDataset, int,
+     * String, double, double, RollingStatistic)}).
+     *
+     * @param source  the source dataset (<code>null</code> not permitted).
+     * @param series  the series index (zero-based).
+     * @param name  the name of the moving average series.
+     * @param period  the averaging period.
+     * @param skip  the length of the initial skip period.
+     *
+     * @return The moving average series.
+     */
+    public static XYSeries createMovingAverage(XYDataset source, int series,
+            String name, double period, double skip) {
+        return RollingStatistics.createRollingStatistic(source, series,
+                name, period, skip, new RollingMean());
+    }
+
+}
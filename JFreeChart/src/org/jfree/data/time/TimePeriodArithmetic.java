@@ -0,0 +1,435 @@
+package org.jfree.data.time;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jfree.date.SerialDate;
+
+/**
+ * Calculates the milliseconds of {@link Day}, {@link Hour}, {@link Minute},
+ * {@link Second} and {@link Millisecond} time periods in one time zone with
+ * integer arithmetic, and creates these time periods from milliseconds.
+ * The time period classes do the same with a {@link Calendar}, which is
+ * slow and, for the methods without a calendar argument, shared between
+ * all threads ({@link RegularTimePeriod#WORKING_CALENDAR}).  An instance
+ * of this class is immutable and can be used by any number of threads.
+ * <P>
+ * The results are the same as those of the calendar methods, including on
+ * the days when the zone offset changes:  the offset of each day (with two
+ * days either side) is cached, and the local times of a day on which the
+ * offset is not constant, such as the times skipped or repeated at a
+ * daylight saving transition, are converted by a new calendar as before.
+ * Other time period classes (and subclasses of the five above) are always
+ * passed to a calendar.
+ */
+public final class TimePeriodArithmetic {
+
+    /** The number of milliseconds in a second. */
+    private static final long SECOND = 1000L;
+
+    /** The number of milliseconds in a minute. */
+    private static final long MINUTE = 60L * SECOND;
+
+    /** The number of milliseconds in an hour. */
+    private static final long HOUR = 60L * MINUTE;
+
+    /** The number of milliseconds in a day. */
+    private static final long DAY = 24L * HOUR;
+
+    /** The serial number (see {@link SerialDate}) of 1-Jan-1970. */
+    private static final int EPOCH_SERIAL = 25569;
+
+    /** The first day that a {@link Day} can represent, since 1-Jan-1970. */
+    private static final long FIRST_DAY = SerialDate.SERIAL_LOWER_BOUND
+            - EPOCH_SERIAL;
+
+    /**
+     * The interval at which the zone offset is compared when the offset of
+     * a day is cached.
+     */
+    private static final long SAMPLE_INTERVAL = 6L * HOUR;
+
+    /** The number of cached day offsets (a power of two). */
+    private static final int CACHE_SIZE = 2048;
+
+    /** The instances, by time zone. */
+    private static final Map INSTANCES = new ConcurrentHashMap();
+
+    /** The instance for the default time zone. */
+    private static final TimePeriodArithmetic DEFAULT = getInstance(
+            RegularTimePeriod.DEFAULT_TIME_ZONE);
+
+    /** The time zone (a private copy). */
+    private final TimeZone zone;
+
+    /**
+     * A flag that indicates that the calendar for the zone is a
+     * {@link GregorianCalendar}, so that arithmetic can be used.
+     */
+    private final boolean gregorian;
+
+    /** The cached day offsets, indexed by the low bits of the day. */
+    private final DayOffset[] offsets;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param zone  the time zone (a private copy).
+     */
+    private TimePeriodArithmetic(TimeZone zone) {
+        this.zone = zone;
+        this.gregorian = Calendar.getInstance(zone)
+                instanceof GregorianCalendar;
+        this.offsets = new DayOffset[CACHE_SIZE];
+    }
+
+    /**
+     * Returns the instance for a time zone.
+     *
+     * @param zone  the time zone (<code>null</code> not permitted).
+     *
+     * @return The instance.
+     */
+    public static TimePeriodArithmetic getInstance(TimeZone zone) {
+        if (zone == null) {
+            throw new IllegalArgumentException("Null 'zone' argument.");
+        }
+        TimePeriodArithmetic result
+                = (TimePeriodArithmetic) INSTANCES.get(zone);
+        if (result == null) {
+            TimeZone copy = (TimeZone) zone.clone();
+            result = new TimePeriodArithmetic(copy);
+            INSTANCES.put(copy, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the instance for {@link RegularTimePeriod#DEFAULT_TIME_ZONE},
+     * the zone used by the methods of {@link RegularTimePeriod} without a
+     * time zone or calendar argument.
+     *
+     * @return The instance.
+     */
+    public static TimePeriodArithmetic getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the time zone.
+     *
+     * @return The time zone (a copy).
+     */
+    public TimeZone getTimeZone() {
+        return (TimeZone) this.zone.clone();
+    }
+
+    /**
+     * Returns the first millisecond of a time period, the same as
+     * {@link RegularTimePeriod#getFirstMillisecond(TimeZone)}.
+     *
+     * @param period  the time period (<code>null</code> not permitted).
+     *
+     * @return The millisecond.
+     */
+    public long getFirstMillisecond(RegularTimePeriod period) {
+        if (period == null) {
+            throw new IllegalArgumentException("Null 'period' argument.");
+        }
+        Class c = period.getClass();
+        if (c == Day.class) {
+            return toUTC(localStart((Day) period));
+        }
+        else if (c == Hour.class) {
+            return toUTC(localStart((Hour) period));
+        }
+        else if (c == Minute.class) {
+            return toUTC(localStart((Minute) period));
+        }
+        else if (c == Second.class) {
+            return firstMillisecond((Second) period);
+        }
+        else if (c == Millisecond.class) {
+            Millisecond ms = (Millisecond) period;
+            return firstMillisecond(ms.getSecond()) + ms.getMillisecond();
+        }
+        return period.getFirstMillisecond(Calendar.getInstance(this.zone));
+    }
+
+    /**
+     * Returns the last millisecond of a time period, the same as
+     * {@link RegularTimePeriod#getLastMillisecond(TimeZone)}.
+     *
+     * @param period  the time period (<code>null</code> not permitted).
+     *
+     * @return The millisecond.
+     */
+    public long getLastMillisecond(RegularTimePeriod period) {
+        if (period == null) {
+            throw new IllegalArgumentException("Null 'period' argument.");
+        }
+        Class c = period.getClass();
+        if (c == Day.class) {
+            return toUTC(localStart((Day) period) + DAY - 1);
+        }
+        else if (c == Hour.class) {
+            return toUTC(localStart((Hour) period) + HOUR - 1);
+        }
+        else if (c == Minute.class) {
+            return toUTC(localStart((Minute) period) + MINUTE - 1);
+        }
+        else if (c == Second.class) {
+            return firstMillisecond((Second) period) + SECOND - 1;
+        }
+        else if (c == Millisecond.class) {
+            Millisecond ms = (Millisecond) period;
+            return firstMillisecond(ms.getSecond()) + ms.getMillisecond();
+        }
+        return period.getLastMillisecond(Calendar.getInstance(this.zone));
+    }
+
+    /**
+     * Returns the millisecond halfway between the first and last
+     * milliseconds of a time period, the same as
+     * {@link RegularTimePeriod#getMiddleMillisecond(TimeZone)}.
+     *
+     * @param period  the time period (<code>null</code> not permitted).
+     *
+     * @return The millisecond.
+     */
+    public long getMiddleMillisecond(RegularTimePeriod period) {
+        long first = getFirstMillisecond(period);
+        long last = getLastMillisecond(period);
+        return first + (last - first) / 2;
+    }
+
+    /**
+     * Returns the millisecond at a point in a time period.
+     *
+     * @param period  the time period (<code>null</code> not permitted).
+     * @param anchor  the point (<code>null</code> not permitted).
+     *
+     * @return The millisecond.
+     */
+    public long getMillisecond(RegularTimePeriod period,
+            TimePeriodAnchor anchor) {
+        if (anchor == TimePeriodAnchor.START) {
+            return getFirstMillisecond(period);
+        }
+        else if (anchor == TimePeriodAnchor.MIDDLE) {
+            return getMiddleMillisecond(period);
+        }
+        else if (anchor == TimePeriodAnchor.END) {
+            return getLastMillisecond(period);
+        }
+        throw new IllegalArgumentException("Null 'anchor' argument.");
+    }
+
+    /**
+     * Creates the time period that contains a millisecond, the same as
+     * {@link RegularTimePeriod#createInstance(Class, Date, TimeZone)}.
+     *
+     * @param c  the time period class (<code>null</code> not permitted).
+     * @param millisecond  the millisecond.
+     *
+     * @return The time period (<code>null</code> if the class has no
+     *         constructor for a date and time zone).
+     */
+    public RegularTimePeriod createInstance(Class c, long millisecond) {
+        if (c == null) {
+            throw new IllegalArgumentException("Null 'c' argument.");
+        }
+        boolean supported = c == Day.class || c == Hour.class
+                || c == Minute.class || c == Second.class
+                || c == Millisecond.class;
+        long local = millisecond + offsetAt(millisecond);
+        long day = floorDiv(local, DAY);
+        if (!supported || !this.gregorian || day < FIRST_DAY) {
+            return RegularTimePeriod.createInstance(c, new Date(millisecond),
+                    this.zone);
+        }
+        Day d = new Day(SerialDate.createInstance((int) day + EPOCH_SERIAL));
+        if (c == Day.class) {
+            return d;
+        }
+        int time = (int) (local - day * DAY);
+        Hour hour = new Hour((int) (time / HOUR), d);
+        if (c == Hour.class) {
+            return hour;
+        }
+        Minute minute = new Minute((int) (time % HOUR / MINUTE), hour);
+        if (c == Minute.class) {
+            return minute;
+        }
+        Second second = new Second((int) (time % MINUTE / SECOND), minute);
+        if (c == Second.class) {
+            return second;
+        }
+        return new Millisecond((int) (time % SECOND), second);
+    }
+
+    /**
+     * Returns the first millisecond of a second.  This is the first
+     * millisecond of the minute, plus the seconds.
+     *
+     * @param second  the second.
+     *
+     * @return The millisecond.
+     */
+    private long firstMillisecond(Second second) {
+        return toUTC(localStart(second.getMinute()))
+                + second.getSecond() * SECOND;
+    }
+
+    /**
+     * Returns the local time (milliseconds since 1-Jan-1970 in the zone) at
+     * the start of a day.
+     *
+     * @param day  the day.
+     *
+     * @return The local time.
+     */
+    private static long localStart(Day day) {
+        return (day.getSerialIndex() - EPOCH_SERIAL) * DAY;
+    }
+
+    /**
+     * Returns the local time at the start of an hour.
+     *
+     * @param hour  the hour.
+     *
+     * @return The local time.
+     */
+    private static long localStart(Hour hour) {
+        return localStart(hour.getDay()) + hour.getHour() * HOUR;
+    }
+
+    /**
+     * Returns the local time at the start of a minute.
+     *
+     * @param minute  the minute.
+     *
+     * @return The local time.
+     */
+    private static long localStart(Minute minute) {
+        return localStart(minute.getHour()) + minute.getMinute() * MINUTE;
+    }
+
+    /**
+     * Converts a local time to milliseconds since 1-Jan-1970 UTC, in the
+     * same way as a {@link Calendar} for the zone.
+     *
+     * @param local  the local time.
+     *
+     * @return The millisecond.
+     */
+    private long toUTC(long local) {
+        long day = floorDiv(local, DAY);
+        if (this.gregorian && day >= FIRST_DAY) {
+            DayOffset offset = dayOffset(day);
+            if (offset.constant) {
+                return local - offset.offset;
+            }
+        }
+        // a day with a change of offset, so the calendar decides what the
+        // skipped and repeated local times mean
+        Calendar calendar = Calendar.getInstance(this.zone);
+        SerialDate date = SerialDate.createInstance((int) day + EPOCH_SERIAL);
+        int time = (int) (local - day * DAY);
+        calendar.clear();
+        calendar.set(date.getYYYY(), date.getMonth() - 1,
+                date.getDayOfMonth(), (int) (time / HOUR),
+                (int) (time % HOUR / MINUTE), (int) (time % MINUTE / SECOND));
+        calendar.set(Calendar.MILLISECOND, (int) (time % SECOND));
+        return calendar.getTime().getTime();
+    }
+
+    /**
+     * Returns the zone offset at a millisecond.
+     *
+     * @param millisecond  the millisecond (since 1-Jan-1970 UTC).
+     *
+     * @return The offset, in milliseconds.
+     */
+    private int offsetAt(long millisecond) {
+        DayOffset offset = dayOffset(floorDiv(millisecond, DAY));
+        if (offset.constant) {
+            return offset.offset;
+        }
+        return this.zone.getOffset(millisecond);
+    }
+
+    /**
+     * Returns the offset of a day, from the cache if possible.
+     *
+     * @param day  the day (since 1-Jan-1970).
+     *
+     * @return The offset.
+     */
+    private DayOffset dayOffset(long day) {
+        int slot = (int) day & (CACHE_SIZE - 1);
+        DayOffset result = this.offsets[slot];
+        if (result == null || result.day != day) {
+            // the offsets are immutable, so a race only repeats this work
+            result = new DayOffset(this.zone, day);
+            this.offsets[slot] = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the largest integer not greater than the quotient of two
+     * numbers.
+     *
+     * @param x  the dividend.
+     * @param y  the divisor (positive).
+     *
+     * @return The quotient, rounded down.
+     */
+    private static long floorDiv(long x, long y) {
+        long q = x / y;
+        return (x % y < 0) ? q - 1 : q;
+    }
+
+    /**
+     * The zone offset of a day.
+     */
+    private static final class DayOffset {
+
+        /** The day (since 1-Jan-1970). */
+        final long day;
+
+        /** The zone offset at the start of the day (UTC). */
+        final int offset;
+
+        /**
+         * A flag that indicates that the offset is the same from two days
+         * before the day to two days after it.
+         */
+        final boolean constant;
+
+        /**
+         * Finds the offset of a day.
+         *
+         * @param zone  the time zone.
+         * @param day  the day.
+         */
+        DayOffset(TimeZone zone, long day) {
+            this.day = day;
+            long start = day * DAY;
+            this.offset = zone.getOffset(start);
+            boolean same = true;
+            for (long t = start - 2 * DAY; same && t <= start + 3 * DAY;
+                    t += SAMPLE_INTERVAL) {
+                same = zone.getOffset(t) == this.offset;
+            }
+            this.constant = same;
+        }
+
+    }
+
+}
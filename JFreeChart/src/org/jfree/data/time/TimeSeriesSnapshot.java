@@ -0,0 +1,385 @@
+package org.jfree.data.time;
+
+/**
+ * A read-only view of the items in an {@link IndexedTimeSeries} at one
+ * moment, with the first, middle and last millisecond of each time period
+ * and the values held in arrays.  A snapshot never changes after it has
+ * been published (except that a value changed by
+ * {@link TimeSeries#update(int, Number)} may be seen early), so any number
+ * of threads can read it without locking while the series is changed by
+ * another thread.
+ * <P>
+ * Consecutive snapshots share their arrays:  items are only ever written
+ * after the last item of the latest snapshot, and removing the oldest
+ * items only moves the start of the window, so an append or an eviction
+ * creates a new snapshot in constant amortized time.
+ */
+public final class TimeSeriesSnapshot {
+
+    /** A snapshot with no items. */
+    static final TimeSeriesSnapshot EMPTY = new TimeSeriesSnapshot(
+            new long[0], new long[0], new long[0], new Number[0], 0, 0);
+
+    /** The minimum array length. */
+    private static final int MINIMUM_CAPACITY = 16;
+
+    /** The first millisecond of each time period. */
+    private final long[] firstMillis;
+
+    /** The middle millisecond of each time period. */
+    private final long[] middleMillis;
+
+    /** The last millisecond of each time period. */
+    private final long[] lastMillis;
+
+    /** The values. */
+    private final Number[] values;
+
+    /** The array index of the first item. */
+    private final int head;
+
+    /** The number of items. */
+    private final int count;
+
+    /**
+     * Creates a new snapshot.
+     *
+     * @param firstMillis  the first milliseconds.
+     * @param middleMillis  the middle milliseconds.
+     * @param lastMillis  the last milliseconds.
+     * @param values  the values.
+     * @param head  the array index of the first item.
+     * @param count  the number of items.
+     */
+    private TimeSeriesSnapshot(long[] firstMillis, long[] middleMillis,
+            long[] lastMillis, Number[] values, int head, int count) {
+        this.firstMillis = firstMillis;
+        this.middleMillis = middleMillis;
+        this.lastMillis = lastMillis;
+        this.values = values;
+        this.head = head;
+        this.count = count;
+    }
+
+    /**
+     * Creates a snapshot of all the items in a series.
+     *
+     * @param series  the series.
+     * @param arithmetic  the time zone arithmetic used to find the
+     *                    milliseconds.
+     *
+     * @return The snapshot.
+     */
+    static TimeSeriesSnapshot create(TimeSeries series,
+            TimePeriodArithmetic arithmetic) {
+        int n = series.getItemCount();
+        int capacity = Math.max(MINIMUM_CAPACITY, n + (n >> 1));
+        TimeSeriesSnapshot result = new TimeSeriesSnapshot(
+                new long[capacity], new long[capacity], new long[capacity],
+                new Number[capacity], 0, 0);
+        for (int i = 0; i < n; i++) {
+            result.write(i, series.getTimePeriod(i), series.getValue(i),
+                    arithmetic);
+        }
+        return new TimeSeriesSnapshot(result.firstMillis, result.middleMillis,
+                result.lastMillis, result.values, 0, n);
+    }
+
+    /**
+     * Returns the number of items.
+     *
+     * @return The item count.
+     */
+    public int getItemCount() {
+        return this.count;
+    }
+
+    /**
+     * Returns the first millisecond of the time period for an item.
+     *
+     * @param index  the item index (zero-based).
+     *
+     * @return The millisecond.
+     */
+    public long getFirstMillisecond(int index) {
+        return this.firstMillis[arrayIndex(index)];
+    }
+
+    /**
+     * Returns the middle millisecond of the time period for an item.
+     *
+     * @param index  the item index (zero-based).
+     *
+     * @return The millisecond.
+     */
+    public long getMiddleMillisecond(int index) {
+        return this.middleMillis[arrayIndex(index)];
+    }
+
+    /**
+     * Returns the last millisecond of the time period for an item.
+     *
+     * @param index  the item index (zero-based).
+     *
+     * @return The millisecond.
+     */
+    public long getLastMillisecond(int index) {
+        return this.lastMillis[arrayIndex(index)];
+    }
+
+    /**
+     * Returns a point in the time period for an item.
+     *
+     * @param index  the item index (zero-based).
+     * @param anchor  the point in the time period (<code>null</code> not
+     *                permitted).
+     *
+     * @return The millisecond.
+     */
+    public long getMillisecond(int index, TimePeriodAnchor anchor) {
+        return getMillis(anchor)[arrayIndex(index)];
+    }
+
+    /**
+     * Returns the value for an item.
+     *
+     * @param index  the item index (zero-based).
+     *
+     * @return The value (possibly <code>null</code>).
+     */
+    public Number getValue(int index) {
+        return this.values[arrayIndex(index)];
+    }
+
+    /**
+     * Returns the value for an item as a <code>double</code>.
+     *
+     * @param index  the item index (zero-based).
+     *
+     * @return The value (<code>Double.NaN</code> for <code>null</code>).
+     */
+    public double getYValue(int index) {
+        Number value = getValue(index);
+        return value == null ? Double.NaN : value.doubleValue();
+    }
+
+    /**
+     * Returns the index of the item whose time period starts at a given
+     * millisecond.
+     *
+     * @param firstMillisecond  the first millisecond of the time period.
+     *
+     * @return The index, or <code>-(insertion point) - 1</code> if there is
+     *         no such item.
+     */
+    public int indexOf(long firstMillisecond) {
+        return search(this.firstMillis, firstMillisecond);
+    }
+
+    /**
+     * Returns the indices of the items just before and just after a time,
+     * in the same way as
+     * {@link TimeSeriesCollection#getSurroundingItems(int, long)}:  the
+     * first index is the last item at or before the time, and the second is
+     * the first item at or after the time (<code>-1</code> if there is no
+     * such item).
+     *
+     * @param anchor  the point in each time period to compare with the time
+     *                (<code>null</code> not permitted).
+     * @param millisecond  the time.
+     *
+     * @return The indices (an array of length 2).
+     */
+    public int[] getSurroundingItems(TimePeriodAnchor anchor,
+            long millisecond) {
+        long[] millis = getMillis(anchor);
+        int index = search(millis, millisecond);
+        int[] result = new int[2];
+        if (index >= 0) {
+            // the first match, as the collection scans from the start
+            while (index > 0 && millis[this.head + index - 1] == millisecond) {
+                index--;
+            }
+            result[0] = index;
+            result[1] = index;
+        }
+        else {
+            int insertion = -index - 1;
+            result[0] = insertion - 1;
+            result[1] = insertion < this.count ? insertion : -1;
+        }
+        return result;
+    }
+
+    /**
+     * Returns a snapshot with an item added after the last item.  This must
+     * only be called on the latest snapshot of a series.
+     *
+     * @param period  the time period.
+     * @param value  the value.
+     * @param arithmetic  the time zone arithmetic used to find the
+     *                    milliseconds.
+     *
+     * @return The new snapshot.
+     */
+    TimeSeriesSnapshot append(RegularTimePeriod period, Number value,
+            TimePeriodArithmetic arithmetic) {
+        TimeSeriesSnapshot target = this;
+        if (this.head + this.count == this.firstMillis.length) {
+            // new arrays (the old ones may still be read), the same size
+            // if half of them is taken up by removed items
+            int capacity = this.head >= this.firstMillis.length / 2
+                    ? Math.max(MINIMUM_CAPACITY, this.firstMillis.length)
+                    : Math.max(MINIMUM_CAPACITY, this.firstMillis.length * 2);
+            target = new TimeSeriesSnapshot(copy(this.firstMillis, capacity),
+                    copy(this.middleMillis, capacity),
+                    copy(this.lastMillis, capacity),
+                    copyValues(capacity), 0, this.count);
+        }
+        target.write(target.head + target.count, period, value,
+                arithmetic);
+        return new TimeSeriesSnapshot(target.firstMillis, target.middleMillis,
+                target.lastMillis, target.values, target.head,
+                target.count + 1);
+    }
+
+    /**
+     * Returns a snapshot without some of the oldest items.
+     *
+     * @param n  the number of items to remove.
+     *
+     * @return The new snapshot.
+     */
+    TimeSeriesSnapshot removeOldest(int n) {
+        if (n == 0) {
+            return this;
+        }
+        return new TimeSeriesSnapshot(this.firstMillis, this.middleMillis,
+                this.lastMillis, this.values, this.head + n, this.count - n);
+    }
+
+    /**
+     * Returns a snapshot with a new value for an item.  The value is
+     * written into the shared array.
+     *
+     * @param index  the item index (zero-based).
+     * @param value  the value.
+     *
+     * @return The new snapshot.
+     */
+    TimeSeriesSnapshot update(int index, Number value) {
+        this.values[arrayIndex(index)] = value;
+        return new TimeSeriesSnapshot(this.firstMillis, this.middleMillis,
+                this.lastMillis, this.values, this.head, this.count);
+    }
+
+    /**
+     * Writes an item into the arrays.
+     *
+     * @param i  the array index.
+     * @param period  the time period.
+     * @param value  the value.
+     * @param arithmetic  the time zone arithmetic used to find the
+     *                    milliseconds.
+     */
+    private void write(int i, RegularTimePeriod period, Number value,
+            TimePeriodArithmetic arithmetic) {
+        long first = arithmetic.getFirstMillisecond(period);
+        long last = arithmetic.getLastMillisecond(period);
+        this.firstMillis[i] = first;
+        this.middleMillis[i] = first + (last - first) / 2;
+        this.lastMillis[i] = last;
+        this.values[i] = value;
+    }
+
+    /**
+     * Returns the array of milliseconds for a point in each time period.
+     *
+     * @param anchor  the point.
+     *
+     * @return The array.
+     */
+    private long[] getMillis(TimePeriodAnchor anchor) {
+        if (anchor == TimePeriodAnchor.START) {
+            return this.firstMillis;
+        }
+        else if (anchor == TimePeriodAnchor.MIDDLE) {
+            return this.middleMillis;
+        }
+        else if (anchor == TimePeriodAnchor.END) {
+            return this.lastMillis;
+        }
+        throw new IllegalArgumentException("Null 'anchor' argument.");
+    }
+
+    /**
+     * Returns the array index for an item.
+     *
+     * @param index  the item index (zero-based).
+     *
+     * @return The array index.
+     */
+    private int arrayIndex(int index) {
+        if (index < 0 || index >= this.count) {
+            throw new IndexOutOfBoundsException("Index: " + index
+                    + ", Size: " + this.count);
+        }
+        return this.head + index;
+    }
+
+    /**
+     * Searches an array of milliseconds.
+     *
+     * @param millis  the array.
+     * @param millisecond  the millisecond to find.
+     *
+     * @return The item index (not the array index), or
+     *         <code>-(insertion point) - 1</code>.
+     */
+    private int search(long[] millis, long millisecond) {
+        int low = 0;
+        int high = this.count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = millis[this.head + mid];
+            if (value < millisecond) {
+                low = mid + 1;
+            }
+            else if (value > millisecond) {
+                high = mid - 1;
+            }
+            else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Copies the items in an array to the start of a new array.
+     *
+     * @param array  the array.
+     * @param capacity  the length of the new array.
+     *
+     * @return The new array.
+     */
+    private long[] copy(long[] array, int capacity) {
+        long[] result = new long[capacity];
+        System.arraycopy(array, this.head, result, 0, this.count);
+        return result;
+    }
+
+    /**
+     * Copies the values to the start of a new array.
+     *
+     * @param capacity  the length of the new array.
+     *
+     * @return The new array.
+     */
+    private Number[] copyValues(int capacity) {
+        Number[] result = new Number[capacity];
+        System.arraycopy(this.values, this.head, result, 0, this.count);
+        return result;
+    }
+
+}
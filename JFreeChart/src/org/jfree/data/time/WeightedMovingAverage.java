@@ -0,0 +1,125 @@
+package org.jfree.data.time;
+
+/**
+ * A linearly weighted moving average:  the newest of the <code>n</code>
+ * values in the window has a weight of <code>n</code>, the one before it
+ * <code>n - 1</code>, and so on down to <code>1</code> for the oldest.
+ * Items without a value are not counted.  The weighted sum is updated in
+ * constant time as values enter and leave the window:  when the oldest
+ * value leaves, every other weight falls by one, so the plain sum of the
+ * values is subtracted from the weighted sum.
+ */
+public class WeightedMovingAverage extends RollingStatistic {
+
+    /** The number of values. */
+    private int count;
+
+    /** The sum of the finite values. */
+    private double sum;
+
+    /** The weighted sum of the finite values. */
+    private double weightedSum;
+
+    /** The number of NaN values. */
+    private int nanCount;
+
+    /** The number of positive infinite values. */
+    private int positiveInfinityCount;
+
+    /** The number of negative infinite values. */
+    private int negativeInfinityCount;
+
+    /**
+     * Creates a new weighted moving average, with no values.
+     */
+    public WeightedMovingAverage() {
+        super();
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value  the value.
+     */
+    protected void add(double value) {
+        this.count++;
+        if (Double.isNaN(value)) {
+            this.nanCount++;
+        }
+        else if (value == Double.POSITIVE_INFINITY) {
+            this.positiveInfinityCount++;
+        }
+        else if (value == Double.NEGATIVE_INFINITY) {
+            this.negativeInfinityCount++;
+        }
+        else {
+            this.sum += value;
+            this.weightedSum += this.count * value;
+        }
+    }
+
+    /**
+     * Removes a value (the oldest).
+     *
+     * @param value  the value.
+     */
+    protected void remove(double value) {
+        this.weightedSum -= this.sum;
+        this.count--;
+        if (Double.isNaN(value)) {
+            this.nanCount--;
+        }
+        else if (value == Double.POSITIVE_INFINITY) {
+            this.positiveInfinityCount--;
+        }
+        else if (value == Double.NEGATIVE_INFINITY) {
+            this.negativeInfinityCount--;
+        }
+        else {
+            this.sum -= value;
+        }
+        if (this.count == 0) {
+            reset();
+        }
+    }
+
+    /**
+     * Removes all the values.
+     */
+    public void reset() {
+        this.count = 0;
+        this.sum = 0.0;
+        this.weightedSum = 0.0;
+        this.nanCount = 0;
+        this.positiveInfinityCount = 0;
+        this.negativeInfinityCount = 0;
+    }
+
+    /**
+     * Returns the weighted average of the values.
+     *
+     * @return The average, or <code>null</code> if there are no values.
+     */
+    public Number getValue() {
+        if (this.count == 0) {
+            return null;
+        }
+        double result;
+        if (this.nanCount > 0 || (this.positiveInfinityCount > 0
+                && this.negativeInfinityCount > 0)) {
+            result = Double.NaN;
+        }
+        else if (this.positiveInfinityCount > 0) {
+            result = Double.POSITIVE_INFINITY;
+        }
+        else if (this.negativeInfinityCount > 0) {
+            result = Double.NEGATIVE_INFINITY;
+        }
+        else {
+            result = this.weightedSum / (this.count * (this.count + 1.0)
+                    / 2.0);
+        }
+        return Double.valueOf(result);
+    }
+
+}
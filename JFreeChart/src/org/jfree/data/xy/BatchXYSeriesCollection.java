@@ -0,0 +1,323 @@
+package org.jfree.data.xy;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.jfree.data.DomainOrder;
+import org.jfree.data.general.AppendableSeries;
+import org.jfree.data.general.BatchedDataset;
+import org.jfree.data.general.DatasetAppendEvent;
+import org.jfree.data.general.DatasetBatchChangeEvent;
+import org.jfree.data.general.DatasetChangeCoalescer;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.SeriesAppendTracker;
+import org.jfree.data.general.SeriesChangeEvent;
+
+/**
+ * An {@link XYSeriesCollection} that can group changes to any of its series
+ * into a single {@link DatasetBatchChangeEvent} (see
+ * {@link BatchedDataset}).  Inside a batch, the change events from each
+ * series are recorded against that series' index instead of being passed
+ * on, so a loop of {@link XYSeries#add(double, double)} calls over several
+ * series causes one redraw rather than one per item.
+ * <P>
+ * The x-values and y-values of a {@link DoubleXYSeries} are read from its
+ * arrays, without creating an {@link XYDataItem} for each value.
+ * <P>
+ * A change to a series that implements
+ * {@link AppendableSeries} (such as {@link DoubleXYSeries}) and that only
+ * added items after its last item is sent to the listeners as a
+ * {@link DatasetAppendEvent}, so that listeners such as
+ * {@link org.jfree.data.general.DatasetBoundsCache} only read the new
+ * items.  The event also counts the oldest items that were removed to
+ * make room for them (for a maximum item count or age).  Inside a batch,
+ * the appended items are recorded in the {@link DatasetBatchChangeEvent}
+ * (as a change to the series if items were removed).  Changes to other
+ * series are sent as plain change events.
+ */
+public class BatchXYSeriesCollection extends XYSeriesCollection
+        implements BatchedDataset {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -5183349502741178631L;
+
+    /** The change record (created when first needed). */
+    private transient DatasetChangeCoalescer coalescer;
+
+    /**
+     * The append trackers for the series that implement
+     * {@link AppendableSeries}, keyed by series identity (created when first
+     * needed).
+     */
+    private transient Map trackers;
+
+    /**
+     * The index of each series, keyed by series identity (created when
+     * first needed).
+     */
+    private transient Map seriesIndices;
+
+    /**
+     * Creates an empty collection.
+     */
+    public BatchXYSeriesCollection() {
+        super();
+    }
+
+    /**
+     * Creates a collection containing one series.
+     *
+     * @param series  the series (<code>null</code> ignored).
+     */
+    public BatchXYSeriesCollection(XYSeries series) {
+        super(series);
+        getTrackers();
+    }
+
+    /**
+     * Adds a series to the collection and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param series  the series (<code>null</code> not permitted).
+     */
+    public void addSeries(XYSeries series) {
+        super.addSeries(series);
+        this.seriesIndices = null;
+        if (series instanceof AppendableSeries) {
+            getTrackers().put(series, new SeriesAppendTracker(
+                    (AppendableSeries) series));
+        }
+    }
+
+    /**
+     * Removes a series from the collection and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param series  the series index (zero-based).
+     */
+    public void removeSeries(int series) {
+        XYSeries removed = series >= 0 && series < getSeriesCount()
+                ? getSeries(series) : null;
+        super.removeSeries(series);
+        this.seriesIndices = null;
+        getTrackers().remove(removed);
+    }
+
+    /**
+     * Removes a series from the collection and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param series  the series (<code>null</code> not permitted).
+     */
+    public void removeSeries(XYSeries series) {
+        super.removeSeries(series);
+        this.seriesIndices = null;
+        getTrackers().remove(series);
+    }
+
+    /**
+     * Removes all the series from the collection and sends a
+     * {@link org.jfree.data.general.DatasetChangeEvent} to all registered
+     * listeners.
+     */
+    public void removeAllSeries() {
+        super.removeAllSeries();
+        this.seriesIndices = null;
+        getTrackers().clear();
+    }
+
+    /**
+     * Returns the order of the x-values in each series.
+     *
+     * @return {@link DomainOrder#ASCENDING} if every series is sorted by
+     *         x-value, and {@link DomainOrder#NONE} otherwise.
+     */
+    public DomainOrder getDomainOrder() {
+        for (int i = 0; i < getSeriesCount(); i++) {
+            if (!getSeries(i).getAutoSort()) {
+                return DomainOrder.NONE;
+            }
+        }
+        return DomainOrder.ASCENDING;
+    }
+
+    /**
+     * Returns an x-value.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The x-value.
+     */
+    public double getXValue(int series, int item) {
+        XYSeries s = getSeries(series);
+        if (s instanceof DoubleXYSeries) {
+            return ((DoubleXYSeries) s).getXValue(item);
+        }
+        return super.getXValue(series, item);
+    }
+
+    /**
+     * Returns a y-value.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The y-value (<code>Double.NaN</code> for a <code>null</code>
+     *         value).
+     */
+    public double getYValue(int series, int item) {
+        XYSeries s = getSeries(series);
+        if (s instanceof DoubleXYSeries) {
+            return ((DoubleXYSeries) s).getYValue(item);
+        }
+        return super.getYValue(series, item);
+    }
+
+    /**
+     * Starts a batch of changes.
+     */
+    public void beginUpdate() {
+        getCoalescer().begin();
+    }
+
+    /**
+     * Ends a batch of changes, and notifies the listeners if this ends the
+     * outermost batch and anything changed.
+     */
+    public void endUpdate() {
+        if (getCoalescer().end()) {
+            DatasetBatchChangeEvent event = this.coalescer.createEvent(this,
+                    this);
+            if (event != null) {
+                super.notifyListeners(event);
+            }
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if a batch is open.
+     *
+     * @return A boolean.
+     */
+    public boolean isUpdating() {
+        return this.coalescer != null && this.coalescer.isActive();
+    }
+
+    /**
+     * Receives notification that a series has changed.  An append is sent
+     * as a {@link DatasetAppendEvent} (or, inside a batch, recorded as
+     * one);  inside a batch, any other change is recorded against the
+     * series.
+     *
+     * @param event  the event.
+     */
+    public void seriesChanged(SeriesChangeEvent event) {
+        DatasetAppendEvent append = createAppendEvent(event.getSource());
+        if (append != null) {
+            notifyListeners(append);
+        }
+        else if (isUpdating()) {
+            this.coalescer.seriesChanged(indexOfSeries(event.getSource()));
+        }
+        else {
+            super.seriesChanged(event);
+        }
+    }
+
+    /**
+     * Marks the state of a series after a change and, if the change only
+     * appended items to the series, returns an event that describes them.
+     *
+     * @param source  the series.
+     *
+     * @return The event, or <code>null</code>.
+     */
+    private DatasetAppendEvent createAppendEvent(Object source) {
+        SeriesAppendTracker tracker
+                = (SeriesAppendTracker) getTrackers().get(source);
+        if (tracker == null) {
+            return null;
+        }
+        AppendableSeries series = (AppendableSeries) source;
+        int removed = tracker.getRemovedItemCount(series);
+        int first = tracker.getItemCount() - removed;
+        int appended = tracker.getAppendedItemCount(series);
+        tracker.mark(series);
+        int index = indexOfSeries(source);
+        if (appended < 0 || index < 0) {
+            return null;
+        }
+        return new DatasetAppendEvent(this, this, index, first,
+                first + appended - 1, removed);
+    }
+
+    /**
+     * Notifies the listeners of a change, or records the change if a batch
+     * is open.
+     *
+     * @param event  the event.
+     */
+    protected void notifyListeners(DatasetChangeEvent event) {
+        if (isUpdating()) {
+            this.coalescer.datasetChanged(event);
+        }
+        else {
+            super.notifyListeners(event);
+        }
+    }
+
+    /**
+     * Returns the index of a series in this collection.
+     *
+     * @param series  the series.
+     *
+     * @return The index, or <code>-1</code>.
+     */
+    private int indexOfSeries(Object series) {
+        if (this.seriesIndices == null) {
+            this.seriesIndices = new IdentityHashMap();
+            for (int i = getSeriesCount() - 1; i >= 0; i--) {
+                this.seriesIndices.put(getSeries(i), Integer.valueOf(i));
+            }
+        }
+        Integer index = (Integer) this.seriesIndices.get(series);
+        return index != null ? index.intValue() : -1;
+    }
+
+    /**
+     * Returns the append trackers, creating them for the current series if
+     * necessary.
+     *
+     * @return The trackers.
+     */
+    private Map getTrackers() {
+        if (this.trackers == null) {
+            this.trackers = new IdentityHashMap();
+            for (int i = 0; i < getSeriesCount(); i++) {
+                XYSeries s = getSeries(i);
+                if (s instanceof AppendableSeries) {
+                    this.trackers.put(s, new SeriesAppendTracker(
+                            (AppendableSeries) s));
+                }
+            }
+        }
+        return this.trackers;
+    }
+
+    /**
+     * Returns the change record, creating it if necessary.
+     *
+     * @return The change record.
+     */
+    private DatasetChangeCoalescer getCoalescer() {
+        if (this.coalescer == null) {
+            this.coalescer = new DatasetChangeCoalescer();
+        }
+        return this.coalescer;
+    }
+
+}
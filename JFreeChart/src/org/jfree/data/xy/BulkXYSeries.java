@@ -0,0 +1,165 @@
+package org.jfree.data.xy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jfree.data.general.SeriesException;
+
+/**
+ * An {@link XYSeries} that can add many items at once with
+ * {@link #addAll(double[], double[])}.  Adding <code>m</code> items to a
+ * series of <code>n</code> items one at a time costs a search, an insertion
+ * and a change event for each item;  {@link #addAll(double[], double[])}
+ * sorts the new items once (which takes linear time if they are already in
+ * order), merges them with the existing items in <code>O(n + m)</code>,
+ * applies the maximum item count once and sends one change event.
+ */
+public class BulkXYSeries extends XYSeries {
+
+    /** For serialization. */
+    private static final long serialVersionUID = -1280655124786330113L;
+
+    /**
+     * Creates a new empty series, sorted by x-value and allowing duplicate
+     * x-values.
+     *
+     * @param key  the series key (<code>null</code> not permitted).
+     */
+    public BulkXYSeries(Comparable key) {
+        super(key);
+    }
+
+    /**
+     * Creates a new empty series.
+     *
+     * @param key  the series key (<code>null</code> not permitted).
+     * @param autoSort  a flag that controls whether or not the items in the
+     *                  series are sorted by x-value.
+     * @param allowDuplicateXValues  a flag that controls whether duplicate
+     *                               x-values are allowed.
+     */
+    public BulkXYSeries(Comparable key, boolean autoSort,
+            boolean allowDuplicateXValues) {
+        super(key, autoSort, allowDuplicateXValues);
+    }
+
+    /**
+     * Adds a number of items to the series and sends a single change event
+     * to all registered listeners.  The items are added in the same
+     * positions as {@link #add(double, double)} would add them one at a
+     * time.  If any of the x-values is not allowed (because the series does
+     * not allow duplicate x-values), the series is not changed.
+     *
+     * @param x  the x-values (<code>null</code> not permitted).
+     * @param y  the y-values (<code>null</code> not permitted, same length
+     *           as <code>x</code>).
+     *
+     * @throws SeriesException if the series does not allow duplicate
+     *         x-values and an x-value is already in the series or appears
+     *         more than once in <code>x</code>.
+     */
+    public void addAll(double[] x, double[] y) {
+        if (x == null) {
+            throw new IllegalArgumentException("Null 'x' argument.");
+        }
+        if (y == null) {
+            throw new IllegalArgumentException("Null 'y' argument.");
+        }
+        if (x.length != y.length) {
+            throw new IllegalArgumentException(
+                    "The 'x' and 'y' arrays must have the same length.");
+        }
+        if (x.length == 0) {
+            return;
+        }
+        XYDataItem[] items = new XYDataItem[x.length];
+        for (int i = 0; i < x.length; i++) {
+            items[i] = new XYDataItem(x[i], y[i]);
+        }
+        List merged;
+        if (getAutoSort()) {
+            // a stable sort keeps equal x-values in the order given
+            Arrays.sort(items);
+            merged = merge(this.data, items);
+        }
+        else {
+            if (!getAllowDuplicateXValues()) {
+                checkUnique(x);
+            }
+            merged = new ArrayList(this.data.size() + items.length);
+            merged.addAll(this.data);
+            merged.addAll(Arrays.asList(items));
+        }
+        int excess = merged.size() - getMaximumItemCount();
+        if (excess > 0) {
+            merged.subList(0, excess).clear();
+        }
+        this.data = merged;
+        fireSeriesChanged();
+    }
+
+    /**
+     * Merges the existing (sorted) items with new sorted items.  An existing
+     * item comes before a new item with the same x-value.
+     *
+     * @param existing  the existing items.
+     * @param items  the new items.
+     *
+     * @return A new list containing all the items.
+     */
+    private List merge(List existing, XYDataItem[] items) {
+        boolean allowDuplicates = getAllowDuplicateXValues();
+        int n = existing.size();
+        List result = new ArrayList(n + items.length);
+        int i = 0;
+        int j = 0;
+        double previous = Double.NaN;
+        while (i < n || j < items.length) {
+            XYDataItem item;
+            if (j == items.length || (i < n && ((XYDataItem) existing.get(i))
+                    .compareTo(items[j]) <= 0)) {
+                item = (XYDataItem) existing.get(i++);
+            }
+            else {
+                item = items[j++];
+            }
+            double value = item.getX().doubleValue();
+            if (!allowDuplicates && value == previous) {
+                throw new SeriesException("X-value already exists.");
+            }
+            previous = value;
+            result.add(item);
+        }
+        return result;
+    }
+
+    /**
+     * Checks that the new x-values are not already in the series, and do
+     * not repeat.
+     *
+     * @param x  the new x-values.
+     *
+     * @throws SeriesException if an x-value is repeated.
+     */
+    private void checkUnique(double[] x) {
+        // sorted, equal values are neighbours (compared by their bits, as
+        // the Double.equals() test in add() does)
+        int n = this.data.size();
+        long[] all = new long[n + x.length];
+        for (int i = 0; i < n; i++) {
+            all[i] = Double.doubleToLongBits(
+                    ((XYDataItem) this.data.get(i)).getX().doubleValue());
+        }
+        for (int i = 0; i < x.length; i++) {
+            all[n + i] = Double.doubleToLongBits(x[i]);
+        }
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            if (all[i] == all[i - 1]) {
+                throw new SeriesException("X-value already exists.");
+            }
+        }
+    }
+
+}
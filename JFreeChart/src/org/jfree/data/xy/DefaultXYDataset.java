@@ -0,0 +1,291 @@
+package org.jfree.data.xy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jfree.data.DomainOrder;
+import org.jfree.data.DoubleArrayValues;
+import org.jfree.data.general.DatasetChangeEvent;
+
+/**
+ * An {@link XYDataset} that reads each series directly from a
+ * <code>double[2][]</code> array, where <code>data[0]</code> holds the
+ * x-values and <code>data[1]</code> the y-values.  The arrays are not
+ * copied, and no {@link Number} objects are created unless
+ * {@link #getX(int, int)} or {@link #getY(int, int)} is called, so this is
+ * the lightest way to chart large primitive arrays.
+ * <P>
+ * If the arrays for a series are changed after the series has been added,
+ * call {@link #seriesChanged(int)} so that listeners are notified.
+ */
+public class DefaultXYDataset extends AbstractXYDataset {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 4726104318542376208L;
+
+    /** The series keys. */
+    private List seriesKeys;
+
+    /** The series data (each item is a <code>double[2][]</code>). */
+    private List seriesList;
+
+    /**
+     * Creates a new empty dataset.
+     */
+    public DefaultXYDataset() {
+        this.seriesKeys = new ArrayList();
+        this.seriesList = new ArrayList();
+    }
+
+    /**
+     * Returns the number of series in the dataset.
+     *
+     * @return The series count.
+     */
+    public int getSeriesCount() {
+        return this.seriesList.size();
+    }
+
+    /**
+     * Returns the key for a series.
+     *
+     * @param series  the series index (zero-based).
+     *
+     * @return The key for the series.
+     */
+    public Comparable getSeriesKey(int series) {
+        if (series < 0 || series >= getSeriesCount()) {
+            throw new IllegalArgumentException("Series index out of bounds");
+        }
+        return (Comparable) this.seriesKeys.get(series);
+    }
+
+    /**
+     * Returns the index of the series with the given key.
+     *
+     * @param seriesKey  the key (<code>null</code> permitted).
+     *
+     * @return The index, or <code>-1</code>.
+     */
+    public int indexOf(Comparable seriesKey) {
+        return this.seriesKeys.indexOf(seriesKey);
+    }
+
+    /**
+     * Returns the order of the domain values.  The order is not checked,
+     * so this method returns {@link DomainOrder#NONE}.
+     *
+     * @return The domain order.
+     */
+    public DomainOrder getDomainOrder() {
+        return DomainOrder.NONE;
+    }
+
+    /**
+     * Returns the number of items in a series.
+     *
+     * @param series  the series index (zero-based).
+     *
+     * @return The item count.
+     */
+    public int getItemCount(int series) {
+        return getData(series)[0].length;
+    }
+
+    /**
+     * Returns an x-value.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The x-value.
+     */
+    public double getXValue(int series, int item) {
+        return getData(series)[0][item];
+    }
+
+    /**
+     * Returns an x-value as a {@link Number}.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The x-value (never <code>null</code>).
+     */
+    public Number getX(int series, int item) {
+        return DoubleArrayValues.valueOf(getXValue(series, item));
+    }
+
+    /**
+     * Returns a y-value.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The y-value.
+     */
+    public double getYValue(int series, int item) {
+        return getData(series)[1][item];
+    }
+
+    /**
+     * Returns a y-value as a {@link Number}.
+     *
+     * @param series  the series index (zero-based).
+     * @param item  the item index (zero-based).
+     *
+     * @return The y-value (never <code>null</code>).
+     */
+    public Number getY(int series, int item) {
+        return DoubleArrayValues.valueOf(getYValue(series, item));
+    }
+
+    /**
+     * Adds a series, or replaces the data of an existing series with the
+     * same key, and sends a {@link DatasetChangeEvent} to all registered
+     * listeners.
+     *
+     * @param seriesKey  the series key (<code>null</code> not permitted).
+     * @param data  the data (<code>null</code> not permitted, must be an
+     *              array of length 2, with two arrays of equal length
+     *              holding the x-values and y-values).
+     */
+    public void addSeries(Comparable seriesKey, double[][] data) {
+        if (seriesKey == null) {
+            throw new IllegalArgumentException(
+                    "Null 'seriesKey' argument.");
+        }
+        if (data == null) {
+            throw new IllegalArgumentException("Null 'data' argument.");
+        }
+        if (data.length != 2) {
+            throw new IllegalArgumentException(
+                    "The 'data' array must have length == 2.");
+        }
+        if (data[0] == null || data[1] == null
+                || data[0].length != data[1].length) {
+            throw new IllegalArgumentException(
+                "The 'data' array must contain two arrays with equal length.");
+        }
+        int index = indexOf(seriesKey);
+        if (index == -1) {
+            this.seriesKeys.add(seriesKey);
+            this.seriesList.add(data);
+        }
+        else {
+            this.seriesList.set(index, data);
+        }
+        notifyListeners(new DatasetChangeEvent(this, this));
+    }
+
+    /**
+     * Adds a series with the given x-values and y-values (the arrays are
+     * not copied).
+     *
+     * @param seriesKey  the series key (<code>null</code> not permitted).
+     * @param x  the x-values (<code>null</code> not permitted).
+     * @param y  the y-values (<code>null</code> not permitted, same length
+     *           as <code>x</code>).
+     */
+    public void addSeries(Comparable seriesKey, double[] x, double[] y) {
+        addSeries(seriesKey, new double[][] {x, y});
+    }
+
+    /**
+     * Removes a series and sends a {@link DatasetChangeEvent} to all
+     * registered listeners.
+     *
+     * @param seriesKey  the series key.
+     */
+    public void removeSeries(Comparable seriesKey) {
+        int index = indexOf(seriesKey);
+        if (index >= 0) {
+            this.seriesKeys.remove(index);
+            this.seriesList.remove(index);
+            notifyListeners(new DatasetChangeEvent(this, this));
+        }
+    }
+
+    /**
+     * Sends a {@link DatasetChangeEvent} to all registered listeners.  Call
+     * this after changing the arrays for a series directly.
+     *
+     * @param series  the series index (zero-based).
+     */
+    public void seriesChanged(int series) {
+        getData(series);
+        notifyListeners(new DatasetChangeEvent(this, this));
+    }
+
+    /**
+     * Returns the data for a series.
+     *
+     * @param series  the series index (zero-based).
+     *
+     * @return The data.
+     */
+    private double[][] getData(int series) {
+        return (double[][]) this.seriesList.get(series);
+    }
+
+    /**
+     * Tests this dataset for equality with an arbitrary object.
+     *
+     * @param obj  the object (<code>null</code> permitted).
+     *
+     * @return A boolean.
+     */
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof DefaultXYDataset)) {
+            return false;
+        }
+        DefaultXYDataset that = (DefaultXYDataset) obj;
+        if (!this.seriesKeys.equals(that.seriesKeys)) {
+            return false;
+        }
+        for (int i = 0; i < this.seriesList.size(); i++) {
+            double[][] d1 = (double[][]) this.seriesList.get(i);
+            double[][] d2 = (double[][]) that.seriesList.get(i);
+            if (!Arrays.equals(d1[0], d2[0])) {
+                return false;
+            }
+            if (!Arrays.equals(d1[1], d2[1])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a hash code for this dataset.
+     *
+     * @return A hash code.
+     */
+    public int hashCode() {
+        return 29 * this.seriesKeys.hashCode() + this.seriesList.size();
+    }
+
+    /**
+     * Returns a clone of this dataset, with its own copy of the data.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException if the dataset cannot be cloned.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        DefaultXYDataset clone = (DefaultXYDataset) super.clone();
+        clone.seriesKeys = new ArrayList(this.seriesKeys);
+        clone.seriesList = new ArrayList(this.seriesList.size());
+        for (int i = 0; i < this.seriesList.size(); i++) {
+            double[][] data = (double[][]) this.seriesList.get(i);
+            clone.seriesList.add(new double[][] {data[0].clone(),
+                    data[1].clone()});
+        }
+        return clone;
+    }
+
+}
@@ -0,0 +1,865 @@
+package org.jfree.data.xy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.jfree.data.DoubleArrayValues;
+import org.jfree.data.general.AppendableSeries;
+import org.jfree.data.general.SeriesException;
+
+/**
+ * An {@link XYSeries} that keeps its x-values and y-values in two
+ * <code>double[]</code> arrays instead of a list of {@link XYDataItem}
+ * objects, so that each item takes 16 bytes instead of an item and two
+ * {@link Number} objects.  The series can be added to an
+ * {@link XYSeriesCollection} like any other {@link XYSeries}, and has the
+ * same rules for sorting, duplicate x-values and the maximum item count.
+ * When the series is sorted, items are found by a binary search on the
+ * x-values.
+ * <P>
+ * {@link #getXValue(int)} and {@link #getYValue(int)} read the arrays
+ * without creating objects;  {@link #getDataItem(int)},
+ * {@link #getX(int)} and {@link #getY(int)} create their results when they
+ * are called, so changing the returned {@link XYDataItem} does not change
+ * the series.  A <code>null</code> y-value is stored as
+ * <code>Double.NaN</code>, and <code>Double.NaN</code> is returned as a
+ * <code>null</code> y-value.
+ * <P>
+ * The series counts the changes that do more than add items after the
+ * last item, and the oldest items removed to make room for them (see
+ * {@link AppendableSeries}), so that
+ * {@link BatchXYSeriesCollection} can report appends to its listeners.
+ */
+public class DoubleXYSeries extends XYSeries implements AppendableSeries {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 2837612849264610392L;
+
+    /** The default initial capacity. */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /** The x-values. */
+    private double[] xValues;
+
+    /** The y-values. */
+    private double[] yValues;
+
+    /** The number of items. */
+    private int count;
+
+    /** The number of changes other than appends. */
+    private long rewriteCount;
+
+    /** The number of items removed to make room for appended items. */
+    private long removedOldestCount;
+
+    /**
+     * Creates a new empty series, sorted by x-value and allowing duplicate
+     * x-values.
+     *
+     * @param key  the series key (<code>null</code> not permitted).
+     */
+    public DoubleXYSeries(Comparable key) {
+        this(key, true, true);
+    }
+
+    /**
+     * Creates a new empty series.
+     *
+     * @param key  the series key (<code>null</code> not permitted).
+     * @param autoSort  a flag that controls whether or not the items in the
+     *                  series are sorted by x-value.
+     * @param allowDuplicateXValues  a flag that controls whether duplicate
+     *                               x-values are allowed.
+     */
+    public DoubleXYSeries(Comparable key, boolean autoSort,
+            boolean allowDuplicateXValues) {
+        this(key, autoSort, allowDuplicateXValues, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new empty series with room for a number of items.
+     *
+     * @param key  the series key (<code>null</code> not permitted).
+     * @param autoSort  a flag that controls whether or not the items in the
+     *                  series are sorted by x-value.
+     * @param allowDuplicateXValues  a flag that controls whether duplicate
+     *                               x-values are allowed.
+     * @param initialCapacity  the number of items to allocate space for.
+     */
+    public DoubleXYSeries(Comparable key, boolean autoSort,
+            boolean allowDuplicateXValues, int initialCapacity) {
+        super(key, autoSort, allowDuplicateXValues);
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException(
+                    "Requires 'initialCapacity' >= 0.");
+        }
+        this.xValues = new double[initialCapacity];
+        this.yValues = new double[initialCapacity];
+    }
+
+    /**
+     * Returns the number of items in the series.
+     *
+     * @return The item count.
+     */
+    public int getItemCount() {
+        return this.count;
+    }
+
+    /**
+     * Returns the number of changes made to the series, other than adding
+     * items after the last item.
+     *
+     * @return The rewrite count.
+     */
+    public long getRewriteCount() {
+        return this.rewriteCount;
+    }
+
+    /**
+     * Returns the number of items removed from the start of the series to
+     * keep it within the maximum item count as items were added.
+     *
+     * @return The removed item count.
+     */
+    public long getRemovedOldestCount() {
+        return this.removedOldestCount;
+    }
+
+    /**
+     * Returns a list of new data items, one for each item in the series.
+     *
+     * @return The items (an unmodifiable list).
+     */
+    public List getItems() {
+        List result = new ArrayList(this.count);
+        for (int i = 0; i < this.count; i++) {
+            result.add(getDataItem(i));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Sets the maximum number of items in the series.  If there are more
+     * items than this, the oldest are removed and a change event is sent to
+     * all registered listeners.
+     *
+     * @param maximum  the maximum number of items.
+     */
+    public void setMaximumItemCount(int maximum) {
+        super.setMaximumItemCount(maximum);
+        if (this.count > maximum) {
+            removeItems(0, this.count - maximum);
+            fireSeriesChanged();
+        }
+    }
+
+    /**
+     * Returns an x-value.
+     *
+     * @param index  the item index (zero-based).
+     *
+     * @return The x-value.
+     */
+    public double getXValue(int index) {
+        checkIndex(index);
+        return this.xValues[index];
+    }
+
+    /**
+     * Returns a y-value.
+     *
+     * @param index  the item index (zero-based).
+     *
+     * @return The y-value (<code>Double.NaN</code> for a <code>null</code>
+     *         value).
+     */
+    public double getYValue(int index) {
+        checkIndex(index);
+        return this.yValues[index];
+    }
+
+    /**
+     * Returns the x-value for an item.
+     *
+     * @param index  the item index (zero-based).
+     *
+     * @return The x-value (never <code>null</code>).
+     */
+    public Number getX(int index) {
+        return DoubleArrayValues.valueOf(getXValue(index));
+    }
+
+    /**
+     * Returns the y-value for an item.
+     *
+     * @param index  the item index (zero-based).
+     *
+     * @return The y-value (possibly <code>null</code>).
+     */
+    public Number getY(int index) {
+        double y = getYValue(index);
+        return Double.isNaN(y) ? null : DoubleArrayValues.valueOf(y);
+    }
+
+    /**
+     * Returns a new data item for an item in the series.
+     *
+     * @param index  the item index (zero-based).
+     *
+     * @return The data item.
+     */
+    public XYDataItem getDataItem(int index) {
+        return new XYDataItem(getX(index), getY(index));
+    }
+
+    /**
+     * Adds an item to the series and, if requested, sends a change event
+     * to all registered listeners.
+     *
+     * @param x  the x-value.
+     * @param y  the y-value.
+     * @param notify  a flag that controls whether or not a change event is
+     *                sent.
+     *
+     * @throws SeriesException if the x-value is already in a series that
+     *         does not allow duplicate x-values.
+     */
+    public void add(double x, double y, boolean notify) {
+        int index;
+        if (getAutoSort()) {
+            index = search(x);
+            if (index >= 0) {
+                if (!getAllowDuplicateXValues()) {
+                    throw new SeriesException("X-value already exists.");
+                }
+                while (index < this.count && this.xValues[index] == x) {
+                    index++;
+                }
+            }
+            else {
+                index = -index - 1;
+            }
+        }
+        else {
+            if (!getAllowDuplicateXValues() && indexOf(x) >= 0) {
+                throw new SeriesException("X-value already exists.");
+            }
+            index = this.count;
+        }
+        insert(index, x, y);
+        if (this.count > getMaximumItemCount()) {
+            removeOldest(1);
+        }
+        if (notify) {
+            fireSeriesChanged();
+        }
+    }
+
+    /**
+     * Adds an item to the series and sends a change event to all registered
+     * listeners.
+     *
+     * @param x  the x-value.
+     * @param y  the y-value.
+     */
+    public void add(double x, double y) {
+        add(x, y, true);
+    }
+
+    /**
+     * Adds an item to the series and, if requested, sends a change event
+     * to all registered listeners.
+     *
+     * @param x  the x-value.
+     * @param y  the y-value (<code>null</code> permitted).
+     * @param notify  a flag that controls whether or not a change event is
+     *                sent.
+     */
+    public void add(double x, Number y, boolean notify) {
+        add(x, toDouble(y), notify);
+    }
+
+    /**
+     * Adds an item to the series and sends a change event to all registered
+     * listeners.
+     *
+     * @param x  the x-value.
+     * @param y  the y-value (<code>null</code> permitted).
+     */
+    public void add(double x, Number y) {
+        add(x, toDouble(y), true);
+    }
+
+    /**
+     * Adds an item to the series and, if requested, sends a change event
+     * to all registered listeners.
+     *
+     * @param x  the x-value (<code>null</code> not permitted).
+     * @param y  the y-value (<code>null</code> permitted).
+     * @param notify  a flag that controls whether or not a change event is
+     *                sent.
+     */
+    public void add(Number x, Number y, boolean notify) {
+        if (x == null) {
+            throw new IllegalArgumentException("Null 'x' argument.");
+        }
+        add(x.doubleValue(), toDouble(y), notify);
+    }
+
+    /**
+     * Adds an item to the series and sends a change event to all registered
+     * listeners.
+     *
+     * @param x  the x-value (<code>null</code> not permitted).
+     * @param y  the y-value (<code>null</code> permitted).
+     */
+    public void add(Number x, Number y) {
+        add(x, y, true);
+    }
+
+    /**
+     * Adds a data item to the series and, if requested, sends a change
+     * event to all registered listeners.  The item itself is not kept.
+     *
+     * @param item  the item (<code>null</code> not permitted).
+     * @param notify  a flag that controls whether or not a change event is
+     *                sent.
+     */
+    public void add(XYDataItem item, boolean notify) {
+        if (item == null) {
+            throw new IllegalArgumentException("Null 'item' argument.");
+        }
+        add(item.getX(), item.getY(), notify);
+    }
+
+    /**
+     * Adds a data item to the series and sends a change event to all
+     * registered listeners.
+     *
+     * @param item  the item (<code>null</code> not permitted).
+     */
+    public void add(XYDataItem item) {
+        add(item, true);
+    }
+
+    /**
+     * Adds a number of items to the series and sends a single change event
+     * to all registered listeners.  The items are added in the same
+     * positions as {@link #add(double, double)} would add them one at a
+     * time, but the new items are sorted once (which takes linear time if
+     * they are already in order), merged with the existing items in
+     * <code>O(n + m)</code>, and the maximum item count is applied once.
+     * If any of the x-values is not allowed, the series is not changed.
+     *
+     * @param x  the x-values (<code>null</code> not permitted).
+     * @param y  the y-values (<code>null</code> not permitted, same length
+     *           as <code>x</code>).
+     *
+     * @throws SeriesException if the series does not allow duplicate
+     *         x-values and an x-value is already in the series or appears
+     *         more than once in <code>x</code>.
+     */
+    public void addAll(double[] x, double[] y) {
+        if (x == null) {
+            throw new IllegalArgumentException("Null 'x' argument.");
+        }
+        if (y == null) {
+            throw new IllegalArgumentException("Null 'y' argument.");
+        }
+        if (x.length != y.length) {
+            throw new IllegalArgumentException(
+                    "The 'x' and 'y' arrays must have the same length.");
+        }
+        int m = x.length;
+        if (m == 0) {
+            return;
+        }
+        int size = this.count + m;
+        double[] newX = new double[Math.max(size, this.xValues.length)];
+        double[] newY = new double[newX.length];
+        boolean rewrite = false;
+        if (getAutoSort()) {
+            int[] order = sortedOrder(x);
+            rewrite = this.count > 0
+                    && !(x[order[0]] >= this.xValues[this.count - 1]);
+            boolean allowDuplicates = getAllowDuplicateXValues();
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < size; k++) {
+                if (j == m || (i < this.count
+                        && this.xValues[i] <= x[order[j]])) {
+                    newX[k] = this.xValues[i];
+                    newY[k] = this.yValues[i++];
+                }
+                else {
+                    newX[k] = x[order[j]];
+                    newY[k] = y[order[j++]];
+                }
+                if (!allowDuplicates && k > 0 && newX[k] == newX[k - 1]) {
+                    throw new SeriesException("X-value already exists.");
+                }
+            }
+        }
+        else {
+            if (!getAllowDuplicateXValues()) {
+                // sorted, equal values are neighbours (compared with ==, as
+                // in add(), so 0.0 and -0.0 are equal and NaN is unique)
+                double[] all = Arrays.copyOf(this.xValues, size);
+                System.arraycopy(x, 0, all, this.count, m);
+                Arrays.sort(all);
+                for (int i = 1; i < size; i++) {
+                    if (all[i] == all[i - 1]) {
+                        throw new SeriesException("X-value already exists.");
+                    }
+                }
+            }
+            System.arraycopy(this.xValues, 0, newX, 0, this.count);
+            System.arraycopy(this.yValues, 0, newY, 0, this.count);
+            System.arraycopy(x, 0, newX, this.count, m);
+            System.arraycopy(y, 0, newY, this.count, m);
+        }
+        this.xValues = newX;
+        this.yValues = newY;
+        this.count = size;
+        if (rewrite) {
+            this.rewriteCount++;
+        }
+        if (this.count > getMaximumItemCount()) {
+            removeOldest(this.count - getMaximumItemCount());
+        }
+        fireSeriesChanged();
+    }
+
+    /**
+     * Deletes a range of items from the series and sends a change event to
+     * all registered listeners.
+     *
+     * @param start  the index of the first item to delete.
+     * @param end  the index of the last item to delete.
+     */
+    public void delete(int start, int end) {
+        if (start < 0 || end >= this.count || start > end + 1) {
+            throw new IndexOutOfBoundsException("Invalid item range: "
+                    + start + " to " + end);
+        }
+        removeItems(start, end + 1);
+        fireSeriesChanged();
+    }
+
+    /**
+     * Removes an item from the series and sends a change event to all
+     * registered listeners.
+     *
+     * @param index  the item index (zero-based).
+     *
+     * @return The item that was removed.
+     */
+    public XYDataItem remove(int index) {
+        XYDataItem result = getDataItem(index);
+        removeItems(index, index + 1);
+        fireSeriesChanged();
+        return result;
+    }
+
+    /**
+     * Removes the item with the given x-value and sends a change event to
+     * all registered listeners.
+     *
+     * @param x  the x-value.
+     *
+     * @return The item that was removed.
+     */
+    public XYDataItem remove(Number x) {
+        return remove(indexOf(x));
+    }
+
+    /**
+     * Removes all the items from the series and, if the series was not
+     * already empty, sends a change event to all registered listeners.
+     */
+    public void clear() {
+        if (this.count > 0) {
+            this.count = 0;
+            this.rewriteCount++;
+            fireSeriesChanged();
+        }
+    }
+
+    /**
+     * Updates the y-value of an item and sends a change event to all
+     * registered listeners.
+     *
+     * @param index  the item index (zero-based).
+     * @param y  the new y-value (<code>null</code> permitted).
+     *
+     * @deprecated As in {@link XYSeries}, use
+     *     {@link #updateByIndex(int, Number)}.
+     */
+    @Deprecated
+    public void update(int index, Number y) {
+        updateByIndex(index, y);
+    }
+
+    /**
+     * Updates the y-value of an item and sends a change event to all
+     * registered listeners.
+     *
+     * @param index  the item index (zero-based).
+     * @param y  the new y-value (<code>null</code> permitted).
+     */
+    public void updateByIndex(int index, Number y) {
+        checkIndex(index);
+        this.yValues[index] = toDouble(y);
+        this.rewriteCount++;
+        fireSeriesChanged();
+    }
+
+    /**
+     * Updates the y-value of the item with the given x-value and sends a
+     * change event to all registered listeners.
+     *
+     * @param x  the x-value.
+     * @param y  the new y-value (<code>null</code> permitted).
+     *
+     * @throws SeriesException if there is no item with the x-value.
+     */
+    public void update(Number x, Number y) {
+        int index = indexOf(x);
+        if (index < 0) {
+            throw new SeriesException("No observation for x = " + x);
+        }
+        updateByIndex(index, y);
+    }
+
+    /**
+     * Updates the y-value of the item with the given x-value, or adds a new
+     * item if there is none, and sends a change event to all registered
+     * listeners.
+     *
+     * @param x  the x-value (<code>null</code> not permitted).
+     * @param y  the y-value (<code>null</code> permitted).
+     *
+     * @return The item before it was updated, or <code>null</code> if a new
+     *         item was added.
+     */
+    public XYDataItem addOrUpdate(Number x, Number y) {
+        if (x == null) {
+            throw new IllegalArgumentException("Null 'x' argument.");
+        }
+        int index = indexOf(x);
+        if (index >= 0) {
+            XYDataItem result = getDataItem(index);
+            updateByIndex(index, y);
+            return result;
+        }
+        if (getAutoSort()) {
+            insert(-index - 1, x.doubleValue(), toDouble(y));
+        }
+        else {
+            insert(this.count, x.doubleValue(), toDouble(y));
+        }
+        if (this.count > getMaximumItemCount()) {
+            removeOldest(1);
+        }
+        fireSeriesChanged();
+        return null;
+    }
+
+    /**
+     * Returns the index of the item with the given x-value.  For a sorted
+     * series, a negative result is <code>-(insertion point) - 1</code>, as
+     * for {@link java.util.Collections#binarySearch(List, Object)}.
+     *
+     * @param x  the x-value.
+     *
+     * @return The index, or a negative value if there is no such item.
+     */
+    public int indexOf(Number x) {
+        return indexOf(x.doubleValue());
+    }
+
+    /**
+     * Returns the index of the item with the given x-value.  For a sorted
+     * series, a negative result is <code>-(insertion point) - 1</code>.
+     *
+     * @param x  the x-value.
+     *
+     * @return The index, or a negative value if there is no such item.
+     */
+    public int indexOf(double x) {
+        if (getAutoSort()) {
+            return search(x);
+        }
+        for (int i = 0; i < this.count; i++) {
+            if (this.xValues[i] == x) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a copy of the x-values and y-values, as an array of length 2.
+     *
+     * @return The values (<code>result[0]</code> holds the x-values and
+     *         <code>result[1]</code> the y-values).
+     */
+    public double[][] toArray() {
+        return new double[][] {Arrays.copyOf(this.xValues, this.count),
+                Arrays.copyOf(this.yValues, this.count)};
+    }
+
+    /**
+     * Returns a clone of the series.
+     *
+     * @return A clone.
+     *
+     * @throws CloneNotSupportedException if the series cannot be cloned.
+     */
+    public Object clone() throws CloneNotSupportedException {
+        return createCopy(0, this.count - 1);
+    }
+
+    /**
+     * Creates a new series with a copy of some of the items in this series.
+     *
+     * @param start  the index of the first item to copy.
+     * @param end  the index of the last item to copy.
+     *
+     * @return The new series.
+     *
+     * @throws CloneNotSupportedException if the series cannot be cloned.
+     */
+    public XYSeries createCopy(int start, int end)
+            throws CloneNotSupportedException {
+        DoubleXYSeries copy = (DoubleXYSeries) super.createCopy(start, end);
+        if (start >= 0 && start <= end && end < this.count) {
+            copy.xValues = Arrays.copyOfRange(this.xValues, start, end + 1);
+            copy.yValues = Arrays.copyOfRange(this.yValues, start, end + 1);
+            copy.count = end - start + 1;
+        }
+        else {
+            copy.xValues = new double[DEFAULT_CAPACITY];
+            copy.yValues = new double[DEFAULT_CAPACITY];
+            copy.count = 0;
+        }
+        return copy;
+    }
+
+    /**
+     * Tests this series for equality with an arbitrary object.
+     *
+     * @param obj  the object (<code>null</code> permitted).
+     *
+     * @return A boolean.
+     */
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof DoubleXYSeries)) {
+            return false;
+        }
+        if (!super.equals(obj)) {
+            return false;
+        }
+        DoubleXYSeries that = (DoubleXYSeries) obj;
+        if (this.count != that.count) {
+            return false;
+        }
+        for (int i = 0; i < this.count; i++) {
+            if (Double.doubleToLongBits(this.xValues[i])
+                    != Double.doubleToLongBits(that.xValues[i])
+                    || Double.doubleToLongBits(this.yValues[i])
+                    != Double.doubleToLongBits(that.yValues[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a hash code.
+     *
+     * @return A hash code.
+     */
+    public int hashCode() {
+        int result = super.hashCode();
+        return 29 * result + this.count;
+    }
+
+    /**
+     * Searches the sorted x-values.
+     *
+     * @param x  the x-value.
+     *
+     * @return The index of an item with the x-value, or
+     *         <code>-(insertion point) - 1</code>.
+     */
+    private int search(double x) {
+        int low = 0;
+        int high = this.count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            double value = this.xValues[mid];
+            if (value < x) {
+                low = mid + 1;
+            }
+            else if (value > x) {
+                high = mid - 1;
+            }
+            else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Returns the order of some x-values, sorted by value (items with equal
+     * values keep their order).
+     *
+     * @param x  the x-values.
+     *
+     * @return The indices of the values, in sorted order.
+     */
+    private static int[] sortedOrder(double[] x) {
+        int[] result = new int[x.length];
+        boolean sorted = true;
+        for (int i = 0; i < x.length; i++) {
+            result[i] = i;
+            if (i > 0 && x[i] < x[i - 1]) {
+                sorted = false;
+            }
+        }
+        if (!sorted) {
+            sortOrder(result, new int[x.length], 0, x.length, x);
+        }
+        return result;
+    }
+
+    /**
+     * Sorts part of an array of indices by x-value with a merge sort, so
+     * that items with equal values (or a <code>NaN</code> value) keep their
+     * order.
+     *
+     * @param order  the indices.
+     * @param work  an array of the same length, for the merge.
+     * @param from  the first array index to sort.
+     * @param to  the array index after the last one to sort.
+     * @param x  the x-values.
+     */
+    private static void sortOrder(int[] order, int[] work, int from, int to,
+            double[] x) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sortOrder(order, work, from, mid, x);
+        sortOrder(order, work, mid, to, x);
+        if (!(x[order[mid]] < x[order[mid - 1]])) {
+            return;
+        }
+        System.arraycopy(order, from, work, from, to - from);
+        int i = from;
+        int j = mid;
+        for (int k = from; k < to; k++) {
+            if (j == to || (i < mid && !(x[work[j]] < x[work[i]]))) {
+                order[k] = work[i++];
+            }
+            else {
+                order[k] = work[j++];
+            }
+        }
+    }
+
+    /**
+     * Inserts an item, growing the arrays if necessary.
+     *
+     * @param index  the index for the new item.
+     * @param x  the x-value.
+     * @param y  the y-value.
+     */
+    private void insert(int index, double x, double y) {
+        if (this.count == this.xValues.length) {
+            int capacity = Math.max(DEFAULT_CAPACITY,
+                    this.count + (this.count >> 1));
+            this.xValues = Arrays.copyOf(this.xValues, capacity);
+            this.yValues = Arrays.copyOf(this.yValues, capacity);
+        }
+        if (index < this.count) {
+            System.arraycopy(this.xValues, index, this.xValues, index + 1,
+                    this.count - index);
+            System.arraycopy(this.yValues, index, this.yValues, index + 1,
+                    this.count - index);
+            this.rewriteCount++;
+        }
+        this.xValues[index] = x;
+        this.yValues[index] = y;
+        this.count++;
+    }
+
+    /**
+     * Removes a range of items, without sending an event.
+     *
+     * @param start  the index of the first item to remove.
+     * @param end  the index after the last item to remove.
+     */
+    private void removeItems(int start, int end) {
+        shift(start, end);
+        this.rewriteCount++;
+    }
+
+    /**
+     * Removes the oldest items to make room for added items, without
+     * sending an event.
+     *
+     * @param n  the number of items to remove.
+     */
+    private void removeOldest(int n) {
+        shift(0, n);
+        this.removedOldestCount += n;
+    }
+
+    /**
+     * Moves the items after a range down over it.
+     *
+     * @param start  the index of the first item to overwrite.
+     * @param end  the index after the last item to overwrite.
+     */
+    private void shift(int start, int end) {
+        System.arraycopy(this.xValues, end, this.xValues, start,
+                this.count - end);
+        System.arraycopy(this.yValues, end, this.yValues, start,
+                this.count - end);
+        this.count -= end - start;
+    }
+
+    /**
+     * Checks an item index.
+     *
+     * @param index  the item index.
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= this.count) {
+            throw new IndexOutOfBoundsException("Index: " + index
+                    + ", Size: " + this.count);
+        }
+    }
+
+    /**
+     * Converts a y-value to a <code>double</code>.
+     *
+     * @param y  the y-value (<code>null</code> permitted).
+     *
+     * @return The value, or <code>Double.NaN</code> for <code>null</code>.
+     */
+    private static double toDouble(Number y) {
+        return y == null ? Double.NaN : y.doubleValue();
+    }
+
+}
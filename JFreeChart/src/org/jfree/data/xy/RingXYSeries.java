@@ -0,0 +1,76 @@
+package org.jfree.data.xy;
+
+import org.jfree.data.RingBufferList;
+
+/**
+ * An {@link XYSeries} that keeps its items in a {@link RingBufferList}, so
+ * that removing the oldest item takes constant time.  Use this class for a
+ * rolling window (see {@link #setMaximumItemCount(int)}):  once the series
+ * is full, {@link XYSeries} shifts every item each time a new item pushes
+ * out the oldest one, while this class only moves the start of the window.
+ * Items are still accessed by their index in the window, so
+ * {@link #getDataItem(int)} and {@link #getX(int)} return the same items
+ * as for an {@link XYSeries}.
+ * <P>
+ * For a sorted series, new items that are not the largest are inserted by
+ * shifting the items on the shorter side of the insertion point.
+ */
+public class RingXYSeries extends XYSeries {
+
+    /** For serialization. */
+    private static final long serialVersionUID = 7361559202364428117L;
+
+    /**
+     * Creates a new empty series, sorted by x-value and allowing duplicate
+     * x-values.
+     *
+     * @param key  the series key (<code>null</code> not permitted).
+     */
+    public RingXYSeries(Comparable key) {
+        this(key, true, true);
+    }
+
+    /**
+     * Creates a new empty series that allows duplicate x-values.
+     *
+     * @param key  the series key (<code>null</code> not permitted).
+     * @param autoSort  a flag that controls whether or not the items in the
+     *                  series are sorted by x-value.
+     */
+    public RingXYSeries(Comparable key, boolean autoSort) {
+        this(key, autoSort, true);
+    }
+
+    /**
+     * Creates a new empty series.
+     *
+     * @param key  the series key (<code>null</code> not permitted).
+     * @param autoSort  a flag that controls whether or not the items in the
+     *                  series are sorted by x-value.
+     * @param allowDuplicateXValues  a flag that controls whether duplicate
+     *                               x-values are allowed.
+     */
+    public RingXYSeries(Comparable key, boolean autoSort,
+            boolean allowDuplicateXValues) {
+        super(key, autoSort, allowDuplicateXValues);
+        this.data = new RingBufferList();
+    }
+
+    /**
+     * Creates a new series with copies of some of the items in this series.
+     *
+     * @param start  the index of the first item to copy.
+     * @param end  the index of the last item to copy.
+     *
+     * @return The new series.
+     *
+     * @throws CloneNotSupportedException if the series cannot be cloned.
+     */
+    public XYSeries createCopy(int start, int end)
+            throws CloneNotSupportedException {
+        XYSeries copy = super.createCopy(start, end);
+        ((RingXYSeries) copy).data = new RingBufferList(copy.getItems());
+        return copy;
+    }
+
+}